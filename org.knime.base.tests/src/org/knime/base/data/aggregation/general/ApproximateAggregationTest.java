@@ -0,0 +1,168 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.data.aggregation.general;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests the sketches used by the {@link ApproximateUniqueCountOperator} and the {@link ApproximateTopKOperator}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ApproximateAggregationTest {
+
+    /**
+     * Tests that small cardinalities are counted exactly.
+     */
+    @Test
+    public void testSmallCardinalityIsExact() {
+        final HyperLogLog sketch = new HyperLogLog(14);
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int i = 0; i < 500; i++) {
+                sketch.add(new StringCell("value" + i));
+            }
+        }
+        assertEquals(500, sketch.estimate());
+    }
+
+    /**
+     * Tests the relative error of large cardinalities.
+     */
+    @Test
+    public void testLargeCardinality() {
+        for (final int precision : new int[]{10, 14}) {
+            final HyperLogLog sketch = new HyperLogLog(precision);
+            final int nrValues = 1000000;
+            for (int i = 0; i < nrValues; i++) {
+                sketch.add(new LongCell(i));
+            }
+            final double error = Math.abs(sketch.estimate() - nrValues) / (double)nrValues;
+            // five times the standard error
+            assertTrue("Error too large: " + error, error < 5 * 1.04 / Math.sqrt(1 << precision));
+        }
+    }
+
+    /**
+     * Tests that merging two sketches equals a single sketch over all values.
+     */
+    @Test
+    public void testMergeUniqueCount() {
+        final HyperLogLog all = new HyperLogLog(12);
+        final HyperLogLog first = new HyperLogLog(12);
+        final HyperLogLog second = new HyperLogLog(12);
+        for (int i = 0; i < 100000; i++) {
+            final DataCell cell = new StringCell(Integer.toString(i % 30000));
+            all.add(cell);
+            (i % 2 == 0 ? first : second).add(cell);
+        }
+        first.merge(second);
+        assertEquals(all.estimate(), first.estimate());
+        // merge of a sparse into a sparse sketch
+        final HyperLogLog small = new HyperLogLog(12);
+        small.add(new StringCell("a"));
+        final HyperLogLog other = new HyperLogLog(12);
+        other.add(new StringCell("a"));
+        other.add(new StringCell("b"));
+        small.merge(other);
+        assertEquals(2, small.estimate());
+    }
+
+    /**
+     * Tests that frequent values are found in a skewed distribution.
+     */
+    @Test
+    public void testTopK() {
+        final Random random = new Random(42);
+        final SpaceSaving counter = new SpaceSaving(100);
+        for (int i = 0; i < 200000; i++) {
+            final int value;
+            if (i % 4 == 0) {
+                // noise with many distinct values
+                value = 1000 + random.nextInt(100000);
+            } else {
+                // values 0..4 occur with decreasing frequency
+                value = Integer.numberOfTrailingZeros(random.nextInt() | 0x10);
+            }
+            counter.add(new LongCell(value));
+        }
+        final List<DataCell> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(new LongCell(i));
+        }
+        assertEquals(expected, counter.getTopK(5));
+    }
+
+    /**
+     * Tests that ties are ordered by their first occurrence and that merging keeps exact counts while the capacity
+     * suffices.
+     */
+    @Test
+    public void testMergeTopK() {
+        final SpaceSaving first = new SpaceSaving(10);
+        final SpaceSaving second = new SpaceSaving(10);
+        for (final String value : new String[]{"b", "a", "c", "a"}) {
+            first.add(new StringCell(value));
+        }
+        for (final String value : new String[]{"c", "c", "b"}) {
+            second.add(new StringCell(value));
+        }
+        assertEquals(Arrays.asList(new StringCell("a"), new StringCell("b"), new StringCell("c")),
+            first.getTopK(3));
+        first.merge(second);
+        assertEquals(Arrays.asList(new StringCell("c"), new StringCell("b")), first.getTopK(2));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.data.aggregation.general;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the selection and the quantile sketch used by the {@link AbstractMedianOperator}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class MedianSelectionTest {
+
+    /**
+     * Tests that the selected value is the one of the sorted array and that the array is partitioned around it.
+     */
+    @Test
+    public void testSelect() {
+        final Random random = new Random(42);
+        for (int iteration = 0; iteration < 1000; iteration++) {
+            final int size = 1 + random.nextInt(500);
+            // some spare elements at the end that must be ignored
+            final long[] values = new long[size + 3];
+            final int mode = iteration % 4;
+            for (int i = 0; i < values.length; i++) {
+                if (mode == 0) {
+                    values[i] = random.nextLong();
+                } else if (mode == 1) {
+                    // many duplicates
+                    values[i] = random.nextInt(5);
+                } else if (mode == 2) {
+                    values[i] = i;
+                } else {
+                    values[i] = -i;
+                }
+            }
+            final long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            final int k = random.nextInt(size);
+            final long selected = AbstractMedianOperator.select(values, size, k);
+            assertEquals(sorted[k], selected);
+            for (int i = 0; i < size; i++) {
+                assertTrue(i < k ? values[i] <= selected : values[i] >= selected);
+            }
+        }
+    }
+
+    /**
+     * Tests that the sketch is exact as long as no level has been compacted and approximates the median afterwards.
+     */
+    @Test
+    public void testSketch() {
+        final LongQuantileSketch exact = new LongQuantileSketch(1024);
+        for (int i = 999; i >= 0; i--) {
+            exact.add(i);
+        }
+        assertEquals(1000, exact.getCount());
+        assertEquals(499, exact.getValue(499));
+        assertEquals(500, exact.getValue(500));
+
+        final Random random = new Random(42);
+        final int size = 1_000_000;
+        final long[] values = new long[size];
+        final LongQuantileSketch sketch = new LongQuantileSketch(1024);
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextLong();
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        final int rank = Arrays.binarySearch(values, sketch.getValue(size / 2));
+        assertTrue("Rank error too large: " + rank, Math.abs(rank - size / 2) < size / 100);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.csv.reader.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.filehandling.core.connections.DefaultFSConnectionFactory;
+import org.knime.filehandling.core.connections.FSConnection;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.node.table.reader.config.DefaultTableReadConfig;
+import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
+import org.knime.filehandling.core.node.table.reader.read.Read;
+import org.knime.filehandling.core.node.table.reader.read.ReadPushdown;
+
+/**
+ * Tests that the {@link CSVTableReader} reads the same rows with and without a projection pushed down, except that
+ * the values of the columns that are not required are {@code null}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class CSVTableReaderTest {
+
+    /** Contains short rows, a long row, empty rows and rows that consist of delimiters only. */
+    private static final String CONTENT = String.join("\n", //
+        "id,a,b,c,d", //
+        "r0,1,2,3,4", //
+        "r1,5", //
+        "", //
+        "r2,\"6,7\",8,,9", //
+        ",,,,", //
+        "r3", //
+        "   ", //
+        "r4,10,11,12,13,14,15", //
+        ",,", //
+        "r5,16,17,18,19") + "\n";
+
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    private FSConnection m_connection;
+
+    private FSPath m_file;
+
+    /**
+     * Writes the test file.
+     *
+     * @throws IOException if the file can't be written
+     */
+    @Before
+    public void setup() throws IOException {
+        m_connection = DefaultFSConnectionFactory.createLocalFSConnection();
+        final Path file = m_tempFolder.getRoot().toPath().resolve("test.csv");
+        Files.write(file, CONTENT.getBytes(StandardCharsets.UTF_8));
+        m_file = m_connection.getFileSystem().getPath(file.toAbsolutePath().toString());
+    }
+
+    /**
+     * Closes the connection.
+     *
+     * @throws Exception if the connection can't be closed
+     */
+    @After
+    public void tearDown() throws Exception {
+        m_connection.close();
+    }
+
+    /**
+     * Tests projections on the row ID column, which is the first one.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testProjectionWithRowIDColumn() throws IOException {
+        final DefaultTableReadConfig<CSVTableReaderConfig> config = createConfig();
+        config.setUseRowIDIdx(true);
+        config.setRowIDIdx(0);
+        testProjection(config, 0);
+        testProjection(config, 0, 2);
+        testProjection(config, 0, 4);
+        testProjection(config, 0, 1, 2, 3, 4);
+    }
+
+    /**
+     * Tests projections without the first column.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testProjectionWithoutRowIDColumn() throws IOException {
+        final DefaultTableReadConfig<CSVTableReaderConfig> config = createConfig();
+        testProjection(config, 1);
+        testProjection(config, 1, 3);
+        testProjection(config, 4);
+        // columns that only exist in the long row
+        testProjection(config, 2, 6);
+    }
+
+    /**
+     * Tests projections if the column header and the first rows are skipped.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testProjectionWithSkippedRows() throws IOException {
+        final DefaultTableReadConfig<CSVTableReaderConfig> config = createConfig();
+        config.setUseColumnHeaderIdx(true);
+        config.setColumnHeaderIdx(0);
+        config.setSkipRows(true);
+        config.setNumRowsToSkip(2);
+        testProjection(config, 0, 3);
+    }
+
+    private static DefaultTableReadConfig<CSVTableReaderConfig> createConfig() {
+        final CSVTableReaderConfig csvConfig = new CSVTableReaderConfig();
+        csvConfig.setDelimiter(",");
+        csvConfig.setQuote("\"");
+        csvConfig.setQuoteEscape("\"");
+        csvConfig.setLineSeparator("\n");
+        return new DefaultTableReadConfig<>(csvConfig);
+    }
+
+    private void testProjection(final DefaultTableReadConfig<CSVTableReaderConfig> config,
+        final int... requiredColumns) throws IOException {
+        final ReadPushdown pushdown = ReadPushdown.projection(requiredColumns);
+        final List<RandomAccessible<String>> expectedRows = readAll(config, ReadPushdown.none());
+        final List<RandomAccessible<String>> actualRows = readAll(config, pushdown);
+        assertEquals("Projection must not change the number of rows", expectedRows.size(), actualRows.size());
+        for (int r = 0; r < expectedRows.size(); r++) {
+            final RandomAccessible<String> expected = expectedRows.get(r);
+            final RandomAccessible<String> actual = actualRows.get(r);
+            assertEquals("Projection must not change the size of row " + r, expected.size(), actual.size());
+            for (int c = 0; c < expected.size(); c++) {
+                if (pushdown.isRequired(c)) {
+                    assertEquals("Wrong value in row " + r + " column " + c, expected.get(c), actual.get(c));
+                } else {
+                    assertNull("Column " + c + " is not required", actual.get(c));
+                }
+            }
+        }
+    }
+
+    private List<RandomAccessible<String>> readAll(final DefaultTableReadConfig<CSVTableReaderConfig> config,
+        final ReadPushdown pushdown) throws IOException {
+        final List<RandomAccessible<String>> rows = new ArrayList<>();
+        try (final Read<String> read = new CSVTableReader().read(m_file, config, pushdown)) {
+            RandomAccessible<String> row;
+            while ((row = read.next()) != null) {
+                // the rows are only valid until the next one is read
+                rows.add(row.copy());
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.filereader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.knime.base.node.util.BufferedFileReader;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.context.ports.PortsConfiguration;
+import org.knime.core.node.workflow.WorkflowManager;
+import org.knime.core.util.tokenizer.Delimiter;
+import org.knime.filehandling.core.connections.FSCategory;
+import org.knime.filehandling.core.connections.FSLocation;
+import org.knime.filehandling.core.defaultnodesettings.EnumConfig;
+import org.knime.filehandling.core.defaultnodesettings.filechooser.reader.SettingsModelReaderFileChooser;
+import org.knime.filehandling.core.defaultnodesettings.filtermode.SettingsModelFilterMode.FilterMode;
+import org.knime.filehandling.core.testing.WorkflowTestUtil;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Tests the {@link FileAnalyzer} and the {@link FileSample} it analyzes.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FileAnalyzerTest {
+
+    /** A sample size that is much smaller than the test files. */
+    private static final int SAMPLE_SIZE = 100;
+
+    /** The length of each line in the large test files, including the line feed. */
+    private static final int LINE_LENGTH = 8;
+
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    @Mock
+    private PortsConfiguration m_portsConfig;
+
+    private WorkflowManager m_workflowManager;
+
+    /**
+     * Loads a dummy workflow, which is needed to access the local file system.
+     *
+     * @throws IOException if the workflow can't be created
+     */
+    @Before
+    public void setup() throws IOException {
+        m_workflowManager = WorkflowTestUtil.createAndLoadDummyWorkflow(m_tempFolder.newFolder().toPath());
+        when(m_portsConfig.getInputPortLocation()).thenReturn(Collections.emptyMap());
+    }
+
+    /**
+     * Unloads the dummy workflow.
+     */
+    @After
+    public void tearDown() {
+        WorkflowTestUtil.shutdownWorkflowManager(m_workflowManager);
+    }
+
+    /**
+     * Tests that a file larger than the sample is cut at the last complete line and that the result tells that not
+     * all rows were analyzed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testFileLargerThanSample() throws Exception {
+        final FileReaderNodeSettings settings = createSettings(writeFile("large.csv", createLines(100)));
+
+        try (final FileSample sample = FileSample.read(settings, SAMPLE_SIZE)) {
+            assertFalse("Sample of a large file must be incomplete", sample.isComplete());
+            assertTrue("Sample of an uncompressed file must be in memory", sample.isInMemory());
+            final List<String> lines = readLines(sample);
+            assertEquals("Sample must end with the last complete line", SAMPLE_SIZE / LINE_LENGTH, lines.size());
+            assertEquals(createLines(100).subList(0, lines.size()), lines);
+        }
+
+        final FileReaderNodeSettings result = FileAnalyzer.analyze(settings, null, SAMPLE_SIZE);
+        assertFalse("Analysis of a sample must not claim to have read all rows", result.analyzeUsedAllRows());
+        assertEquals(2, result.getNumberOfColumns());
+        assertEquals(Collections.singletonList(","), getColumnDelimiters(result));
+    }
+
+    /**
+     * Tests that a file that fits into the sample is read completely.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testFileSmallerThanSample() throws Exception {
+        final FileReaderNodeSettings settings = createSettings(writeFile("small.csv", createLines(5)));
+
+        try (final FileSample sample = FileSample.read(settings, SAMPLE_SIZE)) {
+            assertTrue("Sample of a small file must be complete", sample.isComplete());
+            assertTrue("Sample of an uncompressed file must be in memory", sample.isInMemory());
+            assertEquals(createLines(5), readLines(sample));
+        }
+
+        final FileReaderNodeSettings result = FileAnalyzer.analyze(settings, null, SAMPLE_SIZE);
+        assertTrue("Analysis of the entire file must say so", result.analyzeUsedAllRows());
+        assertEquals(2, result.getNumberOfColumns());
+    }
+
+    /**
+     * Tests that a compressed file larger than the sample is read from the file, i.e. entirely.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCompressedFileLargerThanSample() throws Exception {
+        final Path file = m_tempFolder.getRoot().toPath().resolve("large.csv.gz");
+        try (final OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            // random looking lines so that the compressed file is larger than the sample
+            for (int i = 0; i < 1000; i++) {
+                out.write((Integer.toHexString(i * 7919) + "," + Integer.toHexString(i * 104729) + "\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+        assertTrue(Files.size(file) > SAMPLE_SIZE);
+        final FileReaderNodeSettings settings = createSettings(file);
+
+        try (final FileSample sample = FileSample.read(settings, SAMPLE_SIZE)) {
+            assertTrue("Compressed file must be read entirely", sample.isComplete());
+            assertFalse("Compressed file must not be cut", sample.isInMemory());
+            assertEquals(1000, readLines(sample).size());
+        }
+
+        final FileReaderNodeSettings result = FileAnalyzer.analyze(settings, null, SAMPLE_SIZE);
+        assertTrue("Analysis of the entire file must say so", result.analyzeUsedAllRows());
+        assertEquals(2, result.getNumberOfColumns());
+    }
+
+    /**
+     * Tests that the delimiter candidates, which are tested concurrently, are chosen in the order of their priority,
+     * i.e. semicolon before comma, if both split the lines consistently.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSemicolonCommaAmbiguity() throws Exception {
+        // both split each line consistently, the semicolon has priority
+        assertDelimiter(";", 2, "a;b,c\n1;2,3\n4;5,6\n");
+        assertDelimiter(";", 3, "1,5;2,5;3,5\n4,5;5,5;6,5\n");
+        // the semicolon doesn't split the lines consistently
+        assertDelimiter(",", 3, "a;b,c,d\n1,2,3\n4,5,6\n");
+        // the semicolon doesn't split the lines at all
+        assertDelimiter(",", 2, "a,b\n1,2\n3,4\n");
+        // only the semicolon splits the lines
+        assertDelimiter(";", 2, "a;b\n1;2\n3;4\n");
+    }
+
+    private void assertDelimiter(final String expectedDelimiter, final int expectedNumberOfColumns,
+        final String content) throws Exception {
+        final FileReaderNodeSettings result =
+            FileAnalyzer.analyze(createSettings(writeFile("ambiguous.csv", content)), null, SAMPLE_SIZE);
+        assertEquals(content, Collections.singletonList(expectedDelimiter), getColumnDelimiters(result));
+        assertEquals(content, expectedNumberOfColumns, result.getNumberOfColumns());
+    }
+
+    private FileReaderNodeSettings createSettings(final Path file) {
+        final SettingsModelReaderFileChooser fileChooser = new SettingsModelReaderFileChooser("file_selection",
+            m_portsConfig, "foobar", EnumConfig.create(FilterMode.FILE), EnumSet.of(FSCategory.LOCAL));
+        fileChooser.setLocation(new FSLocation(FSCategory.LOCAL, file.toAbsolutePath().toString()));
+        return new FileReaderNodeSettings(fileChooser);
+    }
+
+    private Path writeFile(final String name, final String content) throws IOException {
+        return Files.write(m_tempFolder.getRoot().toPath().resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path writeFile(final String name, final List<String> lines) throws IOException {
+        return writeFile(name, String.join("\n", lines) + "\n");
+    }
+
+    /**
+     * @return lines of {@link #LINE_LENGTH} characters (including the line feed) with two columns
+     */
+    private static List<String> createLines(final int numberOfLines) {
+        final List<String> lines = new ArrayList<>(numberOfLines);
+        for (int i = 0; i < numberOfLines; i++) {
+            lines.add(String.format("%03d,%03d", i, 2 * i));
+        }
+        return lines;
+    }
+
+    private static List<String> readLines(final FileSample sample) throws IOException, InvalidSettingsException {
+        final List<String> lines = new ArrayList<>();
+        try (final BufferedFileReader reader = sample.createReader(null)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> getColumnDelimiters(final FileReaderNodeSettings settings) {
+        final List<String> delimiters = new ArrayList<>();
+        for (final Delimiter delimiter : settings.getAllDelimiters()) {
+            if (!settings.isRowDelimiter(delimiter.getDelimiter(), false)) {
+                delimiters.add(delimiter.getDelimiter());
+            }
+        }
+        return delimiters;
+    }
+}
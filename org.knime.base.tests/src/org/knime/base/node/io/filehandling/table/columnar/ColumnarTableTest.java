@@ -0,0 +1,218 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.table.columnar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.BooleanCell.BooleanCellFactory;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests the {@link ColumnarTableWriter} and the {@link ColumnarTableReader}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ColumnarTableTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("boolean", BooleanCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("int", IntCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("long", LongCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("double", DoubleCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("string", StringCell.TYPE).createSpec());
+
+    private Path m_file;
+
+    /**
+     * Creates the file to write to.
+     *
+     * @throws IOException if the file cannot be created
+     */
+    @Before
+    public void createFile() throws IOException {
+        m_file = Files.createTempFile("columnar", ".table");
+    }
+
+    /**
+     * Deletes the written file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(m_file);
+    }
+
+    private static DataRow createRow(final int i) {
+        final DataCell[] cells = new DataCell[]{//
+            i % 5 == 0 ? DataType.getMissingCell() : BooleanCellFactory.create(i % 2 == 0), //
+            i % 7 == 0 ? DataType.getMissingCell() : new IntCell(i), //
+            new LongCell(Long.MAX_VALUE - i), //
+            new DoubleCell(i / 3.0), //
+            i % 3 == 0 ? DataType.getMissingCell() : new StringCell("r\u00e9ad " + i)};
+        return new DefaultRow("Row" + i, cells);
+    }
+
+    private void write(final int numRows, final int maxRowsPerChunk) throws IOException {
+        try (final OutputStream out = Files.newOutputStream(m_file);
+                final ColumnarTableWriter writer = new ColumnarTableWriter(out, SPEC, maxRowsPerChunk)) {
+            for (int i = 0; i < numRows; i++) {
+                writer.addRow(createRow(i));
+            }
+        }
+    }
+
+    /**
+     * Tests that a table spanning several chunks is read as it has been written.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        write(1000, 64);
+        assertTrue(ColumnarTableReader.isColumnarTable(m_file));
+        try (final ColumnarTableReader reader = ColumnarTableReader.open(m_file);
+                final CloseableRowIterator rows = reader.iterator()) {
+            assertEquals(SPEC, reader.getDataTableSpec());
+            assertEquals(1000, reader.size());
+            assertEquals(16, reader.getNumChunks());
+            int i = 0;
+            while (rows.hasNext()) {
+                final DataRow row = rows.next();
+                final DataRow expected = createRow(i);
+                assertEquals(expected.getKey(), row.getKey());
+                for (int c = 0; c < SPEC.getNumColumns(); c++) {
+                    assertEquals(expected.getCell(c), row.getCell(c));
+                }
+                i++;
+            }
+            assertEquals(1000, i);
+        }
+    }
+
+    /**
+     * Tests the statistics of the chunks and that rejected chunks are skipped.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void testChunkStatistics() throws IOException {
+        write(100, 10);
+        try (final ColumnarTableReader reader = ColumnarTableReader.open(m_file)) {
+            final ColumnStatistics intStats = reader.getStatistics(2, 1);
+            assertEquals(10, intStats.getNumRows());
+            // rows 21 and 28 are missing
+            assertEquals(2, intStats.getNumMissing());
+            assertEquals(20, intStats.getMin(), 0);
+            assertEquals(29, intStats.getMax(), 0);
+            assertTrue(intStats.mightContain(25, 40));
+            assertFalse(intStats.mightContain(30, 40));
+            // the bounds of long values that cannot be represented as double must still enclose them
+            final ColumnStatistics longStats = reader.getStatistics(0, 2);
+            assertTrue(longStats.getMax() >= Long.MAX_VALUE);
+            assertTrue(longStats.mightContain(Long.MAX_VALUE, Long.MAX_VALUE));
+            assertFalse(reader.getStatistics(0, 4).hasMinMax());
+
+            final List<String> keys = new ArrayList<>();
+            try (final CloseableRowIterator rows =
+                reader.iterator(c -> reader.getStatistics(c, 1).mightContain(55, 62))) {
+                rows.forEachRemaining(r -> keys.add(r.getKey().getString()));
+            }
+            assertEquals(20, keys.size());
+            assertEquals("Row50", keys.get(0));
+            assertEquals("Row69", keys.get(19));
+        }
+    }
+
+    /**
+     * Tests that an empty table can be written and read.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    @Test
+    public void testEmptyTable() throws IOException {
+        write(0, 10);
+        try (final ColumnarTableReader reader = ColumnarTableReader.open(m_file);
+                final CloseableRowIterator rows = reader.iterator()) {
+            assertEquals(SPEC, reader.getDataTableSpec());
+            assertEquals(0, reader.size());
+            assertFalse(rows.hasNext());
+        }
+    }
+
+    /**
+     * Tests that unsupported columns are reported.
+     */
+    @Test
+    public void testUnsupportedColumns() {
+        final DataTableSpec spec = new DataTableSpec(new DataColumnSpecCreator("int", IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("other", DataType.getType(DataCell.class)).createSpec());
+        assertEquals(List.of("other"), ColumnarTableWriter.getUnsupportedColumns(spec));
+    }
+}
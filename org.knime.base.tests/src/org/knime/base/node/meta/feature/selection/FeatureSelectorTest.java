@@ -0,0 +1,239 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.meta.feature.selection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.util.Pair;
+
+/**
+ * Tests that evaluating several candidates per iteration of a sequential feature selection selects the same features
+ * as evaluating one candidate per iteration.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class FeatureSelectorTest {
+
+    private static final int NUM_FEATURES = 7;
+
+    private static final String CONSTANT_COLUMN = "target";
+
+    private static final DataTableSpec SPEC = createSpec();
+
+    private static DataTableSpec createSpec() {
+        final DataColumnSpec[] colSpecs = new DataColumnSpec[NUM_FEATURES + 1];
+        for (int i = 0; i < NUM_FEATURES; i++) {
+            colSpecs[i] = new DataColumnSpecCreator("feature" + i, DoubleCell.TYPE).createSpec();
+        }
+        colSpecs[NUM_FEATURES] = new DataColumnSpecCreator(CONSTANT_COLUMN, DoubleCell.TYPE).createSpec();
+        return new DataTableSpec(colSpecs);
+    }
+
+    /**
+     * Forward selection of all features.
+     */
+    @Test
+    public void testForwardSelection() {
+        testBatchedEqualsSequential(features -> new FFSStrategy(-1, features), false);
+        testBatchedEqualsSequential(features -> new FFSStrategy(-1, features), true);
+    }
+
+    /**
+     * Forward selection with a threshold for the number of features.
+     */
+    @Test
+    public void testForwardSelectionWithThreshold() {
+        testBatchedEqualsSequential(features -> new FFSStrategy(3, features), false);
+    }
+
+    /**
+     * Backward elimination of all features.
+     */
+    @Test
+    public void testBackwardElimination() {
+        testBatchedEqualsSequential(features -> new FBSStrategy(-1, features), false);
+        testBatchedEqualsSequential(features -> new FBSStrategy(-1, features), true);
+    }
+
+    /**
+     * The number of scores must match the number of candidates of the iteration.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongNumberOfScores() {
+        final DefaultColumnHandler columnHandler = createColumnHandler();
+        final FeatureSelector selector =
+            new FeatureSelector(new FFSStrategy(-1, columnHandler.getAvailableFeatures()), columnHandler);
+        selector.setCandidatesPerIteration(3);
+        selector.setIsMinimize(false);
+        selector.addScores(new double[]{1, 2});
+    }
+
+    private static void testBatchedEqualsSequential(
+        final Function<List<Integer>, AbstractSequentialFeatureSelectionStrategy> strategyFactory,
+        final boolean isMinimize) {
+        final List<String> sequential = runSequential(strategyFactory, isMinimize);
+        for (int candidatesPerIteration = 2; candidatesPerIteration <= NUM_FEATURES + 1; candidatesPerIteration++) {
+            assertEquals("Different feature levels for " + candidatesPerIteration + " candidates per iteration.",
+                sequential, runBatched(strategyFactory, isMinimize, candidatesPerIteration));
+        }
+    }
+
+    private static List<String> runSequential(
+        final Function<List<Integer>, AbstractSequentialFeatureSelectionStrategy> strategyFactory,
+        final boolean isMinimize) {
+        final DefaultColumnHandler columnHandler = createColumnHandler();
+        final AbstractSequentialFeatureSelectionStrategy strategy =
+            strategyFactory.apply(columnHandler.getAvailableFeatures());
+        final FeatureSelector selector = new FeatureSelector(strategy, columnHandler);
+        selector.setIsMinimize(isMinimize);
+        assertFalse(selector.isBatched());
+        final int expectedIterations = selector.getNumberOfIterations();
+        int iterations = 0;
+        while (selector.continueLoop()) {
+            selector.addScore(score(columnHandler.getColumnNamesFor(strategy.getIncludedFeatures())));
+            iterations++;
+        }
+        assertEquals("Wrong number of iterations.", expectedIterations, iterations);
+        return toStrings(selector.getFeatureSelectionModel().featureLevels());
+    }
+
+    private static List<String> runBatched(
+        final Function<List<Integer>, AbstractSequentialFeatureSelectionStrategy> strategyFactory,
+        final boolean isMinimize, final int candidatesPerIteration) {
+        final DefaultColumnHandler columnHandler = createColumnHandler();
+        final AbstractSequentialFeatureSelectionStrategy strategy =
+            strategyFactory.apply(columnHandler.getAvailableFeatures());
+        final FeatureSelector selector = new FeatureSelector(strategy, columnHandler);
+        selector.setCandidatesPerIteration(candidatesPerIteration);
+        selector.setIsMinimize(isMinimize);
+        assertTrue(selector.isBatched());
+        final int expectedIterations = selector.getNumberOfIterations();
+        int iterations = 0;
+        while (selector.continueLoop()) {
+            final String[] candidateFeatures = selector.getCandidateFeatureNames();
+            assertTrue("Too many candidates.", candidateFeatures.length <= candidatesPerIteration);
+            final List<List<Integer>> candidates =
+                strategy.getCandidateBatch().subList(0, candidateFeatures.length);
+            final Set<String> union = new LinkedHashSet<>();
+            final double[] scores = new double[candidates.size()];
+            for (int i = 0; i < scores.length; i++) {
+                final Collection<String> names = columnHandler.getColumnNamesFor(candidates.get(i));
+                union.addAll(names);
+                scores[i] = score(names);
+            }
+            assertEquals("The first candidate must be the one of a sequential iteration.",
+                strategy.getIncludedFeatures(), candidates.get(0));
+            final Set<String> outColumns = new TreeSet<>(Arrays.asList(selector.getOutSpec(SPEC).getColumnNames()));
+            union.add(CONSTANT_COLUMN);
+            assertEquals("The output must contain the features of all candidates.", new TreeSet<>(union),
+                outColumns);
+            selector.addScores(scores);
+            iterations++;
+        }
+        assertEquals("Wrong number of iterations.", expectedIterations, iterations);
+        return toStrings(selector.getFeatureSelectionModel().featureLevels());
+    }
+
+    /**
+     * Tests that the candidate features name the feature added by each candidate of a forward selection.
+     */
+    @Test
+    public void testCandidateFeatureNames() {
+        final DefaultColumnHandler columnHandler = createColumnHandler();
+        final FeatureSelector selector =
+            new FeatureSelector(new FFSStrategy(-1, columnHandler.getAvailableFeatures()), columnHandler);
+        selector.setCandidatesPerIteration(3);
+        selector.setIsMinimize(false);
+        assertArrayEquals(new String[]{"feature0", "feature1", "feature2"}, selector.getCandidateFeatureNames());
+        selector.addScores(new double[]{0, 0, 0});
+        assertArrayEquals(new String[]{"feature3", "feature4", "feature5"}, selector.getCandidateFeatureNames());
+        selector.addScores(new double[]{0, 1, 0});
+        // the last iteration of the round only has a single candidate left
+        assertArrayEquals(new String[]{"feature6"}, selector.getCandidateFeatureNames());
+        selector.addScores(new double[]{0});
+        // feature4 won the first round
+        assertArrayEquals(new String[]{"feature0", "feature1", "feature2"}, selector.getCandidateFeatureNames());
+        assertEquals(new TreeSet<>(Arrays.asList("feature0", "feature1", "feature2", "feature4", CONSTANT_COLUMN)),
+            new TreeSet<>(Arrays.asList(selector.getOutSpec(SPEC).getColumnNames())));
+    }
+
+    private static DefaultColumnHandler createColumnHandler() {
+        return new DefaultColumnHandler(Arrays.asList(CONSTANT_COLUMN), SPEC);
+    }
+
+    /**
+     * A deterministic score of a feature subset that doesn't depend on the order of the features.
+     */
+    private static double score(final Collection<String> features) {
+        return new Random(new TreeSet<>(features).toString().hashCode()).nextDouble();
+    }
+
+    private static List<String> toStrings(final Collection<Pair<Double, Collection<String>>> featureLevels) {
+        final List<String> levels = new ArrayList<>(featureLevels.size());
+        for (final Pair<Double, Collection<String>> level : featureLevels) {
+            levels.add(level.getFirst() + " " + new TreeSet<>(level.getSecond()));
+        }
+        return levels;
+    }
+}
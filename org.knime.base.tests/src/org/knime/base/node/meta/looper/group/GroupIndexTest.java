@@ -0,0 +1,210 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.meta.looper.group;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.workflow.SingleNodeContainer;
+
+/**
+ * Tests the {@link GroupIndex} and the {@link IndexedGroupReader} used by the indexed path of the Group Loop Start.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class GroupIndexTest {
+
+    private static final int[] GROUP_COLS = {0};
+
+    private static ExecutionContext EXEC_CONTEXT;
+
+    /**
+     * Creates the execution context.
+     */
+    @BeforeClass
+    public static void setUpBeforeClass() {
+        EXEC_CONTEXT = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node(new GroupLoopStartNodeFactory()), SingleNodeContainer.MemoryPolicy.CacheSmallInMemory,
+            new HashMap<Integer, ContainerTable>());
+    }
+
+    /**
+     * Tests that the groups are ordered by their values and the row order within the groups is kept when sorting
+     * interleaved groups.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testValueOrder() throws Exception {
+        final BufferedDataTable table = createTable("b", "b", "a", "c", "a");
+        final GroupIndex index = GroupIndex.create(table, GROUP_COLS, false, EXEC_CONTEXT).get();
+        assertEquals(Arrays.asList("a", "b", "c"), getGroupValues(index));
+        assertEquals(2, index.getGroup(0).size());
+        assertEquals(2, index.getGroup(0).getFirstPosition());
+        assertEquals(4, index.getGroup(0).getLastPosition());
+        assertEquals(1, index.getGroupIndex(new DataCell[]{new StringCell("b")}));
+        assertFalse(index.isConsecutive());
+        assertEquals(Arrays.asList("Row2", "Row4", "Row0", "Row1", "Row3"),
+            getRowKeys(index.sort(table, GROUP_COLS, EXEC_CONTEXT)));
+    }
+
+    /**
+     * Tests that the groups are ordered by their first appearance.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testInputOrder() throws Exception {
+        final BufferedDataTable table = createTable("b", "b", "a", "c", "a");
+        final GroupIndex index = GroupIndex.create(table, GROUP_COLS, true, EXEC_CONTEXT).get();
+        assertEquals(Arrays.asList("b", "a", "c"), getGroupValues(index));
+        assertFalse(index.isConsecutive());
+        assertEquals(Arrays.asList("Row0", "Row1", "Row2", "Row4", "Row3"),
+            getRowKeys(index.sort(table, GROUP_COLS, EXEC_CONTEXT)));
+    }
+
+    /**
+     * Tests that consecutive groups are read one after another in a single pass.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testConsecutiveGroups() throws Exception {
+        final BufferedDataTable table = createTable("c", "c", "a", "b", "b", "b");
+        // the groups are consecutive in input order but not in ascending order
+        assertFalse(GroupIndex.create(table, GROUP_COLS, false, EXEC_CONTEXT).get().isConsecutive());
+        final GroupIndex index = GroupIndex.create(table, GROUP_COLS, true, EXEC_CONTEXT).get();
+        assertTrue(index.isConsecutive());
+
+        final List<DataCell> groupCells = new ArrayList<>();
+        final List<List<String>> groupRows = new ArrayList<>();
+        try (final IndexedGroupReader reader = new IndexedGroupReader(table, index)) {
+            while (reader.hasNext()) {
+                final BufferedDataContainer cont = EXEC_CONTEXT.createDataContainer(table.getDataTableSpec());
+                groupCells.add(reader.readNext(cont, EXEC_CONTEXT).getCells()[0]);
+                cont.close();
+                groupRows.add(getRowKeys(cont.getTable()));
+            }
+        }
+        assertEquals(Arrays.asList(new StringCell("c"), new StringCell("a"), new StringCell("b")), groupCells);
+        assertEquals(Arrays.asList(Arrays.asList("Row0", "Row1"), Arrays.asList("Row2"),
+            Arrays.asList("Row3", "Row4", "Row5")), groupRows);
+    }
+
+    /**
+     * Tests that groups that are not consecutive are rejected by the reader.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReaderRejectsInterleavedGroups() throws Exception {
+        final BufferedDataTable table = createTable("a", "b", "a");
+        new IndexedGroupReader(table, GroupIndex.create(table, GROUP_COLS, true, EXEC_CONTEXT).get()).close();
+    }
+
+    /**
+     * Tests that an empty table has no groups, which are trivially consecutive.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testEmptyTable() throws Exception {
+        final BufferedDataTable table = createTable();
+        final GroupIndex index = GroupIndex.create(table, GROUP_COLS, false, EXEC_CONTEXT).get();
+        assertEquals(0, index.getNumberOfGroups());
+        assertTrue(index.isConsecutive());
+        try (final IndexedGroupReader reader = new IndexedGroupReader(table, index)) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    private static BufferedDataTable createTable(final String... groups) {
+        final BufferedDataContainer cont = EXEC_CONTEXT.createDataContainer(
+            new DataTableSpec(new String[]{"group"}, new DataType[]{StringCell.TYPE}));
+        for (int i = 0; i < groups.length; i++) {
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), new StringCell(groups[i])));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static List<String> getGroupValues(final GroupIndex index) {
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < index.getNumberOfGroups(); i++) {
+            values.add(((StringCell)index.getGroup(i).getCells()[0]).getStringValue());
+        }
+        return values;
+    }
+
+    private static List<String> getRowKeys(final BufferedDataTable table) {
+        final List<String> keys = new ArrayList<>();
+        for (final DataRow row : table) {
+            keys.add(row.getKey().getString());
+        }
+        return keys;
+    }
+}
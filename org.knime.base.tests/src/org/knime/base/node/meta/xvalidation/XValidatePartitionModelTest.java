@@ -0,0 +1,249 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.meta.xvalidation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.base.node.preproc.sorter.SorterNodeFactory;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.node.workflow.SingleNodeContainer;
+
+/**
+ * Tests that the partitions of the {@link XValidatePartitionModel} are reproducible for a fixed seed and that they
+ * have not changed with the primitive stratified sampling.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class XValidatePartitionModelTest {
+
+    private static final String CLASS_COLUMN = "class";
+
+    private static final short VALIDATIONS = 7;
+
+    private static final long SEED = 4711;
+
+    /**
+     * Tests stratified sampling.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testStratified() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable table = createTable(exec, 1003);
+        final XValidateSettings settings = createSettings();
+        settings.stratifiedSampling(true);
+
+        final short[] partNumbers = createPartNumbers(settings, table, exec);
+        assertArrayEquals("Partitions differ for the same seed", partNumbers,
+            createPartNumbers(settings, table, exec));
+        assertArrayEquals("Partitions differ from the previous assignment",
+            previousStratifiedPartNumbers(table, VALIDATIONS, SEED), partNumbers);
+
+        // the classes are spread evenly over the partitions
+        final Map<DataCell, int[]> classCounts = new HashMap<>();
+        int r = 0;
+        for (final DataRow row : table) {
+            classCounts.computeIfAbsent(row.getCell(0), c -> new int[VALIDATIONS])[partNumbers[r++]]++;
+        }
+        for (final int[] counts : classCounts.values()) {
+            final IntSummaryStatistics stats = Arrays.stream(counts).summaryStatistics();
+            assertTrue("Class not stratified: " + Arrays.toString(counts), stats.getMax() - stats.getMin() <= 1);
+        }
+    }
+
+    /**
+     * Tests random sampling without stratification.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testRandom() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable table = createTable(exec, 1003);
+        final XValidateSettings settings = createSettings();
+
+        final short[] partNumbers = createPartNumbers(settings, table, exec);
+        assertArrayEquals("Partitions differ for the same seed", partNumbers,
+            createPartNumbers(settings, table, exec));
+        assertArrayEquals("Partitions differ from the previous assignment",
+            previousPartNumbers(table.getRowCount(), VALIDATIONS, true, SEED), partNumbers);
+    }
+
+    /**
+     * Tests linear sampling, which assigns consecutive rows to the same partition.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testLinear() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable table = createTable(exec, 1003);
+        final XValidateSettings settings = createSettings();
+        settings.randomSampling(false);
+
+        final short[] partNumbers = createPartNumbers(settings, table, exec);
+        assertArrayEquals("Partitions differ from the previous assignment",
+            previousPartNumbers(table.getRowCount(), VALIDATIONS, false, SEED), partNumbers);
+        for (int i = 1; i < partNumbers.length; i++) {
+            final int step = partNumbers[i] - partNumbers[i - 1];
+            assertTrue("Partitions not consecutive", step == 0 || step == 1);
+        }
+    }
+
+    private static XValidateSettings createSettings() {
+        final XValidateSettings settings = new XValidateSettings();
+        settings.validations(VALIDATIONS);
+        settings.classColumn(CLASS_COLUMN);
+        settings.useRandomSeed(true);
+        settings.randomSeed(SEED);
+        return settings;
+    }
+
+    private static short[] createPartNumbers(final XValidateSettings settings, final BufferedDataTable table,
+        final ExecutionContext exec) throws Exception {
+        final NodeSettings nodeSettings = new NodeSettings("xvalidate");
+        settings.saveSettingsTo(nodeSettings);
+        final XValidatePartitionModel model = new XValidatePartitionModel();
+        model.validateSettings(nodeSettings);
+        model.loadValidatedSettingsFrom(nodeSettings);
+        return model.createPartNumbers(table, exec);
+    }
+
+    /**
+     * The stratified assignment as it has been computed before the rows of the classes were collected in arrays.
+     */
+    private static short[] previousStratifiedPartNumbers(final BufferedDataTable table, final int validations,
+        final long seed) {
+        final Map<DataCell, List<Integer>> valueCounts = new LinkedHashMap<>();
+        int rowCount = 0;
+        for (final DataRow row : table) {
+            valueCounts.computeIfAbsent(row.getCell(0), c -> new ArrayList<>()).add(rowCount);
+            rowCount++;
+        }
+        for (final List<Integer> rows : valueCounts.values()) {
+            Collections.shuffle(rows, new Random(seed));
+        }
+        final short[] partNumbers = new short[rowCount];
+        int part = 0;
+        for (final List<Integer> rows : valueCounts.values()) {
+            for (final Integer i : rows) {
+                partNumbers[i] = (short)part++;
+                part %= validations;
+            }
+        }
+        return partNumbers;
+    }
+
+    /**
+     * The assignment without stratification as it has been computed before.
+     */
+    private static short[] previousPartNumbers(final int rowCount, final int validations, final boolean random,
+        final long seed) {
+        final short[] partNumbers = new short[rowCount];
+        final double partSize = rowCount / (double)validations;
+        for (int i = 0; i < rowCount; i++) {
+            partNumbers[i] = (short)Math.min(i / partSize, rowCount);
+        }
+        if (random) {
+            final Random rand = new Random(seed);
+            for (int i = 0; i < rowCount; i++) {
+                final int pos = rand.nextInt(rowCount);
+                final short x = partNumbers[pos];
+                partNumbers[pos] = partNumbers[i];
+                partNumbers[i] = x;
+            }
+        }
+        return partNumbers;
+    }
+
+    private static ExecutionContext createExecutionContext() {
+        return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(new SorterNodeFactory()),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<Integer, ContainerTable>());
+    }
+
+    /**
+     * Creates a table whose classes have different sizes and appear in an arbitrary order.
+     */
+    private static BufferedDataTable createTable(final ExecutionContext exec, final int nrRows) {
+        final DataTableSpec spec =
+            new DataTableSpec(new DataColumnSpecCreator(CLASS_COLUMN, StringCell.TYPE).createSpec());
+        final BufferedDataContainer cont = exec.createDataContainer(spec);
+        final Random random = new Random(42);
+        for (int r = 0; r < nrRows; r++) {
+            final double d = random.nextDouble();
+            final String cls = d < 0.6 ? "a" : (d < 0.85 ? "b" : (d < 0.98 ? "c" : "d"));
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)r), new StringCell(cls)));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.decisiontree2.predictor2;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+import org.knime.base.node.mine.decisiontree2.learner2.DecisionTreeLearnerNodeModel2;
+import org.knime.base.node.mine.decisiontree2.model.DecisionTreeNode;
+import org.knime.base.node.mine.util.PredictorParallelism;
+import org.knime.base.node.preproc.sorter.SorterNodeFactory;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.workflow.SingleNodeContainer;
+
+/**
+ * Tests that the parallel prediction of the {@link DecTreePredictorNodeModel} returns the same table and remembers
+ * the same rows for HiLiting as the sequential one.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class DecTreePredictorNodeModelTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("x", DoubleCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("y", DoubleCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("class", StringCell.TYPE).createSpec());
+
+    /** Gives access to the protected methods of the learner. */
+    private static final class Learner extends DecisionTreeLearnerNodeModel2 {
+
+        Learner() {
+            super(false);
+        }
+
+        PortObject learn(final BufferedDataTable table, final ExecutionContext exec) throws Exception {
+            final NodeSettings settings = new NodeSettings("learner");
+            saveSettingsTo(settings);
+            settings.addString(KEY_CLASSIFYCOLUMN, "class");
+            validateSettings(settings);
+            loadValidatedSettingsFrom(settings);
+            configure(new PortObjectSpec[]{table.getDataTableSpec()});
+            return execute(new PortObject[]{table}, exec)[0];
+        }
+    }
+
+    /** Restores the default number of workers. */
+    @After
+    public void resetWorkers() {
+        System.clearProperty(PredictorParallelism.PROPERTY_MAX_WORKERS);
+    }
+
+    /**
+     * Tests that the predictions, class distributions and the covered rows per tree node are the same.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testParallelEqualsSequential() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final Random random = new Random(42);
+        final PortObject model = new Learner().learn(createTable(exec, random, 300), exec);
+        final BufferedDataTable testTable = createTable(exec, random, 5000);
+
+        System.setProperty(PredictorParallelism.PROPERTY_MAX_WORKERS, "1");
+        final DecTreePredictorNodeModel sequential = createPredictor();
+        final BufferedDataTable expected =
+            (BufferedDataTable)sequential.execute(new PortObject[]{model, testTable}, exec)[0];
+        System.setProperty(PredictorParallelism.PROPERTY_MAX_WORKERS, "8");
+        final DecTreePredictorNodeModel parallel = createPredictor();
+        final BufferedDataTable actual =
+            (BufferedDataTable)parallel.execute(new PortObject[]{model, testTable}, exec)[0];
+
+        assertEquals(expected.getDataTableSpec(), actual.getDataTableSpec());
+        assertEquals(rows(expected), rows(actual));
+        // all rows are remembered for HiLiting, hence each node covers the same rows in both runs
+        assertEquals(coveredPatterns(sequential.getDecisionTree().getRootNode()),
+            coveredPatterns(parallel.getDecisionTree().getRootNode()));
+    }
+
+    private static DecTreePredictorNodeModel createPredictor() throws Exception {
+        final DecTreePredictorNodeModel predictor = new DecTreePredictorNodeModel();
+        final NodeSettings settings = new NodeSettings("predictor");
+        predictor.saveSettingsTo(settings);
+        settings.addBoolean(DecTreePredictorNodeModel.SHOW_DISTRIBUTION, true);
+        predictor.loadValidatedSettingsFrom(settings);
+        return predictor;
+    }
+
+    private static ExecutionContext createExecutionContext() {
+        return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(new SorterNodeFactory()),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<Integer, ContainerTable>());
+    }
+
+    /** The class is determined by the position relative to the diagonal, with some noise. */
+    private static BufferedDataTable createTable(final ExecutionContext exec, final Random random,
+        final int nrRows) {
+        final BufferedDataContainer cont = exec.createDataContainer(SPEC);
+        for (int r = 0; r < nrRows; r++) {
+            final double x = random.nextDouble();
+            final double y = random.nextDouble();
+            final boolean above = (y > x) ^ (random.nextInt(10) == 0);
+            cont.addRowToTable(
+                new DefaultRow("Row" + r, new DoubleCell(x), new DoubleCell(y), new StringCell(above ? "A" : "B")));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static List<List<DataCell>> rows(final BufferedDataTable table) {
+        final List<List<DataCell>> rows = new ArrayList<>();
+        try (final CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                final List<DataCell> cells = new ArrayList<>();
+                cells.add(new StringCell(row.getKey().getString()));
+                row.forEach(cells::add);
+                rows.add(cells);
+            }
+        }
+        return rows;
+    }
+
+    /** Collects the covered rows of all nodes in depth first order. */
+    private static List<Set<RowKey>> coveredPatterns(final DecisionTreeNode node) {
+        final List<Set<RowKey>> patterns = new ArrayList<>();
+        patterns.add(node.coveredPattern());
+        final Enumeration<DecisionTreeNode> children = node.children();
+        while (children != null && children.hasMoreElements()) {
+            patterns.addAll(coveredPatterns(children.nextElement()));
+        }
+        return patterns;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.neural.mlp2;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+import org.knime.base.node.mine.neural.rprop.RPropNodeModel;
+import org.knime.base.node.mine.util.PredictorParallelism;
+import org.knime.base.node.preproc.sorter.SorterNodeFactory;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.workflow.SingleNodeContainer;
+
+/**
+ * Tests that the parallel prediction of the {@link MLPPredictorNodeModel} returns the same table as the sequential
+ * one, for classification with class probabilities and for regression.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class MLPPredictorNodeModelTest {
+
+    /** Gives access to the protected methods of the learner, the last column is the target. */
+    private static final class Learner extends RPropNodeModel {
+
+        Learner() {
+            super(false);
+        }
+
+        PortObject learn(final BufferedDataTable table, final ExecutionContext exec) throws Exception {
+            configure(new PortObjectSpec[]{table.getDataTableSpec()});
+            return execute(new PortObject[]{table}, exec)[0];
+        }
+    }
+
+    /** Restores the default number of workers. */
+    @After
+    public void resetWorkers() {
+        System.clearProperty(PredictorParallelism.PROPERTY_MAX_WORKERS);
+    }
+
+    /**
+     * Tests a classification network with appended class probabilities.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testClassification() throws Exception {
+        assertParallelEqualsSequential(true);
+    }
+
+    /**
+     * Tests a regression network.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testRegression() throws Exception {
+        assertParallelEqualsSequential(false);
+    }
+
+    private static void assertParallelEqualsSequential(final boolean classification) throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final Random random = new Random(42);
+        final PortObject model = new Learner().learn(createTable(exec, random, 200, classification), exec);
+        final BufferedDataTable testTable = createTable(exec, random, 5000, classification);
+
+        System.setProperty(PredictorParallelism.PROPERTY_MAX_WORKERS, "1");
+        final BufferedDataTable expected =
+            (BufferedDataTable)new MLPPredictorNodeModel().execute(new PortObject[]{model, testTable}, exec)[0];
+        System.setProperty(PredictorParallelism.PROPERTY_MAX_WORKERS, "8");
+        final BufferedDataTable actual =
+            (BufferedDataTable)new MLPPredictorNodeModel().execute(new PortObject[]{model, testTable}, exec)[0];
+
+        assertEquals(expected.getDataTableSpec(), actual.getDataTableSpec());
+        assertEquals(rows(expected), rows(actual));
+    }
+
+    private static ExecutionContext createExecutionContext() {
+        return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(new SorterNodeFactory()),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<Integer, ContainerTable>());
+    }
+
+    /** The target is a nominal class determined by the position relative to the diagonal or the sum of x and y. */
+    private static BufferedDataTable createTable(final ExecutionContext exec, final Random random, final int nrRows,
+        final boolean classification) {
+        final DataTableSpec spec = new DataTableSpec(new DataColumnSpecCreator("x", DoubleCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("y", DoubleCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("target", classification ? StringCell.TYPE : DoubleCell.TYPE).createSpec());
+        final BufferedDataContainer cont = exec.createDataContainer(spec);
+        for (int r = 0; r < nrRows; r++) {
+            final double x = random.nextDouble();
+            final double y = random.nextDouble();
+            final DataCell target = classification ? new StringCell(y > x ? "A" : "B") : new DoubleCell(x + y);
+            cont.addRowToTable(new DefaultRow("Row" + r, new DoubleCell(x), new DoubleCell(y), target));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static List<List<DataCell>> rows(final BufferedDataTable table) {
+        final List<List<DataCell>> rows = new ArrayList<>();
+        try (final CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                final List<DataCell> cells = new ArrayList<>();
+                cells.add(new StringCell(row.getKey().getString()));
+                row.forEach(cells::add);
+                rows.add(cells);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.knime.base.node.parallel.ParallelChunkExecutor.ChunkProcessor;
+import org.knime.base.node.preproc.sorter.SorterNodeFactory;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Tests the adaptive chunk size, the output order, cancelation and failure handling of the
+ * {@link ParallelChunkExecutor}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ParallelChunkExecutorTest {
+
+    private static final DataTableSpec SPEC =
+        new DataTableSpec(new DataColumnSpecCreator("value", IntCell.TYPE).createSpec());
+
+    /**
+     * Tests that the chunks start small and then take about the target time, bounded by the maximum.
+     */
+    @Test
+    public void testChunkSize() {
+        final ParallelChunkExecutor.ChunkSizer sizer = new ParallelChunkExecutor.ChunkSizer(5000);
+        assertEquals(ParallelChunkExecutor.MIN_CHUNK_SIZE, sizer.getNextChunkSize());
+        // 10 microseconds per row
+        sizer.record(16, 16 * 10_000L);
+        assertEquals(ParallelChunkExecutor.TARGET_CHUNK_MILLIS * 100, sizer.getNextChunkSize());
+        // cheap rows are bounded by the maximum
+        sizer.record(100_000, 1_000L);
+        assertEquals(5000, sizer.getNextChunkSize());
+
+        // expensive rows are bounded by the minimum
+        final ParallelChunkExecutor.ChunkSizer expensive = new ParallelChunkExecutor.ChunkSizer(5000);
+        expensive.record(16, 16 * 1_000_000_000L);
+        assertEquals(ParallelChunkExecutor.MIN_CHUNK_SIZE, expensive.getNextChunkSize());
+
+        // the minimum never exceeds the maximum
+        assertEquals(4, new ParallelChunkExecutor.ChunkSizer(4).getNextChunkSize());
+    }
+
+    /**
+     * Tests that the output is written in input order although later chunks finish earlier.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testOutputOrder() throws Exception {
+        final ExecutionContext exec = createExecutionContext(new DefaultNodeProgressMonitor());
+        final BufferedDataTable table = createTable(exec, 1000);
+        final BufferedDataContainer out = exec.createDataContainer(SPEC);
+        execute(table, (rows, outputs, subExec) -> {
+            // the earlier chunks take longer
+            Thread.sleep(value(rows.get(0)) < 200 ? 5 : 0);
+            for (final DataRow row : rows) {
+                outputs[0].addRowToTable(new DefaultRow(row.getKey(), new IntCell(2 * value(row))));
+            }
+        }, out, exec);
+        out.close();
+        assertEquals(1000, out.getTable().size());
+        int i = 0;
+        try (final CloseableRowIterator it = out.getTable().iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                assertEquals(RowKey.createRowKey((long)i), row.getKey());
+                assertEquals(2 * i, value(row));
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Tests that the buffered rows of several outputs are written into the right containers, also if a chunk produces
+     * more or fewer rows than it has read.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testMultipleOutputs() throws Exception {
+        final ExecutionContext exec = createExecutionContext(new DefaultNodeProgressMonitor());
+        final BufferedDataTable table = createTable(exec, 1000);
+        final BufferedDataContainer doubled = exec.createDataContainer(SPEC);
+        final BufferedDataContainer even = exec.createDataContainer(SPEC);
+        final ThreadPool pool = new ThreadPool(4);
+        try {
+            new ParallelChunkExecutor(pool, 50).execute(table, (rows, outputs, subExec) -> {
+                for (final DataRow row : rows) {
+                    outputs[0].addRowToTable(new DefaultRow(row.getKey() + "_a", row.getCell(0)));
+                    outputs[0].addRowToTable(new DefaultRow(row.getKey() + "_b", row.getCell(0)));
+                    if (value(row) % 2 == 0) {
+                        outputs[1].addRowToTable(row);
+                    }
+                }
+            }, new BufferedDataContainer[]{doubled, even}, exec);
+        } finally {
+            pool.shutdown();
+        }
+        doubled.close();
+        even.close();
+        assertEquals(2000, doubled.getTable().size());
+        assertEquals(500, even.getTable().size());
+        int i = 0;
+        try (final CloseableRowIterator it = doubled.getTable().iterator()) {
+            while (it.hasNext()) {
+                assertEquals(i / 2, value(it.next()));
+                i++;
+            }
+        }
+        i = 0;
+        try (final CloseableRowIterator it = even.getTable().iterator()) {
+            while (it.hasNext()) {
+                assertEquals(2 * i, value(it.next()));
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Tests that a canceled execution stops reading further chunks and throws a {@link CanceledExecutionException}.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testCancel() throws Exception {
+        final DefaultNodeProgressMonitor monitor = new DefaultNodeProgressMonitor();
+        final ExecutionContext exec = createExecutionContext(monitor);
+        final BufferedDataTable table = createTable(exec, 10_000);
+        final BufferedDataContainer out = exec.createDataContainer(SPEC);
+        final AtomicInteger processed = new AtomicInteger();
+        try {
+            execute(table, (rows, outputs, subExec) -> {
+                monitor.setExecuteCanceled();
+                processed.addAndGet(rows.size());
+                subExec.checkCanceled();
+            }, out, exec);
+            fail("Expected the execution to be canceled");
+        } catch (CanceledExecutionException ex) { // NOSONAR expected
+        }
+        assertTrue("Too many rows processed after cancelation: " + processed.get(), processed.get() < table.size());
+    }
+
+    /**
+     * Tests that the exception of a failing chunk is thrown by the executor.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testFailingChunk() throws Exception {
+        final ExecutionContext exec = createExecutionContext(new DefaultNodeProgressMonitor());
+        final BufferedDataTable table = createTable(exec, 1000);
+        final BufferedDataContainer out = exec.createDataContainer(SPEC);
+        try {
+            execute(table, (rows, outputs, subExec) -> {
+                for (final DataRow row : rows) {
+                    if (value(row) == 500) {
+                        throw new IllegalStateException("Row 500 failed");
+                    }
+                    outputs[0].addRowToTable(row);
+                }
+            }, out, exec);
+            fail("Expected the failure of the chunk to be thrown");
+        } catch (IllegalStateException ex) {
+            assertEquals("Row 500 failed", ex.getMessage());
+        }
+        out.close();
+        // only the chunks before the failing one may have been written
+        assertTrue(out.getTable().size() <= 500);
+    }
+
+    private static void execute(final BufferedDataTable table, final ChunkProcessor processor,
+        final BufferedDataContainer out, final ExecutionContext exec) throws Exception {
+        final ThreadPool pool = new ThreadPool(4);
+        try {
+            new ParallelChunkExecutor(pool, 50).execute(table, processor, new BufferedDataContainer[]{out}, exec);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static ExecutionContext createExecutionContext(final DefaultNodeProgressMonitor monitor) {
+        return new ExecutionContext(monitor, new Node(new SorterNodeFactory()),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<Integer, ContainerTable>());
+    }
+
+    private static BufferedDataTable createTable(final ExecutionContext exec, final int nrRows) {
+        final BufferedDataContainer cont = exec.createDataContainer(SPEC);
+        for (int r = 0; r < nrRows; r++) {
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)r), new IntCell(r)));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static int value(final DataRow row) {
+        return ((IntValue)row.getCell(0)).getIntValue();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.filter.row2.operator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.knime.base.node.preproc.filter.row2.operator.RowPredicate.Outcome;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnDomainCreator;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+
+import com.google.common.collect.Range;
+
+/**
+ * Tests the domain based evaluation of {@link ColumnRowPredicate ColumnRowPredicates} and the
+ * {@link RowPredicatePlanner}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class RowPredicatePlannerTest {
+
+    private static DataColumnSpec createDoubleColumn(final double min, final double max) {
+        final DataColumnSpecCreator creator = new DataColumnSpecCreator("double", DoubleCell.TYPE);
+        creator.setDomain(new DataColumnDomainCreator(new DoubleCell(min), new DoubleCell(max)).createDomain());
+        return creator.createSpec();
+    }
+
+    private static DataColumnSpec createStringColumn(final String... values) {
+        final DataColumnSpecCreator creator = new DataColumnSpecCreator("string", StringCell.TYPE);
+        creator.setDomain(new DataColumnDomainCreator(
+            Arrays.stream(values).map(StringCell::new).toArray(DataCell[]::new)).createDomain());
+        return creator.createSpec();
+    }
+
+    private static DataRow row(final DataCell cell) {
+        return new DefaultRow(RowKey.createRowKey(0L), cell);
+    }
+
+    /**
+     * Tests that numeric conditions outside of the domain bounds are recognized.
+     */
+    @Test
+    public void testNumericDomain() {
+        final DataColumnSpec spec = createDoubleColumn(0, 10);
+        assertEquals(Outcome.ALWAYS_FALSE,
+            new ColumnRowPredicate(NumericRangePredicate.greater(10), 0, spec).getOutcome());
+        assertEquals(Outcome.ALWAYS_FALSE,
+            new ColumnRowPredicate(NumericRangePredicate.between(-5, -1), 0, spec).getOutcome());
+        assertEquals(Outcome.ROW_DEPENDENT,
+            new ColumnRowPredicate(NumericRangePredicate.greaterOrEqual(10), 0, spec).getOutcome());
+        // missing values might exist, hence a range covering the domain still depends on the row
+        assertEquals(Outcome.ROW_DEPENDENT,
+            new ColumnRowPredicate(NumericRangePredicate.less(20), 0, spec).getOutcome());
+        assertEquals(Outcome.ALWAYS_TRUE,
+            new ColumnRowPredicate(NumericRangePredicate.notEqual(11), 0, spec).getOutcome());
+        assertEquals(Outcome.ALWAYS_FALSE,
+            new ColumnRowPredicate(NumericRangePredicate.between(5, 3), 0, spec).getOutcome());
+        assertEquals(0.25,
+            new ColumnRowPredicate(NumericRangePredicate.between(2.5, 5), 0, spec).getSelectivity(), 1e-9);
+    }
+
+    /**
+     * Tests that the numeric predicates keep the semantics of the comparisons.
+     */
+    @Test
+    public void testNumericRangePredicate() {
+        assertTrue(NumericRangePredicate.greater(1).test(new DoubleCell(1.5)));
+        assertFalse(NumericRangePredicate.greater(1).test(new DoubleCell(1)));
+        assertFalse(NumericRangePredicate.greater(1).test(DataType.getMissingCell()));
+        assertTrue(NumericRangePredicate.lessOrEqual(1).test(new DoubleCell(1)));
+        assertTrue(NumericRangePredicate.between(1, 2).test(new DoubleCell(2)));
+        assertFalse(NumericRangePredicate.equal(Double.NaN).test(new DoubleCell(Double.NaN)));
+        assertTrue(NumericRangePredicate.notEqual(1).test(DataType.getMissingCell()));
+        assertTrue(NumericRangePredicate.notEqual(1).test(new DoubleCell(Double.NaN)));
+        assertFalse(NumericRangePredicate.notEqual(1).test(new StringCell("1")));
+    }
+
+    /**
+     * Tests that conditions are evaluated on the possible values of a column.
+     */
+    @Test
+    public void testPossibleValues() {
+        final DataColumnSpec spec = createStringColumn("a", "b", "c", "d");
+        final StringCell e = new StringCell("e");
+        assertEquals(Outcome.ALWAYS_FALSE, new ColumnRowPredicate(e::equals, 0, spec).getOutcome());
+        assertEquals(Outcome.ALWAYS_TRUE, new ColumnRowPredicate(c -> !e.equals(c), 0, spec).getOutcome());
+        final ColumnRowPredicate equalsA = new ColumnRowPredicate(new StringCell("a")::equals, 0, spec);
+        assertEquals(Outcome.ROW_DEPENDENT, equalsA.getOutcome());
+        assertEquals(0.25, equalsA.getSelectivity(), 1e-9);
+        // missing cells are not part of the possible values
+        assertEquals(Outcome.ROW_DEPENDENT, new ColumnRowPredicate(c -> !c.isMissing(), 0, spec).getOutcome());
+    }
+
+    /**
+     * Tests that groups are folded if the outcome of a condition decides the group.
+     */
+    @Test
+    public void testFolding() {
+        final DataColumnSpec spec = createDoubleColumn(0, 10);
+        final RowPredicate never = new ColumnRowPredicate(NumericRangePredicate.greater(10), 0, spec);
+        final RowPredicate always = new ColumnRowPredicate(NumericRangePredicate.notEqual(-1), 0, spec);
+        final RowPredicate depends = new ColumnRowPredicate(NumericRangePredicate.greater(5), 0, spec);
+        assertEquals(Outcome.ALWAYS_FALSE, RowPredicatePlanner.and(Arrays.asList(depends, never)).getOutcome());
+        assertEquals(Outcome.ALWAYS_TRUE, RowPredicatePlanner.or(Arrays.asList(depends, always)).getOutcome());
+        assertSame(depends, RowPredicatePlanner.and(Arrays.asList(always, depends)));
+        assertSame(depends, RowPredicatePlanner.or(Arrays.asList(never, depends)));
+        assertEquals(Outcome.ALWAYS_TRUE,
+            RowPredicate.negate(RowPredicatePlanner.or(Arrays.asList(never, never))).getOutcome());
+    }
+
+    /**
+     * Tests that disjoint row index ranges reject all rows.
+     */
+    @Test
+    public void testDisjointIndexRanges() {
+        final RowPredicate first = new RowIndexPredicate(NumericRangePredicate.less(5), Range.lessThan(5L));
+        final RowPredicate second = new RowIndexPredicate(NumericRangePredicate.greater(10), Range.greaterThan(10L));
+        assertEquals(Outcome.ALWAYS_FALSE, RowPredicatePlanner.and(Arrays.asList(first, second)).getOutcome());
+        final RowPredicate either = RowPredicatePlanner.or(Arrays.asList(first, second));
+        assertTrue(either.test(row(new DoubleCell(0)), 3L));
+        assertFalse(either.test(row(new DoubleCell(0)), 7L));
+        assertTrue(either.test(row(new DoubleCell(0)), 11L));
+    }
+
+    /**
+     * Tests that the conditions of a group are reordered but still yield the same result.
+     */
+    @Test
+    public void testOrdering() {
+        final DataColumnSpec spec = createDoubleColumn(0, 100);
+        // accepts 90% of the rows
+        final RowPredicate unselective = new ColumnRowPredicate(NumericRangePredicate.greater(10), 0, spec);
+        // accepts 10% of the rows
+        final RowPredicate selective = new ColumnRowPredicate(NumericRangePredicate.greater(90), 0, spec);
+        final RowPredicate and = RowPredicatePlanner.and(Arrays.asList(unselective, selective));
+        // the selective condition is tested first and rejects most rows
+        assertEquals(1 + 0.1, and.getCost(), 1e-9);
+        assertEquals(0.09, and.getSelectivity(), 1e-9);
+        final RowPredicate or = RowPredicatePlanner.or(Arrays.asList(selective, unselective));
+        assertEquals(1 + 0.1, or.getCost(), 1e-9);
+        for (final double value : new double[]{0, 50, 95}) {
+            final DataRow row = row(new DoubleCell(value));
+            assertEquals(value > 90, and.test(row, 0L));
+            assertEquals(value > 10, or.test(row, 0L));
+        }
+        assertFalse(and.test(row(DataType.getMissingCell()), 0L));
+    }
+
+}
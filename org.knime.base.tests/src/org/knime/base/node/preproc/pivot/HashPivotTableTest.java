@@ -0,0 +1,208 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.pivot;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.base.data.aggregation.AggregationMethods;
+import org.knime.base.data.aggregation.ColumnAggregator;
+import org.knime.base.node.preproc.sorter.SorterNodeFactory;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.node.defaultnodesettings.SettingsModelFilterString;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.workflow.SingleNodeContainer;
+
+/**
+ * Compares the pivot table, the group totals and the pivot totals of the hash based pivoting with the ones of the
+ * sort based pivoting.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class HashPivotTableTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("group", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("pivot", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("pivot2", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("value", DoubleCell.TYPE).createSpec());
+
+    /**
+     * Tests a single pivot column with several aggregations, missing values ignored.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testSinglePivotIgnoreMissing() throws Exception {
+        assertSameAsSortBased(new String[]{"pivot"}, true, 1);
+    }
+
+    /**
+     * Tests a single pivot column with several aggregations, missing pivot values form their own column.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testSinglePivotWithMissing() throws Exception {
+        assertSameAsSortBased(new String[]{"pivot"}, false, 2);
+    }
+
+    /**
+     * Tests two pivot columns, i.e. combined pivots, with and without missing pivot values.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testCombinedPivots() throws Exception {
+        assertSameAsSortBased(new String[]{"pivot", "pivot2"}, true, 3);
+        assertSameAsSortBased(new String[]{"pivot", "pivot2"}, false, 4);
+    }
+
+    private static void assertSameAsSortBased(final String[] pivotCols, final boolean ignoreMissing,
+        final long seed) throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable table = createRandomTable(exec, new Random(seed), 300);
+        final PortObject[] sorted = execute(table, pivotCols, ignoreMissing, false, exec);
+        final PortObject[] hashed = execute(table, pivotCols, ignoreMissing, true, exec);
+        final String msg = Arrays.toString(pivotCols) + ", ignore missing: " + ignoreMissing;
+        for (int port = 0; port < 3; port++) {
+            final BufferedDataTable expected = (BufferedDataTable)sorted[port];
+            final BufferedDataTable actual = (BufferedDataTable)hashed[port];
+            assertEquals(msg + ", port " + port, expected.size(), actual.size());
+            assertEquals(msg + ", port " + port, expected.getDataTableSpec().getNumColumns(),
+                actual.getDataTableSpec().getNumColumns());
+            // the sort based pivoting returns the groups and the pivots sorted, the hash based one in order of their
+            // first appearance, hence the rows are compared by their group and the cells by their column name
+            assertEquals(msg + ", port " + port, toMap(expected), toMap(actual));
+        }
+    }
+
+    private static PortObject[] execute(final BufferedDataTable table, final String[] pivotCols,
+        final boolean ignoreMissing, final boolean hashBased, final ExecutionContext exec) throws Exception {
+        final Pivot2NodeModel model = new Pivot2NodeModel();
+        final NodeSettings settings = new NodeSettings("pivot");
+        model.saveSettingsTo(settings);
+        new SettingsModelFilterString("grouByColumns", new String[]{"group"},
+            new String[]{"pivot", "pivot2", "value"}).saveSettingsTo(settings);
+        new SettingsModelFilterString(Pivot2NodeModel.CFG_PIVOT_COLUMNS, pivotCols, new String[0])
+            .saveSettingsTo(settings);
+        ColumnAggregator.saveColumnAggregators(settings, Arrays.asList(
+            new ColumnAggregator(SPEC.getColumnSpec("value"), AggregationMethods.getMethod4Id("Sum_V2.5.2")),
+            new ColumnAggregator(SPEC.getColumnSpec("value"), AggregationMethods.getMethod4Id("Maximum")),
+            new ColumnAggregator(SPEC.getColumnSpec("value"),
+                AggregationMethods.getMethod4Id("Missing value count"))));
+        settings.addBoolean("missing_values", ignoreMissing);
+        settings.addBoolean("total_aggregation", true);
+        settings.addBoolean("hash_based", hashBased);
+        model.validateSettings(settings);
+        model.loadValidatedSettingsFrom(settings);
+        model.configure(new PortObjectSpec[]{SPEC});
+        return model.execute(new PortObject[]{table}, exec);
+    }
+
+    private static ExecutionContext createExecutionContext() {
+        return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(new SorterNodeFactory()),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<Integer, ContainerTable>());
+    }
+
+    /** Creates integral values only, so the sums don't depend on the order of aggregation. */
+    private static BufferedDataTable createRandomTable(final ExecutionContext exec, final Random random,
+        final int nrRows) {
+        final BufferedDataContainer cont = exec.createDataContainer(SPEC);
+        for (int r = 0; r < nrRows; r++) {
+            cont.addRowToTable(new DefaultRow("Row" + r, randomString(random, "g", 5), randomString(random, "p", 4),
+                randomString(random, "q", 3),
+                random.nextInt(10) == 0 ? DataType.getMissingCell() : new DoubleCell(random.nextInt(100))));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    /** Returns a missing cell for about every tenth call. */
+    private static DataCell randomString(final Random random, final String prefix, final int nrValues) {
+        return random.nextInt(10) == 0 ? DataType.getMissingCell()
+            : new StringCell(prefix + random.nextInt(nrValues));
+    }
+
+    /** Maps the first cell of each row to the cells of the row by column name. */
+    private static Map<String, Map<String, DataCell>> toMap(final BufferedDataTable table) {
+        final String[] colNames = table.getDataTableSpec().getColumnNames();
+        final Map<String, Map<String, DataCell>> rows = new HashMap<>();
+        try (final CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                final Map<String, DataCell> cells = new LinkedHashMap<>();
+                for (int i = 0; i < colNames.length; i++) {
+                    cells.put(colNames[i], row.getCell(i));
+                }
+                rows.put(row.getNumCells() == 0 ? "" : row.getCell(0).toString(), cells);
+            }
+        }
+        return rows;
+    }
+}
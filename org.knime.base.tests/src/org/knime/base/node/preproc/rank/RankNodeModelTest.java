@@ -0,0 +1,285 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.rank;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.base.node.preproc.sorter.SorterNodeFactory;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.workflow.SingleNodeContainer;
+
+/**
+ * Tests that ranking while retaining the row order and ranking only the top n rows per group with the
+ * {@link GroupTopNRanker} agree with the ranking that sorts the full table.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class RankNodeModelTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("group", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("value", IntCell.TYPE).createSpec());
+
+    private static final List<String> GROUP_COLS = Collections.singletonList("group");
+
+    private static final List<String> RANK_COLS = Collections.singletonList("value");
+
+    private static final String[] RANK_MODES = {"Standard", "Dense", "Ordinal"};
+
+    /**
+     * Tests the ranks of ties in each rank mode.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testTies() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable table = createTable(exec, new String[]{"g", "g", "g", "g", "g"}, 3, 1, 3, 2, 1);
+        final RankNodeModel model = new RankNodeModel();
+        final boolean[] asc = {true};
+        assertEquals(Arrays.asList(4L, 1L, 4L, 3L, 1L),
+            ranks(model.rankRetainingOrder(table, GROUP_COLS, RANK_COLS, asc, "Standard", false, exec)));
+        assertEquals(Arrays.asList(3L, 1L, 3L, 2L, 1L),
+            ranks(model.rankRetainingOrder(table, GROUP_COLS, RANK_COLS, asc, "Dense", false, exec)));
+        // ties are ordered by their position in the input
+        assertEquals(Arrays.asList(4L, 1L, 5L, 3L, 2L),
+            ranks(model.rankRetainingOrder(table, GROUP_COLS, RANK_COLS, asc, "Ordinal", true, exec)));
+
+        final GroupTopNRanker ranker = new GroupTopNRanker(SPEC, new int[]{0}, new int[]{1}, asc, "Standard", 4);
+        // the tie at the fourth position is broken by the input position
+        assertEquals(Arrays.asList(4L, 1L, 3L, 1L),
+            ranks(ranker.execute(table, outSpec(false), false, true, exec)));
+        assertEquals(Arrays.asList("Row1", "Row4", "Row3", "Row0"),
+            keys(ranker.execute(table, outSpec(false), false, false, exec)));
+    }
+
+    /**
+     * Tests that ranking while retaining the row order returns the same table as the full sort for random input with
+     * many ties and several groups.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testRetainRowOrderAgreesWithFullSort() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable table = createRandomTable(exec, new Random(42), 500);
+        final RankNodeModel model = new RankNodeModel();
+        for (final String rankMode : RANK_MODES) {
+            for (final boolean asc : new boolean[]{true, false}) {
+                for (final boolean rankAsLong : new boolean[]{true, false}) {
+                    final String msg = rankMode + ", ascending: " + asc + ", long: " + rankAsLong;
+                    final BufferedDataTable expected = model.rankSorted(table, GROUP_COLS, RANK_COLS,
+                        new boolean[]{asc}, rankMode, rankAsLong, true, exec);
+                    final BufferedDataTable actual = model.rankRetainingOrder(table, GROUP_COLS, RANK_COLS,
+                        new boolean[]{asc}, rankMode, rankAsLong, exec);
+                    assertEquals(msg, expected.getDataTableSpec(), actual.getDataTableSpec());
+                    assertEquals(msg, keys(expected), keys(actual));
+                    assertEquals(msg, ranks(expected), ranks(actual));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the top n ranking returns the rows and ranks of the full ranking whose ordinal rank is at most n,
+     * in input order or grouped and sorted by rank.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testTopNAgreesWithFullSort() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable table = createRandomTable(exec, new Random(7), 500);
+        final RankNodeModel model = new RankNodeModel();
+        for (final int n : new int[]{1, 5, 1000}) {
+            for (final boolean asc : new boolean[]{true, false}) {
+                // the ordinal ranks of the full ranking determine which rows belong to the top n
+                final List<Long> ordinal = ranks(model.rankSorted(table, GROUP_COLS, RANK_COLS, new boolean[]{asc},
+                    "Ordinal", false, true, exec));
+                for (final String rankMode : RANK_MODES) {
+                    final String msg = rankMode + ", n: " + n + ", ascending: " + asc;
+                    final BufferedDataTable full = model.rankSorted(table, GROUP_COLS, RANK_COLS,
+                        new boolean[]{asc}, rankMode, false, true, exec);
+                    final List<String> expectedKeys = new ArrayList<>();
+                    final List<Long> expectedRanks = new ArrayList<>();
+                    final List<String> fullKeys = keys(full);
+                    final List<Long> fullRanks = ranks(full);
+                    for (int i = 0; i < fullKeys.size(); i++) {
+                        if (ordinal.get(i) <= n) {
+                            expectedKeys.add(fullKeys.get(i));
+                            expectedRanks.add(fullRanks.get(i));
+                        }
+                    }
+                    final GroupTopNRanker ranker =
+                        new GroupTopNRanker(SPEC, new int[]{0}, new int[]{1}, new boolean[]{asc}, rankMode, n);
+                    final BufferedDataTable retained = ranker.execute(table, outSpec(false), false, true, exec);
+                    assertEquals(msg, expectedKeys, keys(retained));
+                    assertEquals(msg, expectedRanks, ranks(retained));
+
+                    // without retaining the order the groups come in order of their first appearance, sorted by rank
+                    final BufferedDataTable grouped = ranker.execute(table, outSpec(true), true, false, exec);
+                    final Map<String, Long> expectedRankByKey = new HashMap<>();
+                    for (int i = 0; i < expectedKeys.size(); i++) {
+                        expectedRankByKey.put(expectedKeys.get(i), expectedRanks.get(i));
+                    }
+                    final List<String> groupOrder = new ArrayList<>();
+                    long previousRank = 0;
+                    try (final CloseableRowIterator it = grouped.iterator()) {
+                        while (it.hasNext()) {
+                            final DataRow row = it.next();
+                            final String group = row.getCell(0).toString();
+                            final long rank = ((LongValue)row.getCell(2)).getLongValue();
+                            assertEquals(msg, expectedRankByKey.remove(row.getKey().getString()), (Long)rank);
+                            if (groupOrder.isEmpty() || !groupOrder.get(groupOrder.size() - 1).equals(group)) {
+                                groupOrder.add(group);
+                            } else {
+                                assertTrue(msg + ": ranks not sorted", previousRank <= rank);
+                            }
+                            previousRank = rank;
+                        }
+                    }
+                    assertTrue(msg + ": missing rows " + expectedRankByKey, expectedRankByKey.isEmpty());
+                    assertEquals(msg, firstAppearanceOrder(table), groupOrder);
+                }
+            }
+        }
+    }
+
+    private static ExecutionContext createExecutionContext() {
+        return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(new SorterNodeFactory()),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<Integer, ContainerTable>());
+    }
+
+    private static DataTableSpec outSpec(final boolean rankAsLong) {
+        return new DataTableSpec(SPEC, new DataTableSpec(new DataColumnSpecCreator(
+            RankNodeModel.DEFAULT_RANKOUTCOLNAME, rankAsLong ? LongCell.TYPE : IntCell.TYPE).createSpec()));
+    }
+
+    private static BufferedDataTable createTable(final ExecutionContext exec, final String[] groups,
+        final int... values) {
+        final BufferedDataContainer cont = exec.createDataContainer(SPEC);
+        for (int r = 0; r < values.length; r++) {
+            cont.addRowToTable(new DefaultRow("Row" + r, new StringCell(groups[r]), new IntCell(values[r])));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static BufferedDataTable createRandomTable(final ExecutionContext exec, final Random random,
+        final int nrRows) {
+        final String[] groups = new String[nrRows];
+        final int[] values = new int[nrRows];
+        for (int r = 0; r < nrRows; r++) {
+            groups[r] = "g" + random.nextInt(4);
+            // few distinct values, i.e. many ties
+            values[r] = random.nextInt(10);
+        }
+        return createTable(exec, groups, values);
+    }
+
+    private static List<String> keys(final BufferedDataTable table) {
+        final List<String> keys = new ArrayList<>();
+        try (final CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                keys.add(it.next().getKey().getString());
+            }
+        }
+        return keys;
+    }
+
+    /** The rank is the last column, either an int or a long cell. */
+    private static List<Long> ranks(final BufferedDataTable table) {
+        final int rankIdx = table.getDataTableSpec().getNumColumns() - 1;
+        final List<Long> ranks = new ArrayList<>();
+        try (final CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                final DataCell rank = row.getCell(rankIdx);
+                ranks.add(rank instanceof IntValue ? ((IntValue)rank).getIntValue() : ((LongValue)rank).getLongValue());
+            }
+        }
+        return ranks;
+    }
+
+    private static List<String> firstAppearanceOrder(final BufferedDataTable table) {
+        final List<String> groups = new ArrayList<>();
+        try (final CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                final String group = it.next().getCell(0).toString();
+                if (!groups.contains(group)) {
+                    groups.add(group);
+                }
+            }
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.setoperator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.knime.base.node.preproc.sorter.SorterNodeFactory;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.workflow.SingleNodeContainer;
+
+/**
+ * Tests the hash based set operation of the {@link SetOperationTable} against the expected results and the sort
+ * based implementation.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class HashSetOperatorTest {
+
+    private static final String COL = "value";
+
+    private static final DataTableSpec SPEC =
+        new DataTableSpec(new DataColumnSpecCreator(COL, StringCell.TYPE).createSpec());
+
+    /**
+     * Tests the result and the output order of all operations for inputs with duplicates.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testOperations() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable table1 = createTable(exec, "A", "a", "b", "b", "c");
+        final BufferedDataTable table2 = createTable(exec, "B", "b", "c", "c", "d");
+        // the first table is the build side, its elements come first
+        assertResult(Arrays.asList("b", "c"), 4, SetOperation.AND, table1, table2, exec);
+        assertResult(Arrays.asList("a", "b", "c", "d"), 4, SetOperation.OR, table1, table2, exec);
+        assertResult(Arrays.asList("a"), 0, SetOperation.MINUS, table1, table2, exec);
+        assertResult(Arrays.asList("a", "d"), 0, SetOperation.XOR, table1, table2, exec);
+        // the second table is the smaller one and thus the build side
+        final BufferedDataTable table3 = createTable(exec, "B", "d", "b");
+        assertResult(Arrays.asList("b"), 2, SetOperation.AND, table1, table3, exec);
+        assertResult(Arrays.asList("d", "b", "a", "c"), 2, SetOperation.OR, table1, table3, exec);
+        assertResult(Arrays.asList("a", "c"), 0, SetOperation.MINUS, table1, table3, exec);
+        assertResult(Arrays.asList("d", "a", "c"), 0, SetOperation.XOR, table1, table3, exec);
+    }
+
+    /**
+     * Tests that missing cells are either skipped and counted or returned as one element.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testMissingCells() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable table1 = createTable(exec, "A", "a", null, null);
+        final BufferedDataTable table2 = createTable(exec, "B", null, "b");
+
+        SetOperationTable result = SetOperationTable.createHashBased(exec, false, COL, table1, false, COL, table2,
+            SetOperation.OR, false, true);
+        assertEquals(Arrays.asList("b", "a"), values(result.getBufferedTable()));
+        assertEquals(3, result.getMissingCounter());
+        assertEquals(0, result.getDuplicateCounter());
+
+        result = SetOperationTable.createHashBased(exec, false, COL, table1, false, COL, table2, SetOperation.OR,
+            false, false);
+        assertEquals(Arrays.asList("?", "b", "a"), values(result.getBufferedTable()));
+        assertEquals(0, result.getMissingCounter());
+        assertEquals(2, result.getDuplicateCounter());
+
+        result = SetOperationTable.createHashBased(exec, false, COL, table1, false, COL, table2, SetOperation.AND,
+            false, true);
+        assertEquals(Collections.emptyList(), values(result.getBufferedTable()));
+        assertEquals(3, result.getMissingCounter());
+
+        result = SetOperationTable.createHashBased(exec, false, COL, table1, false, COL, table2, SetOperation.MINUS,
+            false, false);
+        assertEquals(Arrays.asList("a"), values(result.getBufferedTable()));
+    }
+
+    /**
+     * Tests that the hilite mapping contains the row keys of all rows that contributed to an element.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testHiliteMapping() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final BufferedDataTable table1 = createTable(exec, "A", "x", "y", "x");
+        final BufferedDataTable table2 = createTable(exec, "B", "y", "z");
+        final SetOperationTable result = SetOperationTable.createHashBased(exec, false, COL, table1, false, COL,
+            table2, SetOperation.OR, true, true);
+        assertEquals(Arrays.asList("y", "z", "x"), values(result.getBufferedTable()));
+
+        final Map<RowKey, Set<RowKey>> expected0 = new HashMap<>();
+        expected0.put(RowKey.createRowKey(0L), keys("A1"));
+        expected0.put(RowKey.createRowKey(2L), keys("A0", "A2"));
+        assertEquals(expected0, result.getHiliteMapping0());
+        final Map<RowKey, Set<RowKey>> expected1 = new HashMap<>();
+        expected1.put(RowKey.createRowKey(0L), keys("B0"));
+        expected1.put(RowKey.createRowKey(1L), keys("B1"));
+        assertEquals(expected1, result.getHiliteMapping1());
+
+        final SetOperationTable sorted =
+            new SetOperationTable(exec, false, COL, table1, false, COL, table2, SetOperation.OR, true, true);
+        assertEquals(hiliteByElement(sorted.getBufferedTable(), sorted.getHiliteMapping0()),
+            hiliteByElement(result.getBufferedTable(), result.getHiliteMapping0()));
+        assertEquals(hiliteByElement(sorted.getBufferedTable(), sorted.getHiliteMapping1()),
+            hiliteByElement(result.getBufferedTable(), result.getHiliteMapping1()));
+    }
+
+    /**
+     * Tests that the hash based and the sort based implementation return the same elements for random inputs with
+     * duplicates and missing cells.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testAgreesWithSortBased() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final Random random = new Random(42);
+        for (int i = 0; i < 5; i++) {
+            final BufferedDataTable table1 = createRandomTable(exec, "A", random);
+            final BufferedDataTable table2 = createRandomTable(exec, "B", random);
+            for (final SetOperation op : SetOperation.values()) {
+                for (final boolean skipMissing : new boolean[]{true, false}) {
+                    final SetOperationTable sorted = new SetOperationTable(exec, false, COL, table1, false, COL,
+                        table2, op, false, skipMissing);
+                    final SetOperationTable hashed = SetOperationTable.createHashBased(exec, false, COL, table1,
+                        false, COL, table2, op, false, skipMissing);
+                    final String msg = op + ", skip missing: " + skipMissing;
+                    final List<String> expected = values(sorted.getBufferedTable());
+                    final List<String> actual = values(hashed.getBufferedTable());
+                    Collections.sort(expected);
+                    Collections.sort(actual);
+                    assertEquals(msg, expected, actual);
+                }
+            }
+        }
+    }
+
+    private static void assertResult(final List<String> expected, final long duplicates, final SetOperation op,
+        final BufferedDataTable table1, final BufferedDataTable table2, final ExecutionContext exec)
+        throws Exception {
+        final SetOperationTable result =
+            SetOperationTable.createHashBased(exec, false, COL, table1, false, COL, table2, op, false, true);
+        assertEquals(op.getName(), expected, values(result.getBufferedTable()));
+        assertEquals(op.getName(), duplicates, result.getDuplicateCounter());
+    }
+
+    private static ExecutionContext createExecutionContext() {
+        return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(new SorterNodeFactory()),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<Integer, ContainerTable>());
+    }
+
+    /** Values that are <code>null</code> are stored as missing cells. */
+    private static BufferedDataTable createTable(final ExecutionContext exec, final String keyPrefix,
+        final String... values) {
+        final BufferedDataContainer cont = exec.createDataContainer(SPEC);
+        for (int r = 0; r < values.length; r++) {
+            final DataCell cell = values[r] == null ? DataType.getMissingCell() : new StringCell(values[r]);
+            cont.addRowToTable(new DefaultRow(keyPrefix + r, cell));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static BufferedDataTable createRandomTable(final ExecutionContext exec, final String keyPrefix,
+        final Random random) {
+        final String[] values = new String[50 + random.nextInt(50)];
+        for (int r = 0; r < values.length; r++) {
+            final int value = random.nextInt(40);
+            values[r] = value == 0 ? null : Integer.toString(value);
+        }
+        return createTable(exec, keyPrefix, values);
+    }
+
+    private static List<String> values(final BufferedDataTable table) {
+        final List<String> values = new ArrayList<>();
+        try (final CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                values.add(it.next().getCell(0).toString());
+            }
+        }
+        return values;
+    }
+
+    /** Maps the elements of the result table to the row keys of the input table they stem from. */
+    private static Map<String, Set<RowKey>> hiliteByElement(final BufferedDataTable result,
+        final Map<RowKey, Set<RowKey>> mapping) {
+        final Map<String, Set<RowKey>> byElement = new HashMap<>();
+        try (final CloseableRowIterator it = result.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                final Set<RowKey> keys = mapping.get(row.getKey());
+                if (keys != null) {
+                    byElement.put(row.getCell(0).toString(), new HashSet<>(keys));
+                }
+            }
+        }
+        return byElement;
+    }
+
+    private static Set<RowKey> keys(final String... keys) {
+        final Set<RowKey> set = new HashSet<>();
+        for (final String key : keys) {
+            set.add(new RowKey(key));
+        }
+        return set;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.stringreplacer.dict;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Testcases for {@link AhoCorasickReplacer}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class AhoCorasickReplacerTest {
+
+    private static Map<String, String> dict(final String... keyValues) {
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put(keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    /**
+     * Tests simple replacements and that the input is returned as-is if nothing matches.
+     */
+    @Test
+    public void testSimpleReplacement() {
+        final AhoCorasickReplacer replacer =
+            new AhoCorasickReplacer(dict("he", "HE", "she", "SHE", "his", "HIS"), true);
+        assertEquals("SHE said HIS hat", replacer.replace("she said his hat"));
+        final String noMatch = "nothing to find";
+        assertSame("Unchanged input must be returned as-is", noMatch, replacer.replace(noMatch));
+        assertEquals("", replacer.replace(""));
+    }
+
+    /**
+     * Tests the leftmost-longest semantics for overlapping matches.
+     */
+    @Test
+    public void testLeftmostLongest() {
+        AhoCorasickReplacer replacer = new AhoCorasickReplacer(dict("bc", "1", "abcd", "2"), true);
+        assertEquals("leftmost match not preferred", "x2x", replacer.replace("xabcdx"));
+        assertEquals("shorter match not used as fallback", "xa1x", replacer.replace("xabcx"));
+
+        replacer = new AhoCorasickReplacer(dict("a", "1", "ab", "2", "abc", "3"), true);
+        assertEquals("longest match not preferred", "3", replacer.replace("abc"));
+        assertEquals("longest match not preferred", "21", replacer.replace("aba"));
+
+        replacer = new AhoCorasickReplacer(dict("aa", "X"), true);
+        assertEquals("matches must not overlap", "XXa", replacer.replace("aaaaa"));
+    }
+
+    /**
+     * Tests case insensitive matching.
+     */
+    @Test
+    public void testCaseInsensitive() {
+        final AhoCorasickReplacer replacer = new AhoCorasickReplacer(dict("Knime", "KNIME"), false);
+        assertEquals("KNIME and KNIME", replacer.replace("kNiMe and knime"));
+        final AhoCorasickReplacer sensitive = new AhoCorasickReplacer(dict("Knime", "KNIME"), true);
+        assertEquals("kNiMe and KNIME", sensitive.replace("kNiMe and Knime"));
+        // keys that are equal ignoring the case: the last one in iteration order wins
+        assertEquals("2", new AhoCorasickReplacer(dict("ab", "1", "AB", "2"), false).replace("aB"));
+        assertEquals("1", new AhoCorasickReplacer(dict("AB", "2", "ab", "1"), false).replace("aB"));
+    }
+
+    /**
+     * Compares the automaton against a naive implementation on random input.
+     */
+    @Test
+    public void testAgainstNaiveImplementation() {
+        final Random random = new Random(42);
+        for (int run = 0; run < 2000; run++) {
+            final Map<String, String> dictionary = new LinkedHashMap<>();
+            final int nrKeys = 1 + random.nextInt(8);
+            for (int k = 0; k < nrKeys; k++) {
+                dictionary.put(randomString(random, 1 + random.nextInt(4)), "<" + k + ">");
+            }
+            final String text = randomString(random, random.nextInt(30));
+            assertEquals("Wrong result for " + dictionary + " on '" + text + "'", naiveReplace(dictionary, text),
+                new AhoCorasickReplacer(dictionary, true).replace(text));
+        }
+    }
+
+    private static String randomString(final Random random, final int length) {
+        final StringBuilder b = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            b.append((char)('a' + random.nextInt(3)));
+        }
+        return b.toString();
+    }
+
+    private static String naiveReplace(final Map<String, String> dictionary, final String text) {
+        final StringBuilder b = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            String longest = null;
+            for (final String key : dictionary.keySet()) {
+                if (text.startsWith(key, i) && (longest == null || key.length() > longest.length())) {
+                    longest = key;
+                }
+            }
+            if (longest == null) {
+                b.append(text.charAt(i));
+                i++;
+            } else {
+                b.append(dictionary.get(longest));
+                i += longest.length();
+            }
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.transpose;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.workflow.SingleNodeContainer;
+
+/**
+ * Tests the {@link TiledTableTransposer}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TiledTableTransposerTest {
+
+    private static final int NR_COLS = 3;
+
+    private static ExecutionContext EXEC_CONTEXT;
+
+    /**
+     * Creates the execution context.
+     */
+    @BeforeClass
+    public static void setUpBeforeClass() {
+        EXEC_CONTEXT = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node(new TransposeTableNodeFactory()), SingleNodeContainer.MemoryPolicy.CacheSmallInMemory,
+            new HashMap<Integer, ContainerTable>());
+    }
+
+    /**
+     * Tests a transpose where all tiles are read at once.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testSinglePass() throws Exception {
+        assertTransposed(createTable(50), new TiledTableTransposer(tileBudget(7), 64));
+    }
+
+    /**
+     * Tests a transpose with more tiles than may be read at once, which requires several merge passes.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testMergePasses() throws Exception {
+        // 25 tiles of height 2 are merged to 9 and then to 3 tiles
+        assertTransposed(createTable(50), new TiledTableTransposer(tileBudget(2), 3));
+        // the last tile is smaller than the others
+        assertTransposed(createTable(47), new TiledTableTransposer(tileBudget(2), 3));
+    }
+
+    private static long tileBudget(final int tileHeight) {
+        return (long)TiledTableTransposer.ESTIMATED_BYTES_PER_CELL * NR_COLS * tileHeight;
+    }
+
+    private static BufferedDataTable createTable(final int nrRows) {
+        final DataColumnSpec[] colSpecs = new DataColumnSpec[NR_COLS];
+        for (int c = 0; c < NR_COLS; c++) {
+            colSpecs[c] = new DataColumnSpecCreator("col" + c, IntCell.TYPE).createSpec();
+        }
+        final BufferedDataContainer cont = EXEC_CONTEXT.createDataContainer(new DataTableSpec(colSpecs));
+        for (int r = 0; r < nrRows; r++) {
+            final IntCell[] cells = new IntCell[NR_COLS];
+            for (int c = 0; c < NR_COLS; c++) {
+                cells[c] = new IntCell(value(r, c));
+            }
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)r), cells));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static int value(final int row, final int col) {
+        return row * 1000 + col;
+    }
+
+    private static void assertTransposed(final BufferedDataTable table, final TiledTableTransposer transposer)
+        throws Exception {
+        final BufferedDataTable transposed = transposer.transpose(table, EXEC_CONTEXT);
+        final int nrRows = (int)table.size();
+        final DataTableSpec spec = transposed.getDataTableSpec();
+        assertEquals(nrRows, spec.getNumColumns());
+        for (int r = 0; r < nrRows; r++) {
+            assertEquals(RowKey.createRowKey((long)r).getString(), spec.getColumnSpec(r).getName());
+        }
+        assertEquals(NR_COLS, transposed.size());
+        try (final CloseableRowIterator it = transposed.iterator()) {
+            for (int c = 0; c < NR_COLS; c++) {
+                final DataRow row = it.next();
+                assertEquals("col" + c, row.getKey().getString());
+                for (int r = 0; r < nrRows; r++) {
+                    assertEquals(value(r, c), ((IntCell)row.getCell(r)).getIntValue());
+                }
+            }
+        }
+    }
+}
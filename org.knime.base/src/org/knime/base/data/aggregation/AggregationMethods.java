@@ -88,6 +88,8 @@
 import org.knime.base.data.aggregation.date.DayRangeOperator;
 import org.knime.base.data.aggregation.date.MedianDateOperator;
 import org.knime.base.data.aggregation.date.MillisRangeOperator;
+import org.knime.base.data.aggregation.general.ApproximateTopKOperator;
+import org.knime.base.data.aggregation.general.ApproximateUniqueCountOperator;
 import org.knime.base.data.aggregation.general.ConcatenateOperator;
 import org.knime.base.data.aggregation.general.CountOperator;
 import org.knime.base.data.aggregation.general.FirstOperator;
@@ -301,6 +303,9 @@ private AggregationMethods() {
             addOperator(new MaxOperator(GlobalSettings.DEFAULT, OperatorColumnSettings.DEFAULT_INCL_MISSING));
             /**Takes the value which occurs most.*/
             addOperator(new ModeOperator(GlobalSettings.DEFAULT, OperatorColumnSettings.DEFAULT_INCL_MISSING));
+            /**Takes the values which occur most using bounded memory.*/
+            addOperator(
+                new ApproximateTopKOperator(GlobalSettings.DEFAULT, OperatorColumnSettings.DEFAULT_INCL_MISSING));
             /**Concatenates all cell values.*/
             addOperator(new ConcatenateOperator(GlobalSettings.DEFAULT, OperatorColumnSettings.DEFAULT_INCL_MISSING));
             /**Concatenates all distinct cell values.*/
@@ -311,6 +316,9 @@ private AggregationMethods() {
                 OperatorColumnSettings.DEFAULT_EXCL_MISSING));
             /**Counts the number of unique group members.*/
             addOperator(new UniqueCountOperator(GlobalSettings.DEFAULT, OperatorColumnSettings.DEFAULT_INCL_MISSING));
+            /**Estimates the number of unique group members using bounded memory.*/
+            addOperator(new ApproximateUniqueCountOperator(GlobalSettings.DEFAULT,
+                OperatorColumnSettings.DEFAULT_INCL_MISSING));
             /**Counts the number of group members.*/
             addOperator(new CountOperator(GlobalSettings.DEFAULT, OperatorColumnSettings.DEFAULT_INCL_MISSING));
             /**Returns the percentage of the group.*/
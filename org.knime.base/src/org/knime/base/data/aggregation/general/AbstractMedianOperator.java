@@ -48,6 +48,7 @@
  */
 package org.knime.base.data.aggregation.general;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -59,6 +60,7 @@
 import org.knime.base.data.aggregation.OperatorColumnSettings;
 import org.knime.base.data.aggregation.OperatorData;
 import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
 import org.knime.core.data.DataValue;
@@ -69,6 +71,8 @@
 import org.knime.core.node.NotConfigurableException;
 import org.knime.core.node.defaultnodesettings.DialogComponent;
 import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.util.ButtonGroupEnumInterface;
@@ -81,6 +85,11 @@
  * <P>
  * Allows the user to choose an extraction method when dealing with even lists (mean of middle elements, upper median,
  * lower median).
+ * <P>
+ * Implementations that provide a {@link PrimitiveEncoding} store the values of a group in a <code>long</code> array
+ * and select the median in linear time instead of sorting all cells. Optionally, the values are passed to a
+ * streaming quantile sketch once a group exceeds a user defined number of values, which approximates the median
+ * with logarithmic memory usage.
  *
  * @since 3.4
  *
@@ -93,6 +102,9 @@ public abstract class AbstractMedianOperator extends SortedListCellOperator {
      */
     protected static final String LABEL = "Median";
 
+    /** The number of values per level of the quantile sketch. */
+    private static final int SKETCH_CAPACITY = 1024;
+
     /**
      * @param utility utility of the implementation's specific {@DataValue}
      * @return unique identifier used for registration
@@ -121,6 +133,21 @@ protected static String formatId(final ExtensibleUtilityFactory utility) {
 
     private MedianSettingsPanel m_settingsPanel;
 
+    private boolean m_encodingCreated;
+
+    private PrimitiveEncoding m_encoding;
+
+    /** The encoded values, only used if the encoding is available and all values could be encoded. */
+    private long[] m_values = new long[0];
+
+    private int m_nrValues;
+
+    /** <code>true</code> if the values are stored as cells since some of them could not be encoded. */
+    private boolean m_storeCells;
+
+    /** The sketch used once the group exceeds the approximation threshold, <code>null</code> otherwise. */
+    private LongQuantileSketch m_sketch;
+
     /**
      * Constructor for class AbstractMedianOperator.
      *
@@ -175,7 +202,8 @@ public abstract AggregationOperator createInstance(final GlobalSettings globalSe
     public String getDescription() {
         return "Calculates the median per group. Missing values are skipped. "
             + "You can choose between different calculation methods for handling even groups. "
-            + "By default, the mean of the two middle elements of the group is chosen as median.";
+            + "By default, the mean of the two middle elements of the group is chosen as median. "
+            + "For numeric and date&time columns the median of large groups can optionally be approximated.";
     }
 
     /**
@@ -260,6 +288,36 @@ protected void setMedianMethod(final String name) {
         m_settings.getMedianMethodModel().setStringValue(name);
     }
 
+    /**
+     * @return the number of values of a group from which on the median is approximated, 0 if it is always computed
+     *         exactly
+     * @since 4.5
+     */
+    protected int getApproximationThreshold() {
+        return m_settings.getApproximationThresholdModel().getIntValue();
+    }
+
+    /**
+     * @param threshold the number of values of a group from which on the median is approximated, 0 if it should
+     *            always be computed exactly
+     * @since 4.5
+     */
+    protected void setApproximationThreshold(final int threshold) {
+        m_settings.getApproximationThresholdModel().setIntValue(threshold);
+    }
+
+    /**
+     * Returns the encoding that allows to store the values of a group as <code>long</code> values instead of cells.
+     * The default implementation returns <code>null</code>, i.e. all values are stored as cells and sorted.
+     *
+     * @param origType the type of the column to aggregate, might be <code>null</code>
+     * @return the encoding or <code>null</code> if the values should be stored as cells
+     * @since 4.5
+     */
+    protected PrimitiveEncoding createPrimitiveEncoding(final DataType origType) {
+        return null;
+    }
+
     /**
      * @return the description of all available methods for extracting the median from an even list
      */
@@ -303,11 +361,90 @@ protected DataCell getResultInternal(final List<DataCell> cells, final int lower
     @Override
     protected abstract DataType getDataType(DataType origType);
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean computeInternal(final DataCell cell) {
+        if (!m_encodingCreated) {
+            final DataColumnSpec origSpec = getOperatorColumnSettings().getOriginalColSpec();
+            m_encoding = createPrimitiveEncoding(origSpec == null ? null : origSpec.getType());
+            m_encodingCreated = true;
+        }
+        if (m_encoding == null || m_storeCells) {
+            return super.computeInternal(cell);
+        }
+        if (!m_encoding.canEncode(cell)) {
+            if (m_sketch != null) {
+                setSkipMessage("Group contains values that cannot be used for the approximation of the median");
+                return true;
+            }
+            // fall back to storing cells
+            m_storeCells = true;
+            for (int i = 0; i < m_nrValues; i++) {
+                if (super.computeInternal(m_encoding.decode(m_values[i]))) {
+                    return true;
+                }
+            }
+            m_values = new long[0];
+            m_nrValues = 0;
+            return super.computeInternal(cell);
+        }
+        final long value = m_encoding.encode(cell);
+        if (m_sketch != null) {
+            m_sketch.add(value);
+            return false;
+        }
+        final int threshold = getApproximationThreshold();
+        if (threshold > 0 && m_nrValues >= threshold) {
+            m_sketch = new LongQuantileSketch(SKETCH_CAPACITY);
+            for (int i = 0; i < m_nrValues; i++) {
+                m_sketch.add(m_values[i]);
+            }
+            m_sketch.add(value);
+            m_values = new long[0];
+            m_nrValues = 0;
+            return false;
+        }
+        if (m_nrValues >= getMaxUniqueValues()) {
+            setSkipMessage("Group contains too many values");
+            return true;
+        }
+        if (m_nrValues == m_values.length) {
+            // grow by 50% but never beyond the maximum number of unique values
+            final int newLength =
+                (int)Math.min(getMaxUniqueValues(), Math.max(16L, (long)m_nrValues + (m_nrValues >> 1)));
+            try {
+                m_values = Arrays.copyOf(m_values, newLength);
+            } catch (final OutOfMemoryError e) {
+                setSkipMessage("Group requires too much storage");
+                return true;
+            }
+        }
+        m_values[m_nrValues++] = value;
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void resetInternal() {
+        super.resetInternal();
+        m_values = new long[0];
+        m_nrValues = 0;
+        m_storeCells = false;
+        m_sketch = null;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected DataCell getResultInternal() {
+        if (m_encoding != null && !m_storeCells) {
+            return getEncodedResult();
+        }
         final List<DataCell> cells = getCells();
         final int size = cells.size();
         if (size == 0) {
@@ -325,6 +462,122 @@ protected DataCell getResultInternal() {
         return getResultInternal(cells, (int)middle - 1, (int)middle);
     }
 
+    private DataCell getEncodedResult() {
+        final long size = m_sketch != null ? m_sketch.getCount() : m_nrValues;
+        if (size == 0) {
+            return DataType.getMissingCell();
+        }
+        final long lower;
+        final long upper;
+        if (m_sketch != null) {
+            lower = m_sketch.getValue((size - 1) / 2);
+            upper = m_sketch.getValue(size / 2);
+        } else {
+            final int middle = m_nrValues / 2;
+            if (m_nrValues % 2 == 1) {
+                return getResultInternal(m_encoding.decode(select(m_values, m_nrValues, middle)));
+            }
+            lower = select(m_values, m_nrValues, middle - 1);
+            // after the selection all values right of the lower middle value are greater or equal
+            long min = m_values[middle];
+            for (int i = middle + 1; i < m_nrValues; i++) {
+                min = Math.min(min, m_values[i]);
+            }
+            upper = min;
+        }
+        if (size % 2 == 1) {
+            return getResultInternal(m_encoding.decode(lower));
+        }
+        return getResultInternal(Arrays.asList(m_encoding.decode(lower), m_encoding.decode(upper)), 0, 1);
+    }
+
+    /**
+     * Rearranges the values such that the value at index k is the one that would be there if the values were sorted,
+     * all values left of it are less or equal and all values right of it are greater or equal. Uses quickselect with
+     * median of three pivots and falls back to sorting if the recursion gets too deep (introselect).
+     *
+     * @param values the values
+     * @param size the number of values to consider
+     * @param k the index of the value to select
+     * @return the k-th smallest value
+     */
+    static long select(final long[] values, final int size, final int k) {
+        int lo = 0;
+        int hi = size - 1;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(size));
+        while (hi > lo) {
+            if (depthLimit-- == 0) {
+                Arrays.sort(values, lo, hi + 1);
+                return values[k];
+            }
+            final int mid = (lo + hi) >>> 1;
+            // order lo, mid and hi and use the median as pivot
+            if (values[mid] < values[lo]) {
+                swap(values, mid, lo);
+            }
+            if (values[hi] < values[lo]) {
+                swap(values, hi, lo);
+            }
+            if (values[hi] < values[mid]) {
+                swap(values, hi, mid);
+            }
+            final long pivot = values[mid];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return values[k];
+            }
+        }
+        return values[k];
+    }
+
+    private static void swap(final long[] values, final int i, final int j) {
+        final long tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    /**
+     * Encodes cells as <code>long</code> values whose natural order is the order of the cells.
+     *
+     * @since 4.5
+     */
+    protected static interface PrimitiveEncoding {
+
+        /**
+         * @param cell a non-missing cell
+         * @return <code>true</code> if the cell can be encoded and decoded without loss
+         */
+        boolean canEncode(DataCell cell);
+
+        /**
+         * @param cell a cell that can be encoded
+         * @return the encoded value
+         */
+        long encode(DataCell cell);
+
+        /**
+         * @param value an encoded value
+         * @return a cell that is equal to the encoded one
+         */
+        DataCell decode(long value);
+    }
+
     /**
      * A method for extracting a median from an even list.
      */
@@ -445,6 +698,8 @@ protected static class MedianSettingsPanel extends JPanel {
 
         private final DialogComponentButtonGroup m_methodSelection;
 
+        private final DialogComponentNumber m_approximationThreshold;
+
         /**
          * Creates a settings panel that contains a button group for selecting a median extraction method.
          *
@@ -455,6 +710,11 @@ public MedianSettingsPanel(final MedianSettings settings, final EvenListMedianMe
             m_methodSelection =
                 new DialogComponentButtonGroup(settings.getMedianMethodModel(), "Median methods", true, methods);
             add(m_methodSelection.getComponentPanel());
+            m_approximationThreshold = new DialogComponentNumber(settings.getApproximationThresholdModel(),
+                "Approximate for groups with more values than (0 = never)", 1000, 10);
+            m_approximationThreshold.setToolTipText("Only supported for numeric and date&time columns. "
+                + "Approximates the median of large groups with a streaming quantile sketch to limit the memory usage.");
+            add(m_approximationThreshold.getComponentPanel());
         }
 
         /**
@@ -467,6 +727,7 @@ public MedianSettingsPanel(final MedianSettings settings, final EvenListMedianMe
         public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec[] specs)
             throws NotConfigurableException {
             m_methodSelection.loadSettingsFrom(settings, specs);
+            m_approximationThreshold.loadSettingsFrom(settings, specs);
         }
     }
 
@@ -484,8 +745,13 @@ protected static class MedianSettings {
 
         private static final String CFG_MEDIAN_METHOD = "medianMethod";
 
+        private static final String CFG_APPROXIMATION_THRESHOLD = "approximationThreshold";
+
         private final SettingsModelString m_medianMethodModel;
 
+        private final SettingsModelIntegerBounded m_approximationThresholdModel =
+            new SettingsModelIntegerBounded(CFG_APPROXIMATION_THRESHOLD, 0, 0, Integer.MAX_VALUE);
+
         /**
          * Creates a new {@code MedianSettings} object with {@link MedianSettings#DEFAULT_MEDIAN_METHOD} as the selected
          * method.
@@ -510,12 +776,26 @@ public SettingsModelString getMedianMethodModel() {
             return m_medianMethodModel;
         }
 
+        /**
+         * @return the settings model of the number of values from which on the median is approximated
+         * @since 4.5
+         */
+        public SettingsModelIntegerBounded getApproximationThresholdModel() {
+            return m_approximationThresholdModel;
+        }
+
         /**
          * @param settings the {@link NodeSettingsRO} to read the settings from
          * @throws InvalidSettingsException
          */
         public void loadSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
             m_medianMethodModel.loadSettingsFrom(settings);
+            if (settings.containsKey(CFG_APPROXIMATION_THRESHOLD)) {
+                m_approximationThresholdModel.loadSettingsFrom(settings);
+            } else {
+                // settings created before 4.5 always compute the exact median
+                m_approximationThresholdModel.setIntValue(0);
+            }
         }
 
         /**
@@ -523,6 +803,7 @@ public void loadSettingsFrom(final NodeSettingsRO settings) throws InvalidSettin
          */
         public void saveSettingsTo(final NodeSettingsWO settings) {
             m_medianMethodModel.saveSettingsTo(settings);
+            m_approximationThresholdModel.saveSettingsTo(settings);
         }
 
         /**
@@ -535,6 +816,9 @@ public void validateSettings(final NodeSettingsRO settings) throws InvalidSettin
             if (method == null) {
                 throw new InvalidSettingsException("No method selected.");
             }
+            if (settings.containsKey(CFG_APPROXIMATION_THRESHOLD)) {
+                m_approximationThresholdModel.validateSettings(settings);
+            }
         }
 
         /**
@@ -0,0 +1,268 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.data.aggregation.general;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * HyperLogLog sketch that estimates the number of distinct values with a fixed amount of memory. Following the
+ * HyperLogLog++ improvements it uses 64 bit hashes, counts small cardinalities exactly using a sparse set of hashes
+ * and applies linear counting for small estimates of the dense representation.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class HyperLogLog {
+
+    /** The minimal supported precision. */
+    static final int MIN_PRECISION = 4;
+
+    /** The maximal supported precision. */
+    static final int MAX_PRECISION = 18;
+
+    private static final long EMPTY = 0;
+
+    private final int m_precision;
+
+    /** The registers, <code>null</code> as long as the sparse representation is used. */
+    private byte[] m_registers;
+
+    /** Open addressing hash set of the hashes of the sparse representation, 0 marks an empty slot. */
+    private long[] m_sparse;
+
+    private int m_sparseSize;
+
+    /** <code>true</code> if the hash 0 has been added in the sparse representation. */
+    private boolean m_containsZero;
+
+    /**
+     * @param precision the number of bits used to select a register, between {@link #MIN_PRECISION} and
+     *            {@link #MAX_PRECISION}
+     */
+    HyperLogLog(final int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                "Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ": " + precision);
+        }
+        m_precision = precision;
+        m_sparse = new long[16];
+    }
+
+    /**
+     * @param cell the cell to add
+     */
+    void add(final DataCell cell) {
+        add(hash(cell));
+    }
+
+    /**
+     * @param hash the 64 bit hash of the value to add
+     */
+    void add(final long hash) {
+        if (m_registers != null) {
+            addToRegisters(hash);
+        } else if (hash == EMPTY) {
+            m_containsZero = true;
+        } else if (addToSparse(hash) && m_sparseSize > getSparseLimit()) {
+            toRegisters();
+        }
+    }
+
+    /**
+     * @param other the sketch to merge into this one, must have the same precision
+     */
+    void merge(final HyperLogLog other) {
+        if (other.m_precision != m_precision) {
+            throw new IllegalArgumentException("Sketches with different precisions cannot be merged");
+        }
+        if (other.m_registers == null) {
+            if (other.m_containsZero) {
+                add(EMPTY);
+            }
+            for (final long hash : other.m_sparse) {
+                if (hash != EMPTY) {
+                    add(hash);
+                }
+            }
+            return;
+        }
+        if (m_registers == null) {
+            toRegisters();
+        }
+        for (int i = 0; i < m_registers.length; i++) {
+            m_registers[i] = (byte)Math.max(m_registers[i], other.m_registers[i]);
+        }
+    }
+
+    /**
+     * @return the estimated number of distinct values
+     */
+    long estimate() {
+        if (m_registers == null) {
+            return m_sparseSize + (m_containsZero ? 1 : 0);
+        }
+        final int m = m_registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (final byte register : m_registers) {
+            sum += Double.longBitsToDouble((1023L - register) << 52);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        final double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // linear counting is more accurate for small cardinalities
+            return Math.round(m * Math.log((double)m / zeros));
+        }
+        return Math.round(estimate);
+    }
+
+    private static double alpha(final int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    private int getSparseLimit() {
+        // the sparse set never needs more memory than the registers
+        return (1 << m_precision) / 16;
+    }
+
+    private void addToRegisters(final long hash) {
+        final int idx = (int)(hash >>> (64 - m_precision));
+        // the guard bit limits the rank in case all remaining bits are 0
+        final long remaining = (hash << m_precision) | (1L << (m_precision - 1));
+        final byte rank = (byte)(Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > m_registers[idx]) {
+            m_registers[idx] = rank;
+        }
+    }
+
+    /** @return <code>true</code> if the hash was not contained */
+    private boolean addToSparse(final long hash) {
+        if (2 * (m_sparseSize + 1) > m_sparse.length) {
+            final long[] old = m_sparse;
+            m_sparse = new long[old.length * 2];
+            m_sparseSize = 0;
+            for (final long h : old) {
+                if (h != EMPTY) {
+                    addToSparse(h);
+                }
+            }
+        }
+        final int mask = m_sparse.length - 1;
+        int idx = (int)(hash ^ (hash >>> 32)) & mask;
+        while (m_sparse[idx] != EMPTY) {
+            if (m_sparse[idx] == hash) {
+                return false;
+            }
+            idx = (idx + 1) & mask;
+        }
+        m_sparse[idx] = hash;
+        m_sparseSize++;
+        return true;
+    }
+
+    private void toRegisters() {
+        m_registers = new byte[1 << m_precision];
+        if (m_containsZero) {
+            addToRegisters(EMPTY);
+        }
+        for (final long hash : m_sparse) {
+            if (hash != EMPTY) {
+                addToRegisters(hash);
+            }
+        }
+        m_sparse = null;
+        m_sparseSize = 0;
+        m_containsZero = false;
+    }
+
+    /**
+     * Computes a 64 bit hash of the given cell. Equal cells have equal hashes, the hash of strings and numbers is
+     * computed from their value to avoid the collisions of the 32 bit {@link Object#hashCode()}.
+     *
+     * @param cell the cell
+     * @return the hash
+     */
+    static long hash(final DataCell cell) {
+        if (cell instanceof StringCell) {
+            final String value = ((StringValue)cell).getStringValue();
+            long h = 0x9E3779B97F4A7C15L ^ value.length();
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            return mix(h);
+        }
+        if (!cell.isMissing() && cell instanceof LongValue) {
+            return mix(((LongValue)cell).getLongValue());
+        }
+        if (!cell.isMissing() && cell instanceof DoubleValue) {
+            final double value = ((DoubleValue)cell).getDoubleValue();
+            // 0.0 and -0.0 are equal
+            return mix(value == 0 ? 0 : Double.doubleToLongBits(value) + 0x632BE59BD9B4E019L);
+        }
+        return mix(cell.hashCode() + 0x7F4A7C159E3779B9L);
+    }
+
+    /** The finalizer of SplitMix64, spreads the bits of the argument over the whole hash. */
+    private static long mix(final long value) {
+        long h = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.data.aggregation.general;
+
+import javax.swing.JPanel;
+
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.NotConfigurableException;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+
+/**
+ * Settings of an aggregation operator that consist of a single bounded integer, e.g. the precision of a sketch.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class IntegerOperatorSettings {
+
+    private final SettingsModelIntegerBounded m_model;
+
+    private final String m_label;
+
+    private DialogComponentNumber m_component;
+
+    private JPanel m_panel;
+
+    /**
+     * @param configName the key of the setting
+     * @param label the label shown in the settings panel
+     * @param defaultValue the default value
+     * @param minValue the minimal value
+     * @param maxValue the maximal value
+     */
+    IntegerOperatorSettings(final String configName, final String label, final int defaultValue,
+        final int minValue, final int maxValue) {
+        m_model = new SettingsModelIntegerBounded(configName, defaultValue, minValue, maxValue);
+        m_label = label;
+    }
+
+    /**
+     * @return the current value
+     */
+    int getValue() {
+        return m_model.getIntValue();
+    }
+
+    /**
+     * @param value the value to set
+     */
+    void setValue(final int value) {
+        m_model.setIntValue(value);
+    }
+
+    /**
+     * @return the settings panel
+     */
+    JPanel getPanel() {
+        if (m_panel == null) {
+            m_component = new DialogComponentNumber(m_model, m_label, 1);
+            m_panel = new JPanel();
+            m_panel.add(m_component.getComponentPanel());
+        }
+        return m_panel;
+    }
+
+    /**
+     * @param settings the settings to load into the settings panel
+     * @param spec the input {@link DataTableSpec}
+     * @throws NotConfigurableException if the settings cannot be loaded
+     */
+    void loadSettingsFrom(final NodeSettingsRO settings, final DataTableSpec spec) throws NotConfigurableException {
+        getPanel();
+        m_component.loadSettingsFrom(settings, new DataTableSpec[]{spec});
+    }
+
+    /**
+     * @param settings the {@link NodeSettingsRO} to read the settings from
+     * @throws InvalidSettingsException if the settings are invalid
+     */
+    void loadSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_model.loadSettingsFrom(settings);
+    }
+
+    /**
+     * @param settings the {@link NodeSettingsWO} to write to
+     */
+    void saveSettingsTo(final NodeSettingsWO settings) {
+        m_model.saveSettingsTo(settings);
+    }
+
+    /**
+     * @param settings the {@link NodeSettingsRO} to read the settings from
+     * @throws InvalidSettingsException if the settings are invalid
+     */
+    void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_model.validateSettings(settings);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.data.aggregation.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming quantile sketch for <code>long</code> values that uses a hierarchy of compactors: each level holds up
+ * to a fixed number of values, a full level is sorted and every other value (alternating between the even and the
+ * uneven positions) is promoted to the next level with twice the weight. The memory usage is logarithmic in the
+ * number of added values and the returned values are always values that have been added.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class LongQuantileSketch {
+
+    private final int m_capacity;
+
+    private final List<long[]> m_levels = new ArrayList<>();
+
+    private final List<Integer> m_sizes = new ArrayList<>();
+
+    private long m_count;
+
+    /** Alternates the values that are kept during a compaction, deterministic for reproducible results. */
+    private int m_offset;
+
+    /**
+     * @param capacity the number of values per level, an even number of at least 2
+     */
+    LongQuantileSketch(final int capacity) {
+        m_capacity = Math.max(2, capacity & ~1);
+        addLevel();
+    }
+
+    /**
+     * @param value the value to add
+     */
+    void add(final long value) {
+        m_count++;
+        addToLevel(0, value);
+    }
+
+    /**
+     * @return the number of added values
+     */
+    long getCount() {
+        return m_count;
+    }
+
+    private void addToLevel(final int level, final long value) {
+        final long[] values = m_levels.get(level);
+        int size = m_sizes.get(level);
+        values[size++] = value;
+        if (size < m_capacity) {
+            m_sizes.set(level, size);
+            return;
+        }
+        // compact the full level into the next one
+        Arrays.sort(values);
+        m_sizes.set(level, 0);
+        if (level + 1 == m_levels.size()) {
+            addLevel();
+        }
+        for (int i = m_offset; i < m_capacity; i += 2) {
+            addToLevel(level + 1, values[i]);
+        }
+        m_offset ^= 1;
+    }
+
+    private void addLevel() {
+        m_levels.add(new long[m_capacity]);
+        m_sizes.add(0);
+    }
+
+    /**
+     * @param rank the zero based rank of the value to return, between 0 and {@link #getCount()} - 1
+     * @return the approximate value with the given rank
+     */
+    long getValue(final long rank) {
+        final int nrLevels = m_levels.size();
+        int total = 0;
+        for (int level = 0; level < nrLevels; level++) {
+            total += m_sizes.get(level);
+        }
+        // sort the retained values together with their weights
+        final long[] values = new long[total];
+        final long[] weights = new long[total];
+        int idx = 0;
+        for (int level = 0; level < nrLevels; level++) {
+            final long[] levelValues = m_levels.get(level);
+            for (int i = 0, size = m_sizes.get(level); i < size; i++) {
+                values[idx] = levelValues[i];
+                weights[idx] = 1L << level;
+                idx++;
+            }
+        }
+        final Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(values[a], values[b]));
+        // a compaction keeps the total weight, i.e. it is always equal to the count
+        long cumulative = 0;
+        for (final Integer i : order) {
+            cumulative += weights[i];
+            if (cumulative > rank) {
+                return values[i];
+            }
+        }
+        return values[order[total - 1]];
+    }
+}
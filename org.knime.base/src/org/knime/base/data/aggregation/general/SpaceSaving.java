@@ -0,0 +1,256 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.data.aggregation.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.core.data.DataCell;
+
+/**
+ * Space-Saving summary that tracks the approximately most frequent values of a stream with a fixed number of
+ * counters. If a new value arrives while all counters are in use, the value with the smallest count is replaced and
+ * inherits its count as overestimation error. Every value that occurs more often than <i>n / capacity</i> times is
+ * guaranteed to be tracked.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class SpaceSaving {
+
+    private static final Comparator<Counter> BY_COUNT_DESC =
+        Comparator.comparingLong((final Counter c) -> -c.m_count).thenComparingLong(c -> c.m_firstSeen);
+
+    private final int m_capacity;
+
+    private final Map<DataCell, Counter> m_counters;
+
+    /** Min heap of the counters ordered by their count. */
+    private Counter[] m_heap;
+
+    private int m_size;
+
+    /** Used to prefer values that have been seen first if counts are equal. */
+    private long m_sequence;
+
+    private static final class Counter {
+        private DataCell m_cell;
+
+        private long m_count;
+
+        private long m_error;
+
+        private long m_firstSeen;
+
+        private int m_heapIdx;
+    }
+
+    /**
+     * @param capacity the maximal number of tracked values
+     */
+    SpaceSaving(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        m_capacity = capacity;
+        m_counters = new HashMap<>();
+        m_heap = new Counter[Math.min(capacity, 16)];
+    }
+
+    /**
+     * @param cell the value to add
+     */
+    void add(final DataCell cell) {
+        add(cell, 1, 0, m_sequence++);
+    }
+
+    private void add(final DataCell cell, final long count, final long error, final long firstSeen) {
+        Counter counter = m_counters.get(cell);
+        if (counter != null) {
+            counter.m_count += count;
+            counter.m_error += error;
+            siftDown(counter.m_heapIdx);
+            return;
+        }
+        if (m_size < m_capacity) {
+            counter = new Counter();
+            counter.m_cell = cell;
+            counter.m_count = count;
+            counter.m_error = error;
+            counter.m_firstSeen = firstSeen;
+            if (m_size == m_heap.length) {
+                m_heap = Arrays.copyOf(m_heap, Math.min(m_capacity, 2 * m_heap.length));
+            }
+            counter.m_heapIdx = m_size;
+            m_heap[m_size++] = counter;
+            m_counters.put(cell, counter);
+            siftUp(counter.m_heapIdx);
+            return;
+        }
+        // replace the value with the smallest count
+        counter = m_heap[0];
+        m_counters.remove(counter.m_cell);
+        counter.m_cell = cell;
+        counter.m_error = counter.m_count + error;
+        counter.m_count += count;
+        counter.m_firstSeen = firstSeen;
+        m_counters.put(cell, counter);
+        siftDown(0);
+    }
+
+    /**
+     * Merges the given summary into this one. Values that are only tracked by one summary are assumed to occur as
+     * often as the smallest count of the other summary, which keeps the guarantees of the summary.
+     *
+     * @param other the summary to merge
+     */
+    void merge(final SpaceSaving other) {
+        final long minThis = getMinCount();
+        final long minOther = other.getMinCount();
+        final List<Counter> merged = new ArrayList<>(m_size + other.m_size);
+        for (int i = 0; i < m_size; i++) {
+            final Counter counter = m_heap[i];
+            final Counter otherCounter = other.m_counters.get(counter.m_cell);
+            if (otherCounter == null) {
+                counter.m_count += minOther;
+                counter.m_error += minOther;
+            } else {
+                counter.m_count += otherCounter.m_count;
+                counter.m_error += otherCounter.m_error;
+            }
+            merged.add(counter);
+        }
+        for (int i = 0; i < other.m_size; i++) {
+            final Counter otherCounter = other.m_heap[i];
+            if (!m_counters.containsKey(otherCounter.m_cell)) {
+                final Counter counter = new Counter();
+                counter.m_cell = otherCounter.m_cell;
+                counter.m_count = otherCounter.m_count + minThis;
+                counter.m_error = otherCounter.m_error + minThis;
+                // values of the other summary are considered to be seen after the values of this one
+                counter.m_firstSeen = m_sequence + otherCounter.m_firstSeen;
+                merged.add(counter);
+            }
+        }
+        m_sequence += other.m_sequence;
+        merged.sort(BY_COUNT_DESC);
+        m_counters.clear();
+        m_size = 0;
+        m_heap = new Counter[Math.min(m_capacity, Math.max(16, merged.size()))];
+        for (final Counter counter : merged.subList(0, Math.min(m_capacity, merged.size()))) {
+            add(counter.m_cell, counter.m_count, counter.m_error, counter.m_firstSeen);
+        }
+    }
+
+    /** @return the smallest count if all counters are in use, 0 otherwise */
+    private long getMinCount() {
+        return m_size < m_capacity ? 0 : m_heap[0].m_count;
+    }
+
+    /**
+     * @param k the maximal number of values to return
+     * @return the up to k values with the highest counts in descending order of their counts, values with equal
+     *         counts are ordered by their first occurrence
+     */
+    List<DataCell> getTopK(final int k) {
+        final Counter[] counters = Arrays.copyOf(m_heap, m_size);
+        Arrays.sort(counters, BY_COUNT_DESC);
+        final List<DataCell> result = new ArrayList<>(Math.min(k, m_size));
+        for (int i = 0; i < Math.min(k, m_size); i++) {
+            result.add(counters[i].m_cell);
+        }
+        return result;
+    }
+
+    /**
+     * @return <code>true</code> if no value has been added
+     */
+    boolean isEmpty() {
+        return m_size == 0;
+    }
+
+    private void siftUp(final int idx) {
+        int i = idx;
+        final Counter counter = m_heap[i];
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (m_heap[parent].m_count <= counter.m_count) {
+                break;
+            }
+            place(m_heap[parent], i);
+            i = parent;
+        }
+        place(counter, i);
+    }
+
+    private void siftDown(final int idx) {
+        int i = idx;
+        final Counter counter = m_heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= m_size) {
+                break;
+            }
+            if (child + 1 < m_size && m_heap[child + 1].m_count < m_heap[child].m_count) {
+                child++;
+            }
+            if (m_heap[child].m_count >= counter.m_count) {
+                break;
+            }
+            place(m_heap[child], i);
+            i = child;
+        }
+        place(counter, i);
+    }
+
+    private void place(final Counter counter, final int idx) {
+        m_heap[idx] = counter;
+        counter.m_heapIdx = idx;
+    }
+}
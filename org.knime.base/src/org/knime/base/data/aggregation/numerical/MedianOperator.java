@@ -57,6 +57,8 @@
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.DoubleCell.DoubleCellFactory;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
 
 
 /**
@@ -69,6 +71,65 @@ public class MedianOperator extends AbstractMedianOperator {
 
     private static final DataType TYPE = DoubleCell.TYPE;
 
+    private static final PrimitiveEncoding INT_ENCODING = new PrimitiveEncoding() {
+
+        @Override
+        public boolean canEncode(final DataCell cell) {
+            return cell.getClass() == IntCell.class;
+        }
+
+        @Override
+        public long encode(final DataCell cell) {
+            return ((IntCell)cell).getIntValue();
+        }
+
+        @Override
+        public DataCell decode(final long value) {
+            return new IntCell((int)value);
+        }
+    };
+
+    private static final PrimitiveEncoding LONG_ENCODING = new PrimitiveEncoding() {
+
+        @Override
+        public boolean canEncode(final DataCell cell) {
+            return cell.getClass() == LongCell.class;
+        }
+
+        @Override
+        public long encode(final DataCell cell) {
+            return ((LongCell)cell).getLongValue();
+        }
+
+        @Override
+        public DataCell decode(final long value) {
+            return new LongCell(value);
+        }
+    };
+
+    /**
+     * Encodes doubles such that the order of the encoded values is the order of {@link Double#compare(double,
+     * double)}: the sign bit is kept and all other bits are flipped for negative numbers.
+     */
+    private static final PrimitiveEncoding DOUBLE_ENCODING = new PrimitiveEncoding() {
+
+        @Override
+        public boolean canEncode(final DataCell cell) {
+            return cell.getClass() == DoubleCell.class;
+        }
+
+        @Override
+        public long encode(final DataCell cell) {
+            final long bits = Double.doubleToLongBits(((DoubleCell)cell).getDoubleValue());
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+
+        @Override
+        public DataCell decode(final long value) {
+            return new DoubleCell(Double.longBitsToDouble(value ^ ((value >> 63) & Long.MAX_VALUE)));
+        }
+    };
+
     private static EvenListMedianMethod createCustomMeanMedianMethod() {
         return new EvenListMedianMethod() {
 
@@ -113,6 +174,21 @@ protected DataType getDataType(final DataType origType) {
         return TYPE;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected PrimitiveEncoding createPrimitiveEncoding(final DataType origType) {
+        if (IntCell.TYPE.equals(origType)) {
+            return INT_ENCODING;
+        } else if (LongCell.TYPE.equals(origType)) {
+            return LONG_ENCODING;
+        } else if (DoubleCell.TYPE.equals(origType)) {
+            return DOUBLE_ENCODING;
+        }
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -123,6 +199,7 @@ public AggregationOperator createInstance(
         final MedianOperator operator = new MedianOperator(getOperatorData(), globalSettings,
             opColSettings);
         operator.setMedianMethod(getMedianMethod());
+        operator.setApproximationThreshold(getApproximationThreshold());
         return operator;
     }
 
@@ -355,7 +355,19 @@ public double[] output(final Double[] in) {
      * @return class value
      */
     public String getClassOutput(final double[] in) {
-        double[] output = output(in);
+        return getClassOutputOf(output(in));
+    }
+
+    /**
+     * Finds the winner among the given outputs of the output neurons and
+     * returns its class output value.
+     *
+     * @param output the output of the output neurons as returned by
+     *            {@link #output(double[])}
+     * @return class value
+     * @since 4.5
+     */
+    public String getClassOutputOf(final double[] output) {
         int winnerindex = -1;
         double temp = Double.MIN_VALUE;
         for (int i = 0; i < output.length; i++) {
@@ -51,8 +51,10 @@
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.OptionalLong;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -67,11 +69,13 @@
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessible;
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessibleUtils;
 import org.knime.filehandling.core.node.table.reader.read.Read;
+import org.knime.filehandling.core.node.table.reader.read.ReadPushdown;
 import org.knime.filehandling.core.node.table.reader.read.ReadUtils;
 import org.knime.filehandling.core.node.table.reader.spec.TableSpecGuesser;
 import org.knime.filehandling.core.node.table.reader.spec.TypedReaderTableSpec;
 import org.knime.filehandling.core.util.BomEncodingUtils;
 import org.knime.filehandling.core.util.CompressionAwareCountingInputStream;
+import org.knime.filehandling.core.util.MappedFileReader;
 
 import com.univocity.parsers.common.TextParsingException;
 import com.univocity.parsers.csv.CsvParser;
@@ -90,7 +94,18 @@ public final class CSVTableReader implements TableReader<CSVTableReaderConfig, C
     @Override
     public Read<String> read(final FSPath path, final TableReadConfig<CSVTableReaderConfig> config)
         throws IOException {
-        return decorateForReading(new CsvRead(path, config), config);
+        return read(path, config, ReadPushdown.none());
+    }
+
+    /**
+     * {@inheritDoc}</br>
+     * Only the required columns are materialized by the parser, the values of all other columns are {@code null}.
+     */
+    @SuppressWarnings("resource") // closing the read is the responsibility of the caller
+    @Override
+    public Read<String> read(final FSPath path, final TableReadConfig<CSVTableReaderConfig> config,
+        final ReadPushdown pushdown) throws IOException {
+        return decorateForReading(new CsvRead(path, config, pushdown), config);
     }
 
     /**
@@ -113,7 +128,7 @@ public static Read<String> read(final InputStream inputStream,
     public TypedReaderTableSpec<Class<?>> readSpec(final FSPath path, final TableReadConfig<CSVTableReaderConfig> config,
         final ExecutionMonitor exec) throws IOException {
         final TableSpecGuesser<FSPath, Class<?>, String> guesser = createGuesser(config);
-        try (final CsvRead read = new CsvRead(path, config)) {
+        try (final CsvRead read = new CsvRead(path, config, ReadPushdown.none())) {
             return guesser.guessSpec(read, config, exec, path);
         }
     }
@@ -176,19 +191,36 @@ private static final class CsvRead implements Read<String> {
         /** the {@link CsvParserSettings} */
         private final CsvParserSettings m_csvParserSettings;
 
-        /** The {@link CompressionAwareCountingInputStream} which creates the necessary streams */
+        /**
+         * The {@link CompressionAwareCountingInputStream} which creates the necessary streams, {@code null} if the file
+         * is memory mapped
+         */
         private final CompressionAwareCountingInputStream m_compressionAwareStream;
 
+        /** The reader of the memory mapped local file, {@code null} if the file is read via a stream */
+        private final MappedFileReader m_mappedReader;
+
         /**
          * Constructor
          *
          * @param path the path of the file to read
          * @param config the CSV table reader configuration.
+         * @param pushdown the {@link ReadPushdown} specifying which columns have to be materialized
          * @throws IOException if a stream can not be created from the provided file.
          */
+        @SuppressWarnings("resource") // The mapped reader is closed by the close method
+        CsvRead(final FSPath path, final TableReadConfig<CSVTableReaderConfig> config, final ReadPushdown pushdown)
+            throws IOException {
+            this(path, MappedFileReader.open(path, getCharset(config.getReaderSpecificConfig())).orElse(null),
+                config, pushdown);
+        }
+
         @SuppressWarnings("resource") // The input stream is closed by the close method
-        CsvRead(final FSPath path, final TableReadConfig<CSVTableReaderConfig> config) throws IOException {
-            this(new CompressionAwareCountingInputStream(path), Files.size(path), config);//NOSONAR
+        private CsvRead(final FSPath path, final MappedFileReader mappedReader,
+            final TableReadConfig<CSVTableReaderConfig> config, final ReadPushdown pushdown) throws IOException {
+            // local uncompressed files are decoded directly from the mapped file, everything else is streamed
+            this(mappedReader == null ? new CompressionAwareCountingInputStream(path) : null, mappedReader,
+                Files.size(path), config, pushdown);//NOSONAR
         }
 
         /**
@@ -200,17 +232,20 @@ private static final class CsvRead implements Read<String> {
          */
         @SuppressWarnings("resource") //streams will be closed in the close method
         CsvRead(final InputStream inputStream, final TableReadConfig<CSVTableReaderConfig> config) throws IOException {
-            this(new CompressionAwareCountingInputStream(inputStream), -1, config);
+            this(new CompressionAwareCountingInputStream(inputStream), null, -1, config, ReadPushdown.none());
         }
 
-        private CsvRead(final CompressionAwareCountingInputStream inputStream, final long size,
-            final TableReadConfig<CSVTableReaderConfig> config) throws IOException {
+        private CsvRead(final CompressionAwareCountingInputStream inputStream, final MappedFileReader mappedReader,
+            final long size, final TableReadConfig<CSVTableReaderConfig> config, final ReadPushdown pushdown)
+            throws IOException {
             m_size = size;
             m_compressionAwareStream = inputStream;
+            m_mappedReader = mappedReader;
 
             final CSVTableReaderConfig csvReaderConfig = config.getReaderSpecificConfig();
             // Get the Univocity Parser settings from the reader specific configuration.
             m_csvParserSettings = csvReaderConfig.getCsvSettings();
+            selectColumns(pushdown);
             m_reader = createReader(csvReaderConfig);
             if (csvReaderConfig.skipLines()) {
                 skipLines(csvReaderConfig.getNumLinesToSkip());
@@ -219,14 +254,42 @@ private CsvRead(final CompressionAwareCountingInputStream inputStream, final lon
             m_parser.beginParsing(m_reader);
         }
 
+        /**
+         * Lets the parser skip the values of columns that are not required. Disabling the column reordering ensures
+         * that the parsed rows keep their size and column positions while the values of the skipped columns are
+         * {@code null}.
+         *
+         * @param pushdown specifying the required columns
+         */
+        private void selectColumns(final ReadPushdown pushdown) {
+            if (!pushdown.isProjected()) {
+                return;
+            }
+            final Integer[] requiredColumns = Arrays.stream(pushdown.getRequiredColumns())//
+                .boxed()//
+                .toArray(Integer[]::new);
+            // without any required column there is nothing to select, the parsed values are not used anyway
+            if (requiredColumns.length > 0) {
+                m_csvParserSettings.setColumnReorderingEnabled(false);
+                m_csvParserSettings.selectIndexes(requiredColumns);
+            }
+        }
+
+        private static Charset getCharset(final CSVTableReaderConfig csvReaderConfig) {
+            final String charSetName = csvReaderConfig.getCharSetName();
+            return charSetName == null ? Charset.defaultCharset() : Charset.forName(charSetName);
+        }
+
         @SuppressWarnings("resource")
         private BufferedReader createReader(final CSVTableReaderConfig csvReaderConfig) {
-            final String charSetName = csvReaderConfig.getCharSetName();
-            final Charset charset = charSetName == null ? Charset.defaultCharset() : Charset.forName(charSetName);
+            final Charset charset = getCharset(csvReaderConfig);
             if (csvReaderConfig.useLineBreakRowDelimiter()) {
                 m_csvParserSettings.getFormat().setLineSeparator(OSIndependentNewLineReader.LINE_BREAK);
-                return new BufferedReader(
-                    new OSIndependentNewLineReader(BomEncodingUtils.createReader(m_compressionAwareStream, charset)));
+                final Reader reader = m_mappedReader != null ? m_mappedReader
+                    : BomEncodingUtils.createReader(m_compressionAwareStream, charset);
+                return new BufferedReader(new OSIndependentNewLineReader(reader));
+            } else if (m_mappedReader != null) {
+                return m_mappedReader;
             } else {
                 return BomEncodingUtils.createBufferedReader(m_compressionAwareStream, charset);
             }
@@ -285,7 +348,9 @@ public void close() throws IOException {
             m_parser.stopParsing();
             // the parser should already close the reader and the streams but we close them anyway just to be sure
             m_reader.close();
-            m_compressionAwareStream.close();
+            if (m_compressionAwareStream != null) {
+                m_compressionAwareStream.close();
+            }
         }
 
         @Override
@@ -295,7 +360,7 @@ public OptionalLong getMaxProgress() {
 
         @Override
         public long getProgress() {
-            return m_compressionAwareStream.getCount();
+            return m_mappedReader != null ? m_mappedReader.getCount() : m_compressionAwareStream.getCount();
         }
 
         /**
@@ -50,6 +50,7 @@
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.function.Consumer;
 
@@ -87,6 +88,29 @@ BufferedFileReader createBufferedFileReader(final String charsetName,
             charsetName, m_fileSize);
     }
 
+    /**
+     * Opens a plain stream on the file, i.e. compressed files are not decompressed.
+     */
+    InputStream createInputStream(final Consumer<StatusMessage> statusMessageConsumer)
+        throws IOException, InvalidSettingsException {
+        openAccessor(statusMessageConsumer);
+        return Files.newInputStream(m_path);
+    }
+
+    /**
+     * Only valid after a reader or stream has been created.
+     */
+    String getFileName() {
+        return m_path.getFileName().toString();
+    }
+
+    /**
+     * Only valid after a reader or stream has been created.
+     */
+    long getFileSize() {
+        return m_fileSize;
+    }
+
     private synchronized void openAccessor(final Consumer<StatusMessage> statusMessageConsumer)
         throws IOException, InvalidSettingsException {
         if (m_pathAccessor == null) {
@@ -48,11 +48,15 @@
 package org.knime.base.node.io.filehandling.filereader;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.knime.base.node.io.filereader.ColProperty;
 import org.knime.base.node.io.filereader.DataCellFactory;
@@ -70,13 +74,13 @@
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.tableview.TableContentModel;
 import org.knime.core.util.tokenizer.Comment;
 import org.knime.core.util.tokenizer.Delimiter;
 import org.knime.core.util.tokenizer.Quote;
 import org.knime.core.util.tokenizer.Tokenizer;
-import org.knime.filehandling.core.defaultnodesettings.status.StatusMessageUtils;
 
 /**
  * Provides functionality for analyzing an ASCII data file to create default settings. It tries to figure out what kind
@@ -130,6 +134,14 @@ private FileAnalyzer() {
      */
     static FileReaderNodeSettings analyze(final FileReaderNodeSettings userSettings, final ExecutionMonitor exec)
         throws IOException, InvalidSettingsException {
+        return analyze(userSettings, exec, FileSample.MAX_SAMPLE_SIZE);
+    }
+
+    /**
+     * Like {@link #analyze(FileReaderNodeSettings, ExecutionMonitor)} but with the given maximum sample size.
+     */
+    static FileReaderNodeSettings analyze(final FileReaderNodeSettings userSettings, final ExecutionMonitor exec,
+        final int maxSampleSize) throws IOException, InvalidSettingsException {
         if (userSettings.getDataFileLocation().getPath().isBlank()) {
             throw new IllegalArgumentException("Must specify a valid file location for the file analyzer");
         }
@@ -145,7 +157,7 @@ static FileReaderNodeSettings analyze(final FileReaderNodeSettings userSettings,
         FileReaderNodeSettings result = new FileReaderNodeSettings(userSettings.getDataFileLocation());
 
         execMon.setProgress(0.0);
-        try {
+        try (final FileSample sample = FileSample.read(userSettings, maxSampleSize)) {
             result.setDataFileLocationAndUpdateTableName(userSettings.getDataFileLocation().getPath());
             result.setDecimalSeparator(userSettings.getDecimalSeparator());
             result.setThousandsSeparator(userSettings.getThousandsSeparator());
@@ -155,12 +167,13 @@ static FileReaderNodeSettings analyze(final FileReaderNodeSettings userSettings,
             result.setSkipFirstLines(userSettings.getSkipFirstLines());
             result.allowLFinQuotes(userSettings.allowLFinQuotes());
             result.setCharsetName(userSettings.getCharsetName());
-            result.setAnalyzeUsedAllRows(true);
+            // large files are only analyzed up to the sample size
+            result.setAnalyzeUsedAllRows(sample.isComplete());
             result.setMissValuePatternStrCols(userSettings.getMissValuePatternStrCols());
 
             //if the user didn't provide the charset, identify it by looking at the first bytes of the stream
             if (!userSettings.isCharsetUserSet()) {
-                result.setCharsetName(guessCharSet(userSettings));
+                result.setCharsetName(guessCharSet(userSettings, sample));
                 result.setCharsetUserSet(false);
             } else {
                 result.setCharsetName(userSettings.getCharsetName());
@@ -170,7 +183,7 @@ static FileReaderNodeSettings analyze(final FileReaderNodeSettings userSettings,
             ExecutionMonitor subExec = execMon.createSubProgress(COMMENT_SUB);
             if (!userSettings.isCommentUserSet()) {
                 // only guess comment patterns if user didn't provide any
-                addComments(result, subExec);
+                addComments(result, sample, subExec);
                 result.setCommentUserSet(false);
             } else {
                 // take over user settings.
@@ -186,7 +199,7 @@ static FileReaderNodeSettings analyze(final FileReaderNodeSettings userSettings,
             subExec = execMon.createSubProgress(QUOTES_SUB);
             if (!userSettings.isQuoteUserSet()) {
                 // only guess quotes if user didn't specify any
-                addQuotes(result, subExec);
+                addQuotes(result, sample, subExec);
                 result.setQuoteUserSet(false);
             } else {
                 // take over user settings.
@@ -224,7 +237,7 @@ static FileReaderNodeSettings analyze(final FileReaderNodeSettings userSettings,
             // honors user settings
             subExec = execMon.createSubProgress(DELIMS_SUB);
 
-            setDelimitersAndColNum(userSettings, result, subExec);
+            setDelimitersAndColNum(userSettings, result, sample, subExec);
 
             assert result.getNumberOfColumns() > 0;
             subExec.setProgress(1.0);
@@ -240,7 +253,7 @@ static FileReaderNodeSettings analyze(final FileReaderNodeSettings userSettings,
                 boolean hasRowHeaders;
                 if (result.getNumberOfColumns() > 1) {
                     // if we have at least 2 cols, one of them could be headers
-                    hasRowHeaders = checkRowHeader(result, subExec);
+                    hasRowHeaders = checkRowHeader(result, sample, subExec);
                 } else {
                     hasRowHeaders = false;
                 }
@@ -257,7 +270,7 @@ static FileReaderNodeSettings analyze(final FileReaderNodeSettings userSettings,
 
             // guesses (or copies) column types and names.
             subExec = execMon.createSubProgress(TYPES_SUB + COLHDR_SUB);
-            Vector<ColProperty> columnProps = createColumnProperties(userSettings, result, subExec);
+            Vector<ColProperty> columnProps = createColumnProperties(userSettings, result, sample, subExec);
             result.setColumnProperties(columnProps);
             subExec.setProgress(1.0);
 
@@ -350,18 +363,19 @@ private static int getShortCutLines(final ExecutionMonitor exec) {
      * @param userSettings settings user provided. Must be honored!
      * @param result the settings so far, must contain data url, delimiters, comments, quotes, colNumber, and rowHeader
      *            flag
+     * @param sample the sample of the file to read from
      * @param exec to check for cancellations and report progress to
      * @return a vector of colProperty objects, having the columnSpec set and the useFileHeader flag
      * @throws IOException if an I/O error occurs
      * @throws InvalidSettingsException - if the settings are incorrect of the file chooser
      */
     private static Vector<ColProperty> createColumnProperties(final FileReaderNodeSettings userSettings,
-        final FileReaderNodeSettings result, final ExecutionMonitor exec)
+        final FileReaderNodeSettings result, final FileSample sample, final ExecutionMonitor exec)
         throws IOException, InterruptedExecutionException, InvalidSettingsException {
 
         // first detect the type of each column
         ExecutionMonitor subExec = exec.createSubProgress(TYPES_SUB);
-        ColProperty[] colProps = createColumnTypes(userSettings, result, subExec);
+        ColProperty[] colProps = createColumnTypes(userSettings, result, sample, subExec);
         // extract the column types and column missing values from the result
         // of the above method call
         DataType[] columnTypes = new DataType[colProps.length];
@@ -383,9 +397,7 @@ private static Vector<ColProperty> createColumnProperties(final FileReaderNodeSe
         String scndLineRowHeader = null;
         String[] columnHeaders = new String[result.getNumberOfColumns()];
 
-        try (final BufferedPathReader pathReader = result.createNewInputReader();
-                final BufferedFileReader reader =
-                    pathReader.createBufferedFileReader(result.getCharsetName(), StatusMessageUtils.NO_OP_CONSUMER)) {
+        try (final BufferedFileReader reader = sample.createReader(result.getCharsetName())) {
             Tokenizer tokenizer = new Tokenizer(reader);
             tokenizer.setSettings(result);
 
@@ -530,16 +542,16 @@ private static Vector<ColProperty> createColumnProperties(final FileReaderNodeSe
      * same (possibly empty) string followed by a constantly incremented number.
      *
      * @param settings the file to look at with corresponding settings
+     * @param sample the sample of the file to read from
      * @return true if it's reasonable to assume the file has row headers
      * @throws IOException if an I/O error occurs
      * @throws InterruptedExecutionException if analysis should be interrupted immediately
      * @throws InvalidSettingsException
      */
-    private static boolean checkRowHeader(final FileReaderNodeSettings settings, final ExecutionMonitor exec)
+    private static boolean checkRowHeader(final FileReaderNodeSettings settings, final FileSample sample,
+        final ExecutionMonitor exec)
         throws IOException, InterruptedExecutionException, InvalidSettingsException {
-        try (final BufferedPathReader pathReader = settings.createNewInputReader();
-                final BufferedFileReader reader =
-                    pathReader.createBufferedFileReader(settings.getCharsetName(), StatusMessageUtils.NO_OP_CONSUMER)) {
+        try (final BufferedFileReader reader = sample.createReader(settings.getCharsetName())) {
             final double fileSize = reader.getFileSize();
             long linesRead = 0;
 
@@ -743,11 +755,9 @@ private static Vector<ColProperty> createColProps(final String[] colNames, final
     }
 
     private static ColProperty[] createColumnTypes(final FileReaderNodeSettings userSettings,
-        final FileReaderNodeSettings result, final ExecutionMonitor exec)
+        final FileReaderNodeSettings result, final FileSample sample, final ExecutionMonitor exec)
         throws IOException, InterruptedExecutionException, InvalidSettingsException {
-        try (final BufferedPathReader pathReader = result.createNewInputReader();
-                final BufferedFileReader reader =
-                    pathReader.createBufferedFileReader(result.getCharsetName(), StatusMessageUtils.NO_OP_CONSUMER)) {
+        try (final BufferedFileReader reader = sample.createReader(result.getCharsetName())) {
             return createColumnTypes(userSettings, result, exec, reader);
         }
     }
@@ -976,20 +986,20 @@ private static ColProperty[] createColumnTypes(final FileReaderNodeSettings user
      * of lines (even if we are not supposed to cut the analysis short).
      *
      * @param settings object containing the data file location. The method will add comment patterns to this object.
+     * @param sample the sample of the file to read from
      * @param exec to check for cancellations and to report progress
      * @throws IOException if an I/O error occurs
      * @throws InvalidSettingsException - if the settings are incorrect of the file chooser
      */
-    private static void addComments(final FileReaderNodeSettings settings, final ExecutionMonitor exec)
+    private static void addComments(final FileReaderNodeSettings settings, final FileSample sample,
+        final ExecutionMonitor exec)
         throws IOException, InterruptedExecutionException, InvalidSettingsException {
 
         assert settings != null;
         assert settings.getDataFileLocation() != null;
         assert settings.getAllComments().size() == 0;
 
-        try (final BufferedPathReader pathReader = settings.createNewInputReader();
-                final BufferedFileReader reader =
-                    pathReader.createBufferedFileReader(settings.getCharsetName(), StatusMessageUtils.NO_OP_CONSUMER)) {
+        try (final BufferedFileReader reader = sample.createReader(settings.getCharsetName())) {
             exec.setProgress("Guessing comment pattern");
             String line;
             int linesRead = 0;
@@ -1044,21 +1054,21 @@ private static void addComments(final FileReaderNodeSettings settings, final Exe
      *
      * @param settings the object to add quote settings to. Must contain file location and possibly comments - but no
      *            delimiters yet!
+     * @param sample the sample of the file to read from
      * @param exec to check for cancellations and to report progress
      * @throws IOException if an I/O error occurs
      * @throws InterruptedExecutionException if analysis was interrupted
      * @throws InvalidSettingsException - if the settings are incorrect of the file chooser
      */
-    private static void addQuotes(final FileReaderNodeSettings settings, final ExecutionMonitor exec)
+    private static void addQuotes(final FileReaderNodeSettings settings, final FileSample sample,
+        final ExecutionMonitor exec)
         throws IOException, InterruptedExecutionException, InvalidSettingsException {
         assert settings != null;
         assert settings.getAllQuotes().size() == 0;
         assert settings.getDataFileLocation() != null;
         assert settings.getAllDelimiters().size() == 0;
 
-        try (final BufferedPathReader pathReader = settings.createNewInputReader();
-                final BufferedFileReader reader =
-                    pathReader.createBufferedFileReader(settings.getCharsetName(), StatusMessageUtils.NO_OP_CONSUMER)) {
+        try (final BufferedFileReader reader = sample.createReader(settings.getCharsetName())) {
             Tokenizer tokenizer = new Tokenizer(reader);
             double fileSize = reader.getFileSize();
             exec.setProgress("Guessing quotes");
@@ -1189,10 +1199,12 @@ private static void addQuotes(final FileReaderNodeSettings settings, final Execu
      * Splits the lines of the file (honoring the settings in the settings object), and tries to guess which delimiters
      * create the best results. It'll try out semicolon, comma, tab, or space delimiters; in this order. Whatever
      * produces more than one column (consistently) will be set. If no settings create more than one column no column
-     * delimiters will be set. A row delimiter ('\n' and '\r') is always set.
+     * delimiters will be set. A row delimiter ('\n' and '\r') is always set. The candidates are tested concurrently if
+     * the sample is in memory.
      */
     static void setDelimitersAndColNum(final FileReaderNodeSettings userSettings, final FileReaderNodeSettings result,
-        final ExecutionMonitor exec) throws IOException, InterruptedExecutionException, InvalidSettingsException {
+        final FileSample sample, final ExecutionMonitor exec)
+        throws IOException, InterruptedExecutionException, InvalidSettingsException {
 
         assert result != null;
         assert userSettings != null;
@@ -1202,109 +1214,23 @@ static void setDelimitersAndColNum(final FileReaderNodeSettings userSettings, fi
 
             exec.setProgress("Guessing column separator");
             exec.setProgress(0.0);
+            final List<DelimiterCandidate> candidates = new ArrayList<>();
             // Start with a semicolon delimiter. This way we catch the German
             // version of CSV files (they use semicolons, because comma is the
             // decimal separator - which might not yet be specified by the user)
             //
-            if ((userSettings.getThousandsSeparator() != ';') && (userSettings.getDecimalSeparator() != ';')) {
-                ExecutionMonitor subExec = createSubExecWithRemainder(exec);
-                try {
-                    result.removeAllDelimiters();
-                    // make sure '\n' and '\r' is a row delimiter. Always.
-                    result.addRowDelimiter("\n", true);
-                    result.addRowDelimiter("\r", true);
-                    result.addDelimiterPattern(";", false, false, false);
-
-                    if (testDelimiterSettingsSetColNum(result, subExec)) {
-                        return;
-                    }
-                } catch (IllegalArgumentException iae) {
-                    // seems we've added ';' as comment before - alright then.
-                }
-            }
-            //
-            // Try out comma delimiter
+            // Then try out comma and tab delimiters, space ignoring additional
+            // tabs at the end of each line, and space separated columns
             // - but only if its not the decimal or thousand separator
-            //
-            if ((userSettings.getThousandsSeparator() != ',') && (userSettings.getDecimalSeparator() != ',')) {
-                // make sure '\n' and '\r' is a row delimiter. Always.
-                ExecutionMonitor subExec = createSubExecWithRemainder(exec);
-                try {
-                    result.removeAllDelimiters();
-                    result.addRowDelimiter("\n", true);
-                    result.addRowDelimiter("\r", true);
-                    result.addDelimiterPattern(",", false, false, false);
-
-                    if (testDelimiterSettingsSetColNum(result, subExec)) {
-                        return;
-                    }
-                } catch (IllegalArgumentException iae) {
-                    // seems they've added ',' as comment before - alright then.
+            for (final DelimiterCandidate candidate : DelimiterCandidate.values()) {
+                if ((userSettings.getThousandsSeparator() != candidate.m_delimiter.charAt(0))
+                    && (userSettings.getDecimalSeparator() != candidate.m_delimiter.charAt(0))) {
+                    candidates.add(candidate);
                 }
             }
-            //
-            // try tab separated columns
-            // - but only if its not the decimal or thousand separator
-            //
-            if ((userSettings.getThousandsSeparator() != '\t') && (userSettings.getDecimalSeparator() != '\t')) {
-                ExecutionMonitor subExec = createSubExecWithRemainder(exec);
-                try {
-                    result.removeAllDelimiters();
-                    // make sure '\n' and '\r' is a row delimiter. Always.
-                    result.addRowDelimiter("\n", true);
-                    result.addRowDelimiter("\r", true);
-
-                    result.addDelimiterPattern("\t", false, false, false);
 
-                    if (testDelimiterSettingsSetColNum(result, subExec)) {
-                        return;
-                    }
-                } catch (IllegalArgumentException iae) {
-                    // seems they've added '\t' as comment before - alright
-                    // then.
-                }
-            }
-            //
-            // Try space, ignoring additional tabs at the end of each line
-            // - but only if its not the decimal or thousand separator
-            //
-            if ((userSettings.getThousandsSeparator() != ' ') && (userSettings.getDecimalSeparator() != ' ')) {
-                ExecutionMonitor subExec = createSubExecWithRemainder(exec);
-                try {
-                    result.removeAllDelimiters();
-                    // make sure '\n' and '\r' is a row delimiter. Always.
-                    result.addRowDelimiter("\n", true);
-                    result.addRowDelimiter("\r", true);
-
-                    result.addDelimiterPattern(" ", true, false, false);
-                    result.setIgnoreEmptyTokensAtEndOfRow(true);
-
-                    if (testDelimiterSettingsSetColNum(result, subExec)) {
-                        return;
-                    }
-                } catch (IllegalArgumentException iae) {
-                    // seems they've added ' ' as comment before - alright then.
-                }
-                // restore it to false
-                result.setIgnoreEmptyTokensAtEndOfRow(false);
-
-                //
-                // try space separated columns
-                //
-                subExec = createSubExecWithRemainder(exec);
-                try {
-                    result.removeAllDelimiters();
-                    // make sure '\n' and '\r' is a row delimiter. Always.
-                    result.addRowDelimiter("\n", true);
-                    result.addRowDelimiter("\r", true);
-                    result.addDelimiterPattern(" ", true, false, false);
-
-                    if (testDelimiterSettingsSetColNum(result, subExec)) {
-                        return;
-                    }
-                } catch (IllegalArgumentException iae) {
-                    // seems we've added ' ' as comment before - alright then.
-                }
+            if (testDelimiterCandidates(candidates, result, sample, exec) != null) {
+                return;
             }
 
             // well - none of the above settings made sense - return without
@@ -1334,13 +1260,147 @@ static void setDelimitersAndColNum(final FileReaderNodeSettings userSettings, fi
             }
             // set the number of cols that we read in with user presets.
             // take the maximum if rows have different num of cols.
-            result.setNumberOfColumns(getMaximumNumberOfColumns(result, exec));
+            result.setNumberOfColumns(getMaximumNumberOfColumns(result, sample, exec));
         }
 
         return;
 
     }
 
+    /**
+     * The delimiters tried out if the user didn't specify any, in the order of their priority.
+     */
+    private enum DelimiterCandidate {
+            SEMICOLON(";", false, false), COMMA(",", false, false), TAB("\t", false, false),
+            SPACE_IGNORING_EMPTY_TOKENS_AT_EOR(" ", true, true), SPACE(" ", true, false);
+
+        private final String m_delimiter;
+
+        private final boolean m_combineMultiple;
+
+        private final boolean m_ignoreEmptyTokensAtEndOfRow;
+
+        DelimiterCandidate(final String delimiter, final boolean combineMultiple,
+            final boolean ignoreEmptyTokensAtEndOfRow) {
+            m_delimiter = delimiter;
+            m_combineMultiple = combineMultiple;
+            m_ignoreEmptyTokensAtEndOfRow = ignoreEmptyTokensAtEndOfRow;
+        }
+
+        /**
+         * Replaces the delimiters of the settings with this one.
+         *
+         * @throws IllegalArgumentException if the delimiter is already used otherwise, e.g. as comment
+         */
+        void applyTo(final FileReaderNodeSettings settings) {
+            settings.removeAllDelimiters();
+            // make sure '\n' and '\r' is a row delimiter. Always.
+            settings.addRowDelimiter("\n", true);
+            settings.addRowDelimiter("\r", true);
+            settings.addDelimiterPattern(m_delimiter, m_combineMultiple, false, false);
+            settings.setIgnoreEmptyTokensAtEndOfRow(m_ignoreEmptyTokensAtEndOfRow);
+        }
+    }
+
+    /**
+     * Tests the candidates on copies of the settings - concurrently if the sample is in memory - and applies the
+     * first one, in the order of the list, that produces more than one column (consistently) to the settings.
+     *
+     * @return the applied candidate or <code>null</code> if none of them produces more than one column
+     */
+    private static DelimiterCandidate testDelimiterCandidates(final List<DelimiterCandidate> candidates,
+        final FileReaderNodeSettings result, final FileSample sample, final ExecutionMonitor exec)
+        throws IOException, InterruptedExecutionException, InvalidSettingsException {
+        final List<FileReaderNodeSettings> candidateSettings = new ArrayList<>(candidates.size());
+        for (final DelimiterCandidate candidate : candidates) {
+            final FileReaderNodeSettings settings = new FileReaderNodeSettings(result);
+            try {
+                candidate.applyTo(settings);
+                candidateSettings.add(settings);
+            } catch (IllegalArgumentException iae) {
+                // seems we've added the delimiter as comment before - alright then.
+                candidateSettings.add(null);
+            }
+        }
+
+        final boolean[] useSettings = new boolean[candidates.size()];
+        if (sample.isInMemory()) {
+            testConcurrently(candidateSettings, useSettings, sample, exec);
+        } else {
+            for (int i = 0; i < useSettings.length; i++) {
+                final FileReaderNodeSettings settings = candidateSettings.get(i);
+                if (settings != null) {
+                    useSettings[i] =
+                        testDelimiterSettingsSetColNum(settings, sample, createSubExecWithRemainder(exec));
+                    if (useSettings[i]) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < useSettings.length; i++) {
+            final FileReaderNodeSettings settings = candidateSettings.get(i);
+            if (settings != null && !settings.analyzeUsedAllRows()) {
+                // the analysis of this (or an earlier) candidate was cut short
+                result.setAnalyzeUsedAllRows(false);
+            }
+            if (useSettings[i]) {
+                candidates.get(i).applyTo(result);
+                result.setNumberOfColumns(settings.getNumberOfColumns());
+                return candidates.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static void testConcurrently(final List<FileReaderNodeSettings> candidateSettings,
+        final boolean[] useSettings, final FileSample sample, final ExecutionMonitor exec)
+        throws IOException, InterruptedExecutionException, InvalidSettingsException {
+        final List<Future<Boolean>> futures = new ArrayList<>(candidateSettings.size());
+        try {
+            for (final FileReaderNodeSettings settings : candidateSettings) {
+                if (settings == null) {
+                    futures.add(null);
+                } else {
+                    final ExecutionMonitor subExec = exec.createSubProgress(1.0 / candidateSettings.size());
+                    futures.add(KNIMEConstants.GLOBAL_THREAD_POOL
+                        .enqueue(() -> testDelimiterSettingsSetColNum(settings, sample, subExec)));
+                }
+            }
+            for (int i = 0; i < useSettings.length; i++) {
+                if (futures.get(i) != null) {
+                    useSettings[i] = futures.get(i).get();
+                    if (useSettings[i]) {
+                        // candidates with lower priority don't matter anymore
+                        break;
+                    }
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedExecutionException("Execution interrupted.");
+        } catch (ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            } else if (cause instanceof InterruptedExecutionException) {
+                throw (InterruptedExecutionException)cause;
+            } else if (cause instanceof InvalidSettingsException) {
+                throw (InvalidSettingsException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } finally {
+            for (final Future<Boolean> future : futures) {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
     /**
      * Creates a sub-exec with the progress part (100%) set to the unused remainder of the passed monitor.
      *
@@ -1366,11 +1426,10 @@ private static ExecutionMonitor createSubExecWithRemainder(final ExecutionMonito
      * fill the row, in case a later row has more (non-empty) tokens.
      */
     private static boolean testDelimiterSettingsSetColNum(final FileReaderNodeSettings settings,
-        final ExecutionMonitor exec) throws IOException, InterruptedExecutionException, InvalidSettingsException {
+        final FileSample sample, final ExecutionMonitor exec)
+        throws IOException, InterruptedExecutionException, InvalidSettingsException {
 
-        try (final BufferedPathReader pathReader = settings.createNewInputReader();
-                final BufferedFileReader reader =
-                    pathReader.createBufferedFileReader(settings.getCharsetName(), StatusMessageUtils.NO_OP_CONSUMER)) {
+        try (final BufferedFileReader reader = sample.createReader(settings.getCharsetName())) {
             Tokenizer tokenizer = new Tokenizer(reader);
             tokenizer.setSettings(settings);
 
@@ -1514,12 +1573,11 @@ private static boolean testDelimiterSettingsSetColNum(final FileReaderNodeSettin
         }
     }
 
-    private static int getMaximumNumberOfColumns(final FileReaderNodeSettings settings, final ExecutionMonitor exec)
+    private static int getMaximumNumberOfColumns(final FileReaderNodeSettings settings, final FileSample sample,
+        final ExecutionMonitor exec)
         throws IOException, InterruptedExecutionException, InvalidSettingsException {
 
-        try (final BufferedPathReader pathReader = settings.createNewInputReader();
-                final BufferedFileReader reader =
-                    pathReader.createBufferedFileReader(settings.getCharsetName(), StatusMessageUtils.NO_OP_CONSUMER)) {
+        try (final BufferedFileReader reader = sample.createReader(settings.getCharsetName())) {
 
             Tokenizer tokenizer = new Tokenizer(reader);
             tokenizer.setSettings(settings);
@@ -1603,11 +1661,9 @@ private static int getMaximumNumberOfColumns(final FileReaderNodeSettings settin
 
     }
 
-    private static String guessCharSet(final FileReaderNodeSettings settings) {
+    private static String guessCharSet(final FileReaderNodeSettings settings, final FileSample sample) {
         String charset = settings.getCharsetName();
-        try (final BufferedPathReader pathReader = settings.createNewInputReader();
-                final BufferedFileReader reader =
-                    pathReader.createBufferedFileReader(settings.getCharsetName(), StatusMessageUtils.NO_OP_CONSUMER)) {
+        try (final BufferedFileReader reader = sample.createReader(settings.getCharsetName())) {
             int c = reader.read();
             if (c == 239) {
                 //EF
@@ -1379,9 +1379,11 @@ public void run() {
                         return;
                     }
 
-                    if (m_analysisExecMonitor.wasCanceled()) {
+                    if (m_analysisExecMonitor.wasCanceled()
+                        || (newSettings != null && !newSettings.analyzeUsedAllRows())) {
                         /*
-                         * if user canceled and we did get an result back from
+                         * if user canceled (or the file is too large to be
+                         * analyzed entirely) and we did get an result back from
                          * analyze we could use these settings after partial
                          * analysis
                          */
@@ -0,0 +1,198 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.filereader;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.knime.base.node.util.BufferedFileReader;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.filehandling.core.defaultnodesettings.status.StatusMessageUtils;
+
+/**
+ * The data the {@link FileAnalyzer} looks at. The beginning of the file is read once into memory and all analysis
+ * passes read from this sample instead of opening the file again. If the file is larger than the sample, the sample
+ * ends with the last complete line. Compressed files that don't fit into the sample can't be cut and are read from
+ * the file in each pass.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class FileSample implements Closeable {
+
+    /** The maximum number of bytes kept in memory. */
+    static final int MAX_SAMPLE_SIZE = 64 << 20;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedPathReader m_pathReader;
+
+    private final byte[] m_sample;
+
+    private final int m_length;
+
+    private final boolean m_complete;
+
+    private FileSample(final BufferedPathReader pathReader, final byte[] sample, final int length,
+        final boolean complete) {
+        m_pathReader = pathReader;
+        m_sample = sample;
+        m_length = length;
+        m_complete = complete;
+    }
+
+    /**
+     * Reads the sample of the file specified in the settings.
+     *
+     * @param settings the settings containing the file location
+     * @return the sample
+     * @throws IOException if the file can't be read
+     * @throws InvalidSettingsException if the file location is invalid
+     */
+    static FileSample read(final FileReaderNodeSettings settings) throws IOException, InvalidSettingsException {
+        return read(settings, MAX_SAMPLE_SIZE);
+    }
+
+    /**
+     * Reads the sample of the file specified in the settings, keeping at most the given number of bytes in memory.
+     *
+     * @param settings the settings containing the file location
+     * @param maxSampleSize the maximum number of bytes kept in memory
+     * @return the sample
+     * @throws IOException if the file can't be read
+     * @throws InvalidSettingsException if the file location is invalid
+     */
+    static FileSample read(final FileReaderNodeSettings settings, final int maxSampleSize)
+        throws IOException, InvalidSettingsException {
+        final BufferedPathReader pathReader = settings.createNewInputReader();
+        try (final InputStream in = pathReader.createInputStream(StatusMessageUtils.NO_OP_CONSUMER)) {
+            // one more byte than we keep tells us whether the file is larger
+            final long fileSize = pathReader.getFileSize();
+            byte[] buffer = new byte[(int)Math.max(1, Math.min(fileSize + 1, maxSampleSize + 1L))];
+            int length = 0;
+            int read;
+            while ((read = in.read(buffer, length, Math.min(BUFFER_SIZE, buffer.length - length))) >= 0) {
+                length += read;
+                if (length == buffer.length) {
+                    if (length > maxSampleSize) {
+                        break;
+                    }
+                    // the file grew or didn't report its size
+                    buffer = Arrays.copyOf(buffer, (int)Math.min(2L * length, maxSampleSize + 1L));
+                }
+            }
+            if (length <= maxSampleSize) {
+                return new FileSample(pathReader, buffer, length, true);
+            }
+            if (isCompressed(buffer)) {
+                return new FileSample(pathReader, null, 0, true);
+            }
+            return new FileSample(pathReader, buffer, endOfLastLine(buffer, maxSampleSize), false);
+        } catch (IOException | InvalidSettingsException | RuntimeException e) {
+            pathReader.close();
+            throw e;
+        }
+    }
+
+    private static boolean isCompressed(final byte[] buffer) {
+        if (buffer.length < 4) {
+            return false;
+        }
+        final boolean gzip = (buffer[0] & 0xFF) == 0x1F && (buffer[1] & 0xFF) == 0x8B;
+        final boolean zip = buffer[0] == 'P' && buffer[1] == 'K' && buffer[2] == 3 && buffer[3] == 4;
+        return gzip || zip;
+    }
+
+    private static int endOfLastLine(final byte[] buffer, final int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer[i] == '\n') {
+                // keep the second byte of a little endian UTF-16 line feed
+                return i + 1 < length && buffer[i + 1] == 0 ? i + 2 : i + 1;
+            }
+        }
+        // a single line that is longer than the sample
+        return length;
+    }
+
+    /**
+     * @return <code>true</code> if the readers read the entire file, <code>false</code> if they only read its
+     *         beginning
+     */
+    boolean isComplete() {
+        return m_complete;
+    }
+
+    /**
+     * @return <code>true</code> if the readers read from memory, <code>false</code> if they read from the file
+     */
+    boolean isInMemory() {
+        return m_sample != null;
+    }
+
+    /**
+     * Creates a new reader reading the sample from its beginning. Several readers can be used concurrently if the
+     * sample is in memory.
+     *
+     * @param charsetName the character set to decode the sample with, or <code>null</code> for the default
+     * @return a new reader
+     * @throws IOException if the reader can't be created
+     * @throws InvalidSettingsException if the file location is invalid
+     */
+    BufferedFileReader createReader(final String charsetName) throws IOException, InvalidSettingsException {
+        if (m_sample == null) {
+            return m_pathReader.createBufferedFileReader(charsetName, StatusMessageUtils.NO_OP_CONSUMER);
+        }
+        return BufferedFileReader.createReader(m_pathReader.getFileName(),
+            () -> new ByteArrayInputStream(m_sample, 0, m_length), charsetName, m_length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_pathReader.close();
+    }
+}
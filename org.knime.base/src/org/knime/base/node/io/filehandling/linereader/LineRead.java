@@ -64,6 +64,7 @@
 import org.knime.filehandling.core.node.table.reader.read.Read;
 import org.knime.filehandling.core.util.BomEncodingUtils;
 import org.knime.filehandling.core.util.CompressionAwareCountingInputStream;
+import org.knime.filehandling.core.util.MappedFileReader;
 
 /**
  * Class for the line reader which implements {@link Read}.
@@ -76,8 +77,12 @@ final class LineRead implements Read<String> {
 
     private final BufferedReader m_reader;
 
+    /** {@code null} if the file is memory mapped */
     private final CompressionAwareCountingInputStream m_compressionAwareStream;
 
+    /** {@code null} if the file is read via a stream */
+    private final MappedFileReader m_mappedReader;
+
     private final long m_size;
 
     private final TableReadConfig<LineReaderConfig2> m_config;
@@ -109,11 +114,17 @@ final class LineRead implements Read<String> {
 
         m_size = Files.size(path);
 
-        m_compressionAwareStream = new CompressionAwareCountingInputStream(path);
-
         final String charSetName = config.getReaderSpecificConfig().getCharSetName();
         final Charset charset = charSetName == null ? Charset.defaultCharset() : Charset.forName(charSetName);
-        m_reader = BomEncodingUtils.createBufferedReader(m_compressionAwareStream, charset);
+        // local uncompressed files are split into lines directly on the mapped bytes
+        m_mappedReader = MappedFileReader.open(path, charset).orElse(null);
+        if (m_mappedReader != null) {
+            m_compressionAwareStream = null;
+            m_reader = m_mappedReader;
+        } else {
+            m_compressionAwareStream = new CompressionAwareCountingInputStream(path);
+            m_reader = BomEncodingUtils.createBufferedReader(m_compressionAwareStream, charset);
+        }
         m_regexPattern = Pattern.compile(config.getReaderSpecificConfig().getRegex());
         m_linesRead = m_config.useColumnHeaderIdx() ? -1 : 0;
         m_limitRows = m_config.limitRows();
@@ -207,7 +218,9 @@ public void close() throws IOException {
             LOGGER.error("Something went wrong while closing the BufferedReader. "
                 + "For further details please have a look into the log.", e);
         }
-        m_compressionAwareStream.close();
+        if (m_compressionAwareStream != null) {
+            m_compressionAwareStream.close();
+        }
     }
 
     @Override
@@ -217,6 +230,6 @@ public OptionalLong getMaxProgress() {
 
     @Override
     public long getProgress() {
-        return m_compressionAwareStream.getCount();
+        return m_mappedReader != null ? m_mappedReader.getCount() : m_compressionAwareStream.getCount();
     }
 }
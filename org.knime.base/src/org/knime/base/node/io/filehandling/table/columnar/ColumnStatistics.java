@@ -0,0 +1,131 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.table.columnar;
+
+/**
+ * The statistics of a single column within a chunk of a columnar table. They allow to skip chunks that cannot
+ * contain rows matching a filter without reading them.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @noreference This class is not intended to be referenced by clients.
+ * @since 4.5
+ */
+public final class ColumnStatistics {
+
+    private final long m_numRows;
+
+    private final long m_numMissing;
+
+    private final double m_min;
+
+    private final double m_max;
+
+    /**
+     * Constructor.
+     *
+     * @param numRows the number of rows of the chunk
+     * @param numMissing the number of missing cells in the chunk
+     * @param min the smallest value of the chunk (rounded down), {@link Double#NaN} if unknown
+     * @param max the largest value of the chunk (rounded up), {@link Double#NaN} if unknown
+     */
+    ColumnStatistics(final long numRows, final long numMissing, final double min, final double max) {
+        m_numRows = numRows;
+        m_numMissing = numMissing;
+        m_min = min;
+        m_max = max;
+    }
+
+    /**
+     * @return the number of rows of the chunk
+     */
+    public long getNumRows() {
+        return m_numRows;
+    }
+
+    /**
+     * @return the number of missing cells of the column in the chunk
+     */
+    public long getNumMissing() {
+        return m_numMissing;
+    }
+
+    /**
+     * @return {@code true} if the minimum and maximum are known, i.e., the column is numeric or boolean and the chunk
+     *         contains at least one value that is neither missing nor NaN
+     */
+    public boolean hasMinMax() {
+        return m_min <= m_max;
+    }
+
+    /**
+     * @return a lower bound of the values in the chunk, only meaningful if {@link #hasMinMax()}
+     */
+    public double getMin() {
+        return m_min;
+    }
+
+    /**
+     * @return an upper bound of the values in the chunk, only meaningful if {@link #hasMinMax()}
+     */
+    public double getMax() {
+        return m_max;
+    }
+
+    /**
+     * Returns whether the chunk might contain a value within the given (closed) interval. Boolean values are
+     * represented by 0 and 1.
+     *
+     * @param lower the lower bound of the interval
+     * @param upper the upper bound of the interval
+     * @return {@code false} if no value of the chunk lies within the interval
+     */
+    public boolean mightContain(final double lower, final double upper) {
+        if (m_numMissing == m_numRows) {
+            return false;
+        }
+        return !hasMinMax() || (lower <= m_max && upper >= m_min);
+    }
+}
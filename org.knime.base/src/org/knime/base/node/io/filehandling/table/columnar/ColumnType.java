@@ -0,0 +1,134 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.table.columnar;
+
+import java.util.Optional;
+
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * The column types supported by the columnar table format. Fixed width types store one value per row, strings store
+ * an offset per row followed by the UTF-8 encoded characters.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+enum ColumnType {
+
+        BOOLEAN(BooleanCell.TYPE, 1),
+
+        INT(IntCell.TYPE, Integer.BYTES),
+
+        LONG(LongCell.TYPE, Long.BYTES),
+
+        DOUBLE(DoubleCell.TYPE, Double.BYTES),
+
+        STRING(StringCell.TYPE, -1);
+
+    private final DataType m_dataType;
+
+    private final int m_width;
+
+    private ColumnType(final DataType dataType, final int width) {
+        m_dataType = dataType;
+        m_width = width;
+    }
+
+    /**
+     * @return the {@link DataType} of the column
+     */
+    DataType getDataType() {
+        return m_dataType;
+    }
+
+    /**
+     * @return the number of bytes per value or -1 for variable width values
+     */
+    int getWidth() {
+        return m_width;
+    }
+
+    /**
+     * @return {@code true} if the chunk statistics contain the minimum and maximum of the values
+     */
+    boolean hasMinMax() {
+        return this != STRING;
+    }
+
+    /**
+     * Returns the column type storing cells of the given {@link DataType}.
+     *
+     * @param dataType the type of a column
+     * @return the column type or {@link Optional#empty()} if the type is not supported
+     */
+    static Optional<ColumnType> of(final DataType dataType) {
+        for (final ColumnType type : values()) {
+            if (type.m_dataType.equals(dataType)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the column type with the given identifier.
+     *
+     * @param id the identifier as returned by {@link #ordinal()}
+     * @return the column type
+     * @throws IllegalArgumentException if the identifier is unknown
+     */
+    static ColumnType of(final int id) {
+        final ColumnType[] types = values();
+        if (id < 0 || id >= types.length) {
+            throw new IllegalArgumentException("Unknown column type: " + id);
+        }
+        return types[id];
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.table.columnar;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Constants of the columnar table format. A file consists of
+ * <ul>
+ * <li>the {@link #MAGIC magic number} and the {@link #VERSION version},</li>
+ * <li>the chunks, each holding a block with the row keys followed by one block per column,</li>
+ * <li>the footer with the table spec, the column types and, per chunk, the number of rows, the position of each block
+ * and the statistics of each column,</li>
+ * <li>the position of the footer and the magic number.</li>
+ * </ul>
+ * A block starts with a bit set of the missing cells followed by the values. Fixed width values are stored one per
+ * row, strings as offsets of each row followed by their UTF-8 encoded bytes. All numbers are big-endian.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ColumnarTableFormat {
+
+    /** The first and last bytes of a columnar table file. */
+    static final byte[] MAGIC = {'K', 'N', 'I', 'M', 'E', 'C', 'O', 'L'};
+
+    static final int VERSION = 1;
+
+    /** The position of the footer and the magic number. */
+    static final int TRAILER_LENGTH = Long.BYTES + MAGIC.length;
+
+    private ColumnarTableFormat() {
+        // constants
+    }
+
+    /**
+     * Checks whether the given file starts with the magic number of the columnar table format.
+     *
+     * @param path the file to check
+     * @return {@code true} if the file is a columnar table
+     * @throws IOException if the file cannot be read
+     */
+    static boolean startsWithMagic(final Path path) throws IOException {
+        try (final InputStream in = Files.newInputStream(path)) {
+            return Arrays.equals(MAGIC, in.readNBytes(MAGIC.length));
+        }
+    }
+
+    /**
+     * @param numRows the number of rows of a block
+     * @return the number of bytes of the bit set of missing cells
+     */
+    static int getMissingBitsLength(final int numRows) {
+        return (numRows + 7) >>> 3;
+    }
+}
@@ -0,0 +1,435 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.table.columnar;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DefaultCellIterator;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettings;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.connections.meta.FSType;
+import org.knime.filehandling.core.util.MappedFileReader;
+
+/**
+ * Reads tables written by the {@link ColumnarTableWriter}. Opening a table only reads its footer, the blocks of a
+ * chunk are read once a cell of the respective column is accessed. Hence, columns that are never accessed are never
+ * read, and chunks can be skipped based on their {@link ColumnStatistics} without reading them at all.<br>
+ * Files of the local file system are memory mapped (unless disabled, see
+ * {@link MappedFileReader#PROPERTY_MEMORY_MAPPING}), other files are read via a {@link SeekableByteChannel}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @noreference This class is not intended to be referenced by clients.
+ * @since 4.5
+ */
+public final class ColumnarTableReader implements Closeable {
+
+    private final SeekableByteChannel m_channel;
+
+    private final boolean m_mapped;
+
+    private final DataTableSpec m_spec;
+
+    private final ColumnType[] m_types;
+
+    private final int[] m_chunkRows;
+
+    /** The positions of the blocks per chunk, the first block of a chunk holds the row keys. */
+    private final long[][] m_blockOffsets;
+
+    private final int[][] m_blockLengths;
+
+    private final ColumnStatistics[][] m_statistics;
+
+    private final long m_size;
+
+    private ColumnarTableReader(final SeekableByteChannel channel, final boolean mapped) throws IOException {
+        m_channel = channel;
+        m_mapped = mapped;
+        final long fileSize = channel.size();
+        final ByteBuffer trailer = readBytes(fileSize - ColumnarTableFormat.TRAILER_LENGTH,
+            ColumnarTableFormat.TRAILER_LENGTH);
+        final long footerOffset = trailer.getLong();
+        final byte[] magic = new byte[ColumnarTableFormat.MAGIC.length];
+        trailer.get(magic);
+        if (!Arrays.equals(ColumnarTableFormat.MAGIC, magic) || footerOffset < 0
+            || footerOffset > fileSize - ColumnarTableFormat.TRAILER_LENGTH) {
+            throw new IOException("The file is not a columnar table or it is corrupted.");
+        }
+        final ByteBuffer footer = readBytes(footerOffset,
+            Math.toIntExact(fileSize - ColumnarTableFormat.TRAILER_LENGTH - footerOffset));
+        final byte[] specBytes = new byte[footer.getInt()];
+        footer.get(specBytes);
+        try {
+            m_spec = DataTableSpec.load(NodeSettings.loadFromXML(new ByteArrayInputStream(specBytes)));
+        } catch (InvalidSettingsException e) {
+            throw new IOException("The table spec cannot be read: " + e.getMessage(), e);
+        }
+        m_types = new ColumnType[footer.getInt()];
+        if (m_types.length != m_spec.getNumColumns()) {
+            throw new IOException("The columnar table is corrupted, its spec does not match its columns.");
+        }
+        for (int i = 0; i < m_types.length; i++) {
+            m_types[i] = ColumnType.of(footer.get());
+        }
+        final int numChunks = footer.getInt();
+        m_chunkRows = new int[numChunks];
+        m_blockOffsets = new long[numChunks][m_types.length + 1];
+        m_blockLengths = new int[numChunks][m_types.length + 1];
+        m_statistics = new ColumnStatistics[numChunks][m_types.length];
+        long size = 0;
+        for (int c = 0; c < numChunks; c++) {
+            m_chunkRows[c] = footer.getInt();
+            size += m_chunkRows[c];
+            for (int b = 0; b <= m_types.length; b++) {
+                m_blockOffsets[c][b] = footer.getLong();
+                m_blockLengths[c][b] = footer.getInt();
+            }
+            for (int i = 0; i < m_types.length; i++) {
+                m_statistics[c][i] =
+                    new ColumnStatistics(m_chunkRows[c], footer.getLong(), footer.getDouble(), footer.getDouble());
+            }
+        }
+        m_size = size;
+    }
+
+    /**
+     * Checks whether the given file is a columnar table.
+     *
+     * @param path the file to check
+     * @return {@code true} if the file starts like a columnar table
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isColumnarTable(final Path path) throws IOException {
+        return ColumnarTableFormat.startsWithMagic(path);
+    }
+
+    /**
+     * Opens a columnar table.
+     *
+     * @param path the file to read
+     * @return the reader, which has to be closed by the caller
+     * @throws IOException if the file cannot be opened or is not a columnar table
+     */
+    @SuppressWarnings("resource") // the channel is closed with the reader
+    public static ColumnarTableReader open(final Path path) throws IOException {
+        final boolean mapped = MappedFileReader.isMemoryMappingEnabled() && isLocal(path);
+        final SeekableByteChannel channel = mapped ? FileChannel.open(toLocalPath(path), StandardOpenOption.READ)
+            : Files.newByteChannel(path, StandardOpenOption.READ);
+        try {
+            return new ColumnarTableReader(channel, mapped);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean isLocal(final Path path) {
+        return !(path instanceof FSPath) || FSType.LOCAL_FS.equals(((FSPath)path).getFileSystem().getFSType());
+    }
+
+    private static Path toLocalPath(final Path path) {
+        // the local file system paths are backed by paths of the platform's default file system
+        return path instanceof FSPath ? Paths.get(path.toAbsolutePath().toString()) : path;
+    }
+
+    /**
+     * @return the spec of the table
+     */
+    public DataTableSpec getDataTableSpec() {
+        return m_spec;
+    }
+
+    /**
+     * @return the number of rows of the table
+     */
+    public long size() {
+        return m_size;
+    }
+
+    /**
+     * @return the number of chunks
+     */
+    public int getNumChunks() {
+        return m_chunkRows.length;
+    }
+
+    /**
+     * Returns the statistics of a column within a chunk.
+     *
+     * @param chunkIdx the index of the chunk
+     * @param columnIdx the index of the column
+     * @return the statistics
+     */
+    public ColumnStatistics getStatistics(final int chunkIdx, final int columnIdx) {
+        return m_statistics[chunkIdx][columnIdx];
+    }
+
+    /**
+     * @return an iterator over all rows
+     */
+    public CloseableRowIterator iterator() {
+        return iterator(c -> true);
+    }
+
+    /**
+     * Returns an iterator over the rows of the accepted chunks. The rows read their cells lazily, i.e., only the
+     * blocks of the columns that are accessed are read.
+     *
+     * @param chunkFilter accepts the indices of the chunks to read, e.g. based on {@link #getStatistics(int, int)}
+     * @return an iterator over the rows of the accepted chunks
+     */
+    public CloseableRowIterator iterator(final IntPredicate chunkFilter) {
+        return new ChunkIterator(chunkFilter);
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_channel.close();
+    }
+
+    private ByteBuffer readBytes(final long offset, final int length) throws IOException {
+        if (offset < 0) {
+            throw new IOException("The file is not a columnar table or it is corrupted.");
+        }
+        if (m_mapped) {
+            return ((FileChannel)m_channel).map(MapMode.READ_ONLY, offset, length);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        synchronized (m_channel) {
+            m_channel.position(offset);
+            while (buffer.hasRemaining()) {
+                if (m_channel.read(buffer) < 0) {
+                    throw new EOFException("The columnar table ends unexpectedly.");
+                }
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /** A chunk whose blocks are read on first access. */
+    private final class Chunk {
+
+        private final int m_chunkIdx;
+
+        private final int m_numRows;
+
+        private final int m_missingBitsLength;
+
+        private final ByteBuffer[] m_blocks = new ByteBuffer[m_types.length + 1];
+
+        Chunk(final int chunkIdx) {
+            m_chunkIdx = chunkIdx;
+            m_numRows = m_chunkRows[chunkIdx];
+            m_missingBitsLength = ColumnarTableFormat.getMissingBitsLength(m_numRows);
+        }
+
+        private ByteBuffer getBlock(final int blockIdx) {
+            ByteBuffer block = m_blocks[blockIdx];
+            if (block == null) {
+                try {
+                    block = readBytes(m_blockOffsets[m_chunkIdx][blockIdx], m_blockLengths[m_chunkIdx][blockIdx]);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot read the columnar table: " + e.getMessage(), e);
+                }
+                m_blocks[blockIdx] = block;
+            }
+            return block;
+        }
+
+        RowKey getKey(final int row) {
+            return new RowKey(getString(getBlock(0), row));
+        }
+
+        DataCell getCell(final int columnIdx, final int row) {
+            final ByteBuffer block = getBlock(columnIdx + 1);
+            final ColumnType type = m_types[columnIdx];
+            if ((block.get(row >>> 3) & (1 << (row & 7))) != 0) {
+                return DataType.getMissingCell();
+            }
+            switch (type) {
+                case BOOLEAN:
+                    return block.get(m_missingBitsLength + row) != 0 ? BooleanCell.TRUE : BooleanCell.FALSE;
+                case INT:
+                    return new IntCell(block.getInt(m_missingBitsLength + row * Integer.BYTES));
+                case LONG:
+                    return new LongCell(block.getLong(m_missingBitsLength + row * Long.BYTES));
+                case DOUBLE:
+                    return new DoubleCell(block.getDouble(m_missingBitsLength + row * Double.BYTES));
+                case STRING:
+                    return new StringCell(getString(block, row));
+                default:
+                    throw new IllegalStateException("Unsupported column type: " + type);
+            }
+        }
+
+        private String getString(final ByteBuffer block, final int row) {
+            final int offsetsStart = m_missingBitsLength;
+            final int start = block.getInt(offsetsStart + row * Integer.BYTES);
+            final int end = block.getInt(offsetsStart + (row + 1) * Integer.BYTES);
+            final int dataStart = offsetsStart + (m_numRows + 1) * Integer.BYTES;
+            final byte[] bytes = new byte[end - start];
+            block.duplicate().position(dataStart + start).get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /** A row whose cells are read from its chunk on access. */
+    private static final class ColumnarRow implements DataRow {
+
+        private final Chunk m_chunk;
+
+        private final int m_row;
+
+        private final int m_numCells;
+
+        private RowKey m_key;
+
+        ColumnarRow(final Chunk chunk, final int row, final int numCells) {
+            m_chunk = chunk;
+            m_row = row;
+            m_numCells = numCells;
+        }
+
+        @Override
+        public int getNumCells() {
+            return m_numCells;
+        }
+
+        @Override
+        public RowKey getKey() {
+            if (m_key == null) {
+                m_key = m_chunk.getKey(m_row);
+            }
+            return m_key;
+        }
+
+        @Override
+        public DataCell getCell(final int index) {
+            return m_chunk.getCell(index, m_row);
+        }
+
+        @Override
+        public Iterator<DataCell> iterator() {
+            return new DefaultCellIterator(this);
+        }
+    }
+
+    private final class ChunkIterator extends CloseableRowIterator {
+
+        private final IntPredicate m_chunkFilter;
+
+        private int m_nextChunkIdx;
+
+        private Chunk m_chunk;
+
+        private int m_row;
+
+        ChunkIterator(final IntPredicate chunkFilter) {
+            m_chunkFilter = chunkFilter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (m_chunk == null || m_row == m_chunk.m_numRows) {
+                while (m_nextChunkIdx < m_chunkRows.length && !m_chunkFilter.test(m_nextChunkIdx)) {
+                    m_nextChunkIdx++;
+                }
+                if (m_nextChunkIdx == m_chunkRows.length) {
+                    return false;
+                }
+                m_chunk = new Chunk(m_nextChunkIdx);
+                m_nextChunkIdx++;
+                m_row = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public DataRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final ColumnarRow row = new ColumnarRow(m_chunk, m_row, m_types.length);
+            m_row++;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            m_chunk = null;
+            m_nextChunkIdx = m_chunkRows.length;
+        }
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.io.filehandling.table.columnar;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.NodeSettings;
+
+/**
+ * Writes tables in the columnar table format (see {@link ColumnarTableReader}). The rows are collected in chunks of
+ * at most {@value #DEFAULT_MAX_ROWS_PER_CHUNK} rows and {@value #MAX_BYTES_PER_CHUNK} bytes, each chunk is written
+ * column by column together with the minimum and maximum of each column.<br>
+ * Only boolean, integer, long, double and string columns are supported.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @noreference This class is not intended to be referenced by clients.
+ * @since 4.5
+ */
+public final class ColumnarTableWriter implements Closeable {
+
+    static final int DEFAULT_MAX_ROWS_PER_CHUNK = 1 << 16;
+
+    static final int MAX_BYTES_PER_CHUNK = 1 << 26;
+
+    private final DataOutputStream m_out;
+
+    private final DataTableSpec m_spec;
+
+    private final int m_maxRowsPerChunk;
+
+    private final ColumnBuffer m_keys = new ColumnBuffer(ColumnType.STRING);
+
+    private final ColumnBuffer[] m_columns;
+
+    private final List<ChunkInfo> m_chunks = new ArrayList<>();
+
+    private int m_chunkRows;
+
+    private long m_position;
+
+    private boolean m_closed;
+
+    /**
+     * Constructor. The header is written immediately.
+     *
+     * @param out the stream to write to, it is not closed by this writer
+     * @param spec the spec of the table to write
+     * @throws IOException if the header cannot be written
+     * @throws IllegalArgumentException if the spec contains unsupported columns (see
+     *             {@link #getUnsupportedColumns(DataTableSpec)})
+     */
+    public ColumnarTableWriter(final OutputStream out, final DataTableSpec spec) throws IOException {
+        this(out, spec, DEFAULT_MAX_ROWS_PER_CHUNK);
+    }
+
+    ColumnarTableWriter(final OutputStream out, final DataTableSpec spec, final int maxRowsPerChunk)
+        throws IOException {
+        final List<String> unsupportedColumns = getUnsupportedColumns(spec);
+        if (!unsupportedColumns.isEmpty()) {
+            throw new IllegalArgumentException(
+                "The columnar format does not support the columns " + String.join(", ", unsupportedColumns) + ".");
+        }
+        m_spec = spec;
+        m_maxRowsPerChunk = maxRowsPerChunk;
+        m_columns = new ColumnBuffer[spec.getNumColumns()];
+        for (int i = 0; i < m_columns.length; i++) {
+            m_columns[i] = new ColumnBuffer(ColumnType.of(spec.getColumnSpec(i).getType()).orElseThrow());
+        }
+        m_out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        m_out.write(ColumnarTableFormat.MAGIC);
+        m_out.writeInt(ColumnarTableFormat.VERSION);
+        m_position = ColumnarTableFormat.MAGIC.length + (long)Integer.BYTES;
+    }
+
+    /**
+     * Returns the names of the columns whose type cannot be stored in the columnar format.
+     *
+     * @param spec the spec of the table
+     * @return the names of the unsupported columns, empty if the table can be written
+     */
+    public static List<String> getUnsupportedColumns(final DataTableSpec spec) {
+        final List<String> unsupportedColumns = new ArrayList<>();
+        for (final DataColumnSpec colSpec : spec) {
+            if (!ColumnType.of(colSpec.getType()).isPresent()) {
+                unsupportedColumns.add(colSpec.getName());
+            }
+        }
+        return unsupportedColumns;
+    }
+
+    /**
+     * Writes the given table to the given stream.
+     *
+     * @param table the table to write
+     * @param out the stream to write to, it is not closed
+     * @param exec the monitor for progress and cancellation
+     * @throws IOException if writing fails
+     * @throws CanceledExecutionException if the execution has been canceled
+     */
+    public static void writeTable(final BufferedDataTable table, final OutputStream out, final ExecutionMonitor exec)
+        throws IOException, CanceledExecutionException {
+        final double size = table.size();
+        long rowIdx = 0;
+        try (final ColumnarTableWriter writer = new ColumnarTableWriter(out, table.getDataTableSpec());
+                final CloseableRowIterator rows = table.iterator()) {
+            while (rows.hasNext()) {
+                exec.checkCanceled();
+                final long currentRow = rowIdx;
+                exec.setProgress(rowIdx / size, () -> "Writing row " + currentRow);
+                writer.addRow(rows.next());
+                rowIdx++;
+            }
+        }
+    }
+
+    /**
+     * Adds a row to the table.
+     *
+     * @param row the row to add, it must match the spec passed to the constructor
+     * @throws IOException if a chunk cannot be written
+     */
+    public void addRow(final DataRow row) throws IOException {
+        if (m_closed) {
+            throw new IllegalStateException("The writer has already been closed.");
+        }
+        m_keys.addString(row.getKey().getString());
+        long bufferedBytes = m_keys.size();
+        for (int i = 0; i < m_columns.length; i++) {
+            m_columns[i].add(row.getCell(i));
+            bufferedBytes += m_columns[i].size();
+        }
+        m_chunkRows++;
+        if (m_chunkRows == m_maxRowsPerChunk || bufferedBytes >= MAX_BYTES_PER_CHUNK) {
+            writeChunk();
+        }
+    }
+
+    private void writeChunk() throws IOException {
+        final long[] offsets = new long[m_columns.length + 1];
+        final int[] lengths = new int[m_columns.length + 1];
+        final ColumnStatistics[] statistics = new ColumnStatistics[m_columns.length];
+        writeBlock(m_keys, 0, offsets, lengths);
+        for (int i = 0; i < m_columns.length; i++) {
+            statistics[i] = m_columns[i].getStatistics();
+            writeBlock(m_columns[i], i + 1, offsets, lengths);
+        }
+        m_chunks.add(new ChunkInfo(m_chunkRows, offsets, lengths, statistics));
+        m_chunkRows = 0;
+    }
+
+    private void writeBlock(final ColumnBuffer buffer, final int blockIdx, final long[] offsets, final int[] lengths)
+        throws IOException {
+        offsets[blockIdx] = m_position;
+        lengths[blockIdx] = buffer.writeTo(m_out);
+        m_position += lengths[blockIdx];
+        buffer.clear();
+    }
+
+    /**
+     * Writes the remaining rows and the footer and flushes the stream, which is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        m_closed = true;
+        if (m_chunkRows > 0) {
+            writeChunk();
+        }
+        final long footerOffset = m_position;
+        final NodeSettings specSettings = new NodeSettings("spec");
+        m_spec.save(specSettings);
+        final ByteArrayOutputStream specBytes = new ByteArrayOutputStream();
+        specSettings.saveToXML(specBytes);
+        m_out.writeInt(specBytes.size());
+        specBytes.writeTo(m_out);
+        m_out.writeInt(m_columns.length);
+        for (final ColumnBuffer column : m_columns) {
+            m_out.writeByte(column.m_type.ordinal());
+        }
+        m_out.writeInt(m_chunks.size());
+        for (final ChunkInfo chunk : m_chunks) {
+            chunk.writeTo(m_out);
+        }
+        m_out.writeLong(footerOffset);
+        m_out.write(ColumnarTableFormat.MAGIC);
+        m_out.flush();
+    }
+
+    /** The position and statistics of a written chunk. */
+    private static final class ChunkInfo {
+
+        private final int m_numRows;
+
+        private final long[] m_offsets;
+
+        private final int[] m_lengths;
+
+        private final ColumnStatistics[] m_statistics;
+
+        ChunkInfo(final int numRows, final long[] offsets, final int[] lengths,
+            final ColumnStatistics[] statistics) {
+            m_numRows = numRows;
+            m_offsets = offsets;
+            m_lengths = lengths;
+            m_statistics = statistics;
+        }
+
+        void writeTo(final DataOutputStream out) throws IOException {
+            out.writeInt(m_numRows);
+            for (int i = 0; i < m_offsets.length; i++) {
+                out.writeLong(m_offsets[i]);
+                out.writeInt(m_lengths[i]);
+            }
+            for (final ColumnStatistics statistics : m_statistics) {
+                out.writeLong(statistics.getNumMissing());
+                out.writeDouble(statistics.getMin());
+                out.writeDouble(statistics.getMax());
+            }
+        }
+    }
+
+    /** Collects the values of a single column of the current chunk. */
+    private static final class ColumnBuffer {
+
+        private final ColumnType m_type;
+
+        private byte[] m_missing = new byte[16];
+
+        private ByteBuffer m_data = ByteBuffer.allocate(256);
+
+        /** The end offsets of the strings, the first element is always 0. */
+        private int[] m_offsets;
+
+        private int m_numRows;
+
+        private long m_numMissing;
+
+        private double m_min = Double.POSITIVE_INFINITY;
+
+        private double m_max = Double.NEGATIVE_INFINITY;
+
+        ColumnBuffer(final ColumnType type) {
+            m_type = type;
+            m_offsets = type == ColumnType.STRING ? new int[128] : null;
+        }
+
+        void add(final DataCell cell) {
+            ensureRowCapacity();
+            if (cell.isMissing()) {
+                m_missing[m_numRows >>> 3] |= 1 << (m_numRows & 7);
+                m_numMissing++;
+                if (m_type == ColumnType.STRING) {
+                    m_offsets[m_numRows + 1] = m_data.position();
+                } else {
+                    ensureDataCapacity(m_type.getWidth()).position(m_data.position() + m_type.getWidth());
+                }
+            } else {
+                addValue(cell);
+            }
+            m_numRows++;
+        }
+
+        void addString(final String value) {
+            ensureRowCapacity();
+            appendString(value);
+            m_numRows++;
+        }
+
+        private void addValue(final DataCell cell) {
+            switch (m_type) {
+                case BOOLEAN:
+                    final boolean b = ((BooleanValue)cell).getBooleanValue();
+                    ensureDataCapacity(1).put((byte)(b ? 1 : 0));
+                    updateMinMax(b ? 1 : 0);
+                    break;
+                case INT:
+                    final int i = ((IntValue)cell).getIntValue();
+                    ensureDataCapacity(Integer.BYTES).putInt(i);
+                    updateMinMax(i);
+                    break;
+                case LONG:
+                    final long l = ((LongValue)cell).getLongValue();
+                    ensureDataCapacity(Long.BYTES).putLong(l);
+                    updateMinMax(l);
+                    break;
+                case DOUBLE:
+                    final double d = ((DoubleValue)cell).getDoubleValue();
+                    ensureDataCapacity(Double.BYTES).putDouble(d);
+                    if (!Double.isNaN(d)) {
+                        updateMinMax(d);
+                    }
+                    break;
+                case STRING:
+                    appendString(((StringValue)cell).getStringValue());
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported column type: " + m_type);
+            }
+        }
+
+        private void appendString(final String value) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensureDataCapacity(bytes.length).put(bytes);
+            m_offsets[m_numRows + 1] = m_data.position();
+        }
+
+        private void updateMinMax(final double value) {
+            m_min = Math.min(m_min, value);
+            m_max = Math.max(m_max, value);
+        }
+
+        private void updateMinMax(final long value) {
+            // large longs are rounded to the nearest double, the bounds must still enclose the value
+            final double rounded = value;
+            final long back = (long)rounded;
+            m_min = Math.min(m_min, back > value ? Math.nextDown(rounded) : rounded);
+            m_max = Math.max(m_max, back < value ? Math.nextUp(rounded) : rounded);
+        }
+
+        private void ensureRowCapacity() {
+            if ((m_numRows >>> 3) >= m_missing.length) {
+                m_missing = Arrays.copyOf(m_missing, m_missing.length * 2);
+            }
+            if (m_offsets != null && m_numRows + 1 >= m_offsets.length) {
+                m_offsets = Arrays.copyOf(m_offsets, m_offsets.length * 2);
+            }
+        }
+
+        private ByteBuffer ensureDataCapacity(final int numBytes) {
+            if (m_data.remaining() < numBytes) {
+                final int capacity = Math.max(m_data.capacity() * 2, m_data.position() + numBytes);
+                final ByteBuffer data = ByteBuffer.allocate(capacity);
+                m_data.flip();
+                data.put(m_data);
+                m_data = data;
+            }
+            return m_data;
+        }
+
+        /** @return the number of bytes of the block */
+        long size() {
+            final long offsets = m_offsets == null ? 0 : (m_numRows + 1L) * Integer.BYTES;
+            return ColumnarTableFormat.getMissingBitsLength(m_numRows) + offsets + m_data.position();
+        }
+
+        ColumnStatistics getStatistics() {
+            return m_type.hasMinMax() ? new ColumnStatistics(m_numRows, m_numMissing, m_min, m_max)
+                : new ColumnStatistics(m_numRows, m_numMissing, Double.NaN, Double.NaN);
+        }
+
+        int writeTo(final DataOutputStream out) throws IOException {
+            final int missingBitsLength = ColumnarTableFormat.getMissingBitsLength(m_numRows);
+            out.write(m_missing, 0, missingBitsLength);
+            if (m_offsets != null) {
+                for (int i = 0; i <= m_numRows; i++) {
+                    out.writeInt(m_offsets[i]);
+                }
+            }
+            out.write(m_data.array(), 0, m_data.position());
+            return Math.toIntExact(size());
+        }
+
+        void clear() {
+            Arrays.fill(m_missing, 0, ColumnarTableFormat.getMissingBitsLength(m_numRows), (byte)0);
+            m_data.clear();
+            m_numRows = 0;
+            m_numMissing = 0;
+            m_min = Double.POSITIVE_INFINITY;
+            m_max = Double.NEGATIVE_INFINITY;
+        }
+    }
+}
@@ -55,6 +55,7 @@
 import java.util.List;
 import java.util.Optional;
 
+import org.knime.base.node.io.filehandling.table.columnar.ColumnarTableReader;
 import org.knime.base.node.preproc.manipulator.TableManipulatorConfig;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataTableSpec;
@@ -112,6 +113,12 @@ private static InputStream openInputStream(final Path path) throws IOException {
     }
 
     private static DataTableSpec readTableSpec(final Path path) throws IOException {
+        if (ColumnarTableReader.isColumnarTable(path)) {
+            // the spec is part of the footer, no need to read any data
+            try (final ColumnarTableReader table = ColumnarTableReader.open(path)) {
+                return table.getDataTableSpec();
+            }
+        }
         Optional<DataTableSpec> spec;
         try {
             spec = getTableSpec(path);
@@ -45,10 +45,12 @@
 
 package org.knime.base.node.io.filehandling.table.reader;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
 
+import org.knime.base.node.io.filehandling.table.columnar.ColumnarTableReader;
 import org.knime.base.node.preproc.manipulator.table.BoundedTable;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.container.CloseableRowIterator;
@@ -57,11 +59,12 @@
 import org.knime.filehandling.core.util.CompressionAwareCountingInputStream;
 
 /**
- * Implementation of {@link BoundedTable} that is backed by a {@link Path}.
+ * Implementation of {@link BoundedTable} that is backed by a {@link Path}. Tables in the KNIME table format are
+ * extracted completely, tables in the columnar format are read lazily via a {@link ColumnarTableReader}.
  *
  * @author Moditha Hewasinghage, KNIME GmbH, Berlin, Germany
  */
-final class PathBackedBoundedTable implements BoundedTable {
+final class PathBackedBoundedTable implements BoundedTable, Closeable {
 
     private static final String ERROR_MSG_DATA_BIN_EXCEPTION =
         "Cannot read file! The file is either not in KNIME table format or corrupted.";
@@ -72,13 +75,21 @@ final class PathBackedBoundedTable implements BoundedTable {
 
     private final ContainerTable m_table;
 
+    private final ColumnarTableReader m_columnarTable;
+
     /**
      * @param path
      * @throws IOException
      */
     PathBackedBoundedTable(final Path path) throws IOException {
         m_path = path;
-        m_table = extractTable();
+        if (ColumnarTableReader.isColumnarTable(path)) {
+            m_columnarTable = ColumnarTableReader.open(path);
+            m_table = null;
+        } else {
+            m_columnarTable = null;
+            m_table = extractTable();
+        }
     }
 
     private InputStream openInputStream() throws IOException {
@@ -98,7 +109,7 @@ private ContainerTable extractTable() throws IOException {
 
     @Override
     public DataTableSpec getDataTableSpec() {
-        return m_table.getDataTableSpec();
+        return m_columnarTable != null ? m_columnarTable.getDataTableSpec() : m_table.getDataTableSpec();
     }
 
     /**
@@ -106,11 +117,18 @@ public DataTableSpec getDataTableSpec() {
      */
     @Override
     public CloseableRowIterator cursor() {
-        return m_table.iterator();
+        return m_columnarTable != null ? m_columnarTable.iterator() : m_table.iterator();
     }
 
     @Override
     public long size() {
-        return m_table.size();
+        return m_columnarTable != null ? m_columnarTable.size() : m_table.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (m_columnarTable != null) {
+            m_columnarTable.close();
+        }
     }
 }
@@ -60,6 +60,7 @@
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.NotConfigurableException;
 import org.knime.core.node.context.ports.PortsConfiguration;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.filehandling.core.data.location.variable.FSLocationVariableType;
 import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.DialogComponentWriterFileChooser;
@@ -75,12 +76,16 @@ final class TableWriterNodeDialog extends NodeDialogPane {
 
     private final DialogComponentWriterFileChooser m_writer;
 
+    private final DialogComponentBoolean m_columnarFormat;
+
     TableWriterNodeDialog(final PortsConfiguration portsConfig, final String connectionInputPortGrpName) {
         final TableWriterSettings settings = new TableWriterSettings(portsConfig, connectionInputPortGrpName);
         final SettingsModelWriterFileChooser writerModel = settings.getWriterModel();
         final FlowVariableModel fvm =
             createFlowVariableModel(writerModel.getKeysForFSLocation(), FSLocationVariableType.INSTANCE);
         m_writer = new DialogComponentWriterFileChooser(writerModel, connectionInputPortGrpName, fvm);
+        m_columnarFormat = new DialogComponentBoolean(settings.getColumnarFormatModel(),
+            "Write columnar format (boolean, integer, long, double and string columns only)");
         addTab("Settings", createPanel());
     }
 
@@ -88,6 +93,7 @@ private Component createPanel() {
         final JPanel p = new JPanel(new GridBagLayout());
         final GBCBuilder gbc = new GBCBuilder().weight(1, 0).anchorFirstLineStart().fillHorizontal();
         p.add(m_writer.getComponentPanel(), gbc.build());
+        p.add(m_columnarFormat.getComponentPanel(), gbc.incY().build());
         p.add(new JPanel(), gbc.incY().weight(0, 1).fillVertical().build());
         return p;
     }
@@ -95,12 +101,14 @@ private Component createPanel() {
     @Override
     protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSettingsException {
         m_writer.saveSettingsTo(settings);
+        m_columnarFormat.saveSettingsTo(settings);
     }
 
     @Override
     protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec[] specs)
         throws NotConfigurableException {
         m_writer.loadSettingsFrom(settings, specs);
+        m_columnarFormat.loadSettingsFrom(settings, specs);
     }
 
     @Override
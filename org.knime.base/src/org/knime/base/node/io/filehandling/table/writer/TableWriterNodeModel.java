@@ -54,7 +54,10 @@
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.util.EnumSet;
+import java.util.List;
 
+import org.knime.base.node.io.filehandling.table.columnar.ColumnarTableWriter;
+import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.container.DataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
@@ -103,6 +106,14 @@ final class TableWriterNodeModel extends NodeModel {
     protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
         m_settings.getWriterModel().configureInModel(inSpecs, m_statusConsumer);
         m_statusConsumer.setWarningsIfRequired(this::setWarningMessage);
+        final DataTableSpec spec = (DataTableSpec)inSpecs[m_dataPortIdx];
+        if (m_settings.getColumnarFormatModel().getBooleanValue() && spec != null) {
+            final List<String> unsupportedColumns = ColumnarTableWriter.getUnsupportedColumns(spec);
+            if (!unsupportedColumns.isEmpty()) {
+                throw new InvalidSettingsException("The columnar format only supports boolean, integer, long, double "
+                    + "and string columns. Unsupported columns: " + String.join(", ", unsupportedColumns));
+            }
+        }
         return new PortObjectSpec[]{};
     }
 
@@ -129,7 +140,12 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
                     + "' exists and must not be overwritten due to user settings.");
             }
             try (final OutputStream oS = new DelayedOpenOutputStream(outpath, fileOverwritePolicy.getOpenOptions())) {
-                DataContainer.writeToStream((BufferedDataTable)inObjects[m_dataPortIdx], oS, exec);
+                final BufferedDataTable table = (BufferedDataTable)inObjects[m_dataPortIdx];
+                if (m_settings.getColumnarFormatModel().getBooleanValue()) {
+                    ColumnarTableWriter.writeTable(table, oS, exec);
+                } else {
+                    DataContainer.writeToStream(table, oS, exec);
+                }
             } catch (final CanceledExecutionException e) {
                 if (FSFiles.exists(outpath)) {
                     deleteFile(outpath);
@@ -52,6 +52,7 @@
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.context.ports.PortsConfiguration;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 import org.knime.filehandling.core.defaultnodesettings.EnumConfig;
 import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.FileOverwritePolicy;
 import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.SettingsModelWriterFileChooser;
@@ -66,8 +67,12 @@ final class TableWriterSettings {
 
     private static final String CFG_FILE_CHOOSER = "file_selection";
 
+    private static final String CFG_COLUMNAR_FORMAT = "columnar_format";
+
     private final SettingsModelWriterFileChooser m_writer;
 
+    private final SettingsModelBoolean m_columnarFormat = new SettingsModelBoolean(CFG_COLUMNAR_FORMAT, false);
+
     TableWriterSettings(final PortsConfiguration portsConfig, final String fsPortIdentifier) {
         m_writer = new SettingsModelWriterFileChooser(CFG_FILE_CHOOSER, portsConfig, fsPortIdentifier,
             EnumConfig.create(FilterMode.FILE),
@@ -78,15 +83,30 @@ SettingsModelWriterFileChooser getWriterModel() {
         return m_writer;
     }
 
+    SettingsModelBoolean getColumnarFormatModel() {
+        return m_columnarFormat;
+    }
+
     void saveSettingsInModel(final NodeSettingsWO settings) {
         m_writer.saveSettingsTo(settings);
+        m_columnarFormat.saveSettingsTo(settings);
     }
 
     void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
         m_writer.validateSettings(settings);
+        // added in 4.5
+        if (settings.containsKey(CFG_COLUMNAR_FORMAT)) {
+            m_columnarFormat.validateSettings(settings);
+        }
     }
 
     void loadSettingsInModel(final NodeSettingsRO settings) throws InvalidSettingsException {
         m_writer.loadSettingsFrom(settings);
+        // added in 4.5
+        if (settings.containsKey(CFG_COLUMNAR_FORMAT)) {
+            m_columnarFormat.loadSettingsFrom(settings);
+        } else {
+            m_columnarFormat.setBooleanValue(false);
+        }
     }
 }
@@ -50,6 +50,7 @@
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -97,6 +98,26 @@ public List<Integer> getIncludedFeatures() {
      */
     protected abstract List<Integer> getIncludedInThisIteration();
 
+    /**
+     * Returns the lists of features that will be included in this and the remaining iterations of the current search
+     * round (without constant columns). Subclasses should override this method, the default implementation only
+     * returns the list of this iteration.
+     *
+     * @return the candidate feature lists of the remaining iterations of this search round
+     * @since 4.5
+     */
+    protected List<List<Integer>> getIncludedInRemainingIterations() {
+        return Collections.singletonList(getIncludedInThisIteration());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<List<Integer>> getCandidateBatch() {
+        return getIncludedInRemainingIterations();
+    }
+
     /**
      * @return the list of currently fixed included columns
      */
@@ -237,6 +258,50 @@ public int getNumberOfIterations() {
      */
     protected abstract int calcNumIterations(int subsetSize, int numFeatures);
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfIterations(final int candidatesPerIteration) {
+        if (candidatesPerIteration <= 1) {
+            return getNumberOfIterations();
+        }
+        final int numFeatures = m_featureColumns.size();
+        if (m_subsetSize == -1) {
+            // the rounds shrink from all features to a single one
+            int numIterations = 0;
+            for (int i = 0; i < numFeatures; i++) {
+                numIterations += ceilDiv(numFeatures - i, candidatesPerIteration);
+            }
+            return numIterations;
+        }
+        return calcNumIterations(m_subsetSize, numFeatures, candidatesPerIteration);
+    }
+
+    /**
+     * Subclasses should override this method to account for the rounds, whose last iteration may evaluate fewer
+     * candidates. The default implementation divides the number of single candidate iterations.
+     *
+     * @param subsetSize subset size for which the search stops
+     * @param numFeatures total number of features
+     * @param candidatesPerIteration the maximal number of candidates per iteration, greater than one
+     * @return the number of iterations the strategy needs to reach <b>subsetSize</b>
+     * @since 4.5
+     */
+    protected int calcNumIterations(final int subsetSize, final int numFeatures, final int candidatesPerIteration) {
+        return ceilDiv(calcNumIterations(subsetSize, numFeatures), candidatesPerIteration);
+    }
+
+    /**
+     * @param candidates the number of candidates of a round
+     * @param candidatesPerIteration the maximal number of candidates per iteration
+     * @return the number of iterations needed for the round
+     * @since 4.5
+     */
+    protected static int ceilDiv(final int candidates, final int candidatesPerIteration) {
+        return (candidates + candidatesPerIteration - 1) / candidatesPerIteration;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -49,6 +49,7 @@
 package org.knime.base.node.meta.feature.selection;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -88,6 +89,24 @@ protected List<Integer> getIncludedInThisIteration() {
         return tempIncl;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected List<List<Integer>> getIncludedInRemainingIterations() {
+        if (m_isFirstIteration) {
+            // the first round only consists of the iteration with all features
+            return Collections.singletonList(new ArrayList<>(m_included));
+        }
+        final List<List<Integer>> candidates = new ArrayList<>(m_available.size() - m_featurePointer);
+        for (int i = m_featurePointer; i < m_available.size(); i++) {
+            final List<Integer> tempIncl = new ArrayList<>(m_included);
+            tempIncl.remove(m_available.get(i));
+            candidates.add(tempIncl);
+        }
+        return candidates;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -173,5 +192,18 @@ protected int calcNumIterations(final int subsetSize, final int numFeatures) {
         return numIterations;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int calcNumIterations(final int subsetSize, final int numFeatures, final int candidatesPerIteration) {
+        int numIterations = 0;
+        final int diff = numFeatures - subsetSize;
+        for (int i = 0; i < diff; i++) {
+            numIterations += ceilDiv(numFeatures - i, candidatesPerIteration);
+        }
+        return numIterations;
+    }
+
 
 }
@@ -88,6 +88,21 @@ protected List<Integer> getIncludedInThisIteration() {
         return tempIncl;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected List<List<Integer>> getIncludedInRemainingIterations() {
+        final List<List<Integer>> candidates = new ArrayList<>(m_availableColumns.size() - m_featurePointer);
+        for (int i = m_featurePointer; i < m_availableColumns.size(); i++) {
+            final List<Integer> tempIncl = new ArrayList<>(m_includedColumns.size() + 1);
+            tempIncl.addAll(m_includedColumns);
+            tempIncl.add(m_availableColumns.get(i));
+            candidates.add(tempIncl);
+        }
+        return candidates;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -169,4 +184,16 @@ protected int calcNumIterations(final int subsetSize, final int numFeatures) {
         return numIterations;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int calcNumIterations(final int subsetSize, final int numFeatures, final int candidatesPerIteration) {
+        int numIterations = 0;
+        for (int i = 0; i < subsetSize; i++) {
+            numIterations += ceilDiv(numFeatures - i, candidatesPerIteration);
+        }
+        return numIterations;
+    }
+
 }
@@ -66,6 +66,7 @@
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.util.FlowVariableListCellRenderer;
 import org.knime.core.node.workflow.FlowVariable;
+import org.knime.core.node.workflow.VariableType.DoubleArrayType;
 
 /**
  *
@@ -129,8 +130,8 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
         final String scoreVariableName = cfg.getScoreVariableName();
         boolean compatibleFVexists = false;
         for (FlowVariable flowVar : flowVars) {
-            FlowVariable.Type flowvarType = flowVar.getType();
-            if (flowvarType == FlowVariable.Type.DOUBLE) {
+            if (flowVar.getType() == FlowVariable.Type.DOUBLE
+                || flowVar.getVariableType() == DoubleArrayType.INSTANCE) {
                 if (flowVar.getName().equals(scoreVariableName)) {
                     selected = flowVar;
                 }
@@ -139,7 +140,8 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
             }
         }
         if (!compatibleFVexists) {
-            throw new NotConfigurableException("There is no compatible Flow Variable (Double) at the inport.");
+            throw new NotConfigurableException(
+                "There is no compatible Flow Variable (Double or Double array) at the inport.");
         }
         m_scoreVariableComboBox.setSelectedItem(selected);
         m_isMinimizeCheckBox.setSelected(cfg.isMinimize());
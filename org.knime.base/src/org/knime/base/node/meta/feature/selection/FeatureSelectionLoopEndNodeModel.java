@@ -68,6 +68,7 @@
 import org.knime.core.node.workflow.FlowVariable;
 import org.knime.core.node.workflow.LoopEndNode;
 import org.knime.core.node.workflow.LoopStartNode;
+import org.knime.core.node.workflow.VariableType.DoubleArrayType;
 
 /**
  *
@@ -99,7 +100,7 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
         final Map<String, FlowVariable> fvs = getAvailableInputFlowVariables();
         boolean compatibleFVExists = false;
         for (final FlowVariable fv : fvs.values()) {
-            if (fv.getType() == FlowVariable.Type.DOUBLE) {
+            if (isScoreVariable(fv)) {
                 compatibleFVExists = true;
             }
         }
@@ -111,8 +112,8 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
                 + "\" is not contained in the input flow variables.");
         }
         final FlowVariable scoreVariable = getAvailableInputFlowVariables().get(scoreVariableName);
-        if (scoreVariable.getType() != FlowVariable.Type.DOUBLE) {
-            throw new InvalidSettingsException("The score variable must be of type Double.");
+        if (!isScoreVariable(scoreVariable)) {
+            throw new InvalidSettingsException("The score variable must be of type Double or Double array.");
         }
 
         // first configure
@@ -141,13 +142,24 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
     protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
 
         final FlowVariable scoreVariable = getAvailableInputFlowVariables().get(m_settings.getScoreVariableName());
-        final double score = scoreVariable.getDoubleValue();
         if (m_resultTable == null) {
             m_resultTable = exec.createDataContainer(m_featureSelector.getSpecForResultTable());
             m_featureSelector.setResultTableContainer(m_resultTable);
         }
 
-        m_featureSelector.addScore(score);
+        if (scoreVariable.getVariableType() == DoubleArrayType.INSTANCE) {
+            // one score for each candidate of the iteration
+            final Double[] scores = scoreVariable.getValue(DoubleArrayType.INSTANCE);
+            final double[] unboxed = new double[scores.length];
+            for (int i = 0; i < scores.length; i++) {
+                unboxed[i] = scores[i];
+            }
+            m_featureSelector.addScores(unboxed);
+        } else if (m_featureSelector.isBatched()) {
+            m_featureSelector.addScores(new double[]{scoreVariable.getDoubleValue()});
+        } else {
+            m_featureSelector.addScore(scoreVariable.getDoubleValue());
+        }
 
 
         m_iteration++;
@@ -204,6 +216,11 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
         m_settings.loadInModel(settings);
     }
 
+    private static boolean isScoreVariable(final FlowVariable variable) {
+        return variable.getType() == FlowVariable.Type.DOUBLE
+            || variable.getVariableType() == DoubleArrayType.INSTANCE;
+    }
+
     /**
      * Clears all members and closes the table.
      */
@@ -103,6 +103,8 @@ public class FeatureSelectionLoopStartNodeDialogPane extends NodeDialogPane {
 
     private final JCheckBox m_useNrFeaturesThresholdCheckBox;
 
+    private final JSpinner m_candidatesPerIterationSpinner;
+
     // Components for genetic and random algorithms
 
     private final JCheckBox m_useNrFeaturesLowerBoundCheckBox;
@@ -170,6 +172,7 @@ public FeatureSelectionLoopStartNodeDialogPane() {
             m_nrFeaturesLabel.setEnabled(enable);
         });
         m_useNrFeaturesThresholdCheckBox.doClick();
+        m_candidatesPerIterationSpinner = new JSpinner(new SpinnerNumberModel(1, 1, Integer.MAX_VALUE, 1));
         m_useNrFeaturesLowerBoundCheckBox = new JCheckBox("Use lower bound for number of features");
         m_nrFeaturesLowerBoundSpinner = new JSpinner(new SpinnerNumberModel(2, 2, Integer.MAX_VALUE, 1));
         m_useNrFeaturesLowerBoundCheckBox.addChangeListener(
@@ -303,6 +306,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         cfg.setStrategy((Strategy)m_strategyComboBox.getSelectedItem());
         cfg.setNrFeaturesThreshold(
             m_useNrFeaturesThresholdCheckBox.isSelected() ? (int)m_nrFeaturesThresholdSpinner.getValue() : -1);
+        cfg.setCandidatesPerIteration((int)m_candidatesPerIterationSpinner.getValue());
         cfg.setNrFeaturesLowerBound(
             m_useNrFeaturesLowerBoundCheckBox.isSelected() ? (int)m_nrFeaturesLowerBoundSpinner.getValue() : -1);
         cfg.setNrFeaturesUpperBound(
@@ -343,6 +347,7 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final DataTableSp
         if (useFeatureThreshold) {
             m_nrFeaturesThresholdSpinner.setValue(cfg.getNrFeaturesThreshold());
         }
+        m_candidatesPerIterationSpinner.setValue(cfg.getCandidatesPerIteration());
         final boolean useFeatureLowerBound = cfg.useNrFeaturesLowerBound();
         m_useNrFeaturesLowerBoundCheckBox.setSelected(useFeatureLowerBound);
         // only set spinner value if the lower bound is used
@@ -481,6 +486,15 @@ private JPanel getSettingsPanel() {
         m_listSequentialComponents.add(labelFeatureThreshold);
         m_listSequentialComponents.add(m_nrFeaturesThresholdSpinner);
 
+        gbc.gridx = 0;
+        gbc.gridy++;
+        final JLabel labelCandidatesPerIteration = new JLabel("Candidates per iteration");
+        panel.add(labelCandidatesPerIteration, gbc);
+        gbc.gridx = 1;
+        panel.add(m_candidatesPerIterationSpinner, gbc);
+        m_listSequentialComponents.add(labelCandidatesPerIteration);
+        m_listSequentialComponents.add(m_candidatesPerIterationSpinner);
+
         // add two dummy labels to keep components on top left
         gbc.gridx++;
         gbc.weightx = 1;
@@ -64,6 +64,7 @@
 import org.knime.core.node.util.filter.NameFilterConfiguration.FilterResult;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
 import org.knime.core.node.workflow.LoopStartNodeTerminator;
+import org.knime.core.node.workflow.VariableType.StringArrayType;
 
 /**
  * Node Model of the start of a feature selection loop.
@@ -131,6 +132,7 @@ protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws Invali
                 final FeatureSelectionStrategy strategy = FeatureSelectionStrategies
                     .createFeatureSelectionStrategy(m_settings, columnHandler.getAvailableFeatures());
                 m_featureSelector = new FeatureSelector(strategy, columnHandler);
+                m_featureSelector.setCandidatesPerIteration(m_settings.getCandidatesPerIteration());
                 // push max iterations flowvariable
                 m_maxIterations = m_featureSelector.getNumberOfIterations();
                 pushFlowVariableInt("maxIterations", m_maxIterations);
@@ -142,6 +144,7 @@ protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws Invali
         // push flowvariables
         pushFlowVariableInt("currentIteration", m_iteration);
         pushFlowVariableString("currentFeature", m_featureSelector.getCurrentFeatureName());
+        pushCandidateFeatures();
 
         final DataTableSpec outSpec = m_featureSelector.getOutSpec(inSpecs[0]);
         final DataTableSpec[] outSpecs = new DataTableSpec[inSpecs.length];
@@ -161,12 +164,24 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
         pushFlowVariableInt("maxIterations", m_maxIterations);
         pushFlowVariableInt("currentIteration", m_iteration);
         pushFlowVariableString("currentFeature", m_featureSelector.getCurrentFeatureName());
+        pushCandidateFeatures();
 
         m_iteration++;
 
         return m_featureSelector.getNextTables(exec, inData);
     }
 
+    /**
+     * Pushes the changed feature of each candidate if several candidates are evaluated per iteration. The loop end
+     * then expects one score per candidate in the same order.
+     */
+    private void pushCandidateFeatures() {
+        if (m_featureSelector.isBatched()) {
+            pushFlowVariable("candidateFeatures", StringArrayType.INSTANCE,
+                m_featureSelector.getCandidateFeatureNames());
+        }
+    }
+
 
 
     FeatureSelector getFeatureSelector() {
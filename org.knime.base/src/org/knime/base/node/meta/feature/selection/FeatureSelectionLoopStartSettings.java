@@ -76,6 +76,8 @@ public class FeatureSelectionLoopStartSettings {
 
     private static final String CFG_NR_FEATURES_THRESHOLD = "nrFeatureThreshold";
 
+    private static final String CFG_CANDIDATES_PER_ITERATION = "candidatesPerIteration";
+
     // Genetic Algorithm
 
     private static final String CFG_NR_FEATURES_LOWER_BOUND = "nrFeatureLowerBound";
@@ -117,6 +119,8 @@ public class FeatureSelectionLoopStartSettings {
     // -1 stands for no threshold!
     private static final int DEF_NR_FEATURES_THRESHOLD = -1;
 
+    private static final int DEF_CANDIDATES_PER_ITERATION = 1;
+
     // Genetic Algorithm
 
     // -1 stands for no upper bound!
@@ -163,6 +167,8 @@ public class FeatureSelectionLoopStartSettings {
 
     private int m_nrFeaturesThreshold = DEF_NR_FEATURES_THRESHOLD;
 
+    private int m_candidatesPerIteration = DEF_CANDIDATES_PER_ITERATION;
+
     // Genetic Algorithm
 
     private int m_nrFeaturesLowerBound = DEF_NR_FEATURES_LOWER_BOUND;
@@ -225,6 +231,23 @@ public void setNrFeaturesThreshold(final int nrFeaturesThreshold) {
         m_nrFeaturesThreshold = nrFeaturesThreshold;
     }
 
+    /**
+     * @return the maximal number of candidate subsets of a search round that are evaluated per loop iteration
+     * @since 4.5
+     */
+    public int getCandidatesPerIteration() {
+        return m_candidatesPerIteration;
+    }
+
+    /**
+     * @param candidatesPerIteration the maximal number of candidate subsets of a search round that are evaluated per
+     *            loop iteration
+     * @since 4.5
+     */
+    public void setCandidatesPerIteration(final int candidatesPerIteration) {
+        m_candidatesPerIteration = candidatesPerIteration;
+    }
+
     /**
      * @return the {@link DataColumnSpecFilterConfiguration} for the static column filter
      */
@@ -509,6 +532,7 @@ public void save(final NodeSettingsWO settings) {
         m_selectionStrategy.save(settings);
         m_constantColumnsFilterConfig.saveConfiguration(settings);
         settings.addInt(CFG_NR_FEATURES_THRESHOLD, m_nrFeaturesThreshold);
+        settings.addInt(CFG_CANDIDATES_PER_ITERATION, m_candidatesPerIteration);
         settings.addInt(CFG_NR_FEATURES_LOWER_BOUND, m_nrFeaturesLowerBound);
         settings.addInt(CFG_NR_FEATURES_UPPER_BOUND, m_nrFeaturesUpperBound);
         settings.addInt(CFG_POP_SIZE, m_popSize);
@@ -549,6 +573,7 @@ public void loadInDialog(final NodeSettingsRO settings, final DataTableSpec spec
         }
         m_constantColumnsFilterConfig.loadConfigurationInDialog(settings, spec);
         m_nrFeaturesThreshold = settings.getInt(CFG_NR_FEATURES_THRESHOLD, DEF_NR_FEATURES_THRESHOLD);
+        m_candidatesPerIteration = settings.getInt(CFG_CANDIDATES_PER_ITERATION, DEF_CANDIDATES_PER_ITERATION);
         m_nrFeaturesLowerBound = settings.getInt(CFG_NR_FEATURES_LOWER_BOUND, DEF_NR_FEATURES_LOWER_BOUND);
         m_nrFeaturesUpperBound = settings.getInt(CFG_NR_FEATURES_UPPER_BOUND, DEF_NR_FEATURES_UPPER_BOUND);
         m_popSize = settings.getInt(CFG_POP_SIZE, DEF_POP_SIZE);
@@ -602,5 +627,12 @@ public void loadInModel(final NodeSettingsRO settings) throws InvalidSettingsExc
         m_maxNumIterations = settings.getInt(CFG_MAX_NUM_ITERATIONS, DEF_MAX_NUM_ITERATIONS);
         m_earlyStoppingRandom = settings.getInt(CFG_EARLY_STOPPING_RANDOM, DEF_EARLY_STOPPING_RANDOM);
         m_earlyStoppingTolerance = settings.getDouble(CFG_EARLY_STOPPING_TOLERANCE, DEF_EARLY_STOPPING_TOLERANCE);
+
+        // added in 4.5
+        m_candidatesPerIteration = settings.getInt(CFG_CANDIDATES_PER_ITERATION, DEF_CANDIDATES_PER_ITERATION);
+        if (m_candidatesPerIteration < 1) {
+            throw new InvalidSettingsException(
+                "The number of candidates per iteration must be positive: " + m_candidatesPerIteration);
+        }
     }
 }
@@ -49,6 +49,7 @@
 package org.knime.base.node.meta.feature.selection;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -119,6 +120,31 @@ public interface FeatureSelectionStrategy {
      */
     public int getNumberOfIterations();
 
+    /**
+     * Returns the maximal number of iterations if up to the given number of candidates of a search round are evaluated
+     * per iteration, see {@link #getCandidateBatch()}.
+     *
+     * @param candidatesPerIteration the maximal number of candidates per iteration
+     * @return the maximal number of iterations, the default implementation evaluates one candidate per iteration
+     * @since 4.5
+     */
+    public default int getNumberOfIterations(final int candidatesPerIteration) {
+        return getNumberOfIterations();
+    }
+
+    /**
+     * Returns the feature subsets that remain to be evaluated in the current search round, starting with the one
+     * returned by {@link #getIncludedFeatures()}. The subsets of a batch don't depend on each other's scores, i.e. they
+     * can be evaluated together as long as their scores are added in the order of the batch.
+     *
+     * @return the remaining candidate subsets of the current search round, the default implementation only returns
+     *         the subset of the current iteration
+     * @since 4.5
+     */
+    public default List<List<Integer>> getCandidateBatch() {
+        return Collections.singletonList(getIncludedFeatures());
+    }
+
     /**
      * @return index of the feature that is currently investigated.
      */
@@ -48,8 +48,11 @@
  */
 package org.knime.base.node.meta.feature.selection;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
@@ -94,6 +97,8 @@ public class FeatureSelector {
 
     private long m_rowIdx;
 
+    private int m_candidatesPerIteration = 1;
+
     /**
      * @param strategy Search strategy for this search (e.g. forward selection)
      * @param columnHandler Column Handler that is used to arrange the tables according to the strategy.
@@ -133,6 +138,95 @@ public void addScore(final double score) {
         m_strategy.finishRound();
     }
 
+    /**
+     * Called by the FeatureSelectionLoopEndNodeModel if several candidates are evaluated per iteration <br>
+     * Adds the <b>scores</b> of the candidates of the current iteration in their order, see
+     * {@link #getCandidateFeatureNames()}.
+     *
+     * @param scores the scores of the candidates of the current iteration
+     * @throws IllegalArgumentException if the number of scores differs from the number of candidates
+     * @since 4.5
+     */
+    public void addScores(final double[] scores) {
+        final int numCandidates = getCurrentBatch().size();
+        CheckUtils.checkArgument(scores.length == numCandidates,
+            "Expected one score for each of the %d candidates of this iteration but got %d scores.", numCandidates,
+            scores.length);
+        for (final double score : scores) {
+            addScore(score);
+        }
+    }
+
+    /**
+     * Sets the maximal number of candidate subsets that are evaluated per iteration. Only forward selection and
+     * backward elimination evaluate more than one candidate per iteration, the candidates of an iteration always
+     * belong to the same search round.
+     *
+     * @param candidatesPerIteration the maximal number of candidates per iteration
+     * @since 4.5
+     */
+    public void setCandidatesPerIteration(final int candidatesPerIteration) {
+        CheckUtils.checkArgument(candidatesPerIteration >= 1,
+            "At least one candidate must be evaluated per iteration.");
+        m_candidatesPerIteration = candidatesPerIteration;
+    }
+
+    /**
+     * @return <code>true</code> if more than one candidate subset may be evaluated per iteration
+     * @since 4.5
+     */
+    public boolean isBatched() {
+        return m_isSequentialStrategy && m_candidatesPerIteration > 1;
+    }
+
+    /**
+     * Returns for each candidate subset of the current iteration the feature that is added to (forward selection) or
+     * removed from (backward elimination) the features fixed so far. The tables of the iteration contain the
+     * features of all candidates, i.e. a candidate consists of the fixed features and its added feature, or of all
+     * features except its removed feature, respectively.
+     *
+     * @return the names of the changed features of the candidates of the current iteration, an empty name if a
+     *         candidate consists of the fixed features only
+     * @since 4.5
+     */
+    public String[] getCandidateFeatureNames() {
+        final Collection<Integer> level = m_strategy.getFeatureLevel();
+        final List<List<Integer>> batch = getCurrentBatch();
+        final String[] names = new String[batch.size()];
+        for (int i = 0; i < names.length; i++) {
+            List<Integer> changed = new ArrayList<>(batch.get(i));
+            changed.removeAll(level);
+            if (changed.isEmpty()) {
+                changed = new ArrayList<>(level);
+                changed.removeAll(batch.get(i));
+            }
+            names[i] = String.join(",", m_colHandler.getColumnNamesFor(changed));
+        }
+        return names;
+    }
+
+    /**
+     * @return the candidate subsets evaluated in the current iteration
+     */
+    private List<List<Integer>> getCurrentBatch() {
+        final List<List<Integer>> batch = m_strategy.getCandidateBatch();
+        return batch.size() > m_candidatesPerIteration ? batch.subList(0, m_candidatesPerIteration) : batch;
+    }
+
+    /**
+     * @return the features contained in the tables of the current iteration
+     */
+    private List<Integer> getFeaturesOfCurrentIteration() {
+        if (!isBatched()) {
+            return m_strategy.getIncludedFeatures();
+        }
+        final Set<Integer> features = new LinkedHashSet<>();
+        for (final List<Integer> candidate : getCurrentBatch()) {
+            features.addAll(candidate);
+        }
+        return new ArrayList<>(features);
+    }
+
     /**
      * @return the feature selection model.
      */
@@ -173,7 +267,7 @@ public void setScoreName(final String scoreName) {
      * @return the outspec containing all feature columns of the current iteration.
      */
     public DataTableSpec getOutSpec(final DataTableSpec inSpec) {
-        return m_colHandler.getOutSpec(m_strategy.getIncludedFeatures(), inSpec, ALWAYS_INCLUDE);
+        return m_colHandler.getOutSpec(getFeaturesOfCurrentIteration(), inSpec, ALWAYS_INCLUDE);
     }
 
     /**
@@ -227,19 +321,20 @@ private DataRow getRowForResultTable() {
      *
      * @param exec {@link ExecutionContext} of the loop start node.
      * @param inTables The input tables of the loop start node.
-     * @return Table containing the feature columns for the current round as well as the constant columns.
+     * @return Table containing the feature columns for the current round as well as the constant columns, if several
+     *         candidates are evaluated per iteration, the feature columns of all of them.
      * @throws CanceledExecutionException Thrown if the execution is canceled.
      */
     public BufferedDataTable[] getNextTables(final ExecutionContext exec, final BufferedDataTable[] inTables)
         throws CanceledExecutionException {
-        return m_colHandler.getTables(exec, inTables, m_strategy.getIncludedFeatures(), ALWAYS_INCLUDE);
+        return m_colHandler.getTables(exec, inTables, getFeaturesOfCurrentIteration(), ALWAYS_INCLUDE);
     }
 
     /**
      * @return The maximal number of iterations the current search has.
      */
     public int getNumberOfIterations() {
-        return m_strategy.getNumberOfIterations();
+        return m_strategy.getNumberOfIterations(isBatched() ? m_candidatesPerIteration : 1);
     }
 
     /**
@@ -0,0 +1,317 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.meta.looper.group;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataValueComparator;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.container.SingleCellFactory;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.sort.BufferedDataTableSorter;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Maps each group of a table to the range of its rows, which is built in a single pass over the table. The groups are
+ * either ordered by their first appearance or by their group values, as if the table was sorted. If the rows of each
+ * group are consecutive and the groups appear in that order, the groups can be read with a single pass over the table
+ * via an {@link IndexedGroupReader}, otherwise the table is sorted by the index, which keeps the order of the rows
+ * within each group.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class GroupIndex {
+
+    /** The maximal number of groups that are indexed, huge cardinalities are handled by sorting the table. */
+    static final int MAX_GROUPS = 1 << 20;
+
+    private final List<Group> m_groups;
+
+    private final Map<GroupKey, Integer> m_ordinals;
+
+    private GroupIndex(final List<Group> groups) {
+        m_groups = groups;
+        m_ordinals = new HashMap<>(groups.size() * 2);
+        for (int i = 0; i < groups.size(); i++) {
+            m_ordinals.put(new GroupKey(groups.get(i).m_cells), i);
+        }
+    }
+
+    /**
+     * Indexes the given table.
+     *
+     * @param table the table to index
+     * @param groupColIndices the indices of the group columns
+     * @param inputOrder {@code true} if the groups should be ordered by their first appearance, {@code false} if they
+     *            should be ordered ascending by their group values
+     * @param exec used for progress and cancellation
+     * @return the index or {@link Optional#empty()} if the table has too many groups to index them in memory
+     * @throws CanceledExecutionException if the execution has been canceled
+     */
+    static Optional<GroupIndex> create(final BufferedDataTable table, final int[] groupColIndices,
+        final boolean inputOrder, final ExecutionMonitor exec) throws CanceledExecutionException {
+        final Map<GroupKey, Group> groups = new HashMap<>();
+        final List<Group> orderedGroups = new ArrayList<>();
+        final long size = table.size();
+        long position = 0;
+        try (final CloseableRowIterator iterator = table.iterator()) {
+            while (iterator.hasNext()) {
+                final DataRow row = iterator.next();
+                final GroupKey key = new GroupKey(getGroupCells(row, groupColIndices));
+                Group group = groups.get(key);
+                if (group == null) {
+                    if (groups.size() == MAX_GROUPS) {
+                        return Optional.empty();
+                    }
+                    group = new Group(key.m_cells);
+                    groups.put(key, group);
+                    orderedGroups.add(group);
+                }
+                group.add(position);
+                position++;
+                exec.checkCanceled();
+                final long rowIndex = position;
+                exec.setProgress(position / (double)size, () -> "Indexing row " + rowIndex + " of " + size);
+            }
+        }
+        if (!inputOrder) {
+            orderedGroups.sort(createComparator(table.getDataTableSpec(), groupColIndices));
+        }
+        return Optional.of(new GroupIndex(orderedGroups));
+    }
+
+    static DataCell[] getGroupCells(final DataRow row, final int[] groupColIndices) {
+        final DataCell[] cells = new DataCell[groupColIndices.length];
+        for (int i = 0; i < groupColIndices.length; i++) {
+            cells[i] = row.getCell(groupColIndices[i]);
+        }
+        return cells;
+    }
+
+    private static Comparator<Group> createComparator(final DataTableSpec spec, final int[] groupColIndices) {
+        final DataValueComparator[] comparators = new DataValueComparator[groupColIndices.length];
+        for (int i = 0; i < groupColIndices.length; i++) {
+            comparators[i] = spec.getColumnSpec(groupColIndices[i]).getType().getComparator();
+        }
+        return (g1, g2) -> {
+            for (int i = 0; i < comparators.length; i++) {
+                final int result = comparators[i].compare(g1.m_cells[i], g2.m_cells[i]);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * @return the number of groups
+     */
+    int getNumberOfGroups() {
+        return m_groups.size();
+    }
+
+    /**
+     * @param index the index of the group
+     * @return the group at the given index
+     */
+    Group getGroup(final int index) {
+        return m_groups.get(index);
+    }
+
+    /**
+     * Returns the position of the group with the given values.
+     *
+     * @param cells the values of the group columns
+     * @return the index of the group
+     */
+    int getGroupIndex(final DataCell[] cells) {
+        return m_ordinals.get(new GroupKey(cells));
+    }
+
+    /**
+     * Returns whether the rows of each group are consecutive and the groups appear in the order of this index, i.e.
+     * whether all groups can be read in a single pass over the table.
+     *
+     * @return {@code true} if the groups can be read in a single pass
+     */
+    boolean isConsecutive() {
+        long next = 0;
+        for (final Group group : m_groups) {
+            if (group.getFirstPosition() != next || group.getLastPosition() - next + 1 != group.size()) {
+                return false;
+            }
+            next = group.getLastPosition() + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the table by the index of the group and the position of the row, i.e. the groups are in the order of this
+     * index and the rows within the groups keep their order.
+     *
+     * @param table the indexed table
+     * @param groupColIndices the indices of the group columns
+     * @param exec used for the sorting, progress and cancellation
+     * @return the sorted table
+     * @throws CanceledExecutionException if the execution has been canceled
+     */
+    BufferedDataTable sort(final BufferedDataTable table, final int[] groupColIndices, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        final DataTableSpec spec = table.getDataTableSpec();
+        final String keyColumn = DataTableSpec.getUniqueColumnName(spec, "Group index");
+        final long size = table.size();
+        final ColumnRearranger appender = new ColumnRearranger(spec);
+        appender.append(new SingleCellFactory(new DataColumnSpecCreator(keyColumn, LongCell.TYPE).createSpec()) {
+
+            private long m_position;
+
+            @Override
+            public DataCell getCell(final DataRow row) {
+                final int groupIndex = getGroupIndex(getGroupCells(row, groupColIndices));
+                // unique as the number of groups is bounded
+                return new LongCell(groupIndex * size + m_position++);
+            }
+        });
+        final BufferedDataTable keyed = exec.createColumnRearrangeTable(table, appender, exec.createSubProgress(0.2));
+        final BufferedDataTable sorted =
+            new BufferedDataTableSorter(keyed, Collections.singletonList(keyColumn), new boolean[]{true})
+                .sort(exec.createSubExecutionContext(0.7));
+        final ColumnRearranger remover = new ColumnRearranger(sorted.getDataTableSpec());
+        remover.remove(keyColumn);
+        return exec.createColumnRearrangeTable(sorted, remover, exec.createSubProgress(0.1));
+    }
+
+    /** The values of a group and the range of its rows. */
+    static final class Group {
+
+        private final DataCell[] m_cells;
+
+        private long m_firstPosition = -1;
+
+        private long m_lastPosition;
+
+        private long m_size;
+
+        private Group(final DataCell[] cells) {
+            m_cells = cells;
+        }
+
+        private void add(final long position) {
+            if (m_firstPosition < 0) {
+                m_firstPosition = position;
+            }
+            m_lastPosition = position;
+            m_size++;
+        }
+
+        /**
+         * @return the values of the group columns
+         */
+        DataCell[] getCells() {
+            return m_cells;
+        }
+
+        /**
+         * @return the number of rows of the group
+         */
+        long size() {
+            return m_size;
+        }
+
+        /**
+         * @return the position of the first row of the group in the table
+         */
+        long getFirstPosition() {
+            return m_firstPosition;
+        }
+
+        /**
+         * @return the position of the last row of the group in the table
+         */
+        long getLastPosition() {
+            return m_lastPosition;
+        }
+    }
+
+    /** Wraps the group values in order to use them as hash key. */
+    private static final class GroupKey {
+
+        private final DataCell[] m_cells;
+
+        private final int m_hashCode;
+
+        GroupKey(final DataCell[] cells) {
+            m_cells = cells;
+            m_hashCode = Arrays.hashCode(cells);
+        }
+
+        @Override
+        public int hashCode() {
+            return m_hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof GroupKey && Arrays.equals(m_cells, ((GroupKey)obj).m_cells);
+        }
+    }
+}
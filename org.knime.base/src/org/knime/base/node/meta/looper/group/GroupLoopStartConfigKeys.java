@@ -64,4 +64,14 @@ private GroupLoopStartConfigKeys() { /* empty constructor */ }
      * The configuration key for "sorted input" setting.
      */
     static final String SORTED_INPUT_TABLE = "SortedInput";
+
+    /**
+     * The configuration key for "index input" setting.
+     */
+    static final String INDEX_INPUT_TABLE = "IndexInput";
+
+    /**
+     * The configuration key for "groups in input order" setting.
+     */
+    static final String GROUPS_IN_INPUT_ORDER = "GroupsInInputOrder";
 }
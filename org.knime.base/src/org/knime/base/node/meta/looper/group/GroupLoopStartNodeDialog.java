@@ -47,6 +47,8 @@
  */
 package org.knime.base.node.meta.looper.group;
 
+import javax.swing.event.ChangeListener;
+
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
 import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
 import org.knime.core.node.defaultnodesettings.DialogComponentColumnFilter2;
@@ -83,6 +85,30 @@ static final SettingsModelBoolean getSortedInputTableModel() {
                 GroupLoopStartNodeModel.DEF_SORTED_INPUT_TABLE);
     }
 
+    /**
+     * Creates and returns the settings model, storing the "index input table"
+     * flag.
+     *
+     * @return The settings model with the "index input table" flag.
+     */
+    static final SettingsModelBoolean getIndexInputTableModel() {
+        return new SettingsModelBoolean(
+                GroupLoopStartConfigKeys.INDEX_INPUT_TABLE,
+                GroupLoopStartNodeModel.DEF_INDEX_INPUT_TABLE);
+    }
+
+    /**
+     * Creates and returns the settings model, storing the "groups in input
+     * order" flag.
+     *
+     * @return The settings model with the "groups in input order" flag.
+     */
+    static final SettingsModelBoolean getGroupsInInputOrderModel() {
+        return new SettingsModelBoolean(
+                GroupLoopStartConfigKeys.GROUPS_IN_INPUT_ORDER,
+                GroupLoopStartNodeModel.DEF_GROUPS_IN_INPUT_ORDER);
+    }
+
     /**
      * Creates new instance of <code>GroupLoopStartNodeDialog</code>.
      */
@@ -93,9 +119,33 @@ public GroupLoopStartNodeDialog() {
                 getFilterDoubleColModel(), 0));
 
         // sorted input table
+        final SettingsModelBoolean sortedInputTableModel =
+            getSortedInputTableModel();
         addDialogComponent(
-                new DialogComponentBoolean(getSortedInputTableModel(),
+                new DialogComponentBoolean(sortedInputTableModel,
                         "Input is already sorted by group column(s) "
                         + "[execution fails if not correctly sorted]"));
+
+        // index instead of sorting
+        final SettingsModelBoolean indexInputTableModel =
+            getIndexInputTableModel();
+        final SettingsModelBoolean groupsInInputOrderModel =
+            getGroupsInInputOrderModel();
+        addDialogComponent(new DialogComponentBoolean(indexInputTableModel,
+            "Index groups instead of sorting the input "
+            + "[keeps the row order within groups]"));
+        addDialogComponent(new DialogComponentBoolean(groupsInInputOrderModel,
+            "Process groups in order of their first appearance"));
+
+        final ChangeListener listener = e -> {
+            indexInputTableModel.setEnabled(
+                !sortedInputTableModel.getBooleanValue());
+            groupsInInputOrderModel.setEnabled(
+                indexInputTableModel.isEnabled()
+                    && indexInputTableModel.getBooleanValue());
+        };
+        sortedInputTableModel.addChangeListener(listener);
+        indexInputTableModel.addChangeListener(listener);
+        listener.stateChanged(null);
     }
 }
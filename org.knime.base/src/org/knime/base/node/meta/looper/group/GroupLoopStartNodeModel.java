@@ -51,6 +51,7 @@
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
@@ -93,6 +94,16 @@ class GroupLoopStartNodeModel extends NodeModel implements
      */
     public static final boolean DEF_SORTED_INPUT_TABLE = false;
 
+    /**
+     * The default "index input table" setting.
+     */
+    public static final boolean DEF_INDEX_INPUT_TABLE = false;
+
+    /**
+     * The default "groups in input order" setting.
+     */
+    public static final boolean DEF_GROUPS_IN_INPUT_ORDER = false;
+
     /**
      * The separator to separate groups in group identifier.
      */
@@ -104,6 +115,14 @@ class GroupLoopStartNodeModel extends NodeModel implements
     private final SettingsModelBoolean m_sortedInputTableModel =
         GroupLoopStartNodeDialog.getSortedInputTableModel();
 
+    // added in 4.5
+    private final SettingsModelBoolean m_indexInputTableModel =
+        GroupLoopStartNodeDialog.getIndexInputTableModel();
+
+    // added in 4.5
+    private final SettingsModelBoolean m_groupsInInputOrderModel =
+        GroupLoopStartNodeDialog.getGroupsInInputOrderModel();
+
     // loop invariants
     private BufferedDataTable m_table;
     private BufferedDataTable m_sortedTable;
@@ -111,6 +130,7 @@ class GroupLoopStartNodeModel extends NodeModel implements
     private DataTableSpec m_spec;
     private int[] m_includedColIndices;
     private DuplicateChecker m_duplicateChecker;
+    private IndexedGroupReader m_groupReader;
 
     // loop variants
     private int m_iteration;
@@ -175,7 +195,6 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
         //
         ///////////////////////////
         BufferedDataTable table = inData[0];
-        DataTableSpec spec = table.getDataTableSpec();
         if (table.size() <= 0) {
             m_endLoop = true;
         }
@@ -191,26 +210,29 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
             m_spec = m_table.getDataTableSpec();
 
             // sort if not already sorted
-            if (!m_sortedInputTableModel.getBooleanValue()) {
-                // asc
-                final String[] includes = m_filterGroupColModel.applyTo(spec).getIncludes();
-                boolean[] sortAsc = new boolean[includes.length];
-                Arrays.fill(sortAsc, true);
-                BufferedDataTableSorter tableSorter =
-                    new BufferedDataTableSorter(table,
-                            Arrays.asList(includes), sortAsc, false);
-                m_sortedTable = tableSorter.sort(exec);
-            } else {
+            if (m_sortedInputTableModel.getBooleanValue()) {
                 // no sort necessary
                 m_sortedTable = table;
+            } else if (m_indexInputTableModel.getBooleanValue()) {
+                m_sortedTable = indexTable(table, exec);
+            } else {
+                m_sortedTable = sortTable(table, exec);
             }
 
-            m_iterator = m_sortedTable.iterator();
+            if (m_groupReader == null) {
+                m_iterator = m_sortedTable.iterator();
+            }
         } else {
             assert getLoopEndNode() != null : "No end node set";
             assert table == m_table : "Input tables differ between iterations";
         }
 
+        if (m_groupReader != null) {
+            final BufferedDataTable group = readIndexedGroup(exec);
+            pushIterationVariables();
+            return new BufferedDataTable[] {group};
+        }
+
 
         ///////////////////////////
         //
@@ -317,14 +339,88 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
             }
         }
 
-        // push variables
+        pushIterationVariables();
+
+        return new BufferedDataTable[] {cont.getTable()};
+    }
+
+    private void pushIterationVariables() {
         pushFlowVariableInt("currentIteration", m_iteration);
         pushGroupColumnValuesAsFlowVariables(m_lastGroupingState);
         pushFlowVariableString("groupIdentifier",
                 m_lastGroupingState.getGroupIdentifier());
         m_iteration++;
+    }
 
-        return new BufferedDataTable[] {cont.getTable()};
+    private BufferedDataTable sortTable(final BufferedDataTable table,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        // asc
+        final String[] includes = m_filterGroupColModel.applyTo(
+                table.getDataTableSpec()).getIncludes();
+        boolean[] sortAsc = new boolean[includes.length];
+        Arrays.fill(sortAsc, true);
+        BufferedDataTableSorter tableSorter =
+            new BufferedDataTableSorter(table,
+                    Arrays.asList(includes), sortAsc, false);
+        return tableSorter.sort(exec);
+    }
+
+    /**
+     * Indexes the groups of the table in a single pass. If the groups are
+     * consecutive they are read by a single iterator over the table, otherwise
+     * the table is sorted by the index, which keeps the row order within the
+     * groups. If the groups can't be indexed, the table is sorted by the group
+     * column(s) instead. Returns the table to iterate.
+     */
+    private BufferedDataTable indexTable(final BufferedDataTable table,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        final Optional<GroupIndex> index = GroupIndex.create(table,
+            m_includedColIndices, m_groupsInInputOrderModel.getBooleanValue(),
+            exec.createSubProgress(0.5));
+        if (!index.isPresent()) {
+            setWarningMessage("Too many groups to index, the input table "
+                + "has been sorted by the group column(s) instead.");
+            return sortTable(table, exec.createSubExecutionContext(0.5));
+        }
+        if (!index.get().isConsecutive()) {
+            // the groups are interleaved or not in the requested order, a
+            // single pass over the table can't read them
+            return index.get().sort(table, m_includedColIndices,
+                exec.createSubExecutionContext(0.5));
+        }
+        m_groupReader = new IndexedGroupReader(table, index.get());
+        exec.setProgress(1);
+        return table;
+    }
+
+    /**
+     * Reads the rows of the next group with the single iterator over the
+     * input table.
+     */
+    private BufferedDataTable readIndexedGroup(final ExecutionContext exec)
+            throws CanceledExecutionException {
+        final BufferedDataContainer cont =
+            exec.createDataContainer(m_table.getDataTableSpec());
+        if (m_groupReader.hasNext()) {
+            final DataCell[] cells = m_groupReader.readNext(cont, exec).getCells();
+            m_lastGroupingState = new GroupingState(
+                createGroupIdentifier(cells), false, cells);
+        } else {
+            // empty input table
+            m_lastGroupingState = new GroupingState("", false, null);
+        }
+        cont.close();
+        m_endLoop = !m_groupReader.hasNext();
+        return cont.getTable();
+    }
+
+    private static String createGroupIdentifier(final DataCell[] cells) {
+        final StringBuilder groupIdentifier = new StringBuilder();
+        for (final DataCell cell : cells) {
+            groupIdentifier.append(GROUP_SEPARATOR).append(cell.toString())
+                .append(GROUP_SEPARATOR);
+        }
+        return groupIdentifier.toString();
     }
 
     /**
@@ -332,7 +428,8 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
      */
     @Override
     public boolean terminateLoop() {
-        boolean continueLoop = m_iterator == null || !m_endLoop;
+        boolean continueLoop =
+            (m_iterator == null && m_groupReader == null) || !m_endLoop;
         return !continueLoop;
     }
 
@@ -349,6 +446,10 @@ protected void reset() {
             m_duplicateChecker.clear();
             m_duplicateChecker = null;
         }
+        if (m_groupReader != null) {
+            m_groupReader.close();
+            m_groupReader = null;
+        }
 
         m_iteration = 0;
         m_table = null;
@@ -542,6 +643,8 @@ private int[] getIncludedColIndices(final DataTableSpec dataSpec) {
     protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_filterGroupColModel.saveSettingsTo(settings);
         m_sortedInputTableModel.saveSettingsTo(settings);
+        m_indexInputTableModel.saveSettingsTo(settings);
+        m_groupsInInputOrderModel.saveSettingsTo(settings);
     }
 
     /**
@@ -552,6 +655,11 @@ protected void validateSettings(final NodeSettingsRO settings)
             throws InvalidSettingsException {
         m_filterGroupColModel.validateSettings(settings);
         m_sortedInputTableModel.validateSettings(settings);
+        // added in 4.5
+        if (settings.containsKey(GroupLoopStartConfigKeys.INDEX_INPUT_TABLE)) {
+            m_indexInputTableModel.validateSettings(settings);
+            m_groupsInInputOrderModel.validateSettings(settings);
+        }
     }
 
     /**
@@ -562,6 +670,15 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings)
             throws InvalidSettingsException {
         m_filterGroupColModel.loadSettingsFrom(settings);
         m_sortedInputTableModel.loadSettingsFrom(settings);
+        // added in 4.5
+        if (settings.containsKey(GroupLoopStartConfigKeys.INDEX_INPUT_TABLE)) {
+            m_indexInputTableModel.loadSettingsFrom(settings);
+            m_groupsInInputOrderModel.loadSettingsFrom(settings);
+        } else {
+            m_indexInputTableModel.setBooleanValue(DEF_INDEX_INPUT_TABLE);
+            m_groupsInInputOrderModel.setBooleanValue(
+                DEF_GROUPS_IN_INPUT_ORDER);
+        }
     }
 
 
@@ -0,0 +1,112 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.meta.looper.group;
+
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.RowAppender;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Reads the groups of a {@link GroupIndex} whose groups are consecutive one after another with a single iterator over
+ * the indexed table, hence all groups are read in a single pass.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class IndexedGroupReader implements AutoCloseable {
+
+    private final GroupIndex m_index;
+
+    private final CloseableRowIterator m_iterator;
+
+    private int m_nextGroup;
+
+    /**
+     * @param table the indexed table
+     * @param index the index of the table, its groups must be consecutive
+     * @see GroupIndex#isConsecutive()
+     */
+    IndexedGroupReader(final BufferedDataTable table, final GroupIndex index) {
+        if (!index.isConsecutive()) {
+            throw new IllegalArgumentException("The groups must be consecutive in order to read them in one pass.");
+        }
+        m_index = index;
+        m_iterator = table.iterator();
+    }
+
+    /**
+     * @return {@code true} if there are groups left to read
+     */
+    boolean hasNext() {
+        return m_nextGroup < m_index.getNumberOfGroups();
+    }
+
+    /**
+     * Reads the rows of the next group.
+     *
+     * @param output the appender for the rows of the group
+     * @param exec used for progress and cancellation
+     * @return the group that has been read
+     * @throws CanceledExecutionException if the execution has been canceled
+     */
+    GroupIndex.Group readNext(final RowAppender output, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        final GroupIndex.Group group = m_index.getGroup(m_nextGroup);
+        m_nextGroup++;
+        for (long i = 0; i < group.size(); i++) {
+            exec.checkCanceled();
+            output.addRowToTable(m_iterator.next());
+            exec.setProgress((i + 1) / (double)group.size());
+        }
+        return group;
+    }
+
+    @Override
+    public void close() {
+        m_iterator.close();
+    }
+}
@@ -98,6 +98,9 @@ public class XValidateDialog extends NodeDialogPane {
 
     private final JTextField m_randomSeed = new JTextField(10);
 
+    private final JCheckBox m_partitionInOnePass =
+            new JCheckBox("Create all partitions in a single pass");
+
     /**
      * Creates a new dialog for the cross validation settings.
      */
@@ -184,10 +187,17 @@ public void stateChanged(final ChangeEvent e) {
             @Override
             public void stateChanged(final ChangeEvent e) {
                 m_validations.setEnabled(!m_leaveOneOut.isSelected());
+                m_partitionInOnePass.setEnabled(!m_leaveOneOut.isSelected());
             }
         });
         m_leaveOneOut.doClick(); // enablement in sync
 
+        c.gridy++;
+        c.gridx = 0;
+        c.gridwidth = 2;
+        p.add(m_partitionInOnePass, c);
+        c.gridwidth = 1;
+
         ButtonGroup bg = new ButtonGroup();
         bg.add(m_linearSampling);
         bg.add(m_randomSampling);
@@ -213,11 +223,13 @@ protected void loadSettingsFrom(final NodeSettingsRO settings,
         } else if (m_settings.leaveOneOut()) {
             m_leaveOneOut.setSelected(true);
             m_validations.setEnabled(false);
+            m_partitionInOnePass.setEnabled(false);
         } else {
             m_linearSampling.setSelected(true);
         }
         m_useRandomSeed.setSelected(m_settings.useRandomSeed());
         m_randomSeed.setText(Long.toString(m_settings.randomSeed()));
+        m_partitionInOnePass.setSelected(m_settings.partitionInOnePass());
 
         m_classColumn.update(specs[0], m_settings.classColumn());
     }
@@ -236,6 +248,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings)
         m_settings.classColumn(m_classColumn.getSelectedColumn());
         m_settings.useRandomSeed(m_useRandomSeed.isSelected());
         m_settings.randomSeed(Long.parseLong(m_randomSeed.getText()));
+        m_settings.partitionInOnePass(m_partitionInOnePass.isSelected());
         m_settings.saveSettingsTo(settings);
     }
 }
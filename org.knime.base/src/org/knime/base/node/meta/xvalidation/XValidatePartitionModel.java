@@ -47,12 +47,10 @@
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 
 import org.knime.core.data.DataCell;
@@ -60,6 +58,7 @@
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.BufferedDataTableHolder;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
@@ -77,11 +76,14 @@
  * @author Thorsten Meinl, University of Konstanz
  */
 public class XValidatePartitionModel extends NodeModel implements
-        LoopStartNodeTerminator {
+        LoopStartNodeTerminator, BufferedDataTableHolder {
     private final XValidateSettings m_settings = new XValidateSettings();
 
     private short[] m_partNumbers;
 
+    /** The test partitions if all partitions are created in a single pass. */
+    private BufferedDataTable[] m_partitions;
+
     private int m_nrIterations;
 
     private int m_currIteration;
@@ -132,55 +134,22 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
                 m_currIteration = 0;
                 m_partNumbers = new short[0];
             } else {
-                m_partNumbers = new short[inData[0].getRowCount()];
-
-                final double partSize =
-                        m_partNumbers.length / (double)m_settings.validations();
-
-                if (m_settings.stratifiedSampling()) {
-                    ExecutionMonitor subExec = exec.createSubProgress(0.0);
-                    subExec.setMessage("Preparing stratified sampling");
-                    Map<DataCell, List<Integer>> valueCounts =
-                            countValues(inData[0], subExec,
-                                    m_settings.classColumn());
-
-                    int part = 0;
-                    for (Map.Entry<DataCell, List<Integer>> e : valueCounts
-                            .entrySet()) {
-                        List<Integer> l = e.getValue();
-
-                        for (Integer i : l) {
-                            m_partNumbers[i] = (short)part++;
-                            part %= m_settings.validations();
-                        }
-                    }
-                } else {
-                    for (int i = 0; i < m_partNumbers.length; i++) {
-                        m_partNumbers[i] =
-                                (short)Math.min(i / partSize,
-                                        m_partNumbers.length);
-                    }
-
-                    if (m_settings.randomSampling()) {
-                        long seed =
-                                m_settings.useRandomSeed() ? m_settings
-                                        .randomSeed() : System
-                                        .currentTimeMillis();
-                        Random rand = new Random(seed);
-
-                        for (int i = 0; i < m_partNumbers.length; i++) {
-                            int pos = rand.nextInt(m_partNumbers.length);
-                            short x = m_partNumbers[pos];
-                            m_partNumbers[pos] = m_partNumbers[i];
-                            m_partNumbers[i] = x;
-                        }
-                    }
-                }
+                m_partNumbers = createPartNumbers(inData[0], exec);
                 m_nrIterations = m_settings.validations();
                 m_currIteration = 0;
             }
         }
 
+        if (m_settings.partitionInOnePass() && !m_settings.leaveOneOut()) {
+            if (m_partitions == null) {
+                m_partitions = createPartitions(inData[0], exec);
+            }
+            final BufferedDataTable test = m_partitions[m_currIteration];
+            final BufferedDataTable train = createTrainingTable(exec);
+            pushIterationVariables();
+            return new BufferedDataTable[]{train, test};
+        }
+
         BufferedDataContainer test =
                 exec.createDataContainer(inData[0].getDataTableSpec());
 
@@ -206,12 +175,121 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
         test.close();
         train.close();
 
+        pushIterationVariables();
+
+        return new BufferedDataTable[]{train.getTable(), test.getTable()};
+    }
+
+    /**
+     * Assigns the rows of the table to the partitions according to the
+     * settings, which must not be leave-one-out.
+     *
+     * @param table the input table
+     * @param exec the monitor for progress and cancelation
+     * @return the partition of each row
+     * @throws CanceledExecutionException if the execution has been canceled
+     */
+    short[] createPartNumbers(final BufferedDataTable table,
+            final ExecutionMonitor exec) throws CanceledExecutionException {
+        final short[] partNumbers = new short[table.getRowCount()];
+
+        final double partSize =
+                partNumbers.length / (double)m_settings.validations();
+
+        if (m_settings.stratifiedSampling()) {
+            ExecutionMonitor subExec = exec.createSubProgress(0.0);
+            subExec.setMessage("Preparing stratified sampling");
+            int[][] classRows = collectClassRows(table, subExec,
+                m_settings.classColumn());
+
+            int part = 0;
+            for (int[] rows : classRows) {
+                for (int i : rows) {
+                    partNumbers[i] = (short)part++;
+                    part %= m_settings.validations();
+                }
+            }
+        } else {
+            for (int i = 0; i < partNumbers.length; i++) {
+                partNumbers[i] =
+                        (short)Math.min(i / partSize,
+                                partNumbers.length);
+            }
+
+            if (m_settings.randomSampling()) {
+                long seed =
+                        m_settings.useRandomSeed() ? m_settings
+                                .randomSeed() : System
+                                .currentTimeMillis();
+                Random rand = new Random(seed);
+
+                for (int i = 0; i < partNumbers.length; i++) {
+                    int pos = rand.nextInt(partNumbers.length);
+                    short x = partNumbers[pos];
+                    partNumbers[pos] = partNumbers[i];
+                    partNumbers[i] = x;
+                }
+            }
+        }
+        return partNumbers;
+    }
+
+    private void pushIterationVariables() {
         // we need to put the counts on the stack for the loop's tail to see:
         pushFlowVariableInt("currentIteration", m_currIteration);
         pushFlowVariableInt("maxIterations", m_nrIterations);
         m_currIteration++;
+    }
 
-        return new BufferedDataTable[]{train.getTable(), test.getTable()};
+    /**
+     * Writes all test partitions in a single pass over the input table.
+     */
+    private BufferedDataTable[] createPartitions(final BufferedDataTable table,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        final BufferedDataContainer[] containers =
+                new BufferedDataContainer[m_nrIterations];
+        for (int i = 0; i < containers.length; i++) {
+            containers[i] =
+                    exec.createDataContainer(table.getDataTableSpec());
+        }
+
+        int count = 0;
+        final double max = table.getRowCount();
+        for (DataRow row : table) {
+            exec.checkCanceled();
+            exec.setProgress(count / max);
+            containers[m_partNumbers[count]].addRowToTable(row);
+            count++;
+        }
+
+        final BufferedDataTable[] partitions =
+                new BufferedDataTable[containers.length];
+        for (int i = 0; i < containers.length; i++) {
+            containers[i].close();
+            partitions[i] = containers[i].getTable();
+        }
+        return partitions;
+    }
+
+    /**
+     * Concatenates all but the current test partition. The rows are ordered by
+     * partition, i.e. they are in the input order for linear sampling only.
+     */
+    private BufferedDataTable createTrainingTable(final ExecutionContext exec)
+            throws CanceledExecutionException {
+        final BufferedDataTable[] others =
+                new BufferedDataTable[m_partitions.length - 1];
+        for (int i = 0, j = 0; i < m_partitions.length; i++) {
+            if (i != m_currIteration) {
+                others[j++] = m_partitions[i];
+            }
+        }
+        if (others.length == 1) {
+            return others[0];
+        }
+        // the row keys are unique as the partitions are disjoint
+        return exec.createConcatenateTable(exec, Optional.empty(), false,
+            others);
     }
 
     /**
@@ -222,6 +300,7 @@ protected void reset() {
         m_currIteration = 0;
         m_nrIterations = -1;
         m_partNumbers = null;
+        m_partitions = null;
     }
 
     /**
@@ -258,6 +337,22 @@ protected DataTableSpec[] configure(final DataTableSpec[] inSpecs)
         return new DataTableSpec[]{inSpecs[0], inSpecs[0]};
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BufferedDataTable[] getInternalTables() {
+        return m_partitions;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setInternalTables(final BufferedDataTable[] tables) {
+        // ignore, can't persist loop start anyway
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -278,11 +373,17 @@ protected void saveInternals(final File nodeInternDir,
         // nothing to do here
     }
 
-    private Map<DataCell, List<Integer>> countValues(
-            final BufferedDataTable table, final ExecutionMonitor exec,
-            final String classColumn) throws CanceledExecutionException {
-        HashMap<DataCell, List<Integer>> valueCounts =
-                new LinkedHashMap<DataCell, List<Integer>>();
+    /**
+     * Returns the indices of the rows per class in the order of the first
+     * appearance of the classes. The indices of each class are shuffled.
+     */
+    private int[][] collectClassRows(final BufferedDataTable table,
+            final ExecutionMonitor exec, final String classColumn)
+            throws CanceledExecutionException {
+        final Map<DataCell, Integer> classIndices =
+                new HashMap<DataCell, Integer>();
+        final int[] rowClasses = new int[table.getRowCount()];
+        int[] classSizes = new int[16];
 
         int classColIndex =
                 table.getDataTableSpec().findColumnIndex(classColumn);
@@ -294,23 +395,49 @@ private Map<DataCell, List<Integer>> countValues(
                     + " (\"" + row.getKey() + "\")");
             exec.checkCanceled();
             DataCell cell = row.getCell(classColIndex);
-            List<Integer> rowKeys = valueCounts.get(cell);
-            if (rowKeys == null) {
-                rowKeys = new ArrayList<Integer>();
-                valueCounts.put(cell, rowKeys);
+            Integer classIndex = classIndices.get(cell);
+            if (classIndex == null) {
+                classIndex = classIndices.size();
+                classIndices.put(cell, classIndex);
+                if (classIndex == classSizes.length) {
+                    classSizes = Arrays.copyOf(classSizes, 2 * classIndex);
+                }
             }
-            rowKeys.add(rowCount);
+            rowClasses[rowCount] = classIndex;
+            classSizes[classIndex]++;
             rowCount++;
         }
 
+        final int[][] classRows = new int[classIndices.size()][];
+        for (int c = 0; c < classRows.length; c++) {
+            classRows[c] = new int[classSizes[c]];
+        }
+        final int[] fill = new int[classRows.length];
+        for (int i = 0; i < rowCount; i++) {
+            final int c = rowClasses[i];
+            classRows[c][fill[c]++] = i;
+        }
+
         long seed =
                 m_settings.useRandomSeed() ? m_settings.randomSeed() : System
                         .currentTimeMillis();
-        for (Map.Entry<DataCell, List<Integer>> e : valueCounts.entrySet()) {
-            List<Integer> l = e.getValue();
-            Collections.shuffle(l, new Random(seed));
+        for (int[] rows : classRows) {
+            shuffle(rows, new Random(seed));
         }
 
-        return valueCounts;
+        return classRows;
+    }
+
+    /**
+     * Shuffles the array in the same way as <code>Collections.shuffle</code>
+     * shuffles a list, so that seeded partitions don't change.
+     */
+    private static void shuffle(final int[] values, final Random rand) {
+        for (int i = values.length; i > 1; i--) {
+            final int j = rand.nextInt(i);
+            final int x = values[i - 1];
+            values[i - 1] = values[j];
+            values[j] = x;
+        }
     }
 }
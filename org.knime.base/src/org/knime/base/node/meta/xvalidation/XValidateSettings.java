@@ -69,6 +69,8 @@ public class XValidateSettings {
 
     private boolean m_useRandomSeed;
 
+    private boolean m_partitionInOnePass;
+
     /**
      * Returns if leave-one-out cross validation should be performed.
      *
@@ -102,6 +104,7 @@ public void saveSettingsTo(final NodeSettingsWO settings) {
         settings.addString("classColumn", m_classColumn);
         settings.addBoolean("useRandomSeed", m_useRandomSeed);
         settings.addLong("randomSeed", m_randomSeed);
+        settings.addBoolean("partitionInOnePass", m_partitionInOnePass);
     }
 
     /**
@@ -124,6 +127,10 @@ public void loadSettingsFrom(final NodeSettingsRO settings)
         m_useRandomSeed = settings.getBoolean("useRandomSeed", false);
         m_randomSeed =
                 settings.getLong("randomSeed", System.currentTimeMillis());
+
+        // added in 4.5
+        m_partitionInOnePass =
+                settings.getBoolean("partitionInOnePass", false);
     }
 
     /**
@@ -142,6 +149,8 @@ public void loadSettingsForDialog(final NodeSettingsRO settings) {
         m_useRandomSeed = settings.getBoolean("useRandomSeed", false);
         m_randomSeed =
                 settings.getLong("randomSeed", System.currentTimeMillis());
+        m_partitionInOnePass =
+                settings.getBoolean("partitionInOnePass", false);
     }
 
     /**
@@ -262,4 +271,28 @@ public long randomSeed() {
     public void randomSeed(final long value) {
         m_randomSeed = value;
     }
+
+    /**
+     * Returns if all partitions should be created in a single pass over the
+     * input table instead of one pass per iteration.
+     *
+     * @return <code>true</code> if the partitions are created at once,
+     *         <code>false</code> otherwise
+     * @since 4.5
+     */
+    public boolean partitionInOnePass() {
+        return m_partitionInOnePass;
+    }
+
+    /**
+     * Sets if all partitions should be created in a single pass over the input
+     * table instead of one pass per iteration.
+     *
+     * @param b <code>true</code> if the partitions are created at once,
+     *            <code>false</code> otherwise
+     * @since 4.5
+     */
+    public void partitionInOnePass(final boolean b) {
+        m_partitionInOnePass = b;
+    }
 }
@@ -47,20 +47,20 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 import org.knime.base.data.append.column.AppendedCellFactory;
 import org.knime.base.node.mine.bayes.naivebayes.datamodel3.NaiveBayesModel;
 import org.knime.base.node.mine.util.PredictorHelper;
+import org.knime.base.node.mine.util.PredictorParallelism;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
-import org.knime.core.data.RowKey;
-import org.knime.core.data.container.CellFactory;
+import org.knime.core.data.container.AbstractCellFactory;
 import org.knime.core.data.def.DoubleCell;
-import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.port.pmml.PMMLDataDictionaryTranslator;
 
 /**
@@ -69,7 +69,7 @@
  *
  * @author Tobias Koetter, KNIME AG, Zurich, Switzerland
  */
-final class NaiveBayesCellFactory implements AppendedCellFactory, CellFactory {
+final class NaiveBayesCellFactory extends AbstractCellFactory implements AppendedCellFactory {
 
     /**
      * The <code>NaiveBayesModel</code> which holds all necessary information to calculate the probability for new
@@ -79,16 +79,10 @@ final class NaiveBayesCellFactory implements AppendedCellFactory, CellFactory {
 
     private final List<String> m_sortedClassVals;
 
-    private final DataTableSpec m_tableSpec;
-
     private final String[] m_attributeNames;
 
     private final boolean m_inclClassProbVals;
 
-    private final String m_columnName;
-
-    private final String m_suffix;
-
     /**
      * Constructor for class NaiveBayesAlgorithm.
      *
@@ -101,17 +95,12 @@ final class NaiveBayesCellFactory implements AppendedCellFactory, CellFactory {
      */
     NaiveBayesCellFactory(final NaiveBayesModel model, final String columnName, final DataTableSpec tableSpec,
         final boolean inclClassProbVals, final String suffix) {
-        this.m_columnName = columnName;
-        this.m_suffix = suffix;
-        if (model == null) {
-            throw new NullPointerException("Model must not be null.");
-        }
+        super(true, createResultColSpecs(Objects.requireNonNull(model, "Model must not be null."), columnName,
+            Objects.requireNonNull(tableSpec, "TableSpec must not be null."), inclClassProbVals, suffix));
+        // the model is only read during the prediction, hence the rows can be predicted concurrently
+        PredictorParallelism.configure(this);
         m_model = model;
         m_sortedClassVals = model.getSortedClassValues();
-        if (tableSpec == null) {
-            throw new NullPointerException("TableSpec must not be null.");
-        }
-        m_tableSpec = tableSpec;
         m_inclClassProbVals = inclClassProbVals;
         m_attributeNames = new String[tableSpec.getNumColumns()];
         for (int i = 0, length = tableSpec.getNumColumns(); i < length; i++) {
@@ -181,14 +170,6 @@ private static DataColumnSpec createPredictedClassColSpec(final String classColu
         return classColSpec;
     }
 
-    /**
-     * @return the specification of the result columns in the order they should be append at the end of the original
-     *         table specification
-     */
-    DataColumnSpec[] getResultColumnsSpec() {
-        return createResultColSpecs(m_model, m_columnName, m_tableSpec, m_inclClassProbVals, m_suffix);
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -230,20 +211,4 @@ public DataCell[] getCells(final DataRow row) {
         resultCells.add(predictedClassCell);
         return resultCells.toArray(new DataCell[0]);
     }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public DataColumnSpec[] getColumnSpecs() {
-        return getResultColumnsSpec();
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void setProgress(final int curRowNr, final int rowCount, final RowKey lastKey, final ExecutionMonitor exec) {
-        exec.setProgress(1.0 / rowCount * curRowNr);
-    }
 }
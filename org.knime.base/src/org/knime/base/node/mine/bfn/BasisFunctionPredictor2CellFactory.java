@@ -50,15 +50,14 @@
 
 import org.knime.base.data.filter.column.FilterColumnRow;
 import org.knime.base.node.mine.util.PredictorHelper;
+import org.knime.base.node.mine.util.PredictorParallelism;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
-import org.knime.core.data.RowKey;
-import org.knime.core.data.container.CellFactory;
+import org.knime.core.data.container.AbstractCellFactory;
 import org.knime.core.data.def.DoubleCell;
-import org.knime.core.node.ExecutionMonitor;
 
 /**
  * This predictor cell factory predicts the passed rows using the underlying
@@ -66,7 +65,7 @@
  *
  * @author Thomas Gabriel, University of Konstanz
  */
-class BasisFunctionPredictor2CellFactory implements CellFactory {
+class BasisFunctionPredictor2CellFactory extends AbstractCellFactory {
 
     private final Map<DataCell, List<BasisFunctionPredictorRow>> m_model;
 
@@ -78,6 +77,9 @@ class BasisFunctionPredictor2CellFactory implements CellFactory {
 
     private final DataColumnSpec[] m_specs;
 
+    /** The specs hashed by column name, built once instead of per row as the rows are predicted concurrently. */
+    private final DataTableSpec m_hash;
+
     private final boolean m_appendClassProps;
 
     private final String m_trainingColumnName;
@@ -94,11 +96,13 @@ class BasisFunctionPredictor2CellFactory implements CellFactory {
      */
     public BasisFunctionPredictor2CellFactory(final DataColumnSpec[] specs,
             final boolean appendClassProps, final String trainingColumnName, final String probabilitySuffix) {
+        super(true, createColumnSpecs(specs, appendClassProps));
         m_model = null;
         m_filteredColumns = null;
         m_dontKnowClass = Double.NaN;
         m_normClass = false;
         m_specs = specs;
+        m_hash = new DataTableSpec(specs);
         m_appendClassProps = appendClassProps;
         m_trainingColumnName = trainingColumnName;
         m_suffix = probabilitySuffix;
@@ -129,11 +133,15 @@ public BasisFunctionPredictor2CellFactory(final DataTableSpec dataSpec,
             final boolean appendClassProps,
             final String trainingColumnName,
             final String probabilitySuffix) {
+        super(true, createColumnSpecs(specs, appendClassProps));
+        // the model is only read during the prediction, hence the rows can be predicted concurrently
+        PredictorParallelism.configure(this);
         assert (model != null);
         m_model = model;
         m_dontKnowClass = dontKnowClass;
         m_normClass = normClass;
         m_specs = specs;
+        m_hash = new DataTableSpec(specs);
         m_filteredColumns = filteredColumns;
         m_appendClassProps = appendClassProps;
         m_trainingColumnName = trainingColumnName;
@@ -164,9 +172,6 @@ protected DataCell[] predict(final DataRow row,
             }
         }
 
-        // hash column specs
-        DataTableSpec hash = new DataTableSpec(m_specs);
-
         // find best class activation index
         DataCell best = DataType.getMissingCell();
         // set default highest activation, not yet set
@@ -182,7 +187,7 @@ protected DataCell[] predict(final DataRow row,
             }
 
             String colName = predictorHelper.probabilityColumnName(m_trainingColumnName, cell.toString(), m_suffix);
-            int idx = hash.findColumnIndex(colName);
+            int idx = m_hash.findColumnIndex(colName);
             if (idx >= 0) {
                 act[idx] = d;
                 sumAct += d;
@@ -229,25 +234,11 @@ public DataCell[] getCells(final DataRow row) {
         }
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public DataColumnSpec[] getColumnSpecs() {
-        if (m_appendClassProps) {
-            return m_specs;
+    private static DataColumnSpec[] createColumnSpecs(final DataColumnSpec[] specs, final boolean appendClassProps) {
+        if (appendClassProps) {
+            return specs;
         } else {
-            return new DataColumnSpec[]{m_specs[m_specs.length - 1]};
+            return new DataColumnSpec[]{specs[specs.length - 1]};
         }
     }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void setProgress(final int curRowNr, final int rowCount,
-            final RowKey lastKey, final ExecutionMonitor exec) {
-        exec.setProgress((double) curRowNr / rowCount,
-                "Predicting row \"" + lastKey.getString() + "\"");
-    }
 }
@@ -56,6 +56,7 @@
 
 import org.knime.base.node.mine.cluster.PMMLClusterTranslator;
 import org.knime.base.node.mine.cluster.PMMLClusterTranslator.ComparisonMeasure;
+import org.knime.base.node.mine.util.PredictorParallelism;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
@@ -296,7 +297,9 @@ private static class ClusterAssignFactory extends SingleCellFactory {
                 final List<Prototype> prototypes,
                 final DataColumnSpec newColspec,
                 final int[] learnedCols) {
-            super(newColspec);
+            // the prototypes are immutable, hence the rows can be assigned concurrently
+            super(true, newColspec);
+            PredictorParallelism.configure(this);
             m_measure = measure;
             m_prototypes = prototypes;
             m_colIndices = learnedCols;
@@ -55,6 +55,7 @@
 
 import org.knime.base.node.mine.cluster.PMMLClusterTranslator;
 import org.knime.base.node.mine.cluster.PMMLClusterTranslator.ComparisonMeasure;
+import org.knime.base.node.mine.util.PredictorParallelism;
 import org.knime.base.predict.PMMLTablePredictor;
 import org.knime.base.predict.PredictorContext;
 import org.knime.core.data.DataCell;
@@ -159,7 +160,9 @@ private static class ClusterAssignFactory extends SingleCellFactory {
                 final List<Prototype> prototypes,
                 final DataColumnSpec newColspec,
                 final int[] learnedCols) {
-            super(newColspec);
+            // the prototypes are immutable, hence the rows can be assigned concurrently
+            super(true, newColspec);
+            PredictorParallelism.configure(this);
             m_measure = measure;
             m_prototypes = prototypes;
             m_colIndices = learnedCols;
@@ -102,9 +102,10 @@ public abstract class PMMLPredicate {
 
 
     /* Remember previous table spec and index used for classification to save
-        time. */
-    private transient DataTableSpec m_previousSpec = null;
-    private transient int m_previousIndex = -1;
+        time. Both are volatile and the index is always written before the spec
+        as a tree might be evaluated concurrently. */
+    private transient volatile DataTableSpec m_previousSpec = null;
+    private transient volatile int m_previousIndex = -1;
 
     /**
      * @return the operator used for this predicate
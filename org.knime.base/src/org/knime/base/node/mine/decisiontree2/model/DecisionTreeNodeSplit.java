@@ -237,10 +237,11 @@ public boolean addNodeToTreeDepthFirst(final DecisionTreeNode node,
         return m_child[rightMostKid].addNodeToTreeDepthFirst(node, ix);
     }
 
-    // remember prev table spec and index used for classification to save time
-    private transient DataTableSpec m_previousSpec = null;
+    // remember prev table spec and index used for classification to save time,
+    // the index is always written before the spec as the tree might be evaluated concurrently
+    private transient volatile DataTableSpec m_previousSpec = null;
 
-    private transient int m_previousIndex = -1;
+    private transient volatile int m_previousIndex = -1;
 
     /**
      * {@inheritDoc}
@@ -54,6 +54,7 @@
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -64,6 +65,7 @@
 import org.knime.base.node.mine.decisiontree2.PMMLDecisionTreeTranslator;
 import org.knime.base.node.mine.decisiontree2.model.DecisionTree;
 import org.knime.base.node.mine.util.PredictorHelper;
+import org.knime.base.node.mine.util.PredictorParallelism;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnDomain;
 import org.knime.core.data.DataColumnDomainCreator;
@@ -72,11 +74,11 @@
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.StringValue;
+import org.knime.core.data.container.AbstractCellFactory;
+import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.def.BooleanCell;
-import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.StringCell;
-import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -261,57 +263,93 @@ public PortObject[] execute(final PortObject[] inPorts,
         PortObjectSpec[] inSpecs = new PortObjectSpec[] {
                 inPorts[0].getSpec(), inPorts[1].getSpec() };
         DataTableSpec outSpec = createOutTableSpec(inSpecs);
-        BufferedDataContainer outData = exec.createDataContainer(outSpec);
-        long coveredPattern = 0;
-        long nrPattern = 0;
-        long rowCount = 0;
-        final long numberRows = inData.size();
+        final DataTableSpec inSpec = inData.getDataTableSpec();
         exec.setMessage("Classifying...");
         List<String> predictionValues = getPredictionStrings((PMMLPortObjectSpec)inPorts[INMODELPORT].getSpec());
-        for (DataRow thisRow : inData) {
+        final DecTreePredictorCellFactory factory = new DecTreePredictorCellFactory(decTree, inSpec,
+            Arrays.copyOfRange(outSpec.getColumnSpecs(), inSpec.getNumColumns(), outSpec.getNumColumns()),
+            predictionValues);
+        final ColumnRearranger rearranger = new ColumnRearranger(inSpec);
+        rearranger.append(factory);
+        final BufferedDataTable outData = exec.createColumnRearrangeTable(inData, rearranger, exec);
+        final long nrPattern = outData.size();
+        if (factory.getNrCoveredPattern() < nrPattern) {
+            // let the user know that we did not store all available pattern
+            // for HiLiting.
+            this.setWarningMessage("Tree only stored first "
+                    + m_maxNumCoveredPattern.getIntValue() + " (of "
+                    + nrPattern + ") rows for HiLiting!");
+        }
+        m_decTree = decTree;
+        exec.setMessage("Decision Tree Predictor: end execution.");
+        return new BufferedDataTable[]{outData};
+    }
+
+    /**
+     * Predicts the rows concurrently. The evaluation of the tree does not modify it, only the bookkeeping for the
+     * HiLiting does and is therefore synchronized on the tree.
+     */
+    private final class DecTreePredictorCellFactory extends AbstractCellFactory {
+
+        private final DecisionTree m_tree;
+
+        private final DataTableSpec m_inSpec;
+
+        private final List<String> m_predictionValues;
+
+        private final int m_maxCoveredPattern;
+
+        private long m_coveredPattern;
+
+        DecTreePredictorCellFactory(final DecisionTree tree, final DataTableSpec inSpec,
+            final DataColumnSpec[] appendedSpecs, final List<String> predictionValues) {
+            super(true, appendedSpecs);
+            PredictorParallelism.configure(this);
+            m_tree = tree;
+            m_inSpec = inSpec;
+            m_predictionValues = predictionValues;
+            m_maxCoveredPattern = m_maxNumCoveredPattern.getIntValue();
+        }
+
+        @Override
+        public DataCell[] getCells(final DataRow thisRow) {
             DataCell cl = null;
             LinkedHashMap<String, Double> classDistrib = null;
             try {
                 Pair<DataCell, LinkedHashMap<DataCell, Double>> pair
-                        = decTree.getWinnerAndClasscounts(
-                                thisRow, inData.getDataTableSpec());
+                        = m_tree.getWinnerAndClasscounts(thisRow, m_inSpec);
                 cl = pair.getFirst();
                 LinkedHashMap<DataCell, Double> classCounts =
                    pair.getSecond();
 
                 classDistrib = getDistribution(classCounts);
-                if (coveredPattern < m_maxNumCoveredPattern.getIntValue()) {
-                    // remember this one for HiLite support
-                    decTree.addCoveredPattern(thisRow, inData
-                            .getDataTableSpec());
-                    coveredPattern++;
-                } else {
-                    // too many patterns for HiLite - at least remember color
-                    decTree.addCoveredColor(thisRow, inData
-                            .getDataTableSpec());
+                synchronized (m_tree) {
+                    if (m_coveredPattern < m_maxCoveredPattern) {
+                        // remember this one for HiLite support
+                        m_tree.addCoveredPattern(thisRow, m_inSpec);
+                        m_coveredPattern++;
+                    } else {
+                        // too many patterns for HiLite - at least remember color
+                        m_tree.addCoveredColor(thisRow, m_inSpec);
+                    }
                 }
-                nrPattern++;
             } catch (Exception e) {
                 LOGGER.error("Decision Tree evaluation failed: "
                         + e.getMessage());
-                throw e;
+                throw e instanceof RuntimeException ? (RuntimeException)e : new IllegalStateException(e);
             }
             if (cl == null) {
                 LOGGER.error("Decision Tree evaluation failed: result empty");
-                throw new Exception("Decision Tree evaluation failed.");
-            }
-
-            DataCell[] newCells = new DataCell[outSpec.getNumColumns()];
-            int numInCells = thisRow.getNumCells();
-            for (int i = 0; i < numInCells; i++) {
-                newCells[i] = thisRow.getCell(i);
+                throw new IllegalStateException("Decision Tree evaluation failed.");
             }
 
+            final int numAppended = getColumnSpecs().length;
+            DataCell[] newCells = new DataCell[numAppended];
             if (m_showDistribution.getBooleanValue()) {
-                assert predictionValues.size() >= newCells.length - 1 - numInCells : "Could not determine the prediction values: "
-                    + newCells.length + "; " + numInCells + "; " + predictionValues;
-                for (int i = numInCells; i < newCells.length - 1; i++) {
-                    String predClass = predictionValues.get(i - numInCells);
+                assert m_predictionValues.size() >= numAppended - 1 : "Could not determine the prediction values: "
+                    + numAppended + "; " + m_predictionValues;
+                for (int i = 0; i < numAppended - 1; i++) {
+                    String predClass = m_predictionValues.get(i);
                     if (classDistrib != null
                             && classDistrib.get(predClass) != null) {
                         newCells[i] = new DoubleCell(
@@ -321,28 +359,18 @@ public PortObject[] execute(final PortObject[] inPorts,
                     }
                 }
             }
-            newCells[newCells.length - 1] = cl;
-
-            outData.addRowToTable(new DefaultRow(thisRow.getKey(), newCells));
+            newCells[numAppended - 1] = cl;
+            return newCells;
+        }
 
-            rowCount++;
-            if (rowCount % 100 == 0) {
-                exec.setProgress(rowCount / (double) numberRows,
-                        "Classifying... Row " + rowCount + " of " + numberRows);
+        /**
+         * @return the number of rows remembered for HiLiting
+         */
+        long getNrCoveredPattern() {
+            synchronized (m_tree) {
+                return m_coveredPattern;
             }
-            exec.checkCanceled();
         }
-        if (coveredPattern < nrPattern) {
-            // let the user know that we did not store all available pattern
-            // for HiLiting.
-            this.setWarningMessage("Tree only stored first "
-                    + m_maxNumCoveredPattern.getIntValue() + " (of "
-                    + nrPattern + ") rows for HiLiting!");
-        }
-        outData.close();
-        m_decTree = decTree;
-        exec.setMessage("Decision Tree Predictor: end execution.");
-        return new BufferedDataTable[]{outData.getTable()};
     }
 
     /**
@@ -55,6 +55,7 @@
 
 import org.knime.base.data.neural.MultiLayerPerceptron;
 import org.knime.base.node.mine.util.PredictorHelper;
+import org.knime.base.node.mine.util.PredictorParallelism;
 import org.knime.base.predict.PMMLClassificationPredictorOptions;
 import org.knime.base.predict.PMMLTablePredictor;
 import org.knime.base.predict.PredictorContext;
@@ -68,16 +69,14 @@
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
 import org.knime.core.data.DoubleValue;
-import org.knime.core.data.RowKey;
 import org.knime.core.data.StringValue;
-import org.knime.core.data.container.CellFactory;
+import org.knime.core.data.container.AbstractCellFactory;
 import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.renderer.DataValueRenderer;
 import org.knime.core.data.renderer.DoubleBarRenderer;
 import org.knime.core.node.BufferedDataTable;
-import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.port.pmml.PMMLPortObject;
@@ -215,35 +214,92 @@ private static int[] getLearningColumnIndices(final DataTableSpec testspec, fina
     }
 
     /**
-     * This class generates the appended column with the classification from the WekaNodeModel.
+     * Creates the specs of the columns appended by the {@link MLPClassificationFactory}.
      *
-     * @author Nicolas Cebron, University of Konstanz
+     * @param regression indicates whether a regression should take place.
+     * @param classcolspec DataColumnSpec with target column.
+     * @param predictionColumnName the name of the prediction column
+     * @param addProbs whether the class probabilities are appended
+     * @param suffix the suffix of the probability columns
+     * @return the appended column specs
      */
-    private class MLPClassificationFactory implements CellFactory {
-        private final String m_predictionColumnName;
+    private static DataColumnSpec[] createColumnSpecs(final boolean regression, final DataColumnSpec classcolspec,
+        final String predictionColumnName, final boolean addProbs, final String suffix) {
+        DataType type;
+        if (regression) {
+            type = DoubleCell.TYPE;
+        } else {
+            type = StringCell.TYPE;
+        }
+        DataColumnSpec appendSpec = new DataColumnSpecCreator(predictionColumnName, type).createSpec();
+        DataColumnSpec[] allappSpec;
 
-        private final String m_probabilitySuffices;
+        /*
+         * Regression
+         */
+        if (regression) {
+            allappSpec = new DataColumnSpec[1];
+            allappSpec[0] = appendSpec;
+
+        } else {
+            /*
+             * Classification
+             */
+            Set<DataCell> classvalues = classcolspec.getDomain().getValues();
+            if (classvalues == null) {
+                // no possible values information available.
+                classvalues = new HashSet<DataCell>();
+            }
+            allappSpec = new DataColumnSpec[(addProbs ? classvalues.size() : 0) + 1];
+            if (addProbs) {
+                int index = 0;
+                DataColumnDomainCreator domaincreator = new DataColumnDomainCreator();
+                domaincreator.setLowerBound(new DoubleCell(0));
+                domaincreator.setUpperBound(new DoubleCell(1));
+                DataColumnDomain domain = domaincreator.createDomain();
+                final PredictorHelper ph = PredictorHelper.getInstance();
+                for (DataCell nomValue : classvalues) {
+                    final String name = ph.probabilityColumnName(classcolspec.getName(),
+                        ((StringValue)nomValue).getStringValue(), suffix);
+                    type = DoubleCell.TYPE;
+                    DataColumnSpecCreator colspeccreator = new DataColumnSpecCreator(name, type);
+                    colspeccreator.setProperties(new DataColumnProperties(Collections.singletonMap(
+                        DataValueRenderer.PROPERTY_PREFERRED_RENDERER, DoubleBarRenderer.DESCRIPTION)));
+                    colspeccreator.setDomain(domain);
+                    allappSpec[index] = colspeccreator.createSpec();
+                    index++;
+                }
+            }
+            allappSpec[allappSpec.length - 1] = appendSpec;
+        }
+        return allappSpec;
+    }
 
+    /**
+     * This class generates the appended column with the classification from the WekaNodeModel.
+     *
+     * @author Nicolas Cebron, University of Konstanz
+     */
+    private class MLPClassificationFactory extends AbstractCellFactory {
         /*
          * Flag whether regression is done or not.
          */
         private final boolean m_regression;
 
-        private MultiLayerPerceptron m_mlp;
+        private final MultiLayerPerceptron m_mlp;
 
         /*
          * The columns to work on.
          */
         private final int[] m_faccolumns;
 
-        private final DataColumnSpec m_classcolspec;
-
         private final boolean m_addProbs;
 
         private final int m_nrPossValues;
 
         /**
-         * A new AppendedColumnFactory that uses a MultiLayerPerceptron to classify new instances.
+         * A new AppendedColumnFactory that uses a MultiLayerPerceptron to classify new instances. The rows are
+         * classified concurrently since the evaluation of the network does not modify it.
          *
          * @param regression indicates whether a regression should take place.
          * @param columns to work on.
@@ -252,15 +308,14 @@ private class MLPClassificationFactory implements CellFactory {
         MLPClassificationFactory(final boolean regression, final int[] columns, final DataColumnSpec classcolspec,
             final String predictionColumn, final boolean addProbs, final String suffix,
             final MultiLayerPerceptron mlp) {
+            super(true, createColumnSpecs(regression, classcolspec, predictionColumn, addProbs, suffix));
+            PredictorParallelism.configure(this);
             m_regression = regression;
             m_faccolumns = columns;
-            m_classcolspec = classcolspec;
-            m_predictionColumnName = predictionColumn;
             m_addProbs = addProbs;
-            m_probabilitySuffices = suffix;
             m_mlp = mlp;
 
-            Set<DataCell> classvalues = m_classcolspec.getDomain().getValues();
+            Set<DataCell> classvalues = classcolspec.getDomain().getValues();
             if (classvalues == null) {
                 // no possible values information available.
                 classvalues = new HashSet<DataCell>();
@@ -283,15 +338,15 @@ public DataCell[] getCells(final DataRow row) {
                 }
             }
             DataCell[] append;
+            // a single forward wave through the net per row
+            double[] outputs = m_mlp.output(inputs);
             if (m_regression) {
                 append = new DataCell[1];
-                double[] outputs = m_mlp.output(inputs);
                 append[0] = new DoubleCell(outputs[0]);
             } else {
                 append = new DataCell[1 + (m_addProbs ? m_nrPossValues : 0)];
-                String output = m_mlp.getClassOutput(inputs);
+                String output = m_mlp.getClassOutputOf(outputs);
                 if (m_addProbs) {
-                    double[] outputs = m_mlp.output(inputs);
                     for (int i = 0; i < append.length - 1; i++) {
                         append[i] = new DoubleCell(outputs[i]);
                     }
@@ -300,69 +355,5 @@ public DataCell[] getCells(final DataRow row) {
             }
             return append;
         }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public DataColumnSpec[] getColumnSpecs() {
-            DataType type;
-            if (m_regression) {
-                type = DoubleCell.TYPE;
-            } else {
-                type = StringCell.TYPE;
-            }
-            DataColumnSpec appendSpec = new DataColumnSpecCreator(m_predictionColumnName, type).createSpec();
-            DataColumnSpec[] allappSpec;
-
-            /*
-             * Regression
-             */
-            if (m_regression) {
-                allappSpec = new DataColumnSpec[1];
-                allappSpec[0] = appendSpec;
-
-            } else {
-                /*
-                 * Classification
-                 */
-                Set<DataCell> classvalues = m_classcolspec.getDomain().getValues();
-                if (classvalues == null) {
-                    // no possible values information available.
-                    classvalues = new HashSet<DataCell>();
-                }
-                allappSpec = new DataColumnSpec[(m_addProbs ? classvalues.size() : 0) + 1];
-                if (m_addProbs) {
-                    int index = 0;
-                    DataColumnDomainCreator domaincreator = new DataColumnDomainCreator();
-                    domaincreator.setLowerBound(new DoubleCell(0));
-                    domaincreator.setUpperBound(new DoubleCell(1));
-                    DataColumnDomain domain = domaincreator.createDomain();
-                    final PredictorHelper ph = PredictorHelper.getInstance();
-                    for (DataCell nomValue : classvalues) {
-                        final String name = ph.probabilityColumnName(m_classcolspec.getName(),
-                            ((StringValue)nomValue).getStringValue(), m_probabilitySuffices);
-                        type = DoubleCell.TYPE;
-                        DataColumnSpecCreator colspeccreator = new DataColumnSpecCreator(name, type);
-                        colspeccreator.setProperties(new DataColumnProperties(Collections.singletonMap(
-                            DataValueRenderer.PROPERTY_PREFERRED_RENDERER, DoubleBarRenderer.DESCRIPTION)));
-                        colspeccreator.setDomain(domain);
-                        allappSpec[index] = colspeccreator.createSpec();
-                        index++;
-                    }
-                }
-                allappSpec[allappSpec.length - 1] = appendSpec;
-            }
-            return allappSpec;
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public void setProgress(final int curRowNr, final int rowCount, final RowKey lastKey,
-            final ExecutionMonitor exec) {
-            exec.setProgress((double)curRowNr / (double)rowCount, "Prediction");
-        }
     }
 }
@@ -56,6 +56,7 @@
 import org.knime.base.node.mine.regression.pmmlgreg.PMMLGeneralRegressionContent;
 import org.knime.base.node.mine.regression.pmmlgreg.PMMLPPCell;
 import org.knime.base.node.mine.regression.pmmlgreg.PMMLPredictor;
+import org.knime.base.node.mine.util.PredictorParallelism;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnDomainCreator;
 import org.knime.core.data.DataColumnSpec;
@@ -232,6 +233,7 @@ public RegressionPredictorCellFactory(final PMMLPortObjectSpec portSpec,
             final RegressionPredictorSettings settings
             ) throws InvalidSettingsException {
         super(true, createColumnSpec(portSpec, tableSpec, settings));
+        PredictorParallelism.configure(this);
     }
 
 
@@ -0,0 +1,108 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.mine.util;
+
+import org.knime.core.data.container.AbstractCellFactory;
+
+/**
+ * Configures the parallel execution of the cell factories used by the predictor nodes.
+ * <p>
+ * The predictions of the rows are computed concurrently while the output keeps the order of the input. The maximum
+ * number of workers and the maximum number of rows queued for prediction can be tuned with the system properties
+ * {@value #PROPERTY_MAX_WORKERS} and {@value #PROPERTY_MAX_QUEUE_SIZE}, a maximum of one worker disables the parallel
+ * prediction. Cell factories configured by this class must be thread-safe, i.e. they must not keep per-row state in
+ * fields shared between the workers.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 4.5
+ */
+public final class PredictorParallelism {
+
+    /** The system property holding the maximum number of rows predicted concurrently. */
+    public static final String PROPERTY_MAX_WORKERS = "knime.predictor.maxworkers";
+
+    /** The system property holding the maximum number of rows waiting for their prediction. */
+    public static final String PROPERTY_MAX_QUEUE_SIZE = "knime.predictor.maxqueuesize";
+
+    private PredictorParallelism() {
+        // utility class
+    }
+
+    /**
+     * Configures the given cell factory to predict the rows in parallel (or sequentially if the maximum number of
+     * workers is set to one).
+     *
+     * @param <T> the type of the factory
+     * @param factory the thread-safe factory to configure
+     * @return the argument
+     */
+    public static <T extends AbstractCellFactory> T configure(final T factory) {
+        final int maxWorkers = getMaxWorkers();
+        if (maxWorkers > 1) {
+            factory.setParallelProcessing(true, maxWorkers, getMaxQueueSize(maxWorkers));
+        } else {
+            factory.setParallelProcessing(false);
+        }
+        return factory;
+    }
+
+    /**
+     * @return the maximum number of rows predicted concurrently, by default one and a half times the number of
+     *         available processors (as in {@link AbstractCellFactory})
+     */
+    public static int getMaxWorkers() {
+        final int defaultWorkers = (int)Math.ceil(1.5 * Runtime.getRuntime().availableProcessors());
+        return Math.max(1, Integer.getInteger(PROPERTY_MAX_WORKERS, defaultWorkers));
+    }
+
+    /**
+     * @param maxWorkers the maximum number of workers
+     * @return the maximum number of rows waiting for their prediction, by default ten times the number of workers
+     */
+    static int getMaxQueueSize(final int maxWorkers) {
+        return Math.max(maxWorkers, Integer.getInteger(PROPERTY_MAX_QUEUE_SIZE, 10 * maxWorkers));
+    }
+}
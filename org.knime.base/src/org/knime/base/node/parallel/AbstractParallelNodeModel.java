@@ -47,19 +47,12 @@
  */
 package org.knime.base.node.parallel;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
-
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.RowIterator;
-import org.knime.core.data.container.DataContainer;
 import org.knime.core.data.container.RowAppender;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
-import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.NodeModel;
@@ -77,7 +70,12 @@
  * If the node has more than one input table only the first input table is
  * chunked, the remaining ones are passed to {@link #executeByChunk(
  * BufferedDataTable, BufferedDataTable[], RowAppender[], ExecutionMonitor)}
- * completely.
+ * completely.<br>
+ *
+ * The chunks are processed by a {@link ParallelChunkExecutor}, i.e. the chunk
+ * size given in the constructor is an upper bound that is reduced if the rows
+ * are expensive to process, and the output rows are written in input order
+ * directly into the result tables.
  *
  * @author Thorsten Meinl, University of Konstanz
  */
@@ -130,7 +128,6 @@ protected final BufferedDataTable[] execute(final BufferedDataTable[] data,
             final ExecutionContext exec) throws Exception {
         final DataTableSpec[] outSpecs = prepareExecute(data);
 
-        final List<Future<BufferedDataContainer[]>> futures = new ArrayList<>();
         final BufferedDataTable[] additionalTables =
                 new BufferedDataTable[Math.max(0, data.length - 1)];
         System.arraycopy(data, 1, additionalTables, 0, additionalTables.length);
@@ -152,106 +149,30 @@ protected final BufferedDataTable[] execute(final BufferedDataTable[] data,
             }
         }
 
-        final double max = data[0].size();
-
-        final Callable<Void> submitter = new Callable<Void>() {
-            @Override
-            public Void call() throws Exception {
-                final RowIterator it = data[0].iterator();
-                BufferedDataContainer container = null;
-                int count = 0, chunks = 0;
-                while (true) {
-                    if ((count++ % m_chunkSize == 0) || !it.hasNext()) {
-                        exec.checkCanceled();
-
-                        if (container != null) {
-                            container.close();
-                            final BufferedDataContainer temp = container;
-                            chunks++;
-                            final int temp2 = chunks;
-                            futures.add(m_workers
-                                    .submit(new Callable<BufferedDataContainer[]>() {
-                                        @Override
-                                        public BufferedDataContainer[] call()
-                                                throws Exception {
-                                            ExecutionMonitor subProg =
-                                                    exec
-                                                            .createSilentSubProgress((m_chunkSize > max) ? 1
-                                                                    : m_chunkSize
-                                                                            / max);
-                                            exec.setMessage("Processing chunk "
-                                                    + temp2);
-                                            BufferedDataContainer[] result = new BufferedDataContainer[outSpecs.length];
-                                            for (int i = 0; i < outSpecs.length; i++) {
-                                                result[i] = exec.createDataContainer(outSpecs[i], true, 0);
-                                            }
-
-                                            executeByChunk(temp.getTable(),
-                                                    additionalTables, result,
-                                                    subProg);
-
-                                            for (DataContainer c : result) {
-                                                c.close();
-                                            }
-
-                                            exec.setProgress(temp2
-                                                    * m_chunkSize / max);
-                                            return result;
-                                        }
-                                    }));
-                        }
-                        if (!it.hasNext()) {
-                            break;
-                        }
-
-                        container =
-                                exec.createDataContainer(data[0]
-                                        .getDataTableSpec());
-                    }
-                    container.addRowToTable(it.next());
-                }
-                return null;
-            }
-        };
-
-        try {
-            m_workers.runInvisible(submitter);
-        } catch (IllegalThreadStateException ex) {
-            // this node has not been started by a thread from a thread pool.
-            // This is odd, but may happen
-            submitter.call();
+        final BufferedDataContainer[] result = new BufferedDataContainer[outSpecs.length];
+        for (int i = 0; i < outSpecs.length; i++) {
+            result[i] = exec.createDataContainer(outSpecs[i]);
         }
-
-        final BufferedDataTable[][] tempTables =
-                new BufferedDataTable[outSpecs.length][futures.size()];
-        int k = 0;
-        for (Future<BufferedDataContainer[]> results : futures) {
-            try {
-                exec.checkCanceled();
-            } catch (CanceledExecutionException ex) {
-                for (Future<BufferedDataContainer[]> cancel : futures) {
-                    cancel.cancel(true);
-                }
-                throw ex;
+        // the chunk size is only an upper bound, the chunks get smaller if the rows are expensive
+        new ParallelChunkExecutor(m_workers, m_chunkSize).execute(data[0], (rows, outputs, subProg) -> {
+            // executeByChunk expects a table, it is held in memory (the chunk size is bounded) and gets no domain
+            final BufferedDataContainer chunk =
+                exec.createDataContainer(data[0].getDataTableSpec(), false, Integer.MAX_VALUE);
+            for (DataRow row : rows) {
+                chunk.addRowToTable(row);
             }
-
-            final BufferedDataContainer[] temp = results.get();
-
-            if ((temp == null) || (temp.length != getNrOutPorts())) {
-                throw new IllegalStateException("Invalid result. Execution "
-                        + " failed, reason: data is null or number "
-                        + "of outputs wrong.");
-            }
-
-            for (int i = 0; i < temp.length; i++) {
-                tempTables[i][k] = temp[i].getTable();
+            chunk.close();
+            try {
+                executeByChunk(chunk.getTable(), additionalTables, outputs, subProg);
+            } finally {
+                exec.clearTable(chunk.getTable());
             }
-            k++;
-        }
+        }, result, exec);
 
         final BufferedDataTable[] resultTables = new BufferedDataTable[outSpecs.length];
         for (int i = 0; i < resultTables.length; i++) {
-            resultTables[i] = exec.createConcatenateTable(exec, tempTables[i]);
+            result[i].close();
+            resultTables[i] = result[i].getTable();
         }
 
         return resultTables;
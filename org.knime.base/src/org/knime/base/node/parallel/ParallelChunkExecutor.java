@@ -0,0 +1,307 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.parallel;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.RowAppender;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Processes the rows of a table in chunks that are handled concurrently by the threads of a {@link ThreadPool}.
+ * <p>
+ * The size of the chunks adapts to the cost of the rows: it starts small and is then chosen such that processing a
+ * chunk takes about {@value #TARGET_CHUNK_MILLIS}ms, but it never exceeds the given maximum nor a fourth of the rows
+ * per thread so that the work stays balanced. Only a bounded number of chunks is in flight at any time, the rows of
+ * further chunks are not read before the oldest chunk has been processed. The output rows of each chunk are buffered
+ * in memory, which is bounded by the number of chunks in flight and by {@value #MAX_BUFFERED_CHUNK_SIZE} rows per
+ * chunk, and are written by a single thread in the order of the input straight into the given containers, hence there
+ * are neither partial tables nor copies of rows. If the execution is canceled or a chunk fails, the chunks in flight
+ * are canceled and their buffered rows are discarded.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 4.5
+ */
+public final class ParallelChunkExecutor {
+
+    /** The time processing a single chunk should take. */
+    static final long TARGET_CHUNK_MILLIS = 20;
+
+    /** The size of the first chunks, i.e. before the cost of a row is known. */
+    static final int MIN_CHUNK_SIZE = 16;
+
+    /** The maximum size of a chunk, which limits the number of rows buffered in memory. */
+    static final int MAX_BUFFERED_CHUNK_SIZE = 10_000;
+
+    /**
+     * Processes one chunk of rows. Implementations are called concurrently and must write the output rows of the
+     * chunk into the passed row appenders, one for each output table.
+     */
+    @FunctionalInterface
+    public interface ChunkProcessor {
+
+        /**
+         * Processes the rows of a chunk.
+         *
+         * @param rows the rows of the chunk in the order of the input table
+         * @param outputs the appenders for the output rows of this chunk, one for each output table
+         * @param exec a monitor that should be checked for cancelation regularly
+         * @throws Exception if processing the rows fails
+         */
+        void processChunk(List<DataRow> rows, RowAppender[] outputs, ExecutionMonitor exec) throws Exception;
+    }
+
+    private final ThreadPool m_workers;
+
+    private final int m_maxChunkSize;
+
+    /**
+     * Creates a new executor.
+     *
+     * @param workers the pool whose threads process the chunks
+     * @param maxChunkSize the maximum number of rows in a chunk
+     */
+    public ParallelChunkExecutor(final ThreadPool workers, final int maxChunkSize) {
+        if (maxChunkSize < 1) {
+            throw new IllegalArgumentException("The maximum chunk size must be positive: " + maxChunkSize);
+        }
+        m_workers = workers;
+        m_maxChunkSize = maxChunkSize;
+    }
+
+    /**
+     * Processes all rows of the given table and writes the output in input order into the given containers. The
+     * containers are not closed.
+     *
+     * @param data the table to process
+     * @param processor the processor called for each chunk
+     * @param outputs the containers for the output tables
+     * @param exec the monitor used for progress reporting and cancelation
+     * @throws CanceledExecutionException if the execution has been canceled
+     * @throws Exception if processing a chunk fails
+     */
+    public void execute(final BufferedDataTable data, final ChunkProcessor processor,
+        final BufferedDataContainer[] outputs, final ExecutionMonitor exec) throws Exception {
+        final Callable<Void> loop = () -> {
+            run(data, processor, outputs, exec);
+            return null;
+        };
+        try {
+            // the current thread only waits for the workers most of the time, so let the pool use one more thread
+            m_workers.runInvisible(loop);
+        } catch (IllegalThreadStateException ex) {
+            // this node has not been started by a thread from a thread pool.
+            // This is odd, but may happen
+            loop.call();
+        } catch (ExecutionException ex) {
+            // the execution exception may be caused by an interrupt of the node
+            exec.checkCanceled();
+            throw unwrap(ex);
+        }
+    }
+
+    private void run(final BufferedDataTable data, final ChunkProcessor processor,
+        final BufferedDataContainer[] outputs, final ExecutionMonitor exec) throws Exception {
+        final long rowCount = data.size();
+        final int maxThreads = Math.max(1, m_workers.getMaxThreads());
+        final ChunkSizer sizer = new ChunkSizer((int)Math.max(1, Math.min(Math.min(m_maxChunkSize,
+            MAX_BUFFERED_CHUNK_SIZE), Math.ceil(rowCount / (4.0 * maxThreads)))));
+        // two chunks per thread keep the threads busy while the oldest chunk is written
+        final int maxInFlight = 2 * maxThreads;
+        final Deque<Future<ChunkOutput>> inFlight = new ArrayDeque<>(maxInFlight);
+        final ExecutionMonitor silent = exec.createSilentSubProgress(0);
+        long written = 0;
+        try (final CloseableRowIterator it = data.iterator()) {
+            while (it.hasNext()) {
+                exec.checkCanceled();
+                final int chunkSize = sizer.getNextChunkSize();
+                final List<DataRow> rows = new ArrayList<>(chunkSize);
+                while (rows.size() < chunkSize && it.hasNext()) {
+                    rows.add(it.next());
+                }
+                inFlight.addLast(m_workers.submit(() -> {
+                    final long start = System.nanoTime();
+                    final ChunkOutput output = new ChunkOutput(outputs.length, rows.size());
+                    processor.processChunk(rows, output.m_appenders, silent);
+                    sizer.record(rows.size(), System.nanoTime() - start);
+                    return output;
+                }));
+                if (inFlight.size() >= maxInFlight) {
+                    written += writeOldest(inFlight, outputs, exec);
+                    reportProgress(exec, written, rowCount);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                exec.checkCanceled();
+                written += writeOldest(inFlight, outputs, exec);
+                reportProgress(exec, written, rowCount);
+            }
+        } finally {
+            // only non-empty if the execution has been canceled or failed, the buffered rows are simply dropped
+            for (final Future<ChunkOutput> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static long writeOldest(final Deque<Future<ChunkOutput>> inFlight,
+        final BufferedDataContainer[] outputs, final ExecutionMonitor exec) throws Exception {
+        final ChunkOutput output;
+        try {
+            output = inFlight.removeFirst().get();
+        } catch (ExecutionException ex) {
+            exec.checkCanceled();
+            throw unwrap(ex);
+        }
+        for (int i = 0; i < outputs.length; i++) {
+            for (final DataRow row : output.m_appenders[i].m_rows) {
+                outputs[i].addRowToTable(row);
+            }
+        }
+        return output.m_inputRows;
+    }
+
+    private static void reportProgress(final ExecutionMonitor exec, final long processed, final long rowCount) {
+        exec.setProgress(rowCount == 0 ? 1 : processed / (double)rowCount,
+            "Processed " + processed + " of " + rowCount + " rows");
+    }
+
+    private static Exception unwrap(final ExecutionException ex) {
+        final Throwable cause = ex.getCause();
+        if (cause instanceof Exception) {
+            return (Exception)cause;
+        } else if (cause instanceof Error) {
+            throw (Error)cause;
+        }
+        return ex;
+    }
+
+    /** The buffered output rows of a single chunk. */
+    private static final class ChunkOutput {
+
+        private final ListAppender[] m_appenders;
+
+        private final int m_inputRows;
+
+        ChunkOutput(final int nrOutputs, final int inputRows) {
+            m_appenders = new ListAppender[nrOutputs];
+            for (int i = 0; i < nrOutputs; i++) {
+                m_appenders[i] = new ListAppender();
+            }
+            m_inputRows = inputRows;
+        }
+    }
+
+    /** Collects the rows of one output table of a chunk, the domain is computed by the output container. */
+    private static final class ListAppender implements RowAppender {
+
+        private final List<DataRow> m_rows = new ArrayList<>();
+
+        @Override
+        public void addRowToTable(final DataRow row) {
+            m_rows.add(row);
+        }
+    }
+
+    /**
+     * Determines the size of the next chunk from the time the previous chunks took per row.
+     */
+    static final class ChunkSizer {
+
+        private final long m_targetNanos = TARGET_CHUNK_MILLIS * 1_000_000L;
+
+        private final int m_minChunkSize;
+
+        private final int m_maxChunkSize;
+
+        private long m_rows;
+
+        private long m_nanos;
+
+        /**
+         * @param maxChunkSize the maximum size of a chunk
+         */
+        ChunkSizer(final int maxChunkSize) {
+            m_maxChunkSize = maxChunkSize;
+            m_minChunkSize = Math.min(MIN_CHUNK_SIZE, maxChunkSize);
+        }
+
+        /**
+         * Records the time a chunk took.
+         *
+         * @param rows the number of rows in the chunk
+         * @param nanos the processing time
+         */
+        synchronized void record(final int rows, final long nanos) {
+            m_rows += rows;
+            m_nanos += Math.max(0, nanos);
+        }
+
+        /**
+         * @return the size of the next chunk
+         */
+        synchronized int getNextChunkSize() {
+            if (m_rows == 0) {
+                return m_minChunkSize;
+            }
+            final double nanosPerRow = Math.max(1.0, m_nanos / (double)m_rows);
+            final double size = m_targetNanos / nanosPerRow;
+            return (int)Math.max(m_minChunkSize, Math.min(m_maxChunkSize, size));
+        }
+    }
+}
@@ -44,25 +44,17 @@
  */
 package org.knime.base.node.parallel.appender;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicInteger;
-
+import org.knime.base.node.parallel.ParallelChunkExecutor;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.RowIterator;
 import org.knime.core.data.container.CellFactory;
 import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.container.SingleCellFactory;
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
-import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeModel;
@@ -73,103 +65,6 @@
  * @author Thorsten Meinl, University of Konstanz
  */
 public abstract class ThreadedColAppenderNodeModel extends NodeModel {
-    private class Submitter implements Callable<Void> {
-        private final BufferedDataTable[] m_data;
-
-        private final ExtendedCellFactory[] m_cellFacs;
-
-        private final List<Future<BufferedDataContainer[]>> m_futures;
-
-        private final ExecutionContext m_exec;
-
-        private final DataTableSpec[] m_specs;
-
-        final AtomicInteger m_processedRows = new AtomicInteger();
-
-        Submitter(final BufferedDataTable[] data,
-                final ExtendedCellFactory[] cellFacs,
-                final List<Future<BufferedDataContainer[]>> futures,
-                final ExecutionContext exec) {
-            m_data = data;
-            m_cellFacs = cellFacs;
-            m_futures = futures;
-            m_exec = exec;
-
-            m_specs = new DataTableSpec[cellFacs.length];
-            for (int i = 0; i < m_specs.length; i++) {
-                m_specs[i] = new DataTableSpec(m_cellFacs[i].getColumnSpecs());
-            }
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public Void call() throws Exception {
-            final double max = m_data[0].size();
-            final int chunkSize =
-                    (int)Math.ceil(max / (4.0 * m_workers.getMaxThreads()));
-            final RowIterator it = m_data[0].iterator();
-            BufferedDataContainer container = null;
-            int count = 0;
-            while (chunkSize > 0) {
-                m_exec.checkCanceled();
-
-                if ((count++ % chunkSize == 0) || !it.hasNext()) {
-                    if (container != null) {
-                        container.close();
-                        m_futures.add(m_workers.submit(createCallable(
-                                container.getTable(), chunkSize, max)));
-                    }
-                    if (!it.hasNext()) {
-                        break;
-                    }
-
-                    container =
-                            m_exec.createDataContainer(m_data[0]
-                                    .getDataTableSpec());
-                }
-                container.addRowToTable(it.next());
-            }
-            return null;
-        }
-
-        private Callable<BufferedDataContainer[]> createCallable(
-                final BufferedDataTable data, final int chunkSize,
-                final double max) {
-            return new Callable<BufferedDataContainer[]>() {
-                @Override
-                public BufferedDataContainer[] call() throws Exception {
-                    BufferedDataContainer[] result =
-                            new BufferedDataContainer[m_specs.length];
-                    for (int i = 0; i < result.length; i++) {
-                        result[i] = m_exec.createDataContainer(m_specs[i]);
-
-                        for (DataRow r : data) {
-                            m_exec.checkCanceled();
-                            DataCell[] newCells = m_cellFacs[i].getCells(r);
-                            DataRow newRow =
-                                    new DefaultRow(r.getKey(), newCells);
-                            result[i].addRowToTable(newRow);
-
-                            int pr = m_processedRows.incrementAndGet();
-                            if (pr % 10 == 0) {
-                                // 5% of the progress are reserved for combining
-                                // the partial results lateron
-                                m_exec.setProgress(0.9 * pr / max, "Processed "
-                                        + pr + " rows");
-                            }
-                        }
-                        result[i].close();
-                    }
-
-                    return result;
-                }
-            };
-        }
-
-    }
-
     /** The default maximum number of threads for each threaded node. */
     public static final int DEFAULT_MAX_THREAD_COUNT =
             Runtime.getRuntime().availableProcessors() + 1;
@@ -240,25 +135,8 @@ protected final BufferedDataTable[] execute(final BufferedDataTable[] data,
         System.arraycopy(data, 1, m_additionalTables, 0,
                 m_additionalTables.length);
 
-        final List<Future<BufferedDataContainer[]>> futures =
-                new ArrayList<Future<BufferedDataContainer[]>>();
-
-        Submitter submitter = new Submitter(data, cellFacs, futures, exec);
-
-        try {
-            m_workers.runInvisible(submitter);
-        } catch (IllegalThreadStateException ex) {
-            // this node has not been started by a thread from a thread pool.
-            // This is odd, but may happen
-            submitter.call();
-        } catch (ExecutionException ex) {
-            // the execution exception may be caused by an interrupt of the node
-            exec.checkCanceled();
-            throw ex;
-        }
-
         final BufferedDataTable[] combinedResults =
-                getCombinedResults(futures, exec);
+                getCombinedResults(data[0], cellFacs, exec.createSubExecutionContext(0.9));
         final BufferedDataTable[] resultTables =
                 new BufferedDataTable[getNrOutPorts()];
 
@@ -366,42 +244,32 @@ protected final BufferedDataTable[] getAdditionalTables() {
         return m_additionalTables;
     }
 
-    private BufferedDataTable[] getCombinedResults(
-            final List<Future<BufferedDataContainer[]>> futures,
-            final ExecutionContext exec) throws InterruptedException,
-            ExecutionException, CanceledExecutionException {
-        final BufferedDataTable[][] tempTables =
-                new BufferedDataTable[getNrOutPorts()][futures.size()];
-        int k = 0;
-        for (Future<BufferedDataContainer[]> results : futures) {
-            try {
-                exec.checkCanceled();
-            } catch (CanceledExecutionException ex) {
-                for (Future<BufferedDataContainer[]> cancel : futures) {
-                    cancel.cancel(true);
-                }
-                throw ex;
-            }
-
-            final BufferedDataContainer[] temp = results.get();
-
-            if ((temp == null) || (temp.length != getNrOutPorts())) {
-                throw new IllegalStateException("Invalid result. Execution "
-                        + " failed, reason: data is null or number "
-                        + "of outputs wrong.");
-            }
-
-            for (int i = 0; i < temp.length; i++) {
-                tempTables[i][k] = temp[i].getTable();
-            }
-            k++;
+    private BufferedDataTable[] getCombinedResults(final BufferedDataTable data,
+            final ExtendedCellFactory[] cellFacs, final ExecutionContext exec)
+            throws Exception {
+        final BufferedDataContainer[] result =
+                new BufferedDataContainer[cellFacs.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = exec.createDataContainer(
+                    new DataTableSpec(cellFacs[i].getColumnSpecs()));
         }
+        new ParallelChunkExecutor(m_workers, Integer.MAX_VALUE).execute(data,
+                (rows, outputs, subProg) -> {
+                    for (DataRow r : rows) {
+                        subProg.checkCanceled();
+                        for (int i = 0; i < outputs.length; i++) {
+                            DataCell[] newCells = cellFacs[i].getCells(r);
+                            outputs[i].addRowToTable(
+                                    new DefaultRow(r.getKey(), newCells));
+                        }
+                    }
+                }, result, exec);
 
         final BufferedDataTable[] combinedResults =
                 new BufferedDataTable[getNrOutPorts()];
         for (int i = 0; i < combinedResults.length; i++) {
-            combinedResults[i] =
-                    exec.createConcatenateTable(exec, tempTables[i]);
+            result[i].close();
+            combinedResults[i] = result[i].getTable();
         }
 
         return combinedResults;
@@ -47,21 +47,13 @@
  */
 package org.knime.base.node.parallel.builder;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicInteger;
-
+import org.knime.base.node.parallel.ParallelChunkExecutor;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.RowIterator;
-import org.knime.core.data.container.DataContainerSettings;
 import org.knime.core.data.container.RowAppender;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
-import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeModel;
@@ -77,104 +69,12 @@
  * {@link #prepareExecute(DataTable[])} method and then implement the
  * {@link #processRow(DataRow, BufferedDataTable[], RowAppender[])} method
  * to produce one or more (or even no) output row(s) for each input row.
+ * The output rows are written in the order of the input rows, see
+ * {@link ParallelChunkExecutor}.
  *
  * @author Thorsten Meinl, University of Konstanz
  */
 public abstract class ThreadedTableBuilderNodeModel extends NodeModel {
-    private class Submitter implements Callable<Void> {
-        private final BufferedDataTable[] m_additionalData;
-
-        private final BufferedDataTable[] m_data;
-
-        private final ExecutionContext m_exec;
-
-        private final List<Future<BufferedDataContainer[]>> m_futures;
-
-        final AtomicInteger m_processedRows = new AtomicInteger();
-
-        private final DataTableSpec[] m_specs;
-
-        Submitter(final BufferedDataTable[] inData,
-                final List<Future<BufferedDataContainer[]>> futures,
-                final DataTableSpec[] outSpecs, final ExecutionContext exec) {
-            m_data = inData;
-            m_exec = exec;
-            m_futures = futures;
-            m_specs = outSpecs;
-            m_additionalData = new BufferedDataTable[inData.length - 1];
-            for (int i = 1; i < inData.length; i++) {
-                m_additionalData[i - 1] = inData[i];
-            }
-        }
-
-        private Callable<BufferedDataContainer[]> createCallable(
-                final BufferedDataTable data, final int chunkSize,
-                final double max) {
-            return new Callable<BufferedDataContainer[]>() {
-                @Override
-                public BufferedDataContainer[] call() throws Exception {
-                    BufferedDataContainer[] result =
-                        new BufferedDataContainer[m_specs.length];
-                    for (int i = 0; i < result.length; i++) {
-                        result[i] = m_exec.createDataContainer(m_specs[i], true,
-                            DataContainerSettings.getDefault().getMaxCellsInMemory() / result.length);
-                    }
-
-                    for (DataRow r : data) {
-                        m_exec.checkCanceled();
-                        processRow(r, m_additionalData, result);
-
-                        int pr = m_processedRows.incrementAndGet();
-                        if (pr % 10 == 0) {
-                            // 5% of the progress are reserved for combining
-                            // the partial results lateron
-                            m_exec.setProgress(0.95 * pr / max);
-                        }
-                    }
-
-                    for (int i = 0; i < result.length; i++) {
-                        result[i].close();
-                    }
-
-                    return result;
-                }
-            };
-        }
-
-        /**
-         *
-         * {@inheritDoc}
-         */
-        @Override
-        public Void call() throws Exception {
-            final double max = m_data[0].size();
-            final int chunkSize =
-                    (int)Math.ceil(max / (4.0 * m_workers.getMaxThreads()));
-            final RowIterator it = m_data[0].iterator();
-            BufferedDataContainer container = null;
-            int count = 0;
-            while (chunkSize > 0) {
-                m_exec.checkCanceled();
-
-                if ((count++ % chunkSize == 0) || !it.hasNext()) {
-                    if (container != null) {
-                        container.close();
-                        m_futures.add(m_workers.submit(createCallable(
-                                container.getTable(), chunkSize, max)));
-                    }
-                    if (!it.hasNext()) {
-                        break;
-                    }
-
-                    container = m_exec.createDataContainer(m_data[0]
-                                    .getDataTableSpec());
-                }
-                container.addRowToTable(it.next());
-            }
-            return null;
-        }
-    }
-
     /** The execution service that is used. */
     private final ThreadPool m_workers;
 
@@ -238,53 +138,28 @@ protected final BufferedDataTable[] execute(final BufferedDataTable[] data,
             }
         }
 
-        final List<Future<BufferedDataContainer[]>> futures =
-                new ArrayList<Future<BufferedDataContainer[]>>();
         final BufferedDataTable[] additionalTables =
                 new BufferedDataTable[Math.max(0, data.length - 1)];
         System.arraycopy(data, 1, additionalTables, 0, additionalTables.length);
 
-        final Callable<?> submitter = new Submitter(data, futures, outSpecs, exec);
-
-        try {
-            m_workers.runInvisible(submitter);
-        } catch (IllegalThreadStateException ex) {
-            // this node has not been started by a thread from a thread pool.
-            // This is odd, but may happen
-            submitter.call();
-        }
-
-        final BufferedDataTable[][] tempTables =
-                new BufferedDataTable[outSpecs.length][futures.size()];
-        int k = 0;
-        for (Future<BufferedDataContainer[]> results : futures) {
-            try {
-                exec.checkCanceled();
-            } catch (CanceledExecutionException ex) {
-                for (Future<BufferedDataContainer[]> cancel : futures) {
-                    cancel.cancel(true);
-                }
-                throw ex;
-            }
-
-            final BufferedDataContainer[] temp = results.get();
-
-            if ((temp == null) || (temp.length != getNrOutPorts())) {
-                throw new IllegalStateException("Invalid result. Execution "
-                        + "failed, reason: data is null or number "
-                        + "of outputs wrong.");
-            }
-
-            for (int i = 0; i < temp.length; i++) {
-                tempTables[i][k] = temp[i].getTable();
-            }
-            k++;
+        final BufferedDataContainer[] result =
+                new BufferedDataContainer[outSpecs.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = exec.createDataContainer(outSpecs[i]);
         }
+        new ParallelChunkExecutor(m_workers, Integer.MAX_VALUE).execute(data[0],
+                (rows, outputs, subProg) -> {
+                    for (DataRow r : rows) {
+                        subProg.checkCanceled();
+                        processRow(r, additionalTables, outputs);
+                    }
+                }, result, exec);
 
         final BufferedDataTable[] resultTables =
                 new BufferedDataTable[outSpecs.length];
         for (int i = 0; i < resultTables.length; i++) {
-            resultTables[i] = exec.createConcatenateTable(exec, tempTables[i]);
+            result[i].close();
+            resultTables[i] = result[i].getTable();
         }
         return resultTables;
     }
@@ -48,6 +48,7 @@
 package org.knime.base.node.preproc.filter.row2;
 
 import org.knime.base.node.preproc.filter.row2.operator.RowPredicate;
+import org.knime.base.node.preproc.filter.row2.operator.RowPredicate.Outcome;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.container.CloseableRowIterator;
@@ -73,7 +74,8 @@
  * into the result, and a range to allow for index based filtering. The reason the range is kept separately and not in a
  * normal filter instance is performance. If we are leaving the row number range we can immediately flag the end of the
  * table, while if we would use a filter instance we would have to run to the end of the input table (always getting a
- * mismatch because the row number is out of the valid range).
+ * mismatch because the row number is out of the valid range). Likewise, if the domain of the input table shows that
+ * the conditions accept or reject all rows, the table is not scanned at all.
  *
  * @author Perla Gjoka, KNIME GmbH, Konstanz, Germany
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
@@ -103,11 +105,15 @@ protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws Invali
      */
     private static void filterInput(final RowInput inData, final RowOutput outData, final RowPredicate rowPredicate,
         final ExecutionContext exec) throws InterruptedException, CanceledExecutionException {
-        DataRow row;
-        for (long i = 0; (row = inData.poll()) != null; i++) {
-            exec.checkCanceled();
-            if (rowPredicate.test(row, i)) {
-                outData.push(row);
+        final Outcome outcome = rowPredicate.getOutcome();
+        if (outcome != Outcome.ALWAYS_FALSE) {
+            final boolean acceptAll = outcome == Outcome.ALWAYS_TRUE;
+            DataRow row;
+            for (long i = 0; (row = inData.poll()) != null; i++) {
+                exec.checkCanceled();
+                if (acceptAll || rowPredicate.test(row, i)) {
+                    outData.push(row);
+                }
             }
         }
         inData.close();
@@ -118,10 +124,19 @@ private static void filterInput(final RowInput inData, final RowOutput outData,
     protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec)
         throws Exception {
         final BufferedDataTable in = inData[0];
-        final BufferedDataContainer container = exec.createDataContainer(in.getDataTableSpec());
-        exec.setMessage("Searching first matching row...");
         // Create RowPredicate
         final RowPredicate rowPredicate = createRowPredicate(in.getDataTableSpec());
+        final Outcome outcome = rowPredicate.getOutcome();
+        if (outcome == Outcome.ALWAYS_TRUE) {
+            // no need to look at the rows, e.g. if the condition holds for the whole domain of the column
+            return new BufferedDataTable[]{in};
+        }
+        final BufferedDataContainer container = exec.createDataContainer(in.getDataTableSpec());
+        if (outcome == Outcome.ALWAYS_FALSE) {
+            container.close();
+            return new BufferedDataTable[]{container.getTable()};
+        }
+        exec.setMessage("Searching first matching row...");
         final long totalRowCount = in.size();
         final double totalRowCountDouble = totalRowCount;
         // progress is handled here, so the subprogress for the iterator should have no contribution to the progress
@@ -68,6 +68,7 @@
 import org.knime.base.node.preproc.filter.row2.operator.KnimeRowFilterOperatorRegistry;
 import org.knime.base.node.preproc.filter.row2.operator.RowPredicate;
 import org.knime.base.node.preproc.filter.row2.operator.RowPredicateFactory;
+import org.knime.base.node.preproc.filter.row2.operator.RowPredicatePlanner;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.InvalidSettingsException;
 
@@ -128,13 +129,14 @@ private static RowPredicate consumeGroup(final Group group, final Iterator<Node>
 
     /**
      * Iterates through all the list of RowPredicates created by the consume group and based on the condition, combines
-     * them either by logical And or logical Or.
+     * them either by logical And or logical Or. The {@link RowPredicatePlanner} folds conditions whose result is known
+     * from the domain of the input table and orders the remaining ones by their estimated cost and selectivity.
      */
     private static RowPredicate combineGroup(final GroupType type, final List<RowPredicate> predicates) {
         if (type.equals(DefaultGroupTypes.AND)) {
-            return RowPredicate.and(predicates.iterator());
+            return RowPredicatePlanner.and(predicates);
         } else if (type.equals(DefaultGroupTypes.OR)) {
-            return RowPredicate.or(predicates.iterator());
+            return RowPredicatePlanner.or(predicates);
         } else {
             throw new IllegalArgumentException("Unknown group type " + type);
         }
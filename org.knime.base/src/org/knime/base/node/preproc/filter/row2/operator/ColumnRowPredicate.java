@@ -53,21 +53,32 @@
 import java.util.function.Predicate;
 
 import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
 
 import com.google.common.collect.Range;
 
 /**
- * {@link RowPredicate} that filters rows by the values in one of the columns.
+ * {@link RowPredicate} that filters rows by the values in one of the columns. If the spec of the column is known, the
+ * domain of the column is used to determine whether the predicate accepts or rejects all rows and to estimate its
+ * selectivity.
  *
  * @author Perla Gjoka, KNIME GmbH, Konstanz, Germany
  */
 final class ColumnRowPredicate implements RowPredicate {
 
+    /** Cost of predicates that don't provide an estimate, e.g. the comparison of two cells via equals. */
+    private static final double DEFAULT_CELL_COST = 2;
+
     private final int m_columnIndex;
 
     private final Predicate<DataCell> m_cellPredicate;
 
+    private final Outcome m_outcome;
+
+    private final double m_selectivity;
+
     /**
      * @param predicate is the predicate of the cell which holds the parameter given by the user.
      * @param columnIndex keeps the corresponding column index of the chosen column by the user in the input table.
@@ -75,6 +86,39 @@ final class ColumnRowPredicate implements RowPredicate {
     public ColumnRowPredicate(final Predicate<DataCell> predicate, final int columnIndex) {
         m_columnIndex = columnIndex;
         m_cellPredicate = predicate;
+        m_outcome = Outcome.ROW_DEPENDENT;
+        m_selectivity = 0.5;
+    }
+
+    /**
+     * @param predicate is the predicate of the cell which holds the parameter given by the user.
+     * @param columnIndex keeps the corresponding column index of the chosen column by the user in the input table.
+     * @param columnSpec the spec of the column whose domain is used to evaluate the predicate upfront
+     */
+    ColumnRowPredicate(final Predicate<DataCell> predicate, final int columnIndex, final DataColumnSpec columnSpec) {
+        m_columnIndex = columnIndex;
+        m_cellPredicate = predicate;
+        if (columnSpec.getDomain().hasValues()) {
+            // the possible values together with the missing cell are all cells that can occur in the column
+            final Set<DataCell> values = columnSpec.getDomain().getValues();
+            final long accepted = values.stream().filter(predicate).count();
+            final boolean acceptsMissing = predicate.test(DataType.getMissingCell());
+            if (accepted == 0 && !acceptsMissing) {
+                m_outcome = Outcome.ALWAYS_FALSE;
+            } else if (accepted == values.size() && acceptsMissing) {
+                m_outcome = Outcome.ALWAYS_TRUE;
+            } else {
+                m_outcome = Outcome.ROW_DEPENDENT;
+            }
+            m_selectivity = values.isEmpty() ? 0 : (accepted / (double)values.size());
+        } else if (predicate instanceof NumericRangePredicate) {
+            final NumericRangePredicate rangePredicate = (NumericRangePredicate)predicate;
+            m_outcome = rangePredicate.getOutcome(columnSpec);
+            m_selectivity = rangePredicate.estimateSelectivity(columnSpec);
+        } else {
+            m_outcome = Outcome.ROW_DEPENDENT;
+            m_selectivity = 0.5;
+        }
     }
 
     @Override
@@ -92,4 +136,20 @@ public Range<Long> getRowIndexRange() {
         return Range.all();
     }
 
+    @Override
+    public Outcome getOutcome() {
+        return m_outcome;
+    }
+
+    @Override
+    public double getCost() {
+        return m_cellPredicate instanceof CellPredicate ? ((CellPredicate)m_cellPredicate).getCost()
+            : DEFAULT_CELL_COST;
+    }
+
+    @Override
+    public double getSelectivity() {
+        return m_selectivity;
+    }
+
 }
@@ -128,7 +128,7 @@ private RowPredicate createOrdinaryPredicate(final DataTableSpec tableSpec) thro
         CheckUtils.checkSetting(m_columnSpec.getType().isASuperTypeOf(columnSpec.getType()),
             "Expected column %s to be of type %s but it had type %s instead. Please reconfigure.",
             m_columnSpec.getName(), m_columnSpec.getType(), columnSpec.getType());
-        return new ColumnRowPredicate(m_cellPredicate, columnIdx);
+        return new ColumnRowPredicate(m_cellPredicate, columnIdx, columnSpec);
     }
 
 }
@@ -94,8 +94,7 @@ private static Predicate<DataCell> createCellPredicate(final OperatorParameters
     private static Predicate<DataCell> createMatcherPredicate(final String matcherExpression,
         final boolean isCaseSensitive) {
         final int flags = getFlags(isCaseSensitive);
-        final Pattern regExpression = Pattern.compile(matcherExpression, flags);
-        return c -> regExpression.matcher(c.toString()).matches();
+        return new MatcherPredicate(Pattern.compile(matcherExpression, flags));
     }
 
     private static int getFlags(final boolean isCaseSensitive) {
@@ -114,4 +113,29 @@ private static Predicate<DataCell> createEqualityPredicate(final String expressi
         }
     }
 
+    /**
+     * Matches the string representation of a cell against a regular expression.
+     */
+    private static final class MatcherPredicate implements CellPredicate {
+
+        /** Matching a regular expression is considerably more expensive than comparing two values. */
+        private static final double MATCHER_COST = 20;
+
+        private final Pattern m_pattern;
+
+        MatcherPredicate(final Pattern pattern) {
+            m_pattern = pattern;
+        }
+
+        @Override
+        public boolean test(final DataCell cell) {
+            return m_pattern.matcher(cell.toString()).matches();
+        }
+
+        @Override
+        public double getCost() {
+            return MATCHER_COST;
+        }
+    }
+
 }
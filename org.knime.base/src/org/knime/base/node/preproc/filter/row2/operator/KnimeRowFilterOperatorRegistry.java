@@ -197,14 +197,7 @@ private void registerOperatorsForNumericalColumns() {
      */
     private static Predicate<DataCell> createEqualPredicateNumeric(final DataCell parameter) {
         CheckUtils.checkArgument(parameter instanceof DoubleValue, DOUBLE_TYPE_ERROR_TEMPLATE, parameter);
-        final DoubleValue reference = (DoubleValue)parameter;
-        final Predicate<DataCell> notMissingPredicate = IS_NOT_MISSING;
-        return c -> notMissingPredicate.test(c) && c instanceof DoubleValue && equalsNumeric((DoubleValue)c, reference);
-    }
-
-    /** @return true if the data cell is equal to the operand chosen by the user. */
-    private static boolean equalsNumeric(final DoubleValue value, final DoubleValue reference) {
-        return value.getDoubleValue() == reference.getDoubleValue();
+        return NumericRangePredicate.equal(((DoubleValue)parameter).getDoubleValue());
     }
 
     /**
@@ -221,14 +214,7 @@ private static Predicate<DataCell> createNotEqualsPredicate(final DataCell param
      **/
     private static Predicate<DataCell> createNotEqualsPredicateNumeric(final DataCell parameter) {
         CheckUtils.checkArgument(parameter instanceof DoubleValue, DOUBLE_TYPE_ERROR_TEMPLATE, parameter);
-        final DoubleValue reference = (DoubleValue)parameter;
-        final Predicate<DataCell> missingPredicate = IS_MISSING;
-        return c -> missingPredicate.test(c) || c instanceof DoubleValue && notEqualsNumeric((DoubleValue)c, reference);
-    }
-
-    /** @return true if the data cell is not equal to the operand chosen by the user. */
-    private static boolean notEqualsNumeric(final DoubleValue value, final DoubleValue reference) {
-        return value.getDoubleValue() != reference.getDoubleValue();
+        return NumericRangePredicate.notEqual(((DoubleValue)parameter).getDoubleValue());
     }
 
     /**
@@ -237,14 +223,7 @@ private static boolean notEqualsNumeric(final DoubleValue value, final DoubleVal
      */
     private static Predicate<DataCell> createGreaterPredicate(final DataCell parameter) {
         CheckUtils.checkArgument(parameter instanceof DoubleValue, DOUBLE_TYPE_ERROR_TEMPLATE, parameter);
-        final DoubleValue reference = (DoubleValue)parameter;
-        final Predicate<DataCell> notMissingPredicate = IS_NOT_MISSING;
-        return c -> notMissingPredicate.test(c) && c instanceof DoubleValue && greater((DoubleValue)c, reference);
-    }
-
-    /** @return true if the data cell is greater compared to the operand chosen by the user. */
-    private static boolean greater(final DoubleValue value, final DoubleValue reference) {
-        return value.getDoubleValue() > reference.getDoubleValue();
+        return NumericRangePredicate.greater(((DoubleValue)parameter).getDoubleValue());
     }
 
     /**
@@ -253,15 +232,7 @@ private static boolean greater(final DoubleValue value, final DoubleValue refere
      */
     private static Predicate<DataCell> createGreaterOrEqualPredicate(final DataCell parameter) {
         CheckUtils.checkArgument(parameter instanceof DoubleValue, DOUBLE_TYPE_ERROR_TEMPLATE, parameter);
-        final DoubleValue reference = (DoubleValue)parameter;
-        final Predicate<DataCell> notMissingPredicate = IS_NOT_MISSING;
-        return c -> notMissingPredicate.test(c) && c instanceof DoubleValue
-            && greaterOrEqual((DoubleValue)c, reference);
-    }
-
-    /** @return true if the data cell is greater or equal compared to the operand chosen by the user. */
-    private static boolean greaterOrEqual(final DoubleValue value, final DoubleValue reference) {
-        return value.getDoubleValue() >= reference.getDoubleValue();
+        return NumericRangePredicate.greaterOrEqual(((DoubleValue)parameter).getDoubleValue());
     }
 
     /**
@@ -270,14 +241,7 @@ private static boolean greaterOrEqual(final DoubleValue value, final DoubleValue
      */
     private static Predicate<DataCell> createLessPredicate(final DataCell parameter) {
         CheckUtils.checkArgument(parameter instanceof DoubleValue, DOUBLE_TYPE_ERROR_TEMPLATE, parameter);
-        final DoubleValue reference = (DoubleValue)parameter;
-        final Predicate<DataCell> notMissingPredicate = IS_NOT_MISSING;
-        return c -> notMissingPredicate.test(c) && c instanceof DoubleValue && less((DoubleValue)c, reference);
-    }
-
-    /** @return true if the data cell is smaller compared to the operand chosen by the user. */
-    private static boolean less(final DoubleValue value, final DoubleValue reference) {
-        return value.getDoubleValue() < reference.getDoubleValue();
+        return NumericRangePredicate.less(((DoubleValue)parameter).getDoubleValue());
     }
 
     /**
@@ -286,14 +250,7 @@ private static boolean less(final DoubleValue value, final DoubleValue reference
      */
     private static Predicate<DataCell> createLessOrEqualPredicate(final DataCell parameter) {
         CheckUtils.checkArgument(parameter instanceof DoubleValue, DOUBLE_TYPE_ERROR_TEMPLATE, parameter);
-        final DoubleValue reference = (DoubleValue)parameter;
-        final Predicate<DataCell> notMissingPredicate = IS_NOT_MISSING;
-        return c -> notMissingPredicate.test(c) && c instanceof DoubleValue && lessOrEqual((DoubleValue)c, reference);
-    }
-
-    /** @return true if the data cell is smaller or equal compared to the operand chosen by the user. */
-    private static boolean lessOrEqual(final DoubleValue value, final DoubleValue reference) {
-        return value.getDoubleValue() <= reference.getDoubleValue();
+        return NumericRangePredicate.lessOrEqual(((DoubleValue)parameter).getDoubleValue());
     }
 
     /**
@@ -302,19 +259,9 @@ private static boolean lessOrEqual(final DoubleValue value, final DoubleValue re
      */
     private static Predicate<DataCell> createBetweenPredicate(final DataCell parameter1, final DataCell parameter2) {
         CheckUtils.checkArgument(parameter1 instanceof DoubleValue, DOUBLE_TYPE_ERROR_TEMPLATE, parameter1);
-        final DoubleValue reference1 = (DoubleValue)parameter1;
         CheckUtils.checkArgument(parameter2 instanceof DoubleValue, DOUBLE_TYPE_ERROR_TEMPLATE, parameter2);
-        final DoubleValue reference2 = (DoubleValue)parameter2;
-        final Predicate<DataCell> notMissingPredicate = IS_NOT_MISSING;
-        return c -> notMissingPredicate.test(c) && c instanceof DoubleValue
-            && between((DoubleValue)c, reference1, reference2);
-    }
-
-    /** @return true if the data cell is between the two operands chosen by the user. */
-    private static boolean between(final DoubleValue value, final DoubleValue reference1,
-        final DoubleValue reference2) {
-        return value.getDoubleValue() >= reference1.getDoubleValue()
-            && value.getDoubleValue() <= reference2.getDoubleValue();
+        return NumericRangePredicate.between(((DoubleValue)parameter1).getDoubleValue(),
+            ((DoubleValue)parameter2).getDoubleValue());
     }
 
 }
@@ -94,4 +94,19 @@ public Range<Long> getRowIndexRange() {
        return Range.all();
     }
 
+    @Override
+    public Outcome getOutcome() {
+        return Outcome.ALWAYS_TRUE;
+    }
+
+    @Override
+    public double getCost() {
+        return 0;
+    }
+
+    @Override
+    public double getSelectivity() {
+        return 1;
+    }
+
 }
@@ -0,0 +1,243 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.filter.row2.operator;
+
+import org.knime.base.node.preproc.filter.row2.operator.RowPredicate.Outcome;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnDomain;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DoubleValue;
+
+/**
+ * {@link CellPredicate} that tests whether a numeric cell lies within an interval (or outside of it if the predicate is
+ * a complement). The comparisons are done on the primitive values, and since the interval is known the predicate can
+ * be checked against the bounds of a column's domain.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class NumericRangePredicate implements CellPredicate {
+
+    /** Estimated fraction of rows that are equal to a single value. */
+    private static final double EQUALITY_SELECTIVITY = 0.05;
+
+    /** Estimated fraction of rows that fall within an interval if the column has no bounds. */
+    private static final double RANGE_SELECTIVITY = 1 / 3.0;
+
+    private final double m_lower;
+
+    private final boolean m_lowerInclusive;
+
+    private final double m_upper;
+
+    private final boolean m_upperInclusive;
+
+    private final boolean m_complement;
+
+    private NumericRangePredicate(final double lower, final boolean lowerInclusive, final double upper,
+        final boolean upperInclusive, final boolean complement) {
+        m_lower = lower;
+        m_lowerInclusive = lowerInclusive;
+        m_upper = upper;
+        m_upperInclusive = upperInclusive;
+        m_complement = complement;
+    }
+
+    /**
+     * @param value the reference value
+     * @return a predicate that accepts all cells that are equal to the reference value
+     */
+    static NumericRangePredicate equal(final double value) {
+        return new NumericRangePredicate(value, true, value, true, false);
+    }
+
+    /**
+     * @param value the reference value
+     * @return a predicate that accepts missing cells and all cells that are not equal to the reference value
+     */
+    static NumericRangePredicate notEqual(final double value) {
+        return new NumericRangePredicate(value, true, value, true, true);
+    }
+
+    /**
+     * @param value the reference value
+     * @return a predicate that accepts all cells that are greater than the reference value
+     */
+    static NumericRangePredicate greater(final double value) {
+        return new NumericRangePredicate(value, false, Double.POSITIVE_INFINITY, true, false);
+    }
+
+    /**
+     * @param value the reference value
+     * @return a predicate that accepts all cells that are greater than or equal to the reference value
+     */
+    static NumericRangePredicate greaterOrEqual(final double value) {
+        return new NumericRangePredicate(value, true, Double.POSITIVE_INFINITY, true, false);
+    }
+
+    /**
+     * @param value the reference value
+     * @return a predicate that accepts all cells that are less than the reference value
+     */
+    static NumericRangePredicate less(final double value) {
+        return new NumericRangePredicate(Double.NEGATIVE_INFINITY, true, value, false, false);
+    }
+
+    /**
+     * @param value the reference value
+     * @return a predicate that accepts all cells that are less than or equal to the reference value
+     */
+    static NumericRangePredicate lessOrEqual(final double value) {
+        return new NumericRangePredicate(Double.NEGATIVE_INFINITY, true, value, true, false);
+    }
+
+    /**
+     * @param lower the inclusive lower bound
+     * @param upper the inclusive upper bound
+     * @return a predicate that accepts all cells between the two bounds
+     */
+    static NumericRangePredicate between(final double lower, final double upper) {
+        return new NumericRangePredicate(lower, true, upper, true, false);
+    }
+
+    @Override
+    public boolean test(final DataCell cell) {
+        if (cell.isMissing()) {
+            return m_complement;
+        }
+        return cell instanceof DoubleValue && test(((DoubleValue)cell).getDoubleValue());
+    }
+
+    /**
+     * Tests a primitive value, which is never missing.
+     *
+     * @param value the value to test
+     * @return <code>true</code> if the value is accepted
+     */
+    boolean test(final double value) {
+        return contains(value) != m_complement;
+    }
+
+    private boolean contains(final double value) {
+        return (m_lowerInclusive ? value >= m_lower : value > m_lower)
+            && (m_upperInclusive ? value <= m_upper : value < m_upper);
+    }
+
+    /** @return <code>true</code> if no value lies in the interval, e.g. if the reference value is NaN */
+    private boolean isEmpty() {
+        return !(m_lower < m_upper || (m_lower == m_upper && m_lowerInclusive && m_upperInclusive));
+    }
+
+    @Override
+    public double getCost() {
+        return 1;
+    }
+
+    /**
+     * Checks the interval against the bounds of the column's domain. Note that the domain bounds don't tell whether a
+     * column contains missing values, hence a predicate that rejects missing values can never be proven to accept all
+     * rows.
+     *
+     * @param columnSpec the spec of the tested column
+     * @return the outcome that can be derived from the domain bounds
+     */
+    Outcome getOutcome(final DataColumnSpec columnSpec) {
+        if (!isEmpty() && !isDisjoint(columnSpec.getDomain())) {
+            return Outcome.ROW_DEPENDENT;
+        }
+        if (!m_complement) {
+            return Outcome.ALWAYS_FALSE;
+        }
+        // non-missing cells that are not numeric are rejected by the complement, too
+        return columnSpec.getType().isCompatible(DoubleValue.class) ? Outcome.ALWAYS_TRUE : Outcome.ROW_DEPENDENT;
+    }
+
+    private boolean isDisjoint(final DataColumnDomain domain) {
+        if (!hasNumericBounds(domain)) {
+            return false;
+        }
+        final double min = ((DoubleValue)domain.getLowerBound()).getDoubleValue();
+        final double max = ((DoubleValue)domain.getUpperBound()).getDoubleValue();
+        if (Double.isNaN(min) || Double.isNaN(max)) {
+            return false;
+        }
+        return max < m_lower || (max == m_lower && !m_lowerInclusive) || min > m_upper
+            || (min == m_upper && !m_upperInclusive);
+    }
+
+    private static boolean hasNumericBounds(final DataColumnDomain domain) {
+        return domain.hasBounds() && !domain.getLowerBound().isMissing() && !domain.getUpperBound().isMissing()
+            && domain.getLowerBound() instanceof DoubleValue && domain.getUpperBound() instanceof DoubleValue;
+    }
+
+    /**
+     * Estimates the fraction of accepted rows assuming that the values are uniformly distributed between the domain
+     * bounds.
+     *
+     * @param columnSpec the spec of the tested column
+     * @return the estimated selectivity
+     */
+    double estimateSelectivity(final DataColumnSpec columnSpec) {
+        final double selectivity;
+        if (isEmpty()) {
+            selectivity = 0;
+        } else if (m_lower == m_upper) {
+            selectivity = EQUALITY_SELECTIVITY;
+        } else if (hasNumericBounds(columnSpec.getDomain())) {
+            final double min = ((DoubleValue)columnSpec.getDomain().getLowerBound()).getDoubleValue();
+            final double max = ((DoubleValue)columnSpec.getDomain().getUpperBound()).getDoubleValue();
+            final double overlap = Math.min(max, m_upper) - Math.max(min, m_lower);
+            if (max > min && Double.isFinite(max - min)) {
+                selectivity = Math.max(0, Math.min(1, overlap / (max - min)));
+            } else {
+                selectivity = overlap >= 0 ? 1 : 0;
+            }
+        } else {
+            selectivity = RANGE_SELECTIVITY;
+        }
+        return m_complement ? 1 - selectivity : selectivity;
+    }
+
+}
@@ -81,6 +81,10 @@ public RowIndexPredicate(final Predicate<DataCell> cellPredicate, final Range<Lo
 
     @Override
     public boolean test(final DataRow t, final Long index) {
+        if (m_cellPredicate instanceof NumericRangePredicate) {
+            // the index is never missing, hence there is no need to wrap it into a cell
+            return ((NumericRangePredicate)m_cellPredicate).test(index.doubleValue());
+        }
         return m_cellPredicate.test(new LongCell(index));
     }
 
@@ -64,6 +64,35 @@
  */
 public interface RowPredicate extends BiPredicate<DataRow, Long> {
 
+    /**
+     * What is known about the result of a {@link RowPredicate} before any row is tested, e.g. because the tested
+     * values lie outside of the domain of a column.
+     *
+     * @since 4.5
+     */
+    enum Outcome {
+        /** The predicate accepts every row. */
+        ALWAYS_TRUE,
+        /** The predicate rejects every row. */
+        ALWAYS_FALSE,
+        /** The result depends on the tested row. */
+        ROW_DEPENDENT;
+
+        /**
+         * @return the outcome of the negated predicate
+         */
+        public Outcome negate() {
+            switch (this) {
+                case ALWAYS_TRUE:
+                    return ALWAYS_FALSE;
+                case ALWAYS_FALSE:
+                    return ALWAYS_TRUE;
+                default:
+                    return ROW_DEPENDENT;
+            }
+        }
+    }
+
     /**
      * @return a set of all the column indices in the input table, chosen by the user for different conditions.
      */
@@ -74,6 +103,33 @@ public interface RowPredicate extends BiPredicate<DataRow, Long> {
      */
     Range<Long> getRowIndexRange();
 
+    /**
+     * An outcome other than {@link Outcome#ROW_DEPENDENT} allows to skip testing the rows. Note that
+     * {@link Outcome#ALWAYS_TRUE} also implies that the {@link #getRowIndexRange() row index range} is unrestricted.
+     *
+     * @return what is known about the result of this predicate before any row is tested
+     * @since 4.5
+     */
+    default Outcome getOutcome() {
+        return Outcome.ROW_DEPENDENT;
+    }
+
+    /**
+     * @return the estimated cost of testing a single row relative to the comparison of a numeric cell
+     * @since 4.5
+     */
+    default double getCost() {
+        return 1;
+    }
+
+    /**
+     * @return the estimated fraction of rows that pass this predicate
+     * @since 4.5
+     */
+    default double getSelectivity() {
+        return 0.5;
+    }
+
     /**
      * Negates the RowPredicate created. If the test is passed, then this method fails it or vice-versa.
      *
@@ -144,6 +200,21 @@ public Set<Integer> getRequiredColumns() {
         public Range<Long> getRowIndexRange() {
             return m_range;
         }
+
+        @Override
+        public Outcome getOutcome() {
+            return m_rowPredicate.getOutcome().negate();
+        }
+
+        @Override
+        public double getCost() {
+            return m_rowPredicate.getCost();
+        }
+
+        @Override
+        public double getSelectivity() {
+            return 1 - m_rowPredicate.getSelectivity();
+        }
     }
 
 }
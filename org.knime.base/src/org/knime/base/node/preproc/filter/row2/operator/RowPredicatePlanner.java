@@ -0,0 +1,207 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.filter.row2.operator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.knime.base.node.preproc.filter.row2.operator.RowPredicate.Outcome;
+import org.knime.core.data.DataRow;
+import org.knime.core.node.util.CheckUtils;
+
+import com.google.common.collect.Range;
+
+/**
+ * Combines the {@link RowPredicate RowPredicates} of a group of conditions. Conditions whose outcome is known upfront
+ * are folded, i.e. a condition that rejects all rows makes an AND group reject all rows and is dropped from an OR
+ * group (and vice versa for conditions that accept all rows). The remaining conditions are evaluated in the order of
+ * their expected cost per decided row, which is the cost of a condition divided by the fraction of rows for which it
+ * decides the result of the group, so that cheap and selective conditions are tested first.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 4.5
+ */
+public final class RowPredicatePlanner {
+
+    /** Avoids divisions by zero for conditions that never decide the result of the group. */
+    private static final double MIN_PROBABILITY = 1e-6;
+
+    private RowPredicatePlanner() {
+        // static utility class
+    }
+
+    /**
+     * @param predicates the predicates of the conditions of the group, must not be empty
+     * @return a {@link RowPredicate} that accepts rows that are accepted by all predicates
+     */
+    public static RowPredicate and(final List<RowPredicate> predicates) {
+        return plan(predicates, true);
+    }
+
+    /**
+     * @param predicates the predicates of the conditions of the group, must not be empty
+     * @return a {@link RowPredicate} that accepts rows that are accepted by any predicate
+     */
+    public static RowPredicate or(final List<RowPredicate> predicates) {
+        return plan(predicates, false);
+    }
+
+    private static RowPredicate plan(final List<RowPredicate> predicates, final boolean conjunction) {
+        CheckUtils.checkArgument(!predicates.isEmpty(), "Empty groups are not allowed.");
+        // the outcome that decides the group, i.e. false for AND and true for OR
+        final Outcome deciding = conjunction ? Outcome.ALWAYS_FALSE : Outcome.ALWAYS_TRUE;
+        final List<RowPredicate> remaining = new ArrayList<>(predicates.size());
+        for (final RowPredicate predicate : predicates) {
+            final Outcome outcome = predicate.getOutcome();
+            if (outcome == deciding) {
+                return conjunction ? RejectAllRowPredicate.INSTANCE : NoConditionRowPredicate.INSTANCE;
+            } else if (outcome == Outcome.ROW_DEPENDENT) {
+                remaining.add(predicate);
+            }
+        }
+        if (remaining.isEmpty()) {
+            // all predicates have the neutral outcome of the group
+            return conjunction ? NoConditionRowPredicate.INSTANCE : RejectAllRowPredicate.INSTANCE;
+        }
+        Range<Long> indexRange = remaining.get(0).getRowIndexRange();
+        for (int i = 1; i < remaining.size(); i++) {
+            final Range<Long> other = remaining.get(i).getRowIndexRange();
+            if (conjunction) {
+                if (!indexRange.isConnected(other) || indexRange.intersection(other).isEmpty()) {
+                    // the row index conditions exclude each other
+                    return RejectAllRowPredicate.INSTANCE;
+                }
+                indexRange = indexRange.intersection(other);
+            } else {
+                indexRange = indexRange.span(other);
+            }
+        }
+        if (remaining.size() == 1) {
+            return remaining.get(0);
+        }
+        remaining.sort(Comparator.comparingDouble(p -> getRank(p, conjunction)));
+        return new OrderedGroupPredicate(remaining, conjunction, indexRange);
+    }
+
+    /** The expected cost per row whose group result is decided by the given predicate. */
+    private static double getRank(final RowPredicate predicate, final boolean conjunction) {
+        final double decisionProbability = conjunction ? (1 - predicate.getSelectivity()) : predicate.getSelectivity();
+        return predicate.getCost() / Math.max(MIN_PROBABILITY, decisionProbability);
+    }
+
+    /**
+     * Tests the predicates of a group in a fixed order until the first one decides the result.
+     */
+    private static final class OrderedGroupPredicate implements RowPredicate {
+
+        private final RowPredicate[] m_predicates;
+
+        private final boolean m_conjunction;
+
+        private final Set<Integer> m_requiredColumns;
+
+        private final Range<Long> m_indexRange;
+
+        private final double m_cost;
+
+        private final double m_selectivity;
+
+        OrderedGroupPredicate(final List<RowPredicate> predicates, final boolean conjunction,
+            final Range<Long> indexRange) {
+            m_predicates = predicates.toArray(new RowPredicate[0]);
+            m_conjunction = conjunction;
+            m_indexRange = indexRange;
+            final Set<Integer> requiredColumns = new HashSet<>();
+            // probability that the evaluation reaches the current predicate
+            double reached = 1;
+            double cost = 0;
+            for (final RowPredicate predicate : m_predicates) {
+                requiredColumns.addAll(predicate.getRequiredColumns());
+                cost += reached * predicate.getCost();
+                reached *= conjunction ? predicate.getSelectivity() : (1 - predicate.getSelectivity());
+            }
+            m_requiredColumns = Collections.unmodifiableSet(requiredColumns);
+            m_cost = cost;
+            // assumes independent conditions
+            m_selectivity = conjunction ? reached : (1 - reached);
+        }
+
+        @Override
+        public boolean test(final DataRow row, final Long index) {
+            for (final RowPredicate predicate : m_predicates) {
+                if (predicate.test(row, index) != m_conjunction) {
+                    return !m_conjunction;
+                }
+            }
+            return m_conjunction;
+        }
+
+        @Override
+        public Set<Integer> getRequiredColumns() {
+            return m_requiredColumns;
+        }
+
+        @Override
+        public Range<Long> getRowIndexRange() {
+            return m_indexRange;
+        }
+
+        @Override
+        public double getCost() {
+            return m_cost;
+        }
+
+        @Override
+        public double getSelectivity() {
+            return m_selectivity;
+        }
+    }
+
+}
@@ -826,6 +826,14 @@ protected boolean isProcessInMemory() {
         return m_inMemory.getBooleanValue();
     }
 
+    /**
+     * @return the maximum number of unique values per group
+     * @since 4.5
+     */
+    protected int getMaxUniqueValues() {
+        return m_maxUniqueValues.getIntValue();
+    }
+
     /**
      * @return <code>true</code> if any sorting should be performed in memory
      * @deprecated sort in memory is no longer required
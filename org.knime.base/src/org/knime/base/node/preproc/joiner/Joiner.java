@@ -51,7 +51,6 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -59,6 +58,9 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.knime.base.data.sort.SortedTable;
 import org.knime.base.node.preproc.joiner.Joiner2Settings.CompositionMode;
@@ -70,19 +72,24 @@
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
 import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
 import org.knime.core.data.RowKey;
+import org.knime.core.data.append.AppendedColumnRow;
 import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.IntCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.util.memory.MemoryAlertSystem;
 import org.knime.core.data.util.memory.MemoryAlertSystem.MemoryActionIndicator;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.util.ConvenienceMethods;
+import org.knime.core.util.ThreadPool;
 import org.knime.core.util.UniqueNameGenerator;
 
 /**
@@ -145,6 +152,108 @@ public final class Joiner {
     /** Only used for testcases, simulates an out-of-memory event after that many rows added in memory. */
     private int m_rowsAddedBeforeForcedOOM;
 
+    /** The number of rows of the outer table that are probed against the hash table by one task. */
+    private static final int PROBE_CHUNK_SIZE = 1024;
+
+    /**
+     * An input table of a join round. This is either the original table or
+     * a table holding only the rows of the pending partitions, in the latter
+     * case the index of the row in the original table is stored in the last
+     * column.
+     */
+    private static final class JoinInput {
+        private final BufferedDataTable m_table;
+
+        private final boolean m_indexed;
+
+        JoinInput(final BufferedDataTable table, final boolean indexed) {
+            m_table = table;
+            m_indexed = indexed;
+        }
+
+        /**
+         * @param row a row of the table
+         * @param counter the position of the row in the table
+         * @return the index of the row in the original table
+         */
+        int getIndex(final DataRow row, final int counter) {
+            if (m_indexed) {
+                return ((IntValue)row.getCell(row.getNumCells() - 1)).getIntValue();
+            }
+            return counter;
+        }
+
+        /**
+         * @param row a row of the table
+         * @param index the index of the row in the original table
+         * @return the row as it is written to a table of pending partitions
+         */
+        DataRow toIndexedRow(final DataRow row, final int index) {
+            return m_indexed ? row : new AppendedColumnRow(row, new IntCell(index));
+        }
+
+        DataTableSpec getIndexedSpec() {
+            final DataTableSpec spec = m_table.getDataTableSpec();
+            if (m_indexed) {
+                return spec;
+            }
+            final String name = DataTableSpec.getUniqueColumnName(spec, "joiner_row_index");
+            return new DataTableSpec(spec,
+                new DataTableSpec(new DataColumnSpecCreator(name, IntCell.TYPE).createSpec()));
+        }
+    }
+
+    /**
+     * The result of probing a chunk of rows of the outer table against the
+     * hash table of the inner table. The matches are stored in the order in
+     * which the sequential probing finds them.
+     */
+    private static final class ProbeChunk {
+        private final DataRow[] m_rows = new DataRow[PROBE_CHUNK_SIZE];
+
+        private final int[] m_indices = new int[PROBE_CHUNK_SIZE];
+
+        private int m_size;
+
+        private final boolean[] m_matchFound = new boolean[PROBE_CHUNK_SIZE];
+
+        private final boolean[] m_deferMatch = new boolean[PROBE_CHUNK_SIZE];
+
+        /** True if the row belongs to a partition of a later round. */
+        private final boolean[] m_pending = new boolean[PROBE_CHUNK_SIZE];
+
+        private int[] m_matchRow = new int[PROBE_CHUNK_SIZE];
+
+        private int[] m_matchLeft = new int[PROBE_CHUNK_SIZE];
+
+        private int[] m_matchPartition = new int[PROBE_CHUNK_SIZE];
+
+        private int m_numMatches;
+
+        void addRow(final DataRow row, final int index) {
+            m_rows[m_size] = row;
+            m_indices[m_size] = index;
+            m_size++;
+        }
+
+        boolean isFull() {
+            return m_size == PROBE_CHUNK_SIZE;
+        }
+
+        void addMatch(final int row, final int leftIndex, final int partition) {
+            if (m_numMatches == m_matchRow.length) {
+                final int newLength = 2 * m_numMatches;
+                m_matchRow = Arrays.copyOf(m_matchRow, newLength);
+                m_matchLeft = Arrays.copyOf(m_matchLeft, newLength);
+                m_matchPartition = Arrays.copyOf(m_matchPartition, newLength);
+            }
+            m_matchRow[m_numMatches] = row;
+            m_matchLeft[m_numMatches] = leftIndex;
+            m_matchPartition[m_numMatches] = partition;
+            m_numMatches++;
+        }
+    }
+
     /**
      * Creates a new instance.
      *
@@ -548,12 +657,36 @@ public BufferedDataTable computeJoinTable(
 
         double[] progressIntervals = new double[] {0.6, 0.2, 0.2};
         exec.setProgress(0.0);
+        JoinInput inner = new JoinInput(innerTable, false);
+        JoinInput outer = new JoinInput(outerTable, false);
         while (pendingParts.size() > 0) {
+            BufferedDataContainer outerPending = pendingParts.size() > 1
+                ? exec.createDataContainer(outer.getIndexedSpec(), false, 0)
+                : null;
             Collection<Integer> processedParts = performJoin(
-                    innerTable, outerTable,
+                    inner, outer, outerPending,
                     joinCont, pendingParts, exec, progressIntervals[0]);
             pendingParts.removeAll(processedParts);
+            if (outerPending != null) {
+                outerPending.close();
+                if (pendingParts.isEmpty()) {
+                    exec.clearTable(outerPending.getTable());
+                } else {
+                    // the rows of the pending partitions are kept on disk,
+                    // so that the next round does not read both input
+                    // tables completely again
+                    JoinInput nextInner = new JoinInput(writePendingRows(
+                        inner, InputRow.Settings.InDataPort.Left,
+                        pendingParts, exec), true);
+                    clearPendingRows(inner, exec);
+                    clearPendingRows(outer, exec);
+                    inner = nextInner;
+                    outer = new JoinInput(outerPending.getTable(), true);
+                }
+            }
         }
+        clearPendingRows(inner, exec);
+        clearPendingRows(outer, exec);
 
 
         if (m_retainLeft && m_matchAny) {
@@ -575,22 +708,22 @@ public BufferedDataTable computeJoinTable(
         long numRightOuter = null != joinCont.getRightOuter() ? joinCont.getRightOuter().size() : 0;
 
         exec.setMessage("Sort Joined Partitions");
-        Comparator<DataRow> joinComp = OutputRow.createRowComparator();
-        SortedTable matches = null != joinCont.getMatches()
-        ? new SortedTable(joinCont.getMatches(), joinComp, false,
+        // the three tables are independent and sorted concurrently
+        List<Callable<SortedTable>> sortTasks =
+            new ArrayList<Callable<SortedTable>>(3);
+        sortTasks.add(createSortTask(joinCont.getMatches(),
                 exec.createSubExecutionContext(
-                        progressIntervals[1] * numMatches / totalNumJoins))
-        : null;
-        SortedTable leftOuter = null != joinCont.getLeftOuter()
-        ? new SortedTable(joinCont.getLeftOuter(), joinComp, false,
+                        progressIntervals[1] * numMatches / totalNumJoins)));
+        sortTasks.add(createSortTask(joinCont.getLeftOuter(),
                 exec.createSubExecutionContext(
-                        progressIntervals[1] * numLeftOuter / totalNumJoins))
-        : null;
-        SortedTable rightOuter = null != joinCont.getRightOuter()
-        ? new SortedTable(joinCont.getRightOuter(), joinComp, false,
+                        progressIntervals[1] * numLeftOuter / totalNumJoins)));
+        sortTasks.add(createSortTask(joinCont.getRightOuter(),
                 exec.createSubExecutionContext(
-                        progressIntervals[1] * numRightOuter / totalNumJoins))
-        : null;
+                        progressIntervals[1] * numRightOuter / totalNumJoins)));
+        List<SortedTable> sorted = runConcurrently(sortTasks, exec);
+        SortedTable matches = sorted.get(0);
+        SortedTable leftOuter = sorted.get(1);
+        SortedTable rightOuter = sorted.get(2);
 
         exec.setMessage("Merge Joined Partitions");
         // Build sorted table
@@ -624,8 +757,11 @@ public BufferedDataTable computeJoinTable(
      * Successfully read partitions will be joined. The return collection
      * defines the successfully processed partitions.
      *
-     * @param leftTable The inner input table.
-     * @param rightTable The right input table.
+     * @param left The inner input table.
+     * @param right The right input table.
+     * @param rightPending The container the rows of the right table are
+     * written to that belong to partitions which are processed in a later
+     * round, may be <code>null</code>.
      * @param outputContainer The container used for storing matches.
      * @param pendingParts The parts that are not processed yet.
      * @param exec The execution context.
@@ -634,12 +770,15 @@ public BufferedDataTable computeJoinTable(
      * @throws CanceledExecutionException when execution is canceled
      */
     private Collection<Integer> performJoin(
-            final BufferedDataTable leftTable,
-            final BufferedDataTable rightTable,
+            final JoinInput left,
+            final JoinInput right,
+            final BufferedDataContainer rightPending,
             final JoinContainer outputContainer,
             final Collection<Integer> pendingParts,
             final ExecutionContext exec,
             final double progressDiff) throws CanceledExecutionException  {
+        final BufferedDataTable leftTable = left.m_table;
+        final BufferedDataTable rightTable = right.m_table;
         // Update increment for reporting progress
         double progress = exec.getProgressMonitor().getProgress();
         double numRows = leftTable.size() + rightTable.size();
@@ -672,7 +811,8 @@ private Collection<Integer> performJoin(
 
             if (saveToAddMoreRows) {
                 DataRow row = leftIter.next();
-                InputRow inputDataRow = new InputRow(row, counter,
+                InputRow inputDataRow = new InputRow(row,
+                        left.getIndex(row, counter),
                         InputRow.Settings.InDataPort.Left,
                         m_inputDataRowSettings);
 
@@ -769,10 +909,14 @@ private Collection<Integer> performJoin(
             }
         }
 
+        leftIter.close();
+
         setMessage("Join", exec, pendingParts, currParts);
         // Join with outer table
+        Set<Integer> laterParts = new HashSet<Integer>(pendingParts);
+        laterParts.removeAll(currParts);
         joinInMemory(leftTableHashed, leftOuterJoins,
-                currParts, rightTable,
+                currParts, laterParts, right, rightPending,
                 outputContainer,
                 exec, inc);
 
@@ -885,12 +1029,18 @@ private void addRow(
 
     /**
      * Join given rows in memory and append joined row to the outputCont.
+     * The rows of the outer table are probed against the hash table in
+     * chunks which are processed concurrently, the results are added to the
+     * outputCont in the order of the outer table.
      *
      * @param leftTableHashed Stores the rows of the left input table in parts.
      * @param leftOuterJoins The same number as found in leftTableHashed used
      * for left outer joins.
      * @param currParts The parts of the outer table that will be joined.
-     * @param rightTable The outer table.
+     * @param laterParts The parts that are joined in a later round.
+     * @param right The outer table.
+     * @param rightPending Container for the rows of the outer table that
+     * belong to the later parts, may be <code>null</code>.
      * @param outputCont The joined rows will be added to this container.
      * @param exec The {@link ExecutionContext}
      * @param incProgress The progress increment.
@@ -900,93 +1050,306 @@ private void joinInMemory(
             final Map <Integer, Map<JoinTuple, Set<Integer>>> leftTableHashed,
             final Map <Integer, Set<Integer>> leftOuterJoins,
             final Collection<Integer> currParts,
-            final BufferedDataTable rightTable,
+            final Set<Integer> laterParts,
+            final JoinInput right,
+            final BufferedDataContainer rightPending,
             final JoinContainer outputCont,
             final ExecutionContext exec,
             final double incProgress) throws CanceledExecutionException {
+        final Set<Integer> currPartSet = new HashSet<Integer>(currParts);
+        final ThreadPool pool = getThreadPool();
+        final int maxChunksInFlight = 2 * Math.max(1, pool.getMaxThreads());
+        final List<Future<ProbeChunk>> inFlight =
+            new ArrayList<Future<ProbeChunk>>();
         double progress = exec.getProgressMonitor().getProgress();
-        int counter = 0;
-        for (DataRow dataRow : rightTable) {
-            progress += incProgress;
-            exec.getProgressMonitor().setProgress(progress);
-            exec.checkCanceled();
-
-            InputRow rightRow = new InputRow(dataRow, counter,
-                    InputRow.Settings.InDataPort.Right,
-                    m_inputDataRowSettings);
-
-            boolean matchFoundForRightRow = false;
-            boolean deferMatch = false;
-
-            for (JoinTuple joinTuple : rightRow.getJoinTuples()) {
-                int partition = joinTuple.hashCode() & m_bitMask;
-                if (!currParts.contains(partition)) {
-                    deferMatch = true;
-                    // skip and defer non-match when partition is not in the current partitions
-                    continue;
+        try {
+            int counter = 0;
+            ProbeChunk chunk = new ProbeChunk();
+            CloseableRowIterator rightIter = right.m_table.iterator();
+            try {
+                while (rightIter.hasNext()) {
+                    exec.checkCanceled();
+                    DataRow dataRow = rightIter.next();
+                    chunk.addRow(dataRow, right.getIndex(dataRow, counter));
+                    counter++;
+                    if (chunk.isFull()) {
+                        inFlight.add(pool.enqueue(createProbeTask(chunk,
+                            leftTableHashed, currPartSet, laterParts)));
+                        chunk = new ProbeChunk();
+                    }
+                    if (inFlight.size() >= maxChunksInFlight) {
+                        progress = addProbeResult(waitFor(inFlight.remove(0),
+                            pool, exec), leftOuterJoins, right,
+                            rightPending, outputCont, exec, progress,
+                            incProgress);
+                    }
                 }
+            } finally {
+                rightIter.close();
+            }
+            if (chunk.m_size > 0) {
+                inFlight.add(pool.enqueue(createProbeTask(chunk,
+                    leftTableHashed, currPartSet, laterParts)));
+            }
+            while (!inFlight.isEmpty()) {
+                progress = addProbeResult(waitFor(inFlight.remove(0), pool,
+                    exec), leftOuterJoins, right, rightPending, outputCont,
+                    exec, progress, incProgress);
+            }
+        } finally {
+            for (Future<ProbeChunk> future : inFlight) {
+                future.cancel(true);
+            }
+        }
 
-                Map<JoinTuple, Set<Integer>> leftTuples =
-                    leftTableHashed.get(partition);
-                if (null == leftTuples) {
-                    // skip and check for outer join when the left table does not have rows that fall
-                    // in this partition
-                    deferMatch = false;
-                    continue;
+        if (m_retainLeft && !m_matchAny) {
+            for (int partition : leftOuterJoins.keySet()) {
+                for (Integer row : leftOuterJoins.get(partition)) {
+                    // add left outer join
+                    DataRow outRow = OutputRow.createDataRow(
+                            outputCont.getRowCount(),
+                            row, -1,
+                            m_outputDataRowSettings);
+                    outputCont.addLeftOuter(outRow, exec);
                 }
+            }
+        }
 
-                Set<Integer> localLeftOuterJoins = null;
-                if (m_retainLeft  && !m_matchAny) {
-                    localLeftOuterJoins = leftOuterJoins.get(partition);
-                }
+    }
 
-                Set<Integer> leftRows = leftTuples.get(joinTuple);
-                if (null != leftRows) {
-                    matchFoundForRightRow = true;
-                    for (Integer leftRowIndex : leftRows) {
-                        // add inner join
-                        DataRow outRow = OutputRow.createDataRow(
-                                outputCont.getRowCount(),
-                                leftRowIndex, rightRow.getIndex(),
-                                dataRow,
-                                m_outputDataRowSettings);
-                        outputCont.addMatch(outRow, exec);
-                        if (m_retainLeft && !m_matchAny) {
-                            localLeftOuterJoins.remove(leftRowIndex);
+    /**
+     * Creates the task that probes the rows of the given chunk against the
+     * hash table. The task only reads shared data, the hash table is not
+     * modified while the outer table is probed.
+     */
+    private Callable<ProbeChunk> createProbeTask(final ProbeChunk chunk,
+            final Map <Integer, Map<JoinTuple, Set<Integer>>> leftTableHashed,
+            final Set<Integer> currParts, final Set<Integer> laterParts) {
+        return new Callable<ProbeChunk>() {
+            @Override
+            public ProbeChunk call() {
+                for (int i = 0; i < chunk.m_size; i++) {
+                    InputRow rightRow = new InputRow(chunk.m_rows[i],
+                            chunk.m_indices[i],
+                            InputRow.Settings.InDataPort.Right,
+                            m_inputDataRowSettings);
+
+                    boolean matchFoundForRightRow = false;
+                    boolean deferMatch = false;
+                    boolean pending = false;
+
+                    for (JoinTuple joinTuple : rightRow.getJoinTuples()) {
+                        int partition = joinTuple.hashCode() & m_bitMask;
+                        if (!currParts.contains(partition)) {
+                            deferMatch = true;
+                            pending |= laterParts.contains(partition);
+                            // skip and defer non-match when partition is not
+                            // in the current partitions
+                            continue;
                         }
-                        if (m_retainLeft && m_matchAny) {
-                            m_globalLeftOuterJoins.remove(leftRowIndex);
+
+                        Map<JoinTuple, Set<Integer>> leftTuples =
+                            leftTableHashed.get(partition);
+                        if (null == leftTuples) {
+                            // skip and check for outer join when the left
+                            // table does not have rows that fall in this
+                            // partition
+                            deferMatch = false;
+                            continue;
+                        }
+
+                        Set<Integer> leftRows = leftTuples.get(joinTuple);
+                        if (null != leftRows) {
+                            matchFoundForRightRow = true;
+                            for (Integer leftRowIndex : leftRows) {
+                                chunk.addMatch(i, leftRowIndex, partition);
+                            }
                         }
                     }
+                    chunk.m_matchFound[i] = matchFoundForRightRow;
+                    chunk.m_deferMatch[i] = deferMatch;
+                    chunk.m_pending[i] = pending;
                 }
+                return chunk;
             }
+        };
+    }
 
+    /**
+     * Adds the inner and outer joins of a probed chunk to the output
+     * container.
+     *
+     * @return the new progress
+     */
+    private double addProbeResult(final ProbeChunk chunk,
+            final Map <Integer, Set<Integer>> leftOuterJoins,
+            final JoinInput right, final BufferedDataContainer rightPending,
+            final JoinContainer outputCont, final ExecutionContext exec,
+            final double progress, final double incProgress) {
+        int m = 0;
+        for (int i = 0; i < chunk.m_size; i++) {
+            DataRow dataRow = chunk.m_rows[i];
+            int rightIndex = chunk.m_indices[i];
+            for (; m < chunk.m_numMatches && chunk.m_matchRow[m] == i; m++) {
+                Integer leftRowIndex = chunk.m_matchLeft[m];
+                // add inner join
+                DataRow outRow = OutputRow.createDataRow(
+                        outputCont.getRowCount(),
+                        leftRowIndex, rightIndex,
+                        dataRow,
+                        m_outputDataRowSettings);
+                outputCont.addMatch(outRow, exec);
+                if (m_retainLeft && !m_matchAny) {
+                    leftOuterJoins.get(chunk.m_matchPartition[m])
+                        .remove(leftRowIndex);
+                }
+                if (m_retainLeft && m_matchAny) {
+                    m_globalLeftOuterJoins.remove(leftRowIndex);
+                }
+            }
 
-            if (m_retainRight && !matchFoundForRightRow && !deferMatch) {
+            if (m_retainRight && !chunk.m_matchFound[i]
+                    && !chunk.m_deferMatch[i]) {
                 long outRowIndex = outputCont.getRowCount();
                 // add right outer join
                 DataRow outRow = OutputRow.createDataRow(outRowIndex,
-                        -1, rightRow.getIndex(),
+                        -1, rightIndex,
                         dataRow,
                         m_outputDataRowSettings);
                 outputCont.addRightOuter(outRow, exec);
             }
-            counter++;
+            if (rightPending != null && chunk.m_pending[i]) {
+                rightPending.addRowToTable(
+                    right.toIndexedRow(dataRow, rightIndex));
+            }
         }
+        double newProgress = progress + chunk.m_size * incProgress;
+        exec.getProgressMonitor().setProgress(newProgress);
+        return newProgress;
+    }
 
-        if (m_retainLeft && !m_matchAny) {
-            for (int partition : leftOuterJoins.keySet()) {
-                for (Integer row : leftOuterJoins.get(partition)) {
-                    // add left outer join
-                    DataRow outRow = OutputRow.createDataRow(
-                            outputCont.getRowCount(),
-                            row, -1,
-                            m_outputDataRowSettings);
-                    outputCont.addLeftOuter(outRow, exec);
+    /**
+     * Writes the rows of the inner table that belong to one of the given
+     * partitions together with their index to a new table.
+     */
+    private BufferedDataTable writePendingRows(final JoinInput input,
+            final InputRow.Settings.InDataPort port,
+            final Collection<Integer> pendingParts,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        exec.setMessage("Write " + pendingParts.size() + " pending parts");
+        Set<Integer> pending = new HashSet<Integer>(pendingParts);
+        BufferedDataContainer cont =
+            exec.createDataContainer(input.getIndexedSpec(), false, 0);
+        int counter = 0;
+        CloseableRowIterator iter = input.m_table.iterator();
+        try {
+            while (iter.hasNext()) {
+                exec.checkCanceled();
+                DataRow row = iter.next();
+                int index = input.getIndex(row, counter);
+                counter++;
+                InputRow inputRow = new InputRow(row, index, port,
+                        m_inputDataRowSettings);
+                for (JoinTuple tuple : inputRow.getJoinTuples()) {
+                    if (pending.contains(tuple.hashCode() & m_bitMask)) {
+                        cont.addRowToTable(input.toIndexedRow(row, index));
+                        break;
+                    }
                 }
             }
+        } finally {
+            iter.close();
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    /** Disposes the table if it holds the rows of pending partitions. */
+    private static void clearPendingRows(final JoinInput input,
+            final ExecutionContext exec) {
+        if (input.m_indexed) {
+            exec.clearTable(input.m_table);
+        }
+    }
+
+    private static Callable<SortedTable> createSortTask(
+            final BufferedDataTable table, final ExecutionContext exec) {
+        return new Callable<SortedTable>() {
+            @Override
+            public SortedTable call() throws CanceledExecutionException {
+                return null != table ? new SortedTable(table,
+                    OutputRow.createRowComparator(), false, exec) : null;
+            }
+        };
+    }
+
+    /**
+     * Runs the given tasks concurrently and returns their results in order.
+     */
+    private static <T> List<T> runConcurrently(
+            final List<Callable<T>> tasks, final ExecutionContext exec)
+            throws CanceledExecutionException {
+        ThreadPool pool = getThreadPool();
+        List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(pool.enqueue(task));
+            }
+            List<T> results = new ArrayList<T>(tasks.size());
+            for (Future<T> future : futures) {
+                results.add(waitFor(future, pool, exec));
+            }
+            return results;
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Waits for the given future. If the current thread belongs to the pool
+     * it does not count as running thread while waiting, otherwise a pool
+     * with few threads could not process the tasks the thread waits for.
+     */
+    private static <T> T waitFor(final Future<T> future, final ThreadPool pool,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        try {
+            try {
+                return pool.runInvisible(new Callable<T>() {
+                    @Override
+                    public T call() throws Exception {
+                        return future.get();
+                    }
+                });
+            } catch (IllegalThreadStateException ex) {
+                // not started from a thread of the pool
+                return future.get();
+            }
+        } catch (InterruptedException ex) {
+            exec.checkCanceled();
+            throw new CanceledExecutionException(ex.getMessage());
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            // unwrap the exception of runInvisible and of the future
+            while (cause instanceof ExecutionException
+                    && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof CanceledExecutionException) {
+                throw (CanceledExecutionException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new RuntimeException(cause);
         }
+    }
 
+    private static ThreadPool getThreadPool() {
+        ThreadPool pool = ThreadPool.currentPool();
+        return pool != null ? pool : KNIMEConstants.GLOBAL_THREAD_POOL;
     }
 
     private List<Integer> getLeftJoinIndices(
@@ -0,0 +1,544 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.pivot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.knime.base.data.aggregation.AggregationOperator;
+import org.knime.base.data.aggregation.ColumnAggregator;
+import org.knime.base.data.aggregation.GlobalSettings;
+import org.knime.base.data.aggregation.OperatorColumnSettings;
+import org.knime.base.node.preproc.groupby.GroupKey;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.append.AppendedColumnRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.sort.BufferedDataTableSorter;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.data.util.memory.MemoryAlertSystem.MemoryActionIndicator;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Hash based pivoting. The input table is read once: the aggregation operators of each group and pivot value
+ * combination are kept in a hash table and the pivot values, i.e. the columns of the pivot table, are collected in the
+ * same pass. Hence neither the input nor an intermediate group table needs to be sorted. If memory runs short the
+ * input is split into hash partitions on the group columns which are written to disk and aggregated one after
+ * another.
+ *
+ * <p>
+ * The groups are returned in order of their first appearance in the input table.
+ * </p>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class HashPivotTable {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(HashPivotTable.class);
+
+    /** Number of partitions created per partitioning level, must be a power of two. */
+    private static final int NR_PARTITIONS = 16;
+
+    private static final int PARTITION_BITS = Integer.numberOfTrailingZeros(NR_PARTITIONS);
+
+    /** Maximum number of partitioning levels, afterwards the partition is processed in memory regardless. */
+    private static final int MAX_DEPTH = 32 / PARTITION_BITS;
+
+    private static final AggregationOperator[] NO_OPERATORS = new AggregationOperator[0];
+
+    /** The aggregation state of a single group. */
+    private static final class Group {
+
+        private final DataCell[] m_groupVals;
+
+        /** Index of the first input row of the group, defines the output order. */
+        private final long m_firstRow;
+
+        /** The operators per pivot and aggregation column, <code>null</code> if the pivot didn't occur. */
+        private AggregationOperator[] m_operators = NO_OPERATORS;
+
+        Group(final DataCell[] groupVals, final long firstRow) {
+            m_groupVals = groupVals;
+            m_firstRow = firstRow;
+        }
+    }
+
+    private final BufferedDataTable m_table;
+
+    private final int[] m_groupIdx;
+
+    private final int[] m_pivotIdx;
+
+    private final ColumnAggregator[] m_aggregators;
+
+    private final int[] m_aggregatorIdx;
+
+    private final GlobalSettings m_globalSettings;
+
+    private final boolean m_ignoreMissing;
+
+    /** The distinct values per pivot column. */
+    private final Set<String>[] m_pivotValues;
+
+    /** The index of each pivot, i.e. combination of pivot values, in order of appearance. */
+    private final Map<GroupKey, Integer> m_pivotIndex = new HashMap<>();
+
+    /** The index of each pivot by its name. */
+    private final Map<String, Integer> m_pivotNameIndex = new HashMap<>();
+
+    /** The names of the pivots by their index. */
+    private final List<String> m_pivotNames = new ArrayList<>();
+
+    private final DataTableSpec m_partitionSpec;
+
+    private final MemoryActionIndicator m_memIndicator = MemoryAlertSystem.getInstance().newIndicator();
+
+    /** The operators of the pivot totals, i.e. the aggregation per pivot over all groups. */
+    private AggregationOperator[] m_totals = NO_OPERATORS;
+
+    /** The groups if the whole table could be aggregated in memory. */
+    private Map<GroupKey, Group> m_groups;
+
+    /** The hash partitions if the table had to be split. */
+    private BufferedDataTable[] m_partitions;
+
+    private long m_skippedCounter = 0;
+
+    private String m_skipMessage;
+
+    /**
+     * @param table the table to pivot, contains only the columns to work with
+     * @param groupCols the names of the group columns
+     * @param pivotCols the names of the pivot columns
+     * @param aggregators the aggregators in the order of the aggregation columns in the pivot table
+     * @param globalSettings the global settings referring to the spec of the given table
+     * @param ignoreMissing <code>true</code> if rows with a missing pivot value should be ignored
+     * @param pivotValues the known values of each pivot column, an element is <code>null</code> if not known
+     */
+    HashPivotTable(final BufferedDataTable table, final List<String> groupCols, final List<String> pivotCols,
+        final ColumnAggregator[] aggregators, final GlobalSettings globalSettings, final boolean ignoreMissing,
+        final Set<String>[] pivotValues) {
+        final DataTableSpec spec = table.getDataTableSpec();
+        m_table = table;
+        m_groupIdx = groupCols.stream().mapToInt(spec::findColumnIndex).toArray();
+        m_pivotIdx = pivotCols.stream().mapToInt(spec::findColumnIndex).toArray();
+        m_aggregators = aggregators;
+        m_aggregatorIdx = new int[aggregators.length];
+        for (int i = 0; i < aggregators.length; i++) {
+            m_aggregatorIdx[i] = spec.findColumnIndex(aggregators[i].getOriginalColName());
+        }
+        m_globalSettings = globalSettings;
+        m_ignoreMissing = ignoreMissing;
+        m_pivotValues = pivotValues;
+        for (int i = 0; i < m_pivotValues.length; i++) {
+            if (m_pivotValues[i] == null) {
+                m_pivotValues[i] = new LinkedHashSet<>();
+            }
+        }
+        final String orderCol = DataTableSpec.getUniqueColumnName(spec, "#pivot_row#");
+        m_partitionSpec =
+            new DataTableSpec(spec, new DataTableSpec(new DataColumnSpecCreator(orderCol, LongCell.TYPE).createSpec()));
+    }
+
+    /**
+     * Reads the input table and aggregates all groups. Afterwards the values of all pivot columns are known.
+     *
+     * @param exec the execution context
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    void aggregate(final ExecutionContext exec) throws CanceledExecutionException {
+        final Map<GroupKey, Group> groups = new LinkedHashMap<>();
+        final double rowCount = Math.max(1, m_table.size());
+        long rowIndex = 0;
+        try (final CloseableRowIterator it = m_table.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                exec.checkCanceled();
+                final int pivot = getPivot(row);
+                if (pivot >= 0) {
+                    m_totals = compute(m_totals, row, pivot);
+                    final long firstRow = rowIndex;
+                    final Group group =
+                        groups.computeIfAbsent(getGroupKey(row), k -> new Group(k.getGroupVals(), firstRow));
+                    group.m_operators = compute(group.m_operators, row, pivot);
+                }
+                rowIndex++;
+                if (m_memIndicator.lowMemoryActionRequired()) {
+                    groups.clear();
+                    // the partitioning reads the table again from the start
+                    m_totals = NO_OPERATORS;
+                    LOGGER.debugWithFormat("Low memory, splitting pivot input into %d partitions", NR_PARTITIONS);
+                    m_partitions = writePartitions(exec.createSubExecutionContext(1), m_table, 0);
+                    return;
+                }
+                exec.setProgress(rowIndex / rowCount);
+            }
+        }
+        m_groups = groups;
+    }
+
+    /**
+     * @return the distinct values of each pivot column, available after {@link #aggregate(ExecutionContext)}
+     */
+    Set<String>[] getPivotValues() {
+        return m_pivotValues;
+    }
+
+    /**
+     * Creates the pivot table holding one row per group.
+     *
+     * @param exec the execution context
+     * @param outSpec the spec of the pivot table
+     * @param pivotStarts the index of the first aggregation column of each pivot in the pivot table
+     * @return the pivot table
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    BufferedDataTable createPivotTable(final ExecutionContext exec, final DataTableSpec outSpec,
+        final Map<String, Integer> pivotStarts) throws CanceledExecutionException {
+        final int[] starts = getStarts(pivotStarts);
+        if (m_partitions == null) {
+            final BufferedDataContainer dc = exec.createDataContainer(outSpec);
+            write(exec, dc, m_groups, starts, false);
+            m_groups = null;
+            dc.close();
+            return dc.getTable();
+        }
+        // the groups of the partitions are written together with their first row index to restore the order
+        final DataTableSpec orderedSpec = new DataTableSpec(outSpec,
+            new DataTableSpec(m_partitionSpec.getColumnSpec(m_partitionSpec.getNumColumns() - 1)));
+        final BufferedDataContainer dc = exec.createDataContainer(orderedSpec);
+        for (int p = 0; p < NR_PARTITIONS; p++) {
+            processPartition(exec.createSubExecutionContext(0.6 / NR_PARTITIONS), dc, m_partitions[p], starts, 1);
+            exec.clearTable(m_partitions[p]);
+        }
+        m_partitions = null;
+        dc.close();
+        exec.setMessage("Restoring group order");
+        final BufferedDataTable unsorted = dc.getTable();
+        final BufferedDataTableSorter sorter = new BufferedDataTableSorter(unsorted,
+            Collections.singleton(orderedSpec.getColumnSpec(orderedSpec.getNumColumns() - 1).getName()),
+            new boolean[]{true});
+        final BufferedDataTable sorted = sorter.sort(exec.createSubExecutionContext(0.3));
+        exec.clearTable(unsorted);
+        final BufferedDataContainer result = exec.createDataContainer(outSpec);
+        final int nrCells = outSpec.getNumColumns();
+        final ExecutionContext copyExec = exec.createSubExecutionContext(0.1);
+        final double rowCount = Math.max(1, sorted.size());
+        try (final CloseableRowIterator it = sorted.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                copyExec.checkCanceled();
+                final DataCell[] cells = new DataCell[nrCells];
+                for (int i = 0; i < nrCells; i++) {
+                    cells[i] = row.getCell(i);
+                }
+                result.addRowToTable(new DefaultRow(RowKey.createRowKey(result.size()), cells));
+                copyExec.setProgress(result.size() / rowCount);
+            }
+        }
+        result.close();
+        exec.clearTable(sorted);
+        return result.getTable();
+    }
+
+    /**
+     * Creates the table holding the pivot totals in a single row whose group columns are missing.
+     *
+     * @param exec the execution context
+     * @param outSpec the spec of the pivot table
+     * @param pivotStarts the index of the first aggregation column of each pivot in the pivot table
+     * @return the pivot totals table which is empty if no row has been aggregated
+     */
+    BufferedDataTable createTotalsTable(final ExecutionContext exec, final DataTableSpec outSpec,
+        final Map<String, Integer> pivotStarts) {
+        final BufferedDataContainer dc = exec.createDataContainer(outSpec);
+        if (m_totals.length > 0) {
+            final Group totals = new Group(new DataCell[m_groupIdx.length], 0);
+            Arrays.fill(totals.m_groupVals, DataType.getMissingCell());
+            totals.m_operators = m_totals;
+            addRow(dc, totals, getStarts(pivotStarts), false);
+        }
+        dc.close();
+        return dc.getTable();
+    }
+
+    /** @return the number of aggregations that have been skipped */
+    long getSkippedCounter() {
+        return m_skippedCounter;
+    }
+
+    /** @return the message of the first skipped aggregation or <code>null</code> if none has been skipped */
+    String getSkipMessage() {
+        return m_skipMessage;
+    }
+
+    private void processPartition(final ExecutionContext exec, final BufferedDataContainer dc,
+        final BufferedDataTable partition, final int[] starts, final int depth) throws CanceledExecutionException {
+        final Map<GroupKey, Group> groups = new LinkedHashMap<>();
+        final int orderIdx = m_partitionSpec.getNumColumns() - 1;
+        final double rowCount = Math.max(1, partition.size());
+        long rowCounter = 0;
+        try (final CloseableRowIterator it = partition.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                exec.checkCanceled();
+                final Group group = groups.computeIfAbsent(getGroupKey(row),
+                    k -> new Group(k.getGroupVals(), ((LongValue)row.getCell(orderIdx)).getLongValue()));
+                group.m_operators = compute(group.m_operators, row, getPivot(row));
+                if (depth < MAX_DEPTH && m_memIndicator.lowMemoryActionRequired()) {
+                    groups.clear();
+                    LOGGER.debugWithFormat("Low memory, splitting pivot partition into %d partitions (level %d)",
+                        NR_PARTITIONS, depth + 1);
+                    final BufferedDataTable[] parts =
+                        writePartitions(exec.createSubExecutionContext(0.3), partition, depth);
+                    for (int p = 0; p < NR_PARTITIONS; p++) {
+                        processPartition(exec.createSubExecutionContext(0.7 / NR_PARTITIONS), dc, parts[p], starts,
+                            depth + 1);
+                        exec.clearTable(parts[p]);
+                    }
+                    return;
+                }
+                exec.setProgress(0.8 * ++rowCounter / rowCount);
+            }
+        }
+        write(exec, dc, groups, starts, true);
+    }
+
+    /**
+     * Splits the given table into {@link #NR_PARTITIONS} hash partitions on the group columns. On the first level the
+     * rows of the input table are extended by their index and the pivot values and totals are collected.
+     */
+    private BufferedDataTable[] writePartitions(final ExecutionContext exec, final BufferedDataTable table,
+        final int depth) throws CanceledExecutionException {
+        final boolean isInput = depth == 0;
+        final BufferedDataContainer[] containers = new BufferedDataContainer[NR_PARTITIONS];
+        for (int p = 0; p < NR_PARTITIONS; p++) {
+            // partitions are spilled right away
+            containers[p] = exec.createDataContainer(m_partitionSpec, false, 0);
+        }
+        final double rowCount = Math.max(1, table.size());
+        long rowIndex = 0;
+        try (final CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                exec.checkCanceled();
+                final long index = rowIndex++;
+                final DataRow partitionRow;
+                if (isInput) {
+                    final int pivot = getPivot(row);
+                    if (pivot < 0) {
+                        continue;
+                    }
+                    m_totals = compute(m_totals, row, pivot);
+                    partitionRow = new AppendedColumnRow(row, new LongCell(index));
+                } else {
+                    partitionRow = row;
+                }
+                containers[getPartition(getGroupKey(row), depth)].addRowToTable(partitionRow);
+                exec.setProgress(rowIndex / rowCount);
+            }
+        }
+        final BufferedDataTable[] tables = new BufferedDataTable[NR_PARTITIONS];
+        for (int p = 0; p < NR_PARTITIONS; p++) {
+            containers[p].close();
+            tables[p] = containers[p].getTable();
+        }
+        return tables;
+    }
+
+    /** Uses a different group of bits of the mixed hash code on each partitioning level. */
+    private static int getPartition(final GroupKey key, final int depth) {
+        final int hash = key.hashCode() * 0x9E3779B9;
+        return (hash >>> (32 - PARTITION_BITS * (depth + 1))) & (NR_PARTITIONS - 1);
+    }
+
+    private void write(final ExecutionContext exec, final BufferedDataContainer dc, final Map<GroupKey, Group> groups,
+        final int[] starts, final boolean withOrder) throws CanceledExecutionException {
+        final double groupCount = Math.max(1, groups.size());
+        long groupCounter = 0;
+        for (final Group group : groups.values()) {
+            exec.checkCanceled();
+            addRow(dc, group, starts, withOrder);
+            exec.setProgress(++groupCounter / groupCount);
+        }
+        groups.clear();
+    }
+
+    private void addRow(final BufferedDataContainer dc, final Group group, final int[] starts,
+        final boolean withOrder) {
+        final DataCell[] cells = new DataCell[dc.getTableSpec().getNumColumns()];
+        System.arraycopy(group.m_groupVals, 0, cells, 0, group.m_groupVals.length);
+        final AggregationOperator[] operators = group.m_operators;
+        final int nrAggregators = m_aggregators.length;
+        for (int i = 0; i < operators.length; i++) {
+            final AggregationOperator operator = operators[i];
+            if (operator != null) {
+                cells[starts[i / nrAggregators] + i % nrAggregators] = operator.getResult();
+                if (operator.isSkipped()) {
+                    m_skippedCounter++;
+                    if (m_skipMessage == null) {
+                        m_skipMessage = operator.getSkipMessage();
+                    }
+                }
+            }
+        }
+        if (withOrder) {
+            cells[cells.length - 1] = new LongCell(group.m_firstRow);
+        }
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == null) {
+                cells[i] = DataType.getMissingCell();
+            }
+        }
+        dc.addRowToTable(new DefaultRow(RowKey.createRowKey(dc.size()), cells));
+    }
+
+    /** @return the column index of the first aggregation column of each pivot by its index */
+    private int[] getStarts(final Map<String, Integer> pivotStarts) {
+        final int[] starts = new int[m_pivotNames.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = pivotStarts.get(m_pivotNames.get(i));
+        }
+        return starts;
+    }
+
+    private GroupKey getGroupKey(final DataRow row) {
+        final DataCell[] groupVals = new DataCell[m_groupIdx.length];
+        for (int i = 0; i < groupVals.length; i++) {
+            groupVals[i] = row.getCell(m_groupIdx[i]);
+        }
+        return new GroupKey(groupVals);
+    }
+
+    /**
+     * Returns the index of the pivot the row belongs to. The pivot values are only converted into a name the first
+     * time a combination of values occurs.
+     *
+     * @return the pivot index or -1 if the row has to be ignored due to a missing pivot value
+     */
+    private int getPivot(final DataRow row) {
+        final DataCell[] cells = new DataCell[m_pivotIdx.length];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = row.getCell(m_pivotIdx[i]);
+        }
+        final GroupKey key = new GroupKey(cells);
+        final Integer pivot = m_pivotIndex.get(key);
+        if (pivot != null) {
+            return pivot;
+        }
+        final int newPivot = registerPivot(cells);
+        m_pivotIndex.put(key, newPivot);
+        return newPivot;
+    }
+
+    private int registerPivot(final DataCell[] cells) {
+        final StringBuilder name = new StringBuilder();
+        boolean ignore = false;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i].isMissing() && m_ignoreMissing) {
+                ignore = true;
+                continue;
+            }
+            final String value = cells[i].toString();
+            m_pivotValues[i].add(value);
+            if (i > 0) {
+                name.append(Pivot2NodeModel.PIVOT_COLUMN_DELIMITER);
+            }
+            name.append(value);
+        }
+        if (ignore) {
+            return -1;
+        }
+        // different cells might share the same string representation, they end up in the same pivot column
+        final String pivotName = name.toString();
+        final Integer existing = m_pivotNameIndex.get(pivotName);
+        if (existing != null) {
+            return existing;
+        }
+        m_pivotNameIndex.put(pivotName, m_pivotNames.size());
+        m_pivotNames.add(pivotName);
+        return m_pivotNames.size() - 1;
+    }
+
+    private AggregationOperator[] compute(final AggregationOperator[] operators, final DataRow row,
+        final int pivot) {
+        final int nrAggregators = m_aggregators.length;
+        final int offset = pivot * nrAggregators;
+        AggregationOperator[] ops = operators;
+        if (ops.length <= offset) {
+            ops = Arrays.copyOf(ops, Math.max(offset + nrAggregators, m_pivotNames.size() * nrAggregators));
+        }
+        for (int i = 0; i < nrAggregators; i++) {
+            AggregationOperator operator = ops[offset + i];
+            if (operator == null) {
+                final ColumnAggregator aggregator = m_aggregators[i];
+                operator = aggregator.getMethodTemplate().createOperator(m_globalSettings,
+                    new OperatorColumnSettings(aggregator.inclMissingCells(), aggregator.getOriginalColSpec()));
+                ops[offset + i] = operator;
+            }
+            operator.compute(row, m_aggregatorIdx[i]);
+        }
+        return ops;
+    }
+}
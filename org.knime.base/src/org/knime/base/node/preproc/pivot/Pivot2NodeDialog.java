@@ -100,6 +100,8 @@ public class Pivot2NodeDialog extends GroupByNodeDialog {
 
     private DialogComponentBoolean m_sortingComponent;
 
+    private DialogComponentBoolean m_hashBasedComponent;
+
     /** Constructor for class Pivot2NodeDialog. */
     @SuppressWarnings("unchecked")
     public Pivot2NodeDialog() {
@@ -199,6 +201,14 @@ protected JComponent createAdvancedOptionsBox() {
         ++c.gridx;
         rootPanel.add(createHiliteDialog().getComponentPanel(), c);
 
+        m_hashBasedComponent =
+            new DialogComponentBoolean(Pivot2NodeModel.createSettingsHashBased(), "Single pass hash pivoting");
+        m_hashBasedComponent.setToolTipText("Aggregates all pivots in a single pass without sorting the input. "
+            + "The groups are returned in order of their first appearance.");
+        c.gridy++;
+        c.gridx = 0;
+        rootPanel.add(m_hashBasedComponent.getComponentPanel(), c);
+
         return rootPanel;
     }
 
@@ -221,6 +231,7 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
         m_domainComponent.loadSettingsFrom(settings, specs);
         m_colNameAggComponent.loadSettingsFrom(settings, specs);
         m_sortingComponent.loadSettingsFrom(settings, specs);
+        m_hashBasedComponent.loadSettingsFrom(settings, specs);
         super.loadSettingsFrom(settings, specs);
     }
 
@@ -239,6 +250,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_domainComponent.saveSettingsTo(settings);
         m_colNameAggComponent.saveSettingsTo(settings);
         m_sortingComponent.saveSettingsTo(settings);
+        m_hashBasedComponent.saveSettingsTo(settings);
     }
 
 }
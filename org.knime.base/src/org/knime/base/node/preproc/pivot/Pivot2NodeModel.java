@@ -60,6 +60,7 @@
 
 import org.knime.base.data.aggregation.AggregationMethods;
 import org.knime.base.data.aggregation.ColumnAggregator;
+import org.knime.base.data.aggregation.GlobalSettings;
 import org.knime.base.data.sort.SortedTable;
 import org.knime.base.node.preproc.groupby.GroupByNodeModel;
 import org.knime.base.node.preproc.groupby.GroupByTable;
@@ -260,6 +261,9 @@ public int compare(final DataRow dr1, final DataRow dr2) {
     /** The lexicographical sort config key. */
     private static final String CFG_LEXICOGRAPHICAL_SORT = "sort_lexicographical";
 
+    /** The hash based pivoting config key. */
+    private static final String CFG_HASH_BASED = "hash_based";
+
     /** Configuration key of the selected group by columns. */
     protected static final String CFG_PIVOT_COLUMNS = "pivotColumns";
 
@@ -271,7 +275,7 @@ public int compare(final DataRow dr1, final DataRow dr2) {
 
     private final SettingsModelBoolean m_ignoreDomain = createSettingsIgnoreDomain();
 
-    private static final String PIVOT_COLUMN_DELIMITER = "_";
+    static final String PIVOT_COLUMN_DELIMITER = "_";
 
     private static final String PIVOT_AGGREGATION_DELIMITER = "+";
 
@@ -281,6 +285,8 @@ public int compare(final DataRow dr1, final DataRow dr2) {
 
     private final SettingsModelBoolean m_sortLexigraphcial = createSettingsLexicographical();
 
+    private final SettingsModelBoolean m_hashBased = createSettingsHashBased();
+
     /** Create a new pivot node model. */
     public Pivot2NodeModel() {
         super(1, 3);
@@ -430,6 +436,9 @@ private List<String> createAllColumns() {
     @Override
     protected PortObject[] execute(final PortObject[] inData, final ExecutionContext exec) throws Exception {
         final BufferedDataTable table = (BufferedDataTable)inData[0];
+        if (m_hashBased.getBooleanValue()) {
+            return executeHashBased(table, exec);
+        }
         final List<String> groupAndPivotCols = createAllColumns();
         final BufferedDataTable groupTable;
         final String orderPivotColumnName;
@@ -602,12 +611,77 @@ public DataCell getCell(final DataRow row) {
             pivotRowsTable = exec.createColumnRearrangeTable(pivotRowsTable, colre2, exec.createSilentSubProgress(0.0));
         }
 
+        return createOutput(exec, table, pivotTable, pivotRowsTable,
+            pivotExec.createSubExecutionContext(progPivotOverallTotals / progPivotTotal), groupExec);
+    }
+
+    /**
+     * Pivots the table in a single pass without sorting, see {@link HashPivotTable}. The groups are returned in order
+     * of their first appearance.
+     */
+    private PortObject[] executeHashBased(final BufferedDataTable table, final ExecutionContext exec)
+        throws Exception {
+        final ExecutionContext pivotExec = exec.createSubExecutionContext(0.6);
+        final ExecutionContext totalsExec = exec.createSubExecutionContext(0.15);
+        final ExecutionContext groupExec = exec.createSubExecutionContext(0.25);
+        final List<String> groupAndPivotCols = createAllColumns();
+        final List<String> pivotCols = m_pivotCols.getIncludeList();
+        final List<String> groupCols = new ArrayList<String>(getGroupByColumns());
+        groupCols.removeAll(pivotCols);
+        final ColumnAggregator[] aggregators = getColumnAggregators().toArray(new ColumnAggregator[0]);
+        final DataTableSpec groupSpec = GroupByTable.createGroupByTableSpec(table.getDataTableSpec(),
+            groupAndPivotCols, aggregators, getColumnNamePolicy());
+
+        // only keep the columns that are needed, this reduces the size of the partitions if memory runs short
+        final GlobalSettings globalSettings =
+            createGlobalSettings(exec, table, groupAndPivotCols, getMaxUniqueValues());
+        final Set<String> workingCols = new LinkedHashSet<String>(groupAndPivotCols);
+        for (final ColumnAggregator aggregator : aggregators) {
+            workingCols.add(aggregator.getOriginalColName());
+            final Collection<String> additionalCols = aggregator.getOperator(globalSettings).getAdditionalColumnNames();
+            if (additionalCols != null) {
+                workingCols.addAll(additionalCols);
+            }
+            aggregator.reset();
+        }
+        final ColumnRearranger rearranger = new ColumnRearranger(table.getDataTableSpec());
+        rearranger.keepOnly(workingCols.toArray(new String[0]));
+        final BufferedDataTable workingTable =
+            exec.createColumnRearrangeTable(table, rearranger, exec.createSilentSubProgress(0));
+
+        final HashPivotTable hashPivot = new HashPivotTable(workingTable, groupCols, pivotCols, aggregators,
+            new GlobalSettings(workingTable.getDataTableSpec(), globalSettings), m_ignoreMissValues.getBooleanValue(),
+            createCombinedPivots(groupSpec, pivotCols));
+        exec.setMessage("Aggregating pivots");
+        hashPivot.aggregate(pivotExec.createSubExecutionContext(0.8));
+        final Map<String, Integer> pivotStarts = new LinkedHashMap<String, Integer>();
+        final DataTableSpec outSpec = createOutSpec(groupSpec, hashPivot.getPivotValues(), pivotStarts, null);
+        exec.setMessage("Filling pivot table");
+        final BufferedDataTable pivotTable =
+            hashPivot.createPivotTable(pivotExec.createSubExecutionContext(0.2), outSpec, pivotStarts);
+        exec.setMessage("Determining pivot totals");
+        final BufferedDataTable pivotRowsTable =
+            hashPivot.createTotalsTable(totalsExec.createSubExecutionContext(0), outSpec, pivotStarts);
+        if (hashPivot.getSkippedCounter() > 0) {
+            setWarningMessage(hashPivot.getSkippedCounter() + " pivot cell(s) skipped: " + hashPivot.getSkipMessage());
+        }
+        return createOutput(exec, table, pivotTable, pivotRowsTable, totalsExec, groupExec);
+    }
+
+    /**
+     * Appends the overall totals to the pivot totals if selected, creates the group totals and sorts the columns of
+     * all tables lexicographically if selected.
+     */
+    private PortObject[] createOutput(final ExecutionContext exec, final BufferedDataTable table,
+        final BufferedDataTable pivots, final BufferedDataTable pivotTotals, final ExecutionContext totalsExec,
+        final ExecutionContext groupExec) throws CanceledExecutionException {
+        BufferedDataTable pivotTable = pivots;
+        BufferedDataTable pivotRowsTable = pivotTotals;
         // total aggregation without grouping
         if (m_totalAggregation.getBooleanValue()) {
             @SuppressWarnings("unchecked")
-            final GroupByTable totalGroup =
-                createGroupByTable(pivotExec.createSubExecutionContext(progPivotOverallTotals / progPivotTotal), table,
-                    Collections.EMPTY_LIST, isProcessInMemory(), isRetainOrder(), getColumnAggregators());
+            final GroupByTable totalGroup = createGroupByTable(totalsExec, table, Collections.EMPTY_LIST,
+                isProcessInMemory(), isRetainOrder(), getColumnAggregators());
             final BufferedDataTable totalGroupTable = totalGroup.getBufferedTable();
 
             final DataTableSpec pivotsRowsSpec = pivotRowsTable.getSpec();
@@ -629,7 +703,6 @@ public DataCell getCell(final DataRow row) {
             buf.close();
             pivotRowsTable = buf.getTable();
         }
-        pivotExec.setProgress(1.0);
 
         /* Fill the 2nd port: important to create this last since it will create
          * the final hilite handler (mapping) for port #1 AND #2 (bug 3270) */
@@ -828,6 +901,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_ignoreDomain.saveSettingsTo(settings);
         m_colAggOption.saveSettingsTo(settings);
         m_sortLexigraphcial.saveSettingsTo(settings);
+        m_hashBased.saveSettingsTo(settings);
     }
 
     /** {@inheritDoc} */
@@ -853,6 +927,9 @@ protected void validateSettings(final NodeSettingsRO settings) throws InvalidSet
         if (settings.containsKey(CFG_LEXICOGRAPHICAL_SORT)) {
             m_sortLexigraphcial.validateSettings(settings);
         }
+        if (settings.containsKey(CFG_HASH_BASED)) {
+            m_hashBased.validateSettings(settings);
+        }
 
         // has to be done after validating the column aggregation option
         // Otherwise it is likely that one of the naming policies throws
@@ -879,6 +956,12 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
         if (settings.containsKey(CFG_LEXICOGRAPHICAL_SORT)) {
             m_sortLexigraphcial.loadSettingsFrom(settings);
         }
+        // ensure backwards compatibility (since KNIME 4.5), old workflows keep the sort based pivoting
+        if (settings.containsKey(CFG_HASH_BASED)) {
+            m_hashBased.loadSettingsFrom(settings);
+        } else {
+            m_hashBased.setBooleanValue(false);
+        }
     }
 
     /** {@inheritDoc} */
@@ -912,6 +995,15 @@ static final SettingsModelBoolean createSettingsLexicographical() {
         return new SettingsModelBoolean(CFG_LEXICOGRAPHICAL_SORT, false);
     }
 
+    /**
+     * Creates the settings model storing the hash based pivoting flag.
+     *
+     * @return the settings model storing the hash based pivoting flag
+     */
+    static final SettingsModelBoolean createSettingsHashBased() {
+        return new SettingsModelBoolean(CFG_HASH_BASED, true);
+    }
+
     /** @return settings model boolean for ignoring missing values */
     static final SettingsModelBoolean createSettingsMissingValues() {
         return new SettingsModelBoolean("missing_values", true);
@@ -0,0 +1,192 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.rank;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.append.AppendedColumnRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.sort.RowComparator;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+
+/**
+ * Ranks only the top n rows of each group. The input is streamed once and a bounded heap of at most n rows is kept per
+ * group, i.e. neither a sort nor a second pass over the input is necessary. Ties at the n-th position are broken by
+ * the position of the rows in the input.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class GroupTopNRanker {
+
+    /** A row together with its position in the input and, once assigned, its rank. */
+    private static final class IndexedRow {
+
+        private final DataRow m_row;
+
+        private final long m_index;
+
+        private long m_rank;
+
+        IndexedRow(final DataRow row, final long index) {
+            m_row = row;
+            m_index = index;
+        }
+    }
+
+    private final int[] m_groupColIndices;
+
+    private final int[] m_rankColIndices;
+
+    private final String m_rankMode;
+
+    private final int m_n;
+
+    /** Initial capacity of the per group heaps, which grow on demand up to n + 1 rows. */
+    private static final int INITIAL_HEAP_CAPACITY = 16;
+
+    /** Orders the rows by their ranking columns, the best row first. */
+    private final Comparator<IndexedRow> m_comparator;
+
+    /**
+     * @param spec the spec of the input table
+     * @param groupColIndices the indices of the grouping columns
+     * @param rankColIndices the indices of the ranking columns
+     * @param ascending the sort order per ranking column
+     * @param rankMode the rank mode
+     * @param n the maximum number of rows per group
+     */
+    GroupTopNRanker(final DataTableSpec spec, final int[] groupColIndices, final int[] rankColIndices,
+        final boolean[] ascending, final String rankMode, final int n) {
+        m_groupColIndices = groupColIndices;
+        m_rankColIndices = rankColIndices;
+        m_rankMode = rankMode;
+        m_n = n;
+        // same order as the BufferedDataTableSorter used for the full ranking
+        final RowComparator rowComparator = new RowComparator(rankColIndices, ascending, false, spec);
+        m_comparator = (r1, r2) -> {
+            final int comp = rowComparator.compare(r1.m_row, r2.m_row);
+            return comp != 0 ? comp : Long.compare(r1.m_index, r2.m_index);
+        };
+    }
+
+    /**
+     * @param table the table to rank
+     * @param outSpec the spec of the output table, i.e. the input spec with the rank column appended
+     * @param rankAsLong <code>true</code> if the rank column is of type long
+     * @param retainRowOrder <code>true</code> if the output rows should be in input order, otherwise the groups are
+     *            output in order of their first appearance and the rows within a group are sorted by rank
+     * @param exec the execution context
+     * @return the top n rows of each group with their rank appended
+     * @throws CanceledExecutionException if the execution has been canceled
+     */
+    BufferedDataTable execute(final BufferedDataTable table, final DataTableSpec outSpec, final boolean rankAsLong,
+        final boolean retainRowOrder, final ExecutionContext exec) throws CanceledExecutionException {
+        final ExecutionContext selectExec = exec.createSubExecutionContext(0.9);
+        final Comparator<IndexedRow> worstFirst = m_comparator.reversed();
+        final Map<DataCellTuple, PriorityQueue<IndexedRow>> groups = new LinkedHashMap<>();
+        final double nrRows = table.size();
+        long index = 0;
+        try (final CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                selectExec.checkCanceled();
+                final DataRow row = it.next();
+                final PriorityQueue<IndexedRow> heap = groups.computeIfAbsent(new DataCellTuple(row, m_groupColIndices),
+                    k -> new PriorityQueue<>(Math.min(m_n, INITIAL_HEAP_CAPACITY) + 1, worstFirst));
+                final IndexedRow candidate = new IndexedRow(row, index);
+                if (heap.size() < m_n) {
+                    heap.add(candidate);
+                } else if (worstFirst.compare(heap.element(), candidate) < 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+                index++;
+                final long rowIdx = index;
+                selectExec.setProgress(rowIdx / nrRows, () -> "Consuming row " + rowIdx + " of " + (long)nrRows);
+            }
+        }
+
+        // assign the ranks per group, the rows of a group are processed in ranking order
+        final List<IndexedRow> result = new ArrayList<>();
+        for (final PriorityQueue<IndexedRow> heap : groups.values()) {
+            final List<IndexedRow> groupRows = new ArrayList<>(heap);
+            groupRows.sort(m_comparator);
+            final RankAssigner rankAssigner = RankCellFactory.createRankAssigner(m_rankMode, m_rankColIndices);
+            for (final IndexedRow r : groupRows) {
+                r.m_rank = rankAssigner.getRank(r.m_row);
+            }
+            result.addAll(groupRows);
+        }
+        if (retainRowOrder) {
+            result.sort(Comparator.comparingLong((IndexedRow r) -> r.m_index));
+        }
+
+        final ExecutionContext writeExec = exec.createSubExecutionContext(0.1);
+        final BufferedDataContainer container = writeExec.createDataContainer(outSpec);
+        final double nrResultRows = result.size();
+        long written = 0;
+        for (final IndexedRow r : result) {
+            writeExec.checkCanceled();
+            final DataCell rankCell = rankAsLong ? new LongCell(r.m_rank) : new IntCell((int)r.m_rank);
+            container.addRowToTable(new AppendedColumnRow(r.m_row, rankCell));
+            writeExec.setProgress(++written / nrResultRows);
+        }
+        container.close();
+        return container.getTable();
+    }
+}
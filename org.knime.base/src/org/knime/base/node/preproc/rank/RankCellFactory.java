@@ -90,35 +90,36 @@ public RankCellFactory(final DataColumnSpec newColSpec, final int[] groupColIndi
      */
     @Override
     public DataCell getCell(final DataRow row) {
+        final long rank = getRank(row);
+        // create RankCell
+        if (m_rankAsLong) {
+            return new LongCell(rank);
+        } else {
+            return new IntCell((int)rank);
+        }
+    }
+
+    /**
+     * Computes the rank of the given row. The rows must be provided sorted by the ranking columns.
+     *
+     * @param row the next row
+     * @return the rank of the row within its group
+     */
+    long getRank(final DataRow row) {
         // create group identification
         DataCellTuple rowVals = new DataCellTuple(row, m_groupColIndices);
         // get RankAssigner for corresponding group
         RankAssigner rankAssigner = m_groupHashTable.get(rowVals);
-        DataCell rankCell = null;
         // check if RankAssigner is registered for group
         if (rankAssigner == null) {
             // create new RankAssigner and register it for this new group
             rankAssigner = createRankAssigner(m_rankMode, m_rankColIndices);
             m_groupHashTable.put(rowVals, rankAssigner);
-
-            // create RankCell
-            if (m_rankAsLong) {
-                rankCell = new LongCell(rankAssigner.getRank(row));
-            } else {
-                rankCell = new IntCell((int)rankAssigner.getRank(row));
-            }
-        } else {
-            // create RankCell
-            if (m_rankAsLong) {
-                rankCell = new LongCell(rankAssigner.getRank(row));
-            } else {
-                rankCell = new IntCell((int) rankAssigner.getRank(row));
-            }
         }
-        return rankCell;
+        return rankAssigner.getRank(row);
     }
 
-    private RankAssigner createRankAssigner(final String rankMode, final int[] rankColIndices) {
+    static RankAssigner createRankAssigner(final String rankMode, final int[] rankColIndices) {
         RankAssigner rankAssigner = null;
 
         // Create corresponding RankAssigner or throw an exception if there is no such mode
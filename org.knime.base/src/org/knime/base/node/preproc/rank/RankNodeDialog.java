@@ -73,9 +73,11 @@
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableColumnModel;
 import javax.swing.table.DefaultTableModel;
@@ -90,6 +92,7 @@
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.NotConfigurableException;
 import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.core.node.defaultnodesettings.SettingsModelStringArray;
 import org.knime.core.node.util.DataColumnSpecListCellRenderer;
@@ -122,12 +125,20 @@ public class RankNodeDialog extends NodeDialogPane {
 
     private final SettingsModelBoolean m_rankAsLong = RankNodeModel.createRankAsLongModel();
 
+    private final SettingsModelBoolean m_topNOnly = RankNodeModel.createTopNOnlyModel();
+
+    private final SettingsModelIntegerBounded m_topN = RankNodeModel.createTopNModel();
+
     private JTextField m_outColNameTextField;
 
     private JCheckBox m_retainOrderCheckBox;
 
     private JCheckBox m_rankAsLongCheckBox;
 
+    private JCheckBox m_topNOnlyCheckBox;
+
+    private JSpinner m_topNSpinner;
+
     private JTable m_rankJTable;
 
     private DefaultTableModel m_rankTableModel;
@@ -253,9 +264,23 @@ private Box initOtherOptionsBox() {
         rankAsLongCheckBox.add(rankAsLongCheckBoxLabel);
         rankAsLongCheckBox.add(m_rankAsLongCheckBox);
 
+        Box topNBox = Box.createHorizontalBox();
+        m_topNOnlyCheckBox = new JCheckBox();
+        JLabel topNLabel = new JLabel("Only Top N per Group");
+        topNLabel.setMaximumSize(labelSize);
+        topNLabel.setMinimumSize(labelSize);
+        topNLabel.setPreferredSize(labelSize);
+        m_topNSpinner = new JSpinner(new SpinnerNumberModel(RankNodeModel.DEFAULT_TOPN, 1, Integer.MAX_VALUE, 1));
+        m_topNSpinner.setMaximumSize(m_topNSpinner.getPreferredSize());
+        m_topNOnlyCheckBox.addItemListener(e -> m_topNSpinner.setEnabled(m_topNOnlyCheckBox.isSelected()));
+        topNBox.add(topNLabel);
+        topNBox.add(m_topNOnlyCheckBox);
+        topNBox.add(m_topNSpinner);
+
         box.add(textBox);
         box.add(checkBox);
         box.add(rankAsLongCheckBox);
+        box.add(topNBox);
 
         return box;
     }
@@ -643,6 +668,9 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
 
         m_rankAsLong.setBooleanValue(m_rankAsLongCheckBox.isSelected());
 
+        m_topNOnly.setBooleanValue(m_topNOnlyCheckBox.isSelected());
+        m_topN.setIntValue((Integer)m_topNSpinner.getValue());
+
         validateSettings(settings);
 
         // save settings models
@@ -653,6 +681,8 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_rankOutColName.saveSettingsTo(settings);
         m_retainRowOrder.saveSettingsTo(settings);
         m_rankAsLong.saveSettingsTo(settings);
+        m_topNOnly.saveSettingsTo(settings);
+        m_topN.saveSettingsTo(settings);
     }
 
     /**
@@ -678,6 +708,10 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final DataTableSp
             m_rankOutColName.loadSettingsFrom(settings);
             m_retainRowOrder.loadSettingsFrom(settings);
             m_rankAsLong.loadSettingsFrom(settings);
+            if (settings.containsKey(m_topNOnly.getKey())) {
+                m_topNOnly.loadSettingsFrom(settings);
+                m_topN.loadSettingsFrom(settings);
+            }
         } catch (InvalidSettingsException e) {
             // TODO Auto-generated catch block
             e.printStackTrace();
@@ -738,6 +772,11 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final DataTableSp
         // set rank as long checkbox
         m_rankAsLongCheckBox.setSelected(m_rankAsLong.getBooleanValue());
 
+        // set top n options
+        m_topNOnlyCheckBox.setSelected(m_topNOnly.getBooleanValue());
+        m_topNSpinner.setValue(m_topN.getIntValue());
+        m_topNSpinner.setEnabled(m_topNOnly.getBooleanValue());
+
     }
 
     private void validateSettings(final NodeSettingsWO settings) throws InvalidSettingsException {
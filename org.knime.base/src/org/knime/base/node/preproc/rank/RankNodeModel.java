@@ -51,6 +51,7 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -60,6 +61,8 @@
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.container.SingleCellFactory;
 import org.knime.core.data.def.IntCell;
@@ -74,6 +77,7 @@
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.core.node.defaultnodesettings.SettingsModelStringArray;
 
@@ -113,6 +117,13 @@ public String toString() {
 
     static final boolean DEFAULT_RANKASLONG = false;
 
+    static final boolean DEFAULT_TOPNONLY = false;
+
+    static final int DEFAULT_TOPN = 10;
+
+    /** Maximum table size for which the ranks are kept in an array when the row order is retained. */
+    private static final long MAX_POSITIONAL_RANKS = Integer.MAX_VALUE - 8;
+
     // available ranking modes
 //    static final String[] AVAILABLE_RANKMODES = new String[]{"Standard", "Dense", "Ordinal"};
 
@@ -131,6 +142,10 @@ public String toString() {
 
     private final SettingsModelBoolean m_rankAsLong = createRankAsLongModel();
 
+    private final SettingsModelBoolean m_topNOnly = createTopNOnlyModel();
+
+    private final SettingsModelIntegerBounded m_topN = createTopNModel();
+
     // static initiators for SettingsModels
     static SettingsModelStringArray createRankColumnsModel() {
         return new SettingsModelStringArray("RankingColumns", new String[]{});
@@ -160,6 +175,14 @@ static SettingsModelBoolean createRankAsLongModel() {
         return new SettingsModelBoolean("RankAsLong", DEFAULT_RANKASLONG);
     }
 
+    static SettingsModelBoolean createTopNOnlyModel() {
+        return new SettingsModelBoolean("TopNOnly", DEFAULT_TOPNONLY);
+    }
+
+    static SettingsModelIntegerBounded createTopNModel() {
+        return new SettingsModelIntegerBounded("TopN", DEFAULT_TOPN, 1, Integer.MAX_VALUE);
+    }
+
     /**
      * Constructor for the node model.
      */
@@ -218,15 +241,52 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
         // get rank mode
         String rankMode = m_rankMode.getStringValue();
 
+        // set boolean array to indicate ascending ranking columns
+        String[] orderRank = m_rankOrder.getStringArrayValue();
+        boolean[] ascRank = new boolean[orderRank.length];
+        for (int i = 0; i < ascRank.length; i++) {
+            ascRank[i] = (orderRank[i].equals("Ascending")) ? true : false;
+        }
+
+        boolean rankAsLong = m_rankAsLong.getBooleanValue();
+
+        if (m_topNOnly.getBooleanValue()) {
+            // single pass, bounded heap per group
+            final GroupTopNRanker ranker =
+                new GroupTopNRanker(inSpec, groupColIndices, rankColIndices, ascRank, rankMode, m_topN.getIntValue());
+            return new BufferedDataTable[]{ranker.execute(table, createOutSpec(inSpec, rankAsLong), rankAsLong,
+                m_retainRowOrder.getBooleanValue(), exec)};
+        }
+
+        if (m_retainRowOrder.getBooleanValue() && table.size() <= MAX_POSITIONAL_RANKS) {
+            return new BufferedDataTable[]{rankRetainingOrder(table, groupCols, rankCols, ascRank, rankMode,
+                rankAsLong, exec)};
+        }
+        return new BufferedDataTable[]{rankSorted(table, groupCols, rankCols, ascRank, rankMode, rankAsLong,
+            m_retainRowOrder.getBooleanValue(), exec)};
+    }
+
+    /**
+     * Ranks the table by sorting it by the ranking columns and, if the row order is retained, sorting it back by the
+     * original row position afterwards.
+     */
+    BufferedDataTable rankSorted(final BufferedDataTable inTable, final List<String> groupCols,
+        final List<String> rankCols, final boolean[] ascRank, final String rankMode, final boolean rankAsLong,
+        final boolean retainRowOrder, final ExecutionContext exec) throws CanceledExecutionException {
+        BufferedDataTable table = inTable;
+        DataTableSpec inSpec = table.getDataTableSpec();
+        final int[] groupColIndices = getIndicesFromColNameList(groupCols, inSpec);
+        final int[] rankColIndices = getIndicesFromColNameList(rankCols, inSpec);
+
         // calculate number of steps
         double numSteps = 2;
-        if (m_retainRowOrder.getBooleanValue()) {
+        if (retainRowOrder) {
             numSteps += 3;
         }
 
         // insert extra column containing the original order of the input table
         final String rowOrder = "rowOrder";
-        if (m_retainRowOrder.getBooleanValue()) {
+        if (retainRowOrder) {
             ColumnRearranger cr = new ColumnRearranger(inSpec);
             DataColumnSpec rowOrderSpec = new DataColumnSpecCreator(rowOrder, LongCell.TYPE).createSpec();
             OrderCellFactory cellFac = new OrderCellFactory(rowOrderSpec);
@@ -235,26 +295,13 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
             inSpec = table.getDataTableSpec();
         }
 
-        // set boolean array to indicate ascending ranking columns
-        String[] orderRank = m_rankOrder.getStringArrayValue();
-        boolean[] ascRank = new boolean[orderRank.length];
-        for (int i = 0; i < ascRank.length; i++) {
-            ascRank[i] = (orderRank[i].equals("Ascending")) ? true : false;
-        }
-
         // sort by rank
         BufferedDataTable sortedTable =
             new BufferedDataTableSorter(table, rankCols, ascRank).sort(exec.createSubExecutionContext(1 / numSteps));
 
         // prepare appending of rank column
         ColumnRearranger columnRearranger = new ColumnRearranger(sortedTable.getDataTableSpec());
-        DataColumnSpec newColSpec = null;
-        boolean rankAsLong = m_rankAsLong.getBooleanValue();
-        if (rankAsLong) {
-            newColSpec = new DataColumnSpecCreator(m_rankOutColName.getStringValue(), LongCell.TYPE).createSpec();
-        } else {
-            newColSpec = new DataColumnSpecCreator(m_rankOutColName.getStringValue(), IntCell.TYPE).createSpec();
-        }
+        DataColumnSpec newColSpec = createRankColSpec(rankAsLong);
 
         int initialHashtableCapacity = 11;
         if (!groupCols.isEmpty()) {
@@ -267,7 +314,7 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
         BufferedDataTable out = exec.createColumnRearrangeTable(sortedTable, columnRearranger,
             exec.createSubExecutionContext(1 / numSteps));
 
-        if (m_retainRowOrder.getBooleanValue()) {
+        if (retainRowOrder) {
             // recover row order
             LinkedList<String> sortBy = new LinkedList<String>();
             sortBy.add(rowOrder);
@@ -279,7 +326,78 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
             out = exec.createColumnRearrangeTable(out, cr, exec.createSubExecutionContext(1 / numSteps));
         }
 
-        return new BufferedDataTable[]{out};
+        return out;
+    }
+
+    /**
+     * Ranks the table while retaining the row order without sorting twice. Only the grouping and ranking columns
+     * (plus the row position) are sorted, the ranks are written into an array indexed by the original row position
+     * which is then appended to the unsorted input in a single pass.
+     */
+    BufferedDataTable rankRetainingOrder(final BufferedDataTable table, final List<String> groupCols,
+        final List<String> rankCols, final boolean[] ascRank, final String rankMode, final boolean rankAsLong,
+        final ExecutionContext exec) throws CanceledExecutionException {
+        final String rowOrder = DataTableSpec.getUniqueColumnName(table.getDataTableSpec(), "rowOrder");
+        // narrow table containing only the columns required for ranking
+        final ColumnRearranger narrowRearranger = new ColumnRearranger(table.getDataTableSpec());
+        final List<String> keep = new ArrayList<>(rankCols);
+        keep.addAll(groupCols);
+        narrowRearranger.keepOnly(keep.toArray(new String[0]));
+        narrowRearranger
+            .append(new OrderCellFactory(new DataColumnSpecCreator(rowOrder, LongCell.TYPE).createSpec()));
+        final BufferedDataTable narrow =
+            exec.createColumnRearrangeTable(table, narrowRearranger, exec.createSubProgress(0.1));
+        final BufferedDataTable sortedNarrow =
+            new BufferedDataTableSorter(narrow, rankCols, ascRank).sort(exec.createSubExecutionContext(0.5));
+        exec.clearTable(narrow);
+
+        final DataTableSpec narrowSpec = sortedNarrow.getDataTableSpec();
+        final int orderIdx = narrowSpec.findColumnIndex(rowOrder);
+        final int nrRows = (int)table.size();
+        // positional rank arrays, int ranks need only half the memory
+        final long[] longRanks = rankAsLong ? new long[nrRows] : null;
+        final int[] intRanks = rankAsLong ? null : new int[nrRows];
+        final DataColumnSpec newColSpec = createRankColSpec(rankAsLong);
+        final RankCellFactory rankFactory =
+            new RankCellFactory(newColSpec, getIndicesFromColNameList(groupCols, narrowSpec),
+                getIndicesFromColNameList(rankCols, narrowSpec), rankMode, rankAsLong, 11);
+        final ExecutionMonitor rankExec = exec.createSubProgress(0.2);
+        long rowIdx = 0;
+        try (CloseableRowIterator it = sortedNarrow.iterator()) {
+            while (it.hasNext()) {
+                rankExec.checkCanceled();
+                final DataRow row = it.next();
+                final int pos = (int)((LongValue)row.getCell(orderIdx)).getLongValue();
+                final long rank = rankFactory.getRank(row);
+                if (rankAsLong) {
+                    longRanks[pos] = rank;
+                } else {
+                    intRanks[pos] = (int)rank;
+                }
+                rankExec.setProgress(++rowIdx / (double)nrRows);
+            }
+        }
+        exec.clearTable(sortedNarrow);
+
+        final ColumnRearranger cr = new ColumnRearranger(table.getDataTableSpec());
+        cr.append(new SingleCellFactory(newColSpec) {
+            private int m_pos = 0;
+
+            @Override
+            public DataCell getCell(final DataRow row) {
+                final int pos = m_pos++;
+                return rankAsLong ? new LongCell(longRanks[pos]) : new IntCell(intRanks[pos]);
+            }
+        });
+        return exec.createColumnRearrangeTable(table, cr, exec.createSubProgress(0.2));
+    }
+
+    private DataColumnSpec createRankColSpec(final boolean rankAsLong) {
+        if (rankAsLong) {
+            return new DataColumnSpecCreator(m_rankOutColName.getStringValue(), LongCell.TYPE).createSpec();
+        } else {
+            return new DataColumnSpecCreator(m_rankOutColName.getStringValue(), IntCell.TYPE).createSpec();
+        }
     }
 
     private int[] getIndicesFromColNameList(final List<String> colNames, final DataTableSpec inSpec) {
@@ -364,6 +482,8 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_rankOutColName.saveSettingsTo(settings);
         m_retainRowOrder.saveSettingsTo(settings);
         m_rankAsLong.saveSettingsTo(settings);
+        m_topNOnly.saveSettingsTo(settings);
+        m_topN.saveSettingsTo(settings);
 
     }
 
@@ -380,6 +500,14 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
         m_rankOutColName.loadSettingsFrom(settings);
         m_retainRowOrder.loadSettingsFrom(settings);
         m_rankAsLong.loadSettingsFrom(settings);
+        // added in 4.5
+        if (settings.containsKey(m_topNOnly.getKey())) {
+            m_topNOnly.loadSettingsFrom(settings);
+            m_topN.loadSettingsFrom(settings);
+        } else {
+            m_topNOnly.setBooleanValue(DEFAULT_TOPNONLY);
+            m_topN.setIntValue(DEFAULT_TOPN);
+        }
 
     }
 
@@ -396,6 +524,10 @@ protected void validateSettings(final NodeSettingsRO settings) throws InvalidSet
         m_rankOutColName.validateSettings(settings);
         m_retainRowOrder.validateSettings(settings);
         m_rankAsLong.validateSettings(settings);
+        if (settings.containsKey(m_topNOnly.getKey())) {
+            m_topNOnly.validateSettings(settings);
+            m_topN.validateSettings(settings);
+        }
     }
 
     /**
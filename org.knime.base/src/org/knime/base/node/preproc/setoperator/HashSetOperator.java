@@ -0,0 +1,427 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.setoperator;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.data.util.memory.MemoryAlertSystem.MemoryActionIndicator;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Hash based execution of a {@link SetOperation}. A hash table is built over the smaller input and the larger input is
+ * streamed against it, hence neither input needs to be sorted. Only the distinct values that can end up in the result
+ * are kept in memory. If memory runs short both inputs are split into hash partitions which are written to disk and
+ * processed one after another.
+ *
+ * <p>
+ * In contrast to the sort based implementation in {@link SetOperationTable} the result is not sorted. The elements of
+ * the smaller input are returned first, in order of their first appearance in that input, followed by the elements
+ * that only occur in the larger input, in order of their first appearance there. If the inputs had to be partitioned,
+ * this order holds within each partition and the partitions are returned one after another.
+ * </p>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class HashSetOperator {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(HashSetOperator.class);
+
+    /** Number of partitions created per partitioning level, must be a power of two. */
+    private static final int NR_PARTITIONS = 16;
+
+    private static final int PARTITION_BITS = Integer.numberOfTrailingZeros(NR_PARTITIONS);
+
+    /** Maximum number of partitioning levels, afterwards the partition is processed in memory regardless. */
+    private static final int MAX_DEPTH = 32 / PARTITION_BITS;
+
+    /** One input of the operation, i.e. a table and the column holding the set elements. */
+    private static final class Input {
+
+        private final BufferedDataTable m_table;
+
+        /** The column index or -1 if the row key is used. */
+        private final int m_colIdx;
+
+        /** <code>true</code> if this is the first set. */
+        private final boolean m_first;
+
+        /** <code>true</code> if the cells are already converted, i.e. the table is a partition. */
+        private final boolean m_converted;
+
+        Input(final BufferedDataTable table, final int colIdx, final boolean first, final boolean converted) {
+            m_table = table;
+            m_colIdx = colIdx;
+            m_first = first;
+            m_converted = converted;
+        }
+    }
+
+    /** The state of a single distinct element. */
+    private static final class Entry {
+
+        private long m_count1;
+
+        private long m_count2;
+
+        /** <code>null</code>, a single {@link RowKey} or a list of row keys of the first set. */
+        private Object m_keys1;
+
+        /** <code>null</code>, a single {@link RowKey} or a list of row keys of the second set. */
+        private Object m_keys2;
+
+        void add(final boolean first, final RowKey key, final boolean trackKeys) {
+            if (first) {
+                m_count1++;
+                if (trackKeys) {
+                    m_keys1 = addKey(m_keys1, key);
+                }
+            } else {
+                m_count2++;
+                if (trackKeys) {
+                    m_keys2 = addKey(m_keys2, key);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Object addKey(final Object keys, final RowKey key) {
+            if (keys == null) {
+                return key;
+            }
+            final List<RowKey> list;
+            if (keys instanceof RowKey) {
+                list = new ArrayList<>(2);
+                list.add((RowKey)keys);
+            } else {
+                list = (List<RowKey>)keys;
+            }
+            list.add(key);
+            return list;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Set<RowKey> toSet(final Object keys) {
+            if (keys instanceof RowKey) {
+                return Collections.singleton((RowKey)keys);
+            }
+            return new RowKeySet(((List<RowKey>)keys).toArray(new RowKey[0]));
+        }
+    }
+
+    /**
+     * Read-only set over the distinct row keys of one element. The keys of a table are unique, hence no hash set is
+     * needed to hold them.
+     */
+    private static final class RowKeySet extends AbstractSet<RowKey> {
+
+        private final RowKey[] m_keys;
+
+        RowKeySet(final RowKey[] keys) {
+            m_keys = keys;
+        }
+
+        @Override
+        public Iterator<RowKey> iterator() {
+            return Arrays.asList(m_keys).iterator();
+        }
+
+        @Override
+        public int size() {
+            return m_keys.length;
+        }
+    }
+
+    private final SetOperation m_op;
+
+    private final boolean m_skipMissing;
+
+    private final boolean m_differentType;
+
+    private final Map<RowKey, Set<RowKey>> m_hiliteMapping0;
+
+    private final Map<RowKey, Set<RowKey>> m_hiliteMapping1;
+
+    private final MemoryActionIndicator m_memIndicator = MemoryAlertSystem.getInstance().newIndicator();
+
+    private long m_rowId = -1;
+
+    private long m_duplicateCounter = 0;
+
+    private long m_missingCounter = 0;
+
+    /**
+     * @param op the operation to perform
+     * @param skipMissing <code>true</code> if missing cells should be skipped
+     * @param differentType <code>true</code> if the set elements are compared by their string representation
+     * @param hiliteMapping0 the map to fill with the hilite mapping of the first set or <code>null</code>
+     * @param hiliteMapping1 the map to fill with the hilite mapping of the second set or <code>null</code>
+     */
+    HashSetOperator(final SetOperation op, final boolean skipMissing, final boolean differentType,
+        final Map<RowKey, Set<RowKey>> hiliteMapping0, final Map<RowKey, Set<RowKey>> hiliteMapping1) {
+        m_op = op;
+        m_skipMissing = skipMissing;
+        m_differentType = differentType;
+        m_hiliteMapping0 = hiliteMapping0;
+        m_hiliteMapping1 = hiliteMapping1;
+    }
+
+    /**
+     * @param exec the execution context
+     * @param resultSpec the spec of the result table
+     * @param table1 the table of the first set
+     * @param col1Idx the column index of the first set or -1 if the row key is used
+     * @param table2 the table of the second set
+     * @param col2Idx the column index of the second set or -1 if the row key is used
+     * @return the result table
+     * @throws CanceledExecutionException if the operation was canceled
+     */
+    BufferedDataTable execute(final ExecutionContext exec, final DataTableSpec resultSpec,
+        final BufferedDataTable table1, final int col1Idx, final BufferedDataTable table2, final int col2Idx)
+        throws CanceledExecutionException {
+        m_rowId = -1;
+        final Input in1 = new Input(table1, col1Idx, true, false);
+        final Input in2 = new Input(table2, col2Idx, false, false);
+        final BufferedDataContainer dc = exec.createDataContainer(resultSpec);
+        try {
+            if (table1.size() <= table2.size()) {
+                process(exec, dc, resultSpec, in1, in2, 0);
+            } else {
+                process(exec, dc, resultSpec, in2, in1, 0);
+            }
+        } finally {
+            dc.close();
+        }
+        return dc.getTable();
+    }
+
+    /** @return the number of duplicates */
+    long getDuplicateCounter() {
+        return m_duplicateCounter;
+    }
+
+    /** @return the number of missing values */
+    long getMissingCounter() {
+        return m_missingCounter;
+    }
+
+    private boolean isTrackKeys() {
+        return m_hiliteMapping0 != null;
+    }
+
+    private void process(final ExecutionContext exec, final BufferedDataContainer dc, final DataTableSpec resultSpec,
+        final Input build, final Input probe, final int depth) throws CanceledExecutionException {
+        final boolean mayPartition = depth < MAX_DEPTH;
+        final long rowCount = Math.max(1, build.m_table.size() + probe.m_table.size());
+        long rowCounter = 0;
+        // build and probe side share one map; the insertion order defines the output order
+        final Map<DataCell, Entry> map = new LinkedHashMap<>();
+        try (final CloseableRowIterator it = build.m_table.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                exec.checkCanceled();
+                map.computeIfAbsent(getKey(row, build), k -> new Entry()).add(build.m_first, row.getKey(),
+                    isTrackKeys());
+                if (mayPartition && m_memIndicator.lowMemoryActionRequired()) {
+                    map.clear();
+                    partition(exec, dc, resultSpec, build, probe, depth);
+                    return;
+                }
+                exec.setProgress(++rowCounter / (double)rowCount);
+            }
+        }
+        // elements that only occur in the probe table are only required if they can be part of the result
+        final boolean keepProbeOnly = probe.m_first ? accept(true, false) : accept(false, true);
+        try (final CloseableRowIterator it = probe.m_table.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                exec.checkCanceled();
+                final DataCell key = getKey(row, probe);
+                Entry entry = map.get(key);
+                if (entry == null && keepProbeOnly) {
+                    entry = new Entry();
+                    map.put(key, entry);
+                }
+                if (entry != null) {
+                    entry.add(probe.m_first, row.getKey(), isTrackKeys());
+                }
+                if (mayPartition && m_memIndicator.lowMemoryActionRequired()) {
+                    map.clear();
+                    partition(exec, dc, resultSpec, build, probe, depth);
+                    return;
+                }
+                exec.setProgress(++rowCounter / (double)rowCount);
+            }
+        }
+        for (final Map.Entry<DataCell, Entry> e : map.entrySet()) {
+            exec.checkCanceled();
+            emit(dc, e.getKey(), e.getValue());
+        }
+    }
+
+    private void emit(final BufferedDataContainer dc, final DataCell key, final Entry entry) {
+        if (!accept(entry.m_count1 > 0, entry.m_count2 > 0)) {
+            return;
+        }
+        if (m_skipMissing && key.isMissing()) {
+            m_missingCounter += entry.m_count1 + entry.m_count2;
+            return;
+        }
+        m_duplicateCounter += entry.m_count1 + entry.m_count2 - 1;
+        final RowKey rowKey = RowKey.createRowKey(++m_rowId);
+        dc.addRowToTable(new DefaultRow(rowKey, key));
+        if (isTrackKeys()) {
+            if (entry.m_keys1 != null) {
+                m_hiliteMapping0.put(rowKey, Entry.toSet(entry.m_keys1));
+            }
+            if (entry.m_keys2 != null) {
+                m_hiliteMapping1.put(rowKey, Entry.toSet(entry.m_keys2));
+            }
+        }
+    }
+
+    /**
+     * Splits both inputs into {@link #NR_PARTITIONS} hash partitions each and processes the partition pairs one after
+     * another.
+     */
+    private void partition(final ExecutionContext exec, final BufferedDataContainer dc,
+        final DataTableSpec resultSpec, final Input build, final Input probe, final int depth)
+        throws CanceledExecutionException {
+        LOGGER.debugWithFormat("Low memory, splitting set operation input into %d partitions (level %d)",
+            NR_PARTITIONS, depth + 1);
+        final ExecutionContext buildExec = exec.createSubExecutionContext(0.25);
+        final ExecutionContext probeExec = exec.createSubExecutionContext(0.25);
+        final BufferedDataTable[] buildParts = writePartitions(buildExec, resultSpec, build, depth);
+        final BufferedDataTable[] probeParts = writePartitions(probeExec, resultSpec, probe, depth);
+        for (int p = 0; p < NR_PARTITIONS; p++) {
+            final ExecutionContext partExec = exec.createSubExecutionContext(0.5 / NR_PARTITIONS);
+            process(partExec, dc, resultSpec, new Input(buildParts[p], 0, build.m_first, true),
+                new Input(probeParts[p], 0, probe.m_first, true), depth + 1);
+            exec.clearTable(buildParts[p]);
+            exec.clearTable(probeParts[p]);
+        }
+    }
+
+    private BufferedDataTable[] writePartitions(final ExecutionContext exec, final DataTableSpec resultSpec,
+        final Input input, final int depth) throws CanceledExecutionException {
+        final BufferedDataContainer[] containers = new BufferedDataContainer[NR_PARTITIONS];
+        for (int p = 0; p < NR_PARTITIONS; p++) {
+            // partitions are spilled right away
+            containers[p] = exec.createDataContainer(resultSpec, false, 0);
+        }
+        final double rowCount = Math.max(1, input.m_table.size());
+        long rowCounter = 0;
+        try (final CloseableRowIterator it = input.m_table.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                exec.checkCanceled();
+                final DataCell key = getKey(row, input);
+                containers[getPartition(key, depth)].addRowToTable(new DefaultRow(row.getKey(), key));
+                exec.setProgress(++rowCounter / rowCount);
+            }
+        }
+        final BufferedDataTable[] tables = new BufferedDataTable[NR_PARTITIONS];
+        for (int p = 0; p < NR_PARTITIONS; p++) {
+            containers[p].close();
+            tables[p] = containers[p].getTable();
+        }
+        return tables;
+    }
+
+    /** Uses a different group of bits of the mixed hash code on each partitioning level. */
+    private static int getPartition(final DataCell key, final int depth) {
+        final int hash = key.hashCode() * 0x9E3779B9;
+        return (hash >>> (32 - PARTITION_BITS * (depth + 1))) & (NR_PARTITIONS - 1);
+    }
+
+    private DataCell getKey(final DataRow row, final Input input) {
+        if (input.m_converted) {
+            return row.getCell(0);
+        }
+        final DataCell cell;
+        if (input.m_colIdx < 0) {
+            cell = new StringCell(row.getKey().getString());
+        } else {
+            cell = row.getCell(input.m_colIdx);
+        }
+        // same conversion as in SetOperation#compute
+        return m_differentType ? new StringCell(cell.toString()) : cell;
+    }
+
+    private boolean accept(final boolean inFirst, final boolean inSecond) {
+        switch (m_op) {
+            case AND:
+                return inFirst && inSecond;
+            case OR:
+                return inFirst || inSecond;
+            case MINUS:
+                return inFirst && !inSecond;
+            case XOR:
+                return inFirst ^ inSecond;
+            default:
+                throw new IllegalStateException("Operation " + m_op.getName() + " not implemented");
+        }
+    }
+}
@@ -229,6 +229,56 @@ public SetOperationTable(final ExecutionContext exec,
             final String col2, final BufferedDataTable table2,
             final SetOperation op, final boolean enableHilite,
             final boolean skipMissing, final boolean sortInMemory)
+    throws CanceledExecutionException, Exception {
+        this(exec, useRowID1, col1, table1, useRowID2, col2, table2, op, enableHilite, skipMissing, sortInMemory,
+            false);
+    }
+
+    /**Creates a set operation table that uses hashing instead of sorting.
+     * A hash table is built over the smaller input table and the larger
+     * one is streamed against it. If memory runs short both inputs are
+     * partitioned to disk. The elements of the result set are not sorted.
+     * Elements of the smaller (build side) table come first in the order of
+     * their first appearance in that table, followed by the elements that
+     * only occur in the larger (probe side) table in the order of their first
+     * appearance there. If the inputs had to be partitioned this order holds
+     * per partition.
+     * @param exec the {@link ExecutionContext}
+     * @param useRowID1 <code>true</code> if the row id should be used instead
+     * of a column
+     * @param col1 the column name of the first set
+     * @param table1 the table of the first set
+     * @param useRowID2 <code>true</code> if the row id should be used instead
+     * of a column
+     * @param col2 the column name of the second set
+     * @param table2 the table of the second set
+     * @param op the {@link SetOperation} to perform
+     * @param enableHilite <code>true</code> if hilite translation should
+     * be performed
+     * @param skipMissing <code>true</code> if missing cells should be skipped
+     * @return the set operation table
+     * @throws CanceledExecutionException if the operation was canceled
+     * @throws Exception if the operation failed
+     * @since 4.5
+     */
+    public static SetOperationTable createHashBased(final ExecutionContext exec,
+            final boolean useRowID1, final String col1,
+            final BufferedDataTable table1, final boolean useRowID2,
+            final String col2, final BufferedDataTable table2,
+            final SetOperation op, final boolean enableHilite,
+            final boolean skipMissing)
+    throws CanceledExecutionException, Exception {
+        return new SetOperationTable(exec, useRowID1, col1, table1, useRowID2, col2, table2, op, enableHilite,
+            skipMissing, false, true);
+    }
+
+    private SetOperationTable(final ExecutionContext exec,
+            final boolean useRowID1, final String col1,
+            final BufferedDataTable table1, final boolean useRowID2,
+            final String col2, final BufferedDataTable table2,
+            final SetOperation op, final boolean enableHilite,
+            final boolean skipMissing, final boolean sortInMemory,
+            final boolean hashBased)
     throws CanceledExecutionException, Exception {
         if (exec == null) {
             throw new NullPointerException("exec must not be null");
@@ -297,6 +347,20 @@ public SetOperationTable(final ExecutionContext exec,
         }
 
         m_skipMisssing = skipMissing;
+        if (hashBased) {
+            final boolean differentType = useRowID1 || useRowID2
+                    || !col1Spec.getType().equals(col2Spec.getType());
+            exec.setMessage("Performing set operation");
+            final HashSetOperator hashOperator = new HashSetOperator(op,
+                    skipMissing, differentType, m_hiliteMapping0,
+                    m_hiliteMapping1);
+            m_resultTable = hashOperator.execute(exec,
+                    createResultTableSpec(op, col1Spec, col2Spec), table1,
+                    col1Idx, table2, col2Idx);
+            m_duplicateCounter = hashOperator.getDuplicateCounter();
+            m_missingCounter = hashOperator.getMissingCounter();
+            return;
+        }
         final DataValueComparator comp;
         if (useRowID1 || useRowID2) {
             comp = GeneralDataValueComparator.getInstance();
@@ -101,11 +101,15 @@ public SetOperatorNodeDialog() {
                 m_enableHilite, "Enable hiliting");
         final DialogComponent skipMissing = new DialogComponentBoolean(
                 m_skipMissing, "Skip missing values");
+        final DialogComponent hashBased = new DialogComponentBoolean(
+                SetOperatorNodeModel.createHashBasedModel(),
+                "Use hashing (unsorted result)");
         addDialogComponent(col1);
         addDialogComponent(ops);
         addDialogComponent(col2);
         setHorizontalPlacement(true);
         addDialogComponent(enableHilite);
         addDialogComponent(skipMissing);
+        addDialogComponent(hashBased);
     }
 }
@@ -91,6 +91,9 @@ public class SetOperatorNodeModel extends NodeModel {
     protected static final String CFG_SKIP_MISSING = "skipMissing";
     /**Configuration key for the enable hilite option.*/
     protected static final String CFG_ENABLE_HILITE = "enableHilite";
+    /**Configuration key for the hash based execution option.
+     * @since 4.5*/
+    protected static final String CFG_HASH_BASED = "hashBased";
 
     private final SettingsModelColumnName m_col1 =
         new SettingsModelColumnName(SetOperatorNodeModel.CFG_COL1, null);
@@ -104,6 +107,8 @@ public class SetOperatorNodeModel extends NodeModel {
 
     private final SettingsModelBoolean m_skipMissing;
 
+    private final SettingsModelBoolean m_hashBased = createHashBasedModel();
+
     private static final String HILITE_MAPPING0 = "hilite_mapping0.xml.gz";
     private static final String HILITE_MAPPING1 = "hilite_mapping1.xml.gz";
 
@@ -122,6 +127,14 @@ protected SetOperatorNodeModel() {
         m_skipMissing = new SettingsModelBoolean(CFG_SKIP_MISSING, true);
     }
 
+    /**
+     * @return the settings model for the hash based execution option
+     * @since 4.5
+     */
+    static SettingsModelBoolean createHashBasedModel() {
+        return new SettingsModelBoolean(CFG_HASH_BASED, true);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -156,6 +169,12 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings)
         m_setOp.loadSettingsFrom(settings);
         m_skipMissing.loadSettingsFrom(settings);
         m_enableHilite.loadSettingsFrom(settings);
+        try {
+            m_hashBased.loadSettingsFrom(settings);
+        } catch (final InvalidSettingsException e) {
+            // option added in 4.5, keep the sorted result for old workflows
+            m_hashBased.setBooleanValue(false);
+        }
     }
 
     /**
@@ -168,6 +187,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_setOp.saveSettingsTo(settings);
         m_skipMissing.saveSettingsTo(settings);
         m_enableHilite.saveSettingsTo(settings);
+        m_hashBased.saveSettingsTo(settings);
     }
 
     /**
@@ -248,10 +268,18 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData,
 
         final SetOperation op =
             SetOperation.getOperation4Name(m_setOp.getStringValue());
-        final SetOperationTable table = new SetOperationTable(exec,
+        final SetOperationTable table;
+        if (m_hashBased.getBooleanValue()) {
+            table = SetOperationTable.createHashBased(exec,
                 m_col1.useRowID(), m_col1.getColumnName(), inData[0],
                 m_col2.useRowID(), m_col2.getColumnName(), inData[1],
                 op, m_enableHilite.getBooleanValue(), m_skipMissing.getBooleanValue());
+        } else {
+            table = new SetOperationTable(exec,
+                m_col1.useRowID(), m_col1.getColumnName(), inData[0],
+                m_col2.useRowID(), m_col2.getColumnName(), inData[1],
+                op, m_enableHilite.getBooleanValue(), m_skipMissing.getBooleanValue());
+        }
         if (m_enableHilite.getBooleanValue()) {
             m_trans0.setMapper(
                     new DefaultHiLiteMapper(table.getHiliteMapping0()));
@@ -0,0 +1,329 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.stringreplacer.dict;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Replaces all occurrences of a (possibly very large) set of search strings in a single scan over the input using an
+ * Aho-Corasick automaton. Overlapping matches are resolved with leftmost-longest semantics: of all matches the one
+ * starting first is chosen and of those starting at the same position the longest one; scanning then continues after
+ * the end of the replaced match.
+ *
+ * <p>
+ * The automaton is immutable once created and can be used concurrently.
+ * </p>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class AhoCorasickReplacer {
+
+    private static final int ROOT = 0;
+
+    private static final int NO_NODE = -1;
+
+    private final boolean m_caseSensitive;
+
+    /** The replacement per pattern index. */
+    private final String[] m_replacements;
+
+    /** The length of each pattern. */
+    private final int[] m_patternLength;
+
+    /** Failure link per node. */
+    private final int[] m_fail;
+
+    /** Depth of each node, i.e. the length of the prefix it represents. */
+    private final int[] m_depth;
+
+    /** Index of the longest pattern that is a suffix of the node's prefix (or -1). */
+    private final int[] m_output;
+
+    /** Open addressing hash table mapping (node, character) to the child node. */
+    private final long[] m_edgeKeys;
+
+    private final int[] m_edgeTargets;
+
+    private final int m_edgeMask;
+
+    /**
+     * Builds the automaton.
+     *
+     * @param dictionary maps the search strings to their replacement, empty search strings are ignored; if case
+     *            folding maps several search strings to the same one, the replacement of the one that comes last in the
+     *            iteration order of the map is used
+     * @param caseSensitive <code>false</code> if search strings should be matched ignoring the case
+     */
+    AhoCorasickReplacer(final Map<String, String> dictionary, final boolean caseSensitive) {
+        m_caseSensitive = caseSensitive;
+        final Builder builder = new Builder();
+        m_replacements = new String[dictionary.size()];
+        m_patternLength = new int[dictionary.size()];
+        int patternIdx = 0;
+        for (final Map.Entry<String, String> e : dictionary.entrySet()) {
+            final String key = e.getKey();
+            if (key.isEmpty()) {
+                continue;
+            }
+            int node = ROOT;
+            for (int i = 0; i < key.length(); i++) {
+                node = builder.child(node, fold(key.charAt(i)));
+            }
+            final int existing = builder.m_terminal[node];
+            if (existing >= 0) {
+                // case folding might map several keys to the same node, the last one in iteration order wins
+                m_replacements[existing] = e.getValue();
+            } else {
+                builder.m_terminal[node] = patternIdx;
+                m_replacements[patternIdx] = e.getValue();
+                m_patternLength[patternIdx] = key.length();
+                patternIdx++;
+            }
+        }
+        final int nrNodes = builder.m_nrNodes;
+        m_depth = Arrays.copyOf(builder.m_depth, nrNodes);
+        m_fail = new int[nrNodes];
+        m_output = new int[nrNodes];
+        // the edge table is sized to keep the load factor at or below 0.5
+        final int capacity = Integer.highestOneBit(Math.max(2, nrNodes) * 2 - 1) << 1;
+        m_edgeMask = capacity - 1;
+        m_edgeKeys = new long[capacity];
+        Arrays.fill(m_edgeKeys, -1L);
+        m_edgeTargets = new int[capacity];
+        for (int node = 1; node < nrNodes; node++) {
+            putEdge(builder.m_parent[node], builder.m_label[node], node);
+        }
+        computeFailureLinks(builder, nrNodes);
+    }
+
+    /** Breadth-first computation of the failure links and the output function. */
+    private void computeFailureLinks(final Builder builder, final int nrNodes) {
+        final int[] queue = new int[nrNodes];
+        int head = 0;
+        int tail = 0;
+        m_fail[ROOT] = ROOT;
+        m_output[ROOT] = NO_NODE;
+        for (int child = builder.m_firstChild[ROOT]; child != NO_NODE; child = builder.m_nextSibling[child]) {
+            m_fail[child] = ROOT;
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            final int node = queue[head++];
+            final int terminal = builder.m_terminal[node];
+            m_output[node] = terminal >= 0 ? terminal : m_output[m_fail[node]];
+            for (int child = builder.m_firstChild[node]; child != NO_NODE; child = builder.m_nextSibling[child]) {
+                final char c = builder.m_label[child];
+                int f = m_fail[node];
+                int target = getEdge(f, c);
+                while (target == NO_NODE && f != ROOT) {
+                    f = m_fail[f];
+                    target = getEdge(f, c);
+                }
+                m_fail[child] = target == NO_NODE ? ROOT : target;
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * Replaces all matches in the given string.
+     *
+     * @param text the text to scan
+     * @return the text with all matches replaced, the argument itself if nothing matched
+     */
+    String replace(final String text) {
+        StringBuilder result = null;
+        // the text between copyFrom and the current match is copied unchanged
+        int copyFrom = 0;
+        int state = ROOT;
+        int candStart = -1;
+        int candPattern = NO_NODE;
+        final int length = text.length();
+        int i = 0;
+        while (i < length || candPattern != NO_NODE) {
+            if (i < length) {
+                state = next(state, fold(text.charAt(i)));
+                final int pattern = m_output[state];
+                if (pattern >= 0) {
+                    final int start = i - m_patternLength[pattern] + 1;
+                    // a match ending here that starts at the same position as the candidate is longer
+                    if (candPattern == NO_NODE || start <= candStart) {
+                        candStart = start;
+                        candPattern = pattern;
+                    }
+                }
+                i++;
+            }
+            // no match that is yet to be found can start at or before the candidate
+            if (candPattern != NO_NODE && (i == length || i - m_depth[state] > candStart)) {
+                if (result == null) {
+                    result = new StringBuilder(length + 16);
+                }
+                result.append(text, copyFrom, candStart).append(m_replacements[candPattern]);
+                copyFrom = candStart + m_patternLength[candPattern];
+                // continue right after the match, the characters scanned ahead are scanned again
+                i = copyFrom;
+                state = ROOT;
+                candPattern = NO_NODE;
+            }
+        }
+        if (result == null) {
+            return text;
+        }
+        return result.append(text, copyFrom, length).toString();
+    }
+
+    private int next(final int state, final char c) {
+        int s = state;
+        while (true) {
+            final int target = getEdge(s, c);
+            if (target != NO_NODE) {
+                return target;
+            }
+            if (s == ROOT) {
+                return ROOT;
+            }
+            s = m_fail[s];
+        }
+    }
+
+    private char fold(final char c) {
+        return m_caseSensitive ? c : Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static long edgeKey(final int node, final char c) {
+        return ((long)node << 16) | c;
+    }
+
+    private static int slot(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32));
+    }
+
+    private void putEdge(final int node, final char c, final int target) {
+        final long key = edgeKey(node, c);
+        int idx = slot(key) & m_edgeMask;
+        while (m_edgeKeys[idx] != -1L) {
+            idx = (idx + 1) & m_edgeMask;
+        }
+        m_edgeKeys[idx] = key;
+        m_edgeTargets[idx] = target;
+    }
+
+    private int getEdge(final int node, final char c) {
+        final long key = edgeKey(node, c);
+        int idx = slot(key) & m_edgeMask;
+        long k;
+        while ((k = m_edgeKeys[idx]) != -1L) {
+            if (k == key) {
+                return m_edgeTargets[idx];
+            }
+            idx = (idx + 1) & m_edgeMask;
+        }
+        return NO_NODE;
+    }
+
+    /** Growable trie used while building the automaton. */
+    private static final class Builder {
+
+        private int m_nrNodes = 1;
+
+        private int[] m_parent = new int[64];
+
+        private char[] m_label = new char[64];
+
+        private int[] m_depth = new int[64];
+
+        private int[] m_firstChild = filled(64);
+
+        private int[] m_nextSibling = filled(64);
+
+        private int[] m_terminal = filled(64);
+
+        /** Returns the child of the given node with the given label, creates it if necessary. */
+        int child(final int node, final char c) {
+            for (int child = m_firstChild[node]; child != NO_NODE; child = m_nextSibling[child]) {
+                if (m_label[child] == c) {
+                    return child;
+                }
+            }
+            if (m_nrNodes == m_parent.length) {
+                grow();
+            }
+            final int child = m_nrNodes++;
+            m_parent[child] = node;
+            m_label[child] = c;
+            m_depth[child] = m_depth[node] + 1;
+            m_nextSibling[child] = m_firstChild[node];
+            m_firstChild[node] = child;
+            return child;
+        }
+
+        private void grow() {
+            final int newLength = m_parent.length * 2;
+            m_parent = Arrays.copyOf(m_parent, newLength);
+            m_label = Arrays.copyOf(m_label, newLength);
+            m_depth = Arrays.copyOf(m_depth, newLength);
+            m_firstChild = grow(m_firstChild, newLength);
+            m_nextSibling = grow(m_nextSibling, newLength);
+            m_terminal = grow(m_terminal, newLength);
+        }
+
+        private static int[] grow(final int[] array, final int newLength) {
+            final int oldLength = array.length;
+            final int[] result = Arrays.copyOf(array, newLength);
+            Arrays.fill(result, oldLength, newLength, NO_NODE);
+            return result;
+        }
+
+        private static int[] filled(final int length) {
+            final int[] result = new int[length];
+            Arrays.fill(result, NO_NODE);
+            return result;
+        }
+    }
+}
@@ -54,6 +54,8 @@
 import java.net.MalformedURLException;
 import java.nio.file.InvalidPathException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.StringTokenizer;
 
 import org.knime.core.data.DataCell;
@@ -97,6 +99,12 @@ final class SearchReplaceDictNodeModel extends SimpleStreamableFunctionNodeModel
     /** Config key for delimiter in dictionary. */
     static final String CFG_DELIMITER_IN_DICT = "delimiter_in_dict";
 
+    /** Config key for replacing substrings rather than the whole cell content (added in 4.5). */
+    static final String CFG_MATCH_SUBSTRINGS = "match_substrings";
+
+    /** Config key for case sensitive matching (added in 4.5). */
+    static final String CFG_CASE_SENSITIVE = "case_sensitive";
+
     private String m_dictFileURLString;
 
     private String m_targetColumnName;
@@ -105,9 +113,16 @@ final class SearchReplaceDictNodeModel extends SimpleStreamableFunctionNodeModel
 
     private char m_delimInDictCharacter;
 
+    private boolean m_matchSubstrings = false;
+
+    private boolean m_caseSensitive = true;
+
     /** temporarily used during execute. */
     private HashMap<String, String> m_replacementMap;
 
+    /** temporarily used during execute if substrings are replaced. */
+    private AhoCorasickReplacer m_substringReplacer;
+
     /** One input, one output. */
     public SearchReplaceDictNodeModel() {
     }
@@ -145,12 +160,13 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
         throws Exception {
         exec.setMessage("Reading dictionary");
         ExecutionMonitor subExec = exec.createSubProgress(0.2);
-        m_replacementMap = readDictionary(subExec);
+        initReplacement(readDictionary(subExec));
         exec.setMessage("Searching & Replacing");
         DataTableSpec spec = inData[0].getDataTableSpec();
         ColumnRearranger rearranger = createColumnRearranger(spec);
         BufferedDataTable result = exec.createColumnRearrangeTable(inData[0], rearranger, exec.createSubProgress(0.8));
         m_replacementMap = null;
+        m_substringReplacer = null;
         return new BufferedDataTable[]{result};
     }
 
@@ -161,13 +177,24 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
     public StreamableFunction createStreamableOperator(final PartitionInfo partitionInfo, final PortObjectSpec[] inSpecs)
         throws InvalidSettingsException {
         try {
-            m_replacementMap = readDictionary(null);
+            initReplacement(readDictionary(null));
         } catch (IOException e) {
             throw new InvalidSettingsException("Can't read dictionary file.", e);
         }
         return createColumnRearranger((DataTableSpec) inSpecs[0]).createStreamableFunction();
     }
 
+    /** Sets up the whole cell lookup or, if substrings are replaced, builds the automaton (once per execution). */
+    private void initReplacement(final HashMap<String, String> dictionary) {
+        if (m_matchSubstrings) {
+            m_substringReplacer = new AhoCorasickReplacer(dictionary, m_caseSensitive);
+            m_replacementMap = null;
+        } else {
+            m_substringReplacer = null;
+            m_replacementMap = dictionary;
+        }
+    }
+
 
 
     @Override
@@ -191,7 +218,10 @@ public DataCell getCell(final DataRow row) {
                     return c;
                 }
                 String cellContent = c.toString();
-                String replacement = m_replacementMap.get(cellContent);
+                if (m_substringReplacer != null) {
+                    return new StringCell(m_substringReplacer.replace(cellContent));
+                }
+                String replacement = m_replacementMap.get(m_caseSensitive ? cellContent : toLowerCase(cellContent));
                 if (replacement != null) {
                     return new StringCell(replacement);
                 } else {
@@ -213,7 +243,8 @@ public DataCell getCell(final DataRow row) {
     private HashMap<String, String> readDictionary(final ExecutionMonitor exec) throws IOException {
         File f = FileUtil.getFileFromURL(FileUtil.toURL(m_dictFileURLString));
         BufferedReader reader = new BufferedReader(new FileReader(f));
-        HashMap<String, String> result = new HashMap<String, String>();
+        // keeps the order of the file, the substring automaton relies on it if case folding merges keys
+        HashMap<String, String> result = new LinkedHashMap<String, String>();
         String line;
         final double size = f.length();
         long prog = 0;
@@ -226,7 +257,8 @@ private HashMap<String, String> readDictionary(final ExecutionMonitor exec) thro
                 String value = trimIfNecessary(tokenizer.nextToken());
                 while (tokenizer.hasMoreTokens()) {
                     String key = trimIfNecessary(tokenizer.nextToken());
-                    result.put(key, value);
+                    // the substring automaton takes care of the case folding itself
+                    result.put(m_caseSensitive || m_matchSubstrings ? key : toLowerCase(key), value);
                 }
                 // ignores line breaks and such, hope it's ok
                 prog += line.length();
@@ -240,6 +272,10 @@ private HashMap<String, String> readDictionary(final ExecutionMonitor exec) thro
         return result;
     }
 
+    private static String toLowerCase(final String arg) {
+        return arg.toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Removes leading and trailing white spaces. If the argument consists only of white spaces, it will be returned
      * as-is.
@@ -266,12 +302,16 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
         m_newColumnName = settings.getString(CFG_APPEND_COLUMN);
         m_dictFileURLString = settings.getString(CFG_DICT_LOCATION);
         m_delimInDictCharacter = settings.getChar(CFG_DELIMITER_IN_DICT);
+        // added in 4.5
+        m_matchSubstrings = settings.getBoolean(CFG_MATCH_SUBSTRINGS, false);
+        m_caseSensitive = settings.getBoolean(CFG_CASE_SENSITIVE, true);
     }
 
     /** {@inheritDoc} */
     @Override
     protected void reset() {
         m_replacementMap = null;
+        m_substringReplacer = null;
     }
 
     /** {@inheritDoc} */
@@ -289,6 +329,8 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
             settings.addString(CFG_APPEND_COLUMN, m_newColumnName);
             settings.addString(CFG_DICT_LOCATION, m_dictFileURLString);
             settings.addChar(CFG_DELIMITER_IN_DICT, m_delimInDictCharacter);
+            settings.addBoolean(CFG_MATCH_SUBSTRINGS, m_matchSubstrings);
+            settings.addBoolean(CFG_CASE_SENSITIVE, m_caseSensitive);
         }
 
     }
@@ -0,0 +1,344 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.base.node.preproc.transpose;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.util.CheckUtils;
+
+/**
+ * Transposes a table by reading the input exactly once. The input is consumed in horizontal tiles of
+ * <code>tileHeight</code> rows which are kept in memory, transposed and spilled to a temporary table (one row per
+ * input column). Once the input is consumed all tiles are read back in lock-step, i.e. column-major, and concatenated
+ * into the output rows. If there are many tiles, they are first merged in several passes so that only a bounded number
+ * of tiles is read at the same time. The tile height is derived from a memory budget rather than a fixed number
+ * of columns.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TiledTableTransposer {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(TiledTableTransposer.class);
+
+    /** Rough estimate of the heap occupied by a single cell including its reference in the tile. */
+    static final int ESTIMATED_BYTES_PER_CELL = 64;
+
+    /** The default maximal number of tiles that are read at the same time. */
+    static final int MAX_OPEN_TILES = 64;
+
+    private final long m_memoryBudgetBytes;
+
+    private final int m_maxOpenTiles;
+
+    /**
+     * @param memoryBudgetMB the memory (in MB) that may be used to buffer a single tile
+     */
+    TiledTableTransposer(final int memoryBudgetMB) {
+        this(checkBudget(memoryBudgetMB) * 1024L * 1024L, MAX_OPEN_TILES);
+    }
+
+    /**
+     * @param memoryBudgetBytes the memory (in bytes) that may be used to buffer a single tile
+     * @param maxOpenTiles the maximal number of tiles that are read at the same time, at least 2
+     */
+    TiledTableTransposer(final long memoryBudgetBytes, final int maxOpenTiles) {
+        CheckUtils.checkArgument(maxOpenTiles > 1, "At least two tiles must be readable at once: %d", maxOpenTiles);
+        m_memoryBudgetBytes = memoryBudgetBytes;
+        m_maxOpenTiles = maxOpenTiles;
+    }
+
+    private static int checkBudget(final int memoryBudgetMB) {
+        CheckUtils.checkArgument(memoryBudgetMB > 0, "The memory budget must be positive: %d", memoryBudgetMB);
+        return memoryBudgetMB;
+    }
+
+    /**
+     * Computes the number of input rows that are buffered per tile.
+     *
+     * @param nrInputColumns the number of columns in the input table
+     * @return the tile height, at least 1
+     */
+    int getTileHeight(final int nrInputColumns) {
+        final long cellsPerRow = Math.max(1, nrInputColumns);
+        final long height = m_memoryBudgetBytes / (ESTIMATED_BYTES_PER_CELL * cellsPerRow);
+        return (int)Math.max(1, Math.min(Integer.MAX_VALUE - 8, height));
+    }
+
+    /**
+     * Transposes the given non-empty table.
+     *
+     * @param table the table to transpose
+     * @param exec the execution context used to create the tiles and the output
+     * @return the transposed table
+     * @throws CanceledExecutionException if the execution has been canceled
+     */
+    BufferedDataTable transpose(final BufferedDataTable table, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        CheckUtils.checkState(table.size() <= Integer.MAX_VALUE,
+            "Transpose operation can't handle more rows than " + Integer.MAX_VALUE);
+        final DataTableSpec spec = table.getDataTableSpec();
+        final int nrInCols = spec.getNumColumns();
+        final int newNrCols = (int)table.size();
+        final int tileHeight = getTileHeight(nrInCols);
+        final int nrTiles = (int)Math.ceil((double)newNrCols / tileHeight);
+        LOGGER.debugWithFormat("Transposing %d rows x %d columns using %d tile(s) of height %d", newNrCols,
+            nrInCols, nrTiles, tileHeight);
+
+        final ExecutionContext spillExec = exec.createSubExecutionContext(0.5);
+        final ExecutionContext emitExec = exec.createSubExecutionContext(0.5);
+
+        final String[] colNames = new String[newNrCols];
+        final DataType[] colTypes = new DataType[newNrCols];
+        final List<BufferedDataTable> tiles = new ArrayList<>(nrTiles);
+        try {
+            spill(table, spillExec, tileHeight, colNames, colTypes, tiles);
+            return emit(spec, tiles, emitExec, colNames, colTypes, m_maxOpenTiles);
+        } finally {
+            for (final BufferedDataTable tile : tiles) {
+                exec.clearTable(tile);
+            }
+        }
+    }
+
+    /**
+     * Reads the input once and writes the transposed tiles, collecting the new column names and types on the fly.
+     */
+    private static void spill(final BufferedDataTable table, final ExecutionContext exec, final int tileHeight,
+        final String[] colNames, final DataType[] colTypes, final List<BufferedDataTable> tiles)
+        throws CanceledExecutionException {
+        final DataTableSpec spec = table.getDataTableSpec();
+        final int nrInCols = spec.getNumColumns();
+        final int newNrCols = colNames.length;
+        // tile[c][r] holds the cell of input column c in the r-th row of the current tile
+        DataCell[][] tile = null;
+        int tileCapacity = 0;
+        int rowInTile = 0;
+        int rowIdx = 0;
+        // index for unique colNames if row id only contains whitespace
+        int emptyIdx = 0;
+        try (final CloseableRowIterator iterator = table.iterator()) {
+            while (iterator.hasNext()) {
+                final DataRow row = iterator.next();
+                exec.checkCanceled();
+                if (tile == null) {
+                    tileCapacity = Math.min(tileHeight, newNrCols - rowIdx);
+                    tile = new DataCell[nrInCols][tileCapacity];
+                    rowInTile = 0;
+                }
+                DataType type = null;
+                for (int c = 0; c < nrInCols; c++) {
+                    final DataCell cell = row.getCell(c);
+                    tile[c][rowInTile] = cell;
+                    type = type == null ? cell.getType() : DataType.getCommonSuperType(type, cell.getType());
+                }
+                if (type == null) {
+                    type = DataType.getType(DataCell.class);
+                }
+                String colName = row.getKey().getString().trim();
+                if (colName.isEmpty()) {
+                    colName = "<empty_" + emptyIdx + ">";
+                    emptyIdx++;
+                }
+                colNames[rowIdx] = colName;
+                colTypes[rowIdx] = type;
+                rowIdx++;
+                rowInTile++;
+                if (rowInTile == tileCapacity) {
+                    tiles.add(writeTile(spec, tile, rowInTile, rowIdx - rowInTile, colTypes, exec));
+                    tile = null;
+                }
+                exec.setProgress(rowIdx / (double)newNrCols);
+            }
+        }
+        if (tile != null) {
+            tiles.add(writeTile(spec, tile, rowInTile, rowIdx - rowInTile, colTypes, exec));
+        }
+    }
+
+    /**
+     * Writes a single tile to a temporary table which is kept on disk. Each row of that table corresponds to one
+     * input column, each column to one input row of the tile.
+     */
+    private static BufferedDataTable writeTile(final DataTableSpec inSpec, final DataCell[][] tile, final int height,
+        final int firstRow, final DataType[] colTypes, final ExecutionContext exec) throws CanceledExecutionException {
+        final DataColumnSpec[] tileColSpecs = new DataColumnSpec[height];
+        for (int r = 0; r < height; r++) {
+            tileColSpecs[r] = new DataColumnSpecCreator("tile_" + r, colTypes[firstRow + r]).createSpec();
+        }
+        // maxCellsInMemory = 0: the tile is the spill file and must not stay on the heap
+        final BufferedDataContainer cont = exec.createDataContainer(new DataTableSpec(tileColSpecs), false, 0);
+        try {
+            for (int c = 0; c < tile.length; c++) {
+                exec.checkCanceled();
+                cont.addRowToTable(new DefaultRow(inSpec.getColumnSpec(c).getName(), tile[c]));
+                // release the cells as early as possible
+                tile[c] = null;
+            }
+        } finally {
+            cont.close();
+        }
+        return cont.getTable();
+    }
+
+    /**
+     * Reads the tiles back and concatenates the tile rows into the output rows. If there are more than
+     * <code>maxOpenTiles</code> tiles, groups of adjacent tiles are first merged into wider tiles so that no more than
+     * <code>maxOpenTiles</code> tiles are read at the same time.
+     */
+    private static BufferedDataTable emit(final DataTableSpec inSpec, final List<BufferedDataTable> tiles,
+        final ExecutionContext exec, final String[] colNames, final DataType[] colTypes, final int maxOpenTiles)
+        throws CanceledExecutionException {
+        final int nrInCols = inSpec.getNumColumns();
+        int nrPasses = 1;
+        for (int nrTiles = tiles.size(); nrTiles > maxOpenTiles; nrTiles = ceilDiv(nrTiles, maxOpenTiles)) {
+            nrPasses++;
+        }
+        while (tiles.size() > maxOpenTiles) {
+            final ExecutionContext passExec = exec.createSubExecutionContext(1.0 / nrPasses);
+            mergeTiles(tiles, nrInCols, maxOpenTiles, passExec);
+            passExec.setProgress(1.0);
+        }
+        final int newNrCols = colNames.length;
+        final DataColumnSpec[] colSpecs = new DataColumnSpec[newNrCols];
+        for (int c = 0; c < newNrCols; c++) {
+            colSpecs[c] = new DataColumnSpecCreator(colNames[c], colTypes[c]).createSpec();
+        }
+        final BufferedDataContainer cont = exec.createDataContainer(new DataTableSpec(colSpecs));
+        concatenate(tiles, cont, nrInCols, exec.createSubExecutionContext(1.0 / nrPasses));
+        return cont.getTable();
+    }
+
+    /**
+     * Replaces the tiles by <code>ceil(tiles.size() / maxOpenTiles)</code> merged tiles, each of them concatenating up
+     * to <code>maxOpenTiles</code> adjacent tiles. The replaced tiles are cleared.
+     */
+    private static void mergeTiles(final List<BufferedDataTable> tiles, final int nrInCols, final int maxOpenTiles,
+        final ExecutionContext exec) throws CanceledExecutionException {
+        final int nrTiles = tiles.size();
+        final int nrGroups = ceilDiv(nrTiles, maxOpenTiles);
+        for (int from = 0; from < nrTiles; from += maxOpenTiles) {
+            final List<BufferedDataTable> group =
+                new ArrayList<>(tiles.subList(from, Math.min(nrTiles, from + maxOpenTiles)));
+            final List<DataColumnSpec> groupColSpecs = new ArrayList<>();
+            for (final BufferedDataTable tile : group) {
+                for (final DataColumnSpec colSpec : tile.getDataTableSpec()) {
+                    groupColSpecs.add(new DataColumnSpecCreator("tile_" + groupColSpecs.size(), colSpec.getType())
+                        .createSpec());
+                }
+            }
+            // maxCellsInMemory = 0: like the tiles, the merged tile must not stay on the heap
+            final BufferedDataContainer cont = exec.createDataContainer(
+                new DataTableSpec(groupColSpecs.toArray(new DataColumnSpec[0])), false, 0);
+            concatenate(group, cont, nrInCols, exec.createSubExecutionContext(1.0 / nrGroups));
+            // the merged tiles are appended so that they are cleared in case of a failure
+            tiles.add(cont.getTable());
+        }
+        final List<BufferedDataTable> merged = tiles.subList(0, nrTiles);
+        for (final BufferedDataTable tile : merged) {
+            exec.clearTable(tile);
+        }
+        merged.clear();
+    }
+
+    /**
+     * Reads the given tiles in lock-step and writes the concatenation of their rows to the given container, which is
+     * closed afterwards.
+     */
+    private static void concatenate(final List<BufferedDataTable> tiles, final BufferedDataContainer cont,
+        final int nrRows, final ExecutionContext exec) throws CanceledExecutionException {
+        final int nrCells = cont.getTableSpec().getNumColumns();
+        final CloseableRowIterator[] iterators = new CloseableRowIterator[tiles.size()];
+        try {
+            for (int t = 0; t < iterators.length; t++) {
+                iterators[t] = tiles.get(t).iterator();
+            }
+            for (int r = 0; r < nrRows; r++) {
+                exec.checkCanceled();
+                final DataCell[] cells = new DataCell[nrCells];
+                int offset = 0;
+                RowKey key = null;
+                for (final CloseableRowIterator it : iterators) {
+                    final DataRow tileRow = it.next();
+                    // all tiles are keyed by the name of the input column
+                    key = tileRow.getKey();
+                    final int nrTileCells = tileRow.getNumCells();
+                    for (int i = 0; i < nrTileCells; i++) {
+                        cells[offset + i] = tileRow.getCell(i);
+                    }
+                    offset += nrTileCells;
+                }
+                cont.addRowToTable(new DefaultRow(key, cells));
+                exec.setProgress((r + 1) / (double)nrRows);
+            }
+        } finally {
+            for (final CloseableRowIterator it : iterators) {
+                if (it != null) {
+                    it.close();
+                }
+            }
+            cont.close();
+        }
+    }
+
+    private static int ceilDiv(final int dividend, final int divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
@@ -44,8 +44,13 @@
  */
 package org.knime.base.node.preproc.transpose;
 
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NotConfigurableException;
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
 import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 
 /**
@@ -54,14 +59,41 @@
  */
 public class TransposeTableNodeDialogPane extends DefaultNodeSettingsPane {
 
+    private final SettingsModelBoolean m_singlePass = createSinglePassModel();
+
+    private final SettingsModelIntegerBounded m_memoryBudget = createMemoryBudgetModel();
+
+    private final SettingsModelIntegerBounded m_chunkSize = createChunkSizeModel();
+
     /**
      * Create new dialog with option to set number of columns to chunk.
      */
     TransposeTableNodeDialogPane() {
+        m_singlePass.addChangeListener(e -> updateEnabledState());
+        super.addDialogComponent(new DialogComponentBoolean(
+                m_singlePass, "Single pass (read input only once)"));
         super.addDialogComponent(new DialogComponentNumber(
-                createChunkSizeModel(), "Chunk size (columns): ", 10)); 
+                m_memoryBudget, "Memory budget (MB): ", 64));
+        super.addDialogComponent(new DialogComponentNumber(
+                m_chunkSize, "Chunk size (columns): ", 10));
+        updateEnabledState();
     }
-    
+
+    private void updateEnabledState() {
+        m_memoryBudget.setEnabled(m_singlePass.getBooleanValue());
+        m_chunkSize.setEnabled(!m_singlePass.getBooleanValue());
+    }
+
+    @Override
+    public void loadAdditionalSettingsFrom(final NodeSettingsRO settings,
+            final DataTableSpec[] specs) throws NotConfigurableException {
+        if (!settings.containsKey(m_singlePass.getConfigName())) {
+            // added in 4.5, existing workflows keep the chunked transpose
+            m_singlePass.setBooleanValue(false);
+        }
+        updateEnabledState();
+    }
+
     /**
      * @return bounded integer model for chunk size
      */
@@ -69,5 +101,23 @@ static final SettingsModelIntegerBounded createChunkSizeModel() {
         return new SettingsModelIntegerBounded(
                 "chunk_size", 10, 1, Integer.MAX_VALUE);
     }
+
+    /**
+     * @return boolean model for the single-pass (tile based) transpose
+     * @since 4.5
+     */
+    static final SettingsModelBoolean createSinglePassModel() {
+        return new SettingsModelBoolean("single_pass", true);
+    }
+
+    /**
+     * @return bounded integer model for the memory budget (in MB) of the
+     * single-pass transpose
+     * @since 4.5
+     */
+    static final SettingsModelIntegerBounded createMemoryBudgetModel() {
+        return new SettingsModelIntegerBounded(
+                "memory_budget_mb", 256, 1, Integer.MAX_VALUE);
+    }
     
 }
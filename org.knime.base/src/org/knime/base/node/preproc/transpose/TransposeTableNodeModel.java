@@ -69,6 +69,7 @@
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.property.hilite.HiLiteHandler;
 import org.knime.core.node.util.CheckUtils;
@@ -87,6 +88,12 @@ final class TransposeTableNodeModel extends NodeModel {
     /** Chunk size model. */
     private final SettingsModelIntegerBounded m_chunkSize = TransposeTableNodeDialogPane.createChunkSizeModel();
 
+    /** Whether to use the single-pass, tile based transpose. */
+    private final SettingsModelBoolean m_singlePass = TransposeTableNodeDialogPane.createSinglePassModel();
+
+    /** Memory budget (in MB) of the single-pass transpose. */
+    private final SettingsModelIntegerBounded m_memoryBudget = TransposeTableNodeDialogPane.createMemoryBudgetModel();
+
     /**
      * Creates a transpose model with one data in- and output.
      *
@@ -102,6 +109,8 @@ final class TransposeTableNodeModel extends NodeModel {
     @Override
     protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_chunkSize.saveSettingsTo(settings);
+        m_singlePass.saveSettingsTo(settings);
+        m_memoryBudget.saveSettingsTo(settings);
     }
 
     /**
@@ -124,6 +133,13 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
             // TODO (tg) before 2.0 this option was not available
             m_chunkSize.setIntValue(1);
         }
+        try {
+            m_singlePass.loadSettingsFrom(settings);
+            m_memoryBudget.loadSettingsFrom(settings);
+        } catch (InvalidSettingsException ise) {
+            // added in 4.5, keep the chunked transpose for existing workflows
+            m_singlePass.setBooleanValue(false);
+        }
     }
 
     /**
@@ -164,6 +180,10 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
             return new BufferedDataTable[]{cont.getTable()};
 
         }
+        if (m_singlePass.getBooleanValue()) {
+            final TiledTableTransposer transposer = new TiledTableTransposer(m_memoryBudget.getIntValue());
+            return new BufferedDataTable[]{transposer.transpose(inData[0], exec)};
+        }
         // new number of columns = number of rows
         CheckUtils.checkState(inData[0].size() <= Integer.MAX_VALUE,
             "Transpose operation can't handle more rows than " + Integer.MAX_VALUE);
@@ -0,0 +1,191 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.connections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link FSFiles}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class FSFilesTest {
+
+    /** The folder in which the file tree is created. */
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    /**
+     * Tests that walking the file tree in parallel visits the same files and folders as
+     * {@link Files#walkFileTree(Path, java.util.Set, int, FileVisitor)}, including skipped subtrees.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testWalkFileTreeInParallel() throws IOException {
+        final Path root = m_tempFolder.getRoot().toPath();
+        final Random random = new Random(42);
+        final List<Path> folders = new ArrayList<>();
+        folders.add(root);
+        for (int i = 0; i < 100; i++) {
+            final Path folder = folders.get(random.nextInt(folders.size())).resolve("folder" + i);
+            Files.createDirectory(folder);
+            folders.add(folder);
+        }
+        for (int i = 0; i < 500; i++) {
+            Files.createFile(folders.get(random.nextInt(folders.size())).resolve("file" + i));
+        }
+
+        for (final int maxDepth : new int[]{0, 1, 3, Integer.MAX_VALUE}) {
+            final List<String> expected = new ArrayList<>();
+            Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), maxDepth, createVisitor(expected));
+            final List<String> actual = new ArrayList<>();
+            FSFiles.walkFileTreeInParallel(root, false, maxDepth, 4, createVisitor(actual));
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals("Unexpected paths for max depth " + maxDepth, expected, actual);
+        }
+    }
+
+    /**
+     * Tests that a folder that cannot be opened is reported via
+     * {@link FileVisitor#visitFileFailed(Object, IOException)} and neither pre- nor post-visited, as done by
+     * {@link Files#walkFileTree(Path, java.util.Set, int, FileVisitor)}.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testWalkFileTreeInParallelUnreadableFolder() throws IOException {
+        final Path root = m_tempFolder.getRoot().toPath();
+        Files.createFile(root.resolve("file"));
+        final Path locked = Files.createDirectory(root.resolve("locked"));
+        Files.createFile(locked.resolve("hidden"));
+        final PosixFileAttributeView view = Files.getFileAttributeView(locked, PosixFileAttributeView.class);
+        Assume.assumeNotNull(view);
+        final Set<PosixFilePermission> permissions = view.readAttributes().permissions();
+        view.setPermissions(EnumSet.noneOf(PosixFilePermission.class));
+        try {
+            Assume.assumeFalse("The folder can still be listed, e.g. by root", isListable(locked));
+            final List<String> expected = new ArrayList<>();
+            Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE,
+                createVisitor(expected));
+            final List<String> actual = new ArrayList<>();
+            FSFiles.walkFileTreeInParallel(root, false, Integer.MAX_VALUE, 4, createVisitor(actual));
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        } finally {
+            view.setPermissions(permissions);
+        }
+    }
+
+    private static boolean isListable(final Path folder) {
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(folder)) {
+            return true;
+        } catch (IOException ex) { // NOSONAR
+            return false;
+        }
+    }
+
+    private static FileVisitor<Path> createVisitor(final List<String> visited) {
+        return new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs)
+                throws IOException {
+                add("pre " + dir);
+                return dir.endsWith("folder7") ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                add("file " + file + " " + attrs.isDirectory());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
+                add("failed " + file + " " + exc.getClass().getName());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                add("post " + dir + " " + exc);
+                return FileVisitResult.CONTINUE;
+            }
+
+            private void add(final String entry) {
+                synchronized (visited) {
+                    visited.add(entry);
+                }
+            }
+        };
+    }
+}
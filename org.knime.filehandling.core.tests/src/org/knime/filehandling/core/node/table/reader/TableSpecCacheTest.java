@@ -0,0 +1,249 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.filehandling.core.node.table.reader;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.knime.filehandling.core.node.table.reader.TRFTestingUtils.createTypedTableSpec;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
+import org.knime.filehandling.core.node.table.reader.config.tablespec.ConfigID;
+import org.knime.filehandling.core.node.table.reader.preview.PreviewExecutionMonitor;
+import org.knime.filehandling.core.node.table.reader.spec.TypedReaderTableSpec;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Contains unit tests for {@code TableSpecCache}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TableSpecCacheTest {
+
+    private static final String ITEM1 = "item1";
+
+    private static final String ITEM2 = "item2";
+
+    private static final TypedReaderTableSpec<String> SPEC1 = createTypedTableSpec(asList("A", "B"), asList("X", "Y"));
+
+    private static final TypedReaderTableSpec<String> SPEC2 = createTypedTableSpec(asList("B", "C"), asList("Y", "Z"));
+
+    @Mock
+    private GenericTableReader<String, DummyReaderSpecificConfig, String, String> m_reader;
+
+    @Mock
+    private TableReadConfig<DummyReaderSpecificConfig> m_config;
+
+    @Mock
+    private ConfigID m_configID;
+
+    @Mock
+    private ConfigID m_otherConfigID;
+
+    @Mock
+    private ExecutionMonitor m_exec;
+
+    /** the fingerprints of the items, items without fingerprint can't be cached */
+    private final Map<String, Object> m_fingerprints = new HashMap<>();
+
+    private TableSpecCache m_testInstance;
+
+    /**
+     * Initializes the test instance.
+     *
+     * @throws IOException never thrown
+     */
+    @Before
+    public void init() throws IOException {
+        m_fingerprints.put(ITEM1, ITEM1 + "@1");
+        m_fingerprints.put(ITEM2, ITEM2 + "@1");
+        when(m_reader.readSpec(eq(ITEM1), any(), any())).thenReturn(SPEC1);
+        m_testInstance = new TableSpecCache(10, i -> Optional.ofNullable(m_fingerprints.get(i)));
+    }
+
+    private TypedReaderTableSpec<String> readSpec(final String item, final ConfigID configID) throws IOException {
+        return m_testInstance.readSpec(m_reader, item, m_config, configID, m_exec);
+    }
+
+    /**
+     * Tests that the spec of an unchanged item is read only once.
+     *
+     * @throws IOException never thrown
+     */
+    @Test
+    public void testUnchangedItemIsReadOnce() throws IOException {
+        assertSame(SPEC1, readSpec(ITEM1, m_configID));
+        assertSame(SPEC1, readSpec(ITEM1, m_configID));
+        verify(m_reader, times(1)).readSpec(ITEM1, m_config, m_exec);
+        assertEquals(1, m_testInstance.size());
+    }
+
+    /**
+     * Tests that the spec of a changed item is read again.
+     *
+     * @throws IOException never thrown
+     */
+    @Test
+    public void testChangedItemIsReadAgain() throws IOException {
+        readSpec(ITEM1, m_configID);
+        m_fingerprints.put(ITEM1, ITEM1 + "@2");
+        readSpec(ITEM1, m_configID);
+        verify(m_reader, times(2)).readSpec(ITEM1, m_config, m_exec);
+    }
+
+    /**
+     * Tests that the spec is read again if the settings change.
+     *
+     * @throws IOException never thrown
+     */
+    @Test
+    public void testChangedConfigIsReadAgain() throws IOException {
+        readSpec(ITEM1, m_configID);
+        readSpec(ITEM1, m_otherConfigID);
+        verify(m_reader, times(2)).readSpec(ITEM1, m_config, m_exec);
+        assertEquals(2, m_testInstance.size());
+    }
+
+    /**
+     * Tests that items without fingerprint and reads without {@link ConfigID} are not cached.
+     *
+     * @throws IOException never thrown
+     */
+    @Test
+    public void testUncachableReads() throws IOException {
+        m_fingerprints.remove(ITEM1);
+        readSpec(ITEM1, m_configID);
+        readSpec(ITEM1, m_configID);
+        m_fingerprints.put(ITEM1, ITEM1 + "@1");
+        readSpec(ITEM1, null);
+        readSpec(ITEM1, null);
+        verify(m_reader, times(4)).readSpec(ITEM1, m_config, m_exec);
+        assertEquals(0, m_testInstance.size());
+    }
+
+    /**
+     * Tests that specs whose guessing has been canceled aren't cached.
+     *
+     * @throws Exception never thrown
+     */
+    @Test
+    public void testCanceledReadIsNotCached() throws Exception {
+        doThrow(new CanceledExecutionException()).when(m_exec).checkCanceled();
+        assertSame(SPEC1, readSpec(ITEM1, m_configID));
+        assertSame(SPEC1, readSpec(ITEM1, m_configID));
+        verify(m_reader, times(2)).readSpec(ITEM1, m_config, m_exec);
+        assertEquals(0, m_testInstance.size());
+    }
+
+    /**
+     * Tests that specs guessed for the preview, which might be cut short or contain errors, aren't cached but that the
+     * preview uses the specs cached by regular reads.
+     *
+     * @throws IOException never thrown
+     */
+    @Test
+    public void testPreviewReadIsNotCached() throws IOException {
+        final PreviewExecutionMonitor<String> previewExec = new PreviewExecutionMonitor<>();
+        m_testInstance.readSpec(m_reader, ITEM1, m_config, m_configID, previewExec);
+        previewExec.setSpecGuessingError(3, "Failed to guess the type");
+        m_testInstance.readSpec(m_reader, ITEM1, m_config, m_configID, previewExec);
+        verify(m_reader, times(2)).readSpec(ITEM1, m_config, previewExec);
+        assertEquals(0, m_testInstance.size());
+
+        readSpec(ITEM1, m_configID);
+        assertEquals(1, m_testInstance.size());
+        final PreviewExecutionMonitor<String> otherPreviewExec = new PreviewExecutionMonitor<>();
+        assertSame(SPEC1, m_testInstance.readSpec(m_reader, ITEM1, m_config, m_configID, otherPreviewExec));
+        verify(m_reader, times(1)).readSpec(ITEM1, m_config, m_exec);
+        verify(m_reader, never()).readSpec(ITEM1, m_config, otherPreviewExec);
+    }
+
+    /**
+     * Tests that the least recently used specs are evicted once the number of cached columns exceeds the limit.
+     *
+     * @throws IOException never thrown
+     */
+    @Test
+    public void testEviction() throws IOException {
+        m_testInstance = new TableSpecCache(6, i -> Optional.ofNullable(m_fingerprints.get(i)));
+        when(m_reader.readSpec(eq(ITEM2), any(), any())).thenReturn(SPEC2);
+        // each spec has a weight of 3
+        readSpec(ITEM1, m_configID);
+        readSpec(ITEM2, m_configID);
+        assertEquals(2, m_testInstance.size());
+        // makes item2 the least recently used one
+        readSpec(ITEM1, m_configID);
+        readSpec(ITEM1, m_otherConfigID);
+        assertEquals(2, m_testInstance.size());
+        readSpec(ITEM1, m_configID);
+        readSpec(ITEM2, m_configID);
+        verify(m_reader, times(2)).readSpec(ITEM1, m_config, m_exec);
+        verify(m_reader, times(2)).readSpec(ITEM2, m_config, m_exec);
+    }
+
+}
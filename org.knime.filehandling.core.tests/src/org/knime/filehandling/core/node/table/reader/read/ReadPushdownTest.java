@@ -0,0 +1,104 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.filehandling.core.node.table.reader.read;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for ReadPushdown.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ReadPushdownTest {
+
+    /**
+     * Tests that the pushdown without projection requires all columns.
+     */
+    @Test
+    public void testNone() {
+        final ReadPushdown none = ReadPushdown.none();
+        assertFalse(none.isProjected());
+        assertTrue(none.isRequired(0));
+        assertTrue(none.isRequired(1000));
+    }
+
+    /**
+     * Tests that the required columns of a projection are deduplicated and sorted.
+     */
+    @Test
+    public void testProjection() {
+        final ReadPushdown projection = ReadPushdown.projection(5, 1, 5, 3);
+        assertTrue(projection.isProjected());
+        assertArrayEquals(new int[]{1, 3, 5}, projection.getRequiredColumns());
+        assertTrue(projection.isRequired(3));
+        assertFalse(projection.isRequired(0));
+        assertFalse(projection.isRequired(6));
+    }
+
+    /**
+     * Tests that the required columns of the pushdown without projection can't be queried.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRequiredColumnsOfNone() {
+        ReadPushdown.none().getRequiredColumns();
+    }
+
+    /**
+     * Tests that negative column indices are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeColumnIndex() {
+        ReadPushdown.projection(0, -1);
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that {@link MappedFileReader} decodes exactly like an {@link InputStreamReader}, also across window borders.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class MappedFileReaderTest {
+
+    private static final Charset[] CHARSETS =
+        {StandardCharsets.UTF_8, StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1};
+
+    private static final String[] TOKENS = {"a", "bc", "\n", "\r", "\r\n", "\u00e4", "\u20ac", "\ud83d\ude00", " "};
+
+    /** The folder containing the test files. */
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    /**
+     * Tests {@link MappedFileReader#read(char[], int, int)} and {@link MappedFileReader#getCount()}.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testRead() throws IOException {
+        final Random random = new Random(42);
+        final Path file = m_tempFolder.newFile().toPath();
+        for (int i = 0; i < 100; i++) {
+            final byte[] data = createData(random, i % 3 == 0);
+            Files.write(file, data);
+            for (final Charset charset : CHARSETS) {
+                final String expected = readExpected(data, charset);
+                final StringBuilder actual = new StringBuilder();
+                try (final MappedFileReader reader = new MappedFileReader(file, charset, 4 + random.nextInt(8))) {
+                    final char[] buffer = new char[1 + random.nextInt(5)];
+                    int read;
+                    while ((read = reader.read(buffer, 0, buffer.length)) >= 0) {
+                        actual.append(buffer, 0, read);
+                    }
+                    assertEquals(data.length, reader.getCount());
+                }
+                assertEquals(expected, actual.toString());
+            }
+        }
+    }
+
+    /**
+     * Tests that {@link MappedFileReader#readLine()} splits lines like {@link BufferedReader#readLine()}.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testReadLine() throws IOException {
+        final Random random = new Random(42);
+        final Path file = m_tempFolder.newFile().toPath();
+        for (int i = 0; i < 100; i++) {
+            final byte[] data = createData(random, i % 3 == 0);
+            Files.write(file, data);
+            for (final Charset charset : CHARSETS) {
+                final List<String> expected = new ArrayList<>();
+                final ByteArrayInputStream input = new ByteArrayInputStream(skipBom(data, charset));
+                try (final BufferedReader reader = new BufferedReader(new InputStreamReader(input, charset))) {
+                    reader.lines().forEach(expected::add);
+                }
+                final List<String> actual = new ArrayList<>();
+                try (final MappedFileReader reader = new MappedFileReader(file, charset, 4 + random.nextInt(8))) {
+                    reader.lines().forEach(actual::add);
+                }
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    private static byte[] createData(final Random random, final boolean malformed) {
+        if (malformed) {
+            final byte[] data = new byte[random.nextInt(200)];
+            random.nextBytes(data);
+            return data;
+        }
+        final StringBuilder sb = new StringBuilder();
+        if (random.nextBoolean()) {
+            sb.append('\ufeff');
+        }
+        final int nrTokens = random.nextInt(100);
+        for (int i = 0; i < nrTokens; i++) {
+            sb.append(TOKENS[random.nextInt(TOKENS.length)]);
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] skipBom(final byte[] data, final Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset) && data.length >= 3 && (data[0] & 0xff) == 0xEF
+            && (data[1] & 0xff) == 0xBB && (data[2] & 0xff) == 0xBF) {
+            return Arrays.copyOfRange(data, 3, data.length);
+        }
+        return data;
+    }
+
+    private static String readExpected(final byte[] data, final Charset charset) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        try (final InputStreamReader reader =
+            new InputStreamReader(new ByteArrayInputStream(skipBom(data, charset)), charset)) {
+            int c;
+            while ((c = reader.read()) >= 0) {
+                sb.append((char)c);
+            }
+        }
+        return sb.toString();
+    }
+}
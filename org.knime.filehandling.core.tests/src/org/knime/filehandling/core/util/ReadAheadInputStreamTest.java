@@ -0,0 +1,198 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import com.google.common.io.CountingInputStream;
+
+/**
+ * Tests for {@link ReadAheadInputStream}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ReadAheadInputStreamTest {
+
+    private static byte[] createData() {
+        final byte[] data = new byte[100_003];
+        new Random(42).nextBytes(data);
+        // make the data compressible
+        for (int i = 0; i < data.length; i += 3) {
+            data[i] = 0;
+        }
+        return data;
+    }
+
+    /**
+     * Tests that an uncompressed stream is read completely and that the count is exact.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testUncompressed() throws IOException {
+        final byte[] data = createData();
+        final CountingInputStream counting = new CountingInputStream(new ByteArrayInputStream(data));
+        try (final ReadAheadInputStream stream = new ReadAheadInputStream(counting, counting::getCount, 1000, 3)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[777];
+            int read;
+            while ((read = stream.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+                assertEquals(out.size(), stream.getCount());
+            }
+            assertArrayEquals(data, out.toByteArray());
+        }
+    }
+
+    /**
+     * Tests that a compressed stream is decompressed completely and that the count of compressed bytes is monotonic.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testCompressed() throws IOException {
+        final byte[] data = createData();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(data);
+        }
+        final CountingInputStream counting = new CountingInputStream(new ByteArrayInputStream(compressed.toByteArray()));
+        try (final ReadAheadInputStream stream =
+            new ReadAheadInputStream(new GZIPInputStream(counting), counting::getCount, 1000, 3)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long previousCount = 0;
+            int value;
+            while ((value = stream.read()) >= 0) {
+                out.write(value);
+                assertTrue(stream.getCount() >= previousCount);
+                previousCount = stream.getCount();
+            }
+            assertArrayEquals(data, out.toByteArray());
+            assertEquals(compressed.size(), stream.getCount());
+        }
+    }
+
+    /**
+     * Tests that failures of the source are passed on to the consumer.
+     *
+     * @throws IOException the expected exception
+     */
+    @Test(expected = IOException.class)
+    public void testFailure() throws IOException {
+        final InputStream failing = new InputStream() {
+
+            private int m_count;
+
+            @Override
+            public int read() throws IOException {
+                m_count++;
+                if (m_count > 2500) {
+                    throw new IOException("Failing on purpose.");
+                }
+                return 1;
+            }
+        };
+        try (final ReadAheadInputStream stream = new ReadAheadInputStream(failing, () -> 0, 1000, 2)) {
+            while (stream.read() >= 0) {
+                // consume until the failure is thrown
+            }
+        }
+    }
+
+    /**
+     * Tests that runtime exceptions of the source are passed on to the consumer instead of blocking it forever.
+     *
+     * @throws IOException not thrown
+     */
+    @Test(timeout = 10_000)
+    public void testRuntimeFailure() throws IOException {
+        final InputStream failing = new InputStream() {
+
+            private int m_count;
+
+            @Override
+            public int read() {
+                m_count++;
+                if (m_count > 2500) {
+                    throw new IllegalStateException("Failing on purpose.");
+                }
+                return 1;
+            }
+        };
+        try (final ReadAheadInputStream stream = new ReadAheadInputStream(failing, () -> 0, 1000, 2)) {
+            int read = 0;
+            try {
+                while (stream.read() >= 0) {
+                    read++;
+                }
+                fail("Expected the failure of the source to be thrown.");
+            } catch (IllegalStateException ex) {
+                assertEquals("Failing on purpose.", ex.getMessage());
+            }
+            // only the completely filled buffers have been passed on
+            assertEquals(2000, read);
+            // subsequent reads fail as well
+            try {
+                stream.read();
+                fail("Expected the failure of the source to be thrown again.");
+            } catch (IllegalStateException ex) { // NOSONAR expected
+            }
+        }
+    }
+}
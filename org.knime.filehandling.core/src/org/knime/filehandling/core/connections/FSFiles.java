@@ -428,6 +428,32 @@ public static Path walkFileTree(final Path start, final int maxDepth, final File
         return Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS), maxDepth, visitor);
     }
 
+    /**
+     * Walks a file tree up to a certain depth and lists up to {@code maxConcurrency} directories concurrently. Unlike
+     * {@link #walkFileTree(Path, int, FileVisitor)} the visitor is invoked concurrently and in no particular order as
+     * soon as an entry has been listed, which allows consumers to process the first paths while the listing continues.
+     * Subtrees are skipped as soon as {@link FileVisitor#preVisitDirectory(Object, BasicFileAttributes)} returns
+     * {@link FileVisitResult#SKIP_SUBTREE}, i.e. filters are applied during the walk. As in
+     * {@link #walkFileTree(Path, int, FileVisitor)} a directory that cannot be opened is reported via
+     * {@link FileVisitor#visitFileFailed(Object, IOException)} and not pre-visited.
+     *
+     * @param start the starting file
+     * @param followLinks whether symbolic links should be followed
+     * @param maxDepth the maximum number of directory levels to visit
+     * @param maxConcurrency the maximum number of directories that are listed concurrently
+     * @param visitor the thread-safe file visitor to invoke for each file. Note that
+     *            {@link FileVisitor#postVisitDirectory(Object, IOException)} is invoked once the entries of a directory
+     *            have been visited and not after its complete subtree.
+     * @throws IllegalArgumentException if the {@code maxDepth} parameter is negative or {@code maxConcurrency} is not
+     *             positive
+     * @throws IOException if an I/O error is thrown by a visitor method
+     * @since 4.5
+     */
+    public static void walkFileTreeInParallel(final Path start, final boolean followLinks, final int maxDepth,
+        final int maxConcurrency, final FileVisitor<? super Path> visitor) throws IOException {
+        new ParallelFileTreeWalker(followLinks, maxDepth, maxConcurrency, visitor).walk(start);
+    }
+
     /**
      * Returns a {@link List} of {@link FSPath}s of a all files in a single folder.
      *
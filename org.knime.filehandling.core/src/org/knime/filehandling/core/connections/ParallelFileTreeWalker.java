@@ -0,0 +1,351 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.connections;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.knime.core.util.ThreadUtils;
+
+/**
+ * Walks a file tree like {@link Files#walkFileTree(Path, java.util.Set, int, FileVisitor)} but lists up to a fixed
+ * number of directories concurrently. This hides the latency of remote file systems where each directory listing is
+ * a round trip.</br>
+ * The {@link FileVisitor} is invoked as soon as an entry is listed, i.e. concurrently from several threads and in no
+ * particular order, hence it must be thread-safe. As in {@link Files#walkFileTree(Path, java.util.Set, int,
+ * FileVisitor)} a directory is opened before {@link FileVisitor#preVisitDirectory(Object, BasicFileAttributes)} is
+ * invoked, and {@link FileVisitor#visitFileFailed(Object, IOException)} is invoked instead if it cannot be opened.
+ * {@link FileVisitor#postVisitDirectory(Object, IOException)} is invoked once all entries of a directory have been
+ * visited, its subdirectories might still be in progress at that point. Likewise,
+ * {@link FileVisitResult#SKIP_SIBLINGS} returned for a directory only skips the siblings that have not been visited
+ * yet.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ParallelFileTreeWalker {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final boolean m_followLinks;
+
+    private final int m_maxDepth;
+
+    private final FileVisitor<? super Path> m_visitor;
+
+    private final ExecutorService m_executor;
+
+    /** Number of directories that are listed or waiting to be listed. */
+    private final AtomicInteger m_pendingDirectories = new AtomicInteger();
+
+    private final CountDownLatch m_done = new CountDownLatch(1);
+
+    private final AtomicReference<Throwable> m_failure = new AtomicReference<>();
+
+    private volatile boolean m_terminated;
+
+    /**
+     * Constructor.
+     *
+     * @param followLinks whether symbolic links should be followed
+     * @param maxDepth the maximum number of directory levels to visit
+     * @param maxConcurrency the maximum number of directories that are listed concurrently
+     * @param visitor the thread-safe visitor to invoke for each file
+     */
+    ParallelFileTreeWalker(final boolean followLinks, final int maxDepth, final int maxConcurrency,
+        final FileVisitor<? super Path> visitor) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("The maxDepth must not be negative.");
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The maxConcurrency must be positive.");
+        }
+        m_followLinks = followLinks;
+        m_maxDepth = maxDepth;
+        m_visitor = visitor;
+        final ThreadFactory threadFactory = r -> {
+            final Thread thread = new Thread(r, "KNIME-File-Tree-Walker-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // the workers need the node context e.g. for workflow relative paths
+        m_executor =
+            ThreadUtils.executorServiceWithContext(Executors.newFixedThreadPool(maxConcurrency, threadFactory));
+    }
+
+    /**
+     * Walks the file tree rooted at the given path and returns once all directories have been listed or the walk was
+     * terminated.
+     *
+     * @param start the starting file
+     * @throws IOException if an I/O error is thrown by a visitor method
+     */
+    void walk(final Path start) throws IOException {
+        try {
+            final BasicFileAttributes attrs;
+            try {
+                attrs = readAttributes(start);
+            } catch (IOException ex) {
+                m_visitor.visitFileFailed(start, ex);
+                return;
+            }
+            if (m_maxDepth == 0 || !attrs.isDirectory()) {
+                m_visitor.visitFile(start, attrs);
+                return;
+            }
+            submit(new Directory(start, attrs, 0, null));
+            m_done.await();
+            rethrowFailure();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            m_terminated = true;
+            final InterruptedIOException ioe = new InterruptedIOException("Walking the file tree was interrupted.");
+            ioe.initCause(ex);
+            throw ioe;
+        } finally {
+            m_executor.shutdownNow();
+        }
+    }
+
+    private void rethrowFailure() throws IOException {
+        final Throwable failure = m_failure.get();
+        if (failure instanceof IOException) {
+            throw (IOException)failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException)failure;
+        } else if (failure instanceof Error) {
+            throw (Error)failure;
+        } else if (failure != null) {
+            throw new IOException(failure);
+        }
+    }
+
+    private void submit(final Directory dir) {
+        m_pendingDirectories.incrementAndGet();
+        try {
+            m_executor.execute(() -> {
+                try {
+                    if (!m_terminated) {
+                        list(dir);
+                    }
+                } catch (Throwable t) { // NOSONAR any failure has to end the walk
+                    m_failure.compareAndSet(null, t);
+                    m_terminated = true;
+                } finally {
+                    finished();
+                }
+            });
+        } catch (RejectedExecutionException ex) { // NOSONAR only happens after the walk has been aborted
+            finished();
+        }
+    }
+
+    private void finished() {
+        if (m_pendingDirectories.decrementAndGet() == 0) {
+            m_done.countDown();
+        }
+    }
+
+    private void list(final Directory dir) throws IOException {
+        if (dir.m_parent != null && dir.m_parent.m_skipRemainingEntries) {
+            return;
+        }
+        final DirectoryStream<Path> stream;
+        try {
+            stream = Files.newDirectoryStream(dir.m_path);
+        } catch (IOException ex) {
+            // same as Files.walkFileTree, a directory that cannot be opened is neither pre- nor post-visited
+            handleDirectoryResult(dir, m_visitor.visitFileFailed(dir.m_path, ex));
+            return;
+        }
+        IOException exc = null;
+        try {
+            final FileVisitResult result = m_visitor.preVisitDirectory(dir.m_path, dir.m_attrs);
+            if (result != FileVisitResult.CONTINUE) {
+                handleDirectoryResult(dir, result);
+                return;
+            }
+            exc = visitEntries(dir, stream);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException ex) {
+                if (exc == null) {
+                    exc = ex;
+                }
+            }
+        }
+        if (!m_terminated && m_visitor.postVisitDirectory(dir.m_path, exc) == FileVisitResult.TERMINATE) {
+            m_terminated = true;
+        }
+    }
+
+    /**
+     * Visits the entries of a directory.
+     *
+     * @return the exception thrown while iterating the entries or {@code null}
+     */
+    private IOException visitEntries(final Directory dir, final DirectoryStream<Path> stream) throws IOException {
+        final int depth = dir.m_depth + 1;
+        try {
+            for (final Path entry : stream) {
+                if (m_terminated || dir.m_skipRemainingEntries) {
+                    return null;
+                }
+                final FileVisitResult result = visit(dir, entry, depth);
+                if (result == FileVisitResult.TERMINATE) {
+                    m_terminated = true;
+                    return null;
+                } else if (result == FileVisitResult.SKIP_SIBLINGS) {
+                    return null;
+                }
+            }
+            return null;
+        } catch (DirectoryIteratorException ex) {
+            return ex.getCause();
+        }
+    }
+
+    /** Handles the result of pre-visiting a directory or of failing to open it. */
+    private void handleDirectoryResult(final Directory dir, final FileVisitResult result) {
+        if (result == FileVisitResult.TERMINATE) {
+            m_terminated = true;
+        } else if (result == FileVisitResult.SKIP_SIBLINGS && dir.m_parent != null) {
+            dir.m_parent.m_skipRemainingEntries = true;
+        }
+    }
+
+    private FileVisitResult visit(final Directory parent, final Path entry, final int depth) throws IOException {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = readAttributes(entry);
+        } catch (IOException ex) {
+            return m_visitor.visitFileFailed(entry, ex);
+        }
+        if (depth >= m_maxDepth || !attrs.isDirectory()) {
+            return m_visitor.visitFile(entry, attrs);
+        }
+        if (m_followLinks && parent.isAncestorOrSelf(entry, attrs.fileKey())) {
+            return m_visitor.visitFileFailed(entry, new FileSystemLoopException(entry.toString()));
+        }
+        // the directory is opened and pre-visited by the thread that lists it
+        submit(new Directory(entry, attrs, depth, parent));
+        return FileVisitResult.CONTINUE;
+    }
+
+    private BasicFileAttributes readAttributes(final Path path) throws IOException {
+        if (m_followLinks) {
+            try {
+                return Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException ex) { // NOSONAR same as Files.walkFileTree, e.g. for broken links
+                return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            }
+        } else {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+    }
+
+    /** A directory to list together with its ancestors which are needed for the cycle detection. */
+    private static final class Directory {
+
+        private final Path m_path;
+
+        private final BasicFileAttributes m_attrs;
+
+        private final Object m_fileKey;
+
+        private final int m_depth;
+
+        private final Directory m_parent;
+
+        /** Set if a subdirectory returned {@link FileVisitResult#SKIP_SIBLINGS}. */
+        private volatile boolean m_skipRemainingEntries;
+
+        Directory(final Path path, final BasicFileAttributes attrs, final int depth, final Directory parent) {
+            m_path = path;
+            m_attrs = attrs;
+            m_fileKey = attrs.fileKey();
+            m_depth = depth;
+            m_parent = parent;
+        }
+
+        boolean isAncestorOrSelf(final Path path, final Object fileKey) {
+            for (Directory dir = this; dir != null; dir = dir.m_parent) {
+                if (fileKey != null && dir.m_fileKey != null) {
+                    if (fileKey.equals(dir.m_fileKey)) {
+                        return true;
+                    }
+                } else if (isSameFile(path, dir.m_path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isSameFile(final Path path, final Path other) {
+            try {
+                return Files.isSameFile(path, other);
+            } catch (IOException | SecurityException ex) { // NOSONAR same as Files.walkFileTree
+                return false;
+            }
+        }
+    }
+}
@@ -49,15 +49,12 @@
 package org.knime.filehandling.core.defaultnodesettings.filechooser;
 
 import java.io.IOException;
-import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
-import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.Consumer;
 
 import org.knime.core.node.InvalidSettingsException;
@@ -91,6 +88,12 @@
  */
 public final class FileChooserPathAccessor implements ReadPathAccessor, WritePathAccessor {
 
+    /**
+     * The maximum number of folders that are listed concurrently when walking the file tree. Listing is dominated by
+     * the latency of the file system, hence this is independent of the number of cores.
+     */
+    private static final int MAX_CONCURRENT_LISTINGS = 8;
+
     /**
      * The root location i.e. the location to start scanning the file tree from
      */
@@ -241,9 +244,9 @@ private List<FSPath> walkFileTree(final Path rootPath) throws IOException, Inval
         final FilterVisitor visitor = createVisitor(rootPath);
         final boolean includeSubfolders = m_settings.getFilterModeModel().isIncludeSubfolders();
         final boolean followLinks = m_settings.getFilterModeModel().isFollowLinks();
-        final Set<FileVisitOption> linkOptions =
-            followLinks ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : EnumSet.noneOf(FileVisitOption.class);
-        Files.walkFileTree(rootPath, linkOptions, includeSubfolders ? Integer.MAX_VALUE : 1, visitor);
+        // the folders are listed concurrently, the order of the paths is restored by sorting them afterwards
+        FSFiles.walkFileTreeInParallel(rootPath, followLinks, includeSubfolders ? Integer.MAX_VALUE : 1,
+            MAX_CONCURRENT_LISTINGS, visitor);
         m_fileFilterStatistic = visitor.getFileFilterStatistic();
         final List<?> paths = visitor.getPaths();
         @SuppressWarnings("unchecked") // we know it better
@@ -55,7 +55,9 @@
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.knime.filehandling.core.connections.FSFiles;
 import org.knime.filehandling.core.defaultnodesettings.ExceptionUtil;
 import org.knime.filehandling.core.defaultnodesettings.filechooser.reader.FileFilterStatistic;
 import org.knime.filehandling.core.defaultnodesettings.filtermode.FileAndFolderFilter;
@@ -67,6 +69,8 @@
  * and/or folders should be included in the paths can be specified via the corresponding constructor arguments. The
  * FileVisitor keeps track of the number of visited files and folders, as well as the number of filtered out files and
  * folders. The {@link FileFilterStatistic} can be retrieved via the getFileFilterStatistic() method.<br>
+ * The visitor is thread-safe and can therefore be used with
+ * {@link FSFiles#walkFileTreeInParallel(Path, boolean, int, int, java.nio.file.FileVisitor)}.<br>
  *
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  */
@@ -82,9 +86,9 @@ final class FilterVisitor extends SimpleFileVisitor<Path> {
 
     private final List<Path> m_paths = new ArrayList<>();
 
-    private int m_visitedFiles;
+    private final AtomicInteger m_visitedFiles = new AtomicInteger();
 
-    private int m_visitedFolders = -1;
+    private final AtomicInteger m_visitedFolders = new AtomicInteger(-1);
 
     /**
      * Constructor.
@@ -109,9 +113,9 @@ public FileVisitResult visitFile(final Path file, final BasicFileAttributes attr
         if (attrs.isDirectory()) {
             /* Tested before files because for a Windows Junction attrs.isOther() and attrs.isDirectory() return true
              * but we want to treat them as directories */
-            m_visitedFolders++;
+            m_visitedFolders.incrementAndGet();
             if (m_includeFolders && m_filter.test(file, attrs)) {
-                m_paths.add(file);
+                addPath(file);
             }
             /* Testing the parent name allows to exclude files in the root folder but include files in subfolders.
              * Note that file.getParent() is safe here because we always have a file name e.g. ../../foo.txt
@@ -123,9 +127,9 @@ public FileVisitResult visitFile(final Path file, final BasicFileAttributes attr
              * follow_links == false: Symbolic links are excluded
              * follow_links == true: Symbolic links are followed and therefore not symbolic links but instead whatever
              * they point to */
-            m_visitedFiles++;
+            m_visitedFiles.incrementAndGet();
             if (m_includeFiles && m_filter.test(file, attrs)) {
-                m_paths.add(file);
+                addPath(file);
             }
         } else {
             // we only care for files and folders
@@ -141,23 +145,27 @@ public FileVisitResult visitFileFailed(final Path file, final IOException exc) t
     @Override
     public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
         super.preVisitDirectory(dir, attrs);
-        m_visitedFolders++;
-        // the root directory is ignored
-        if (m_visitedFolders > 0 && m_includeSubfolders && m_includeFolders && m_filter.test(dir, attrs)) {
-            m_paths.add(dir);
+        // the root directory is visited first and ignored
+        final boolean isRoot = m_visitedFolders.incrementAndGet() == 0;
+        if (!isRoot && m_includeSubfolders && m_includeFolders && m_filter.test(dir, attrs)) {
+            addPath(dir);
         }
-        return m_visitedFolders == 0 || m_filter.visitFolder(dir) ? FileVisitResult.CONTINUE
-            : FileVisitResult.SKIP_SUBTREE;
+        return isRoot || m_filter.visitFolder(dir) ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
     }
 
-    List<Path> getPaths() {
+    /** Only adding the path is synchronized, the filter may access the file system and runs concurrently. */
+    private synchronized void addPath(final Path path) {
+        m_paths.add(path);
+    }
+
+    synchronized List<Path> getPaths() {
         return m_paths;
     }
 
-    FileFilterStatistic getFileFilterStatistic() {
+    synchronized FileFilterStatistic getFileFilterStatistic() {
         return new FileFilterStatistic(m_filter.getNumberOfFilteredFiles(), m_filter.getNumberOfFilteredHiddenFiles(),
-            m_filter.getNumberOfFilteredSpecialFiles(), m_visitedFiles, m_filter.getNumberOfFilteredFolders(),
-            m_filter.getNumberOfFilteredHiddenFolders(), m_visitedFolders);
+            m_filter.getNumberOfFilteredSpecialFiles(), m_visitedFiles.get(), m_filter.getNumberOfFilteredFolders(),
+            m_filter.getNumberOfFilteredHiddenFolders(), m_visitedFolders.get());
     }
 
 }
@@ -67,6 +67,7 @@
 import org.knime.core.node.util.CheckUtils;
 import org.knime.filehandling.core.node.table.reader.config.MultiTableReadConfig;
 import org.knime.filehandling.core.node.table.reader.config.ReaderSpecificConfig;
+import org.knime.filehandling.core.node.table.reader.config.tablespec.ConfigID;
 import org.knime.filehandling.core.node.table.reader.config.tablespec.TableSpecConfig;
 import org.knime.filehandling.core.node.table.reader.rowkey.GenericRowKeyGeneratorContextFactory;
 import org.knime.filehandling.core.node.table.reader.selector.RawSpec;
@@ -106,6 +107,8 @@
 
     private final DefaultTableTransformationFactory<T> m_transformationModelCreator;
 
+    private final TableSpecCache m_specCache = TableSpecCache.getInstance();
+
     /**
      * Constructor.
      *
@@ -137,9 +140,11 @@ public StagedMultiTableRead<I, T> create(final SourceGroup<I> sourceGroup, final
     private Map<I, TypedReaderTableSpec<T>> readIndividualSpecs(final SourceGroup<I> sourceGroup,
         final MultiTableReadConfig<C, T> config, final ExecutionMonitor exec) throws IOException {
         final Map<I, TypedReaderTableSpec<T>> specs = new LinkedHashMap<>(sourceGroup.size());
+        final ConfigID configID = config.getConfigID();
         for (I item : sourceGroup) {
-            final TypedReaderTableSpec<T> spec =
-                m_reader.readSpec(item, config.getTableReadConfig(), exec.createSubProgress(1.0 / sourceGroup.size()));
+            // only items that are new or changed since their spec was last read need to be analyzed
+            final TypedReaderTableSpec<T> spec = m_specCache.readSpec(m_reader, item, config.getTableReadConfig(),
+                configID, exec.createSubProgress(1.0 / sourceGroup.size()));
             specs.put(item, MultiTableUtils.assignNamesIfMissing(spec));
         }
         return specs;
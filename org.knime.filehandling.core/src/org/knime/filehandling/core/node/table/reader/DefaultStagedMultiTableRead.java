@@ -53,6 +53,7 @@
 import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -67,6 +68,7 @@
 import org.knime.filehandling.core.node.table.reader.config.tablespec.DefaultTableSpecConfig;
 import org.knime.filehandling.core.node.table.reader.config.tablespec.TableSpecConfig;
 import org.knime.filehandling.core.node.table.reader.read.Read;
+import org.knime.filehandling.core.node.table.reader.read.ReadPushdown;
 import org.knime.filehandling.core.node.table.reader.read.ReadUtils;
 import org.knime.filehandling.core.node.table.reader.rowkey.GenericRowKeyGeneratorContextFactory;
 import org.knime.filehandling.core.node.table.reader.selector.RawSpec;
@@ -169,10 +171,21 @@ public MultiTableRead<T> withTransformation(final SourceGroup<I> sourceGroup,
     private DefaultMultiTableRead<I, T, V> createMultiTableRead(final SourceGroup<I> sourceGroup,
         final TableTransformation<T> transformationModel, final TableReadConfig<C> tableReadConfig,
         final TableSpecConfig<T> tableSpecConfig) {
-        return new DefaultMultiTableRead<>(sourceGroup, p -> createRead(p, tableReadConfig), () -> {
-            IndividualTableReaderFactory<I, T, V> factory = createIndividualTableReaderFactory(transformationModel);
-            return factory::create;
-        }, tableReadConfig, tableSpecConfig);
+        final Function<I, ReadPushdown> pushdownFactory = createPushdownFactory(transformationModel);
+        return new DefaultMultiTableRead<>(sourceGroup,
+            p -> createRead(p, tableReadConfig, pushdownFactory.apply(p)), () -> {
+                IndividualTableReaderFactory<I, T, V> factory =
+                    createIndividualTableReaderFactory(transformationModel);
+                return factory::create;
+            }, tableReadConfig, tableSpecConfig);
+    }
+
+    private Function<I, ReadPushdown> createPushdownFactory(final TableTransformation<T> transformationModel) {
+        // like the individual table readers, the pushdown is only determined once the items are actually read
+        final AtomicReference<IndividualTableReaderFactory<I, T, V>> factory = new AtomicReference<>();
+        return item -> factory
+            .updateAndGet(f -> f == null ? createIndividualTableReaderFactory(transformationModel) : f)//
+            .createPushdown(item);
     }
 
     private IndividualTableReaderFactory<I, T, V>
@@ -191,8 +204,10 @@ private Function<I, DataCell> createItemIdentifierCellFactory() {
         }
     }
 
-    private Read<V> createRead(final I path, final TableReadConfig<C> config) throws IOException {
-        final Read<V> rawRead = m_reader.read(path, config);
+    private Read<V> createRead(final I path, final TableReadConfig<C> config, final ReadPushdown pushdown)
+        throws IOException {
+        // the reader only has to provide the columns that end up in the output (or the row ids)
+        final Read<V> rawRead = m_reader.read(path, config, pushdown);
         if (config.decorateRead()) {
             return ReadUtils.decorateForReading(rawRead, config);
         }
@@ -56,6 +56,7 @@
 import org.knime.filehandling.core.node.table.reader.config.ReaderSpecificConfig;
 import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
 import org.knime.filehandling.core.node.table.reader.read.Read;
+import org.knime.filehandling.core.node.table.reader.read.ReadPushdown;
 import org.knime.filehandling.core.node.table.reader.spec.TypedReaderTableSpec;
 
 /**
@@ -79,9 +80,27 @@
      * @return a {@link Read} that reads from an input item using the provided {@link TableReadConfig config}
      * @throws IOException if creating the read fails due to IO problems
      */
-    // TODO add separate parameter for doing pushdown e.g. filtering
     Read<V> read(I item, TableReadConfig<C> config) throws IOException;
 
+    /**
+     * Creates a read object that can be used to read the table in an input item row by row and which may skip
+     * materializing the values that are not required according to the provided {@link ReadPushdown}.</br>
+     * The rows must have the same size and column positions as the rows returned by
+     * {@link #read(Object, TableReadConfig)}, only the values of columns that are not required may be {@code null}.
+     * The default implementation ignores the pushdown.
+     *
+     * @param item of the table
+     * @param config for reading the table
+     * @param pushdown describing which parts of the table are actually consumed
+     * @return a {@link Read} that reads from an input item using the provided {@link TableReadConfig config}
+     * @throws IOException if creating the read fails due to IO problems
+     * @since 4.5
+     */
+    default Read<V> read(final I item, final TableReadConfig<C> config, final ReadPushdown pushdown)
+        throws IOException {
+        return read(item, config);
+    }
+
     /**
      * Reads the spec of the table stored at the input item. Note that the spec should not be filtered i.e. any
      * column filter should be ignored.
@@ -55,6 +55,7 @@
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.knime.core.data.DataCell;
@@ -62,6 +63,7 @@
 import org.knime.core.data.filestore.FileStoreFactory;
 import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
 import org.knime.filehandling.core.node.table.reader.randomaccess.RandomAccessibleDecorator;
+import org.knime.filehandling.core.node.table.reader.read.ReadPushdown;
 import org.knime.filehandling.core.node.table.reader.rowkey.GenericRowKeyGeneratorContext;
 import org.knime.filehandling.core.node.table.reader.rowkey.RowKeyGenerator;
 import org.knime.filehandling.core.node.table.reader.selector.ColumnTransformation;
@@ -169,6 +171,26 @@ public DefaultIndividualTableReader<V> create(final I item, final FileStoreFacto
         return new DefaultIndividualTableReader<>(typeMapper, idxMapper, rowKeyGen, identifierCell);
     }
 
+    /**
+     * Creates the {@link ReadPushdown} for the provided item i.e. the projection on the columns of the item that are
+     * needed to create the output table.
+     *
+     * @param item the item to read from
+     * @return the {@link ReadPushdown} for <b>item</b>
+     */
+    public ReadPushdown createPushdown(final I item) {
+        final IndexMapper idxMapper = m_indexMapperFactory.createIndexMapper(m_specs.get(item));
+        final IntStream.Builder requiredColumns = IntStream.builder();
+        final int rangeEnd = idxMapper.getIndexRangeEnd().orElse(-1);
+        for (int i = 0; i <= rangeEnd; i++) {
+            if (idxMapper.hasMapping(i)) {
+                requiredColumns.add(idxMapper.map(i));
+            }
+        }
+        idxMapper.getRowIDIdx().ifPresent(requiredColumns::add);
+        return ReadPushdown.projection(requiredColumns.build().toArray());
+    }
+
     private RandomAccessibleDecorator<V> createIndexMapper(final TypedReaderTableSpec<T> spec) {
         final IndexMapper idxMapper = m_indexMapperFactory.createIndexMapper(spec);
         final IndexMappingRandomAccessibleDecorator<V> idxMappingDecorator =
@@ -0,0 +1,317 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.filehandling.core.node.table.reader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.NodeLogger;
+import org.knime.filehandling.core.connections.FSLocation;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.node.table.reader.config.ReaderSpecificConfig;
+import org.knime.filehandling.core.node.table.reader.config.TableReadConfig;
+import org.knime.filehandling.core.node.table.reader.config.tablespec.ConfigID;
+import org.knime.filehandling.core.node.table.reader.preview.PreviewExecutionMonitor;
+import org.knime.filehandling.core.node.table.reader.spec.TypedReaderTableSpec;
+
+/**
+ * Caches the {@link TypedReaderTableSpec specs} guessed for individual items across executions and dialog openings,
+ * so that only new or changed items have to be analyzed again.</br>
+ * An entry is identified by the reader, the {@link ConfigID} of the read and a fingerprint of the item. For files the
+ * fingerprint consists of the {@link FSLocation}, the size and the last modified time. Items without fingerprint
+ * (e.g. tables) are never cached. Neither are specs whose guessing has been canceled or that have been guessed for the
+ * preview of a dialog, since they might be based on only part of the rows.</br>
+ * The cache is bounded by the total number of cached columns (see {@link #PROPERTY_MAX_COLUMNS}) and evicts the least
+ * recently used entries first.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TableSpecCache {
+
+    /**
+     * The system property specifying the maximal number of columns of all cached specs combined, a value of 0
+     * disables the cache.
+     */
+    static final String PROPERTY_MAX_COLUMNS = "knime.tablereader.speccache.maxcolumns";
+
+    private static final int DEFAULT_MAX_COLUMNS = 1 << 18;
+
+    /**
+     * Files modified less than this many milliseconds before their spec is read are not cached because they might be
+     * modified again without changing their last modified time (which may only have a resolution of seconds).
+     */
+    private static final long UNSTABLE_INTERVAL_MS = 2000;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(TableSpecCache.class);
+
+    private static final TableSpecCache INSTANCE = new TableSpecCache(
+        Math.max(0, Integer.getInteger(PROPERTY_MAX_COLUMNS, DEFAULT_MAX_COLUMNS)), TableSpecCache::fingerprintFile);
+
+    private final long m_maxColumns;
+
+    private final Function<Object, Optional<Object>> m_fingerprinter;
+
+    /** access ordered i.e. the eldest entry is the least recently used one */
+    private final LinkedHashMap<Key, TypedReaderTableSpec<?>> m_specs = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long m_numColumns = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param maxColumns the maximal number of columns of all cached specs combined
+     * @param fingerprinter creates the fingerprint of an item, the empty optional if the item can't be cached
+     */
+    TableSpecCache(final long maxColumns, final Function<Object, Optional<Object>> fingerprinter) {
+        m_maxColumns = maxColumns;
+        m_fingerprinter = fingerprinter;
+    }
+
+    /**
+     * Returns the cache that is shared by all reader nodes.
+     *
+     * @return the shared cache
+     */
+    static TableSpecCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached spec of the provided item or reads it with the provided reader if there is no valid entry.
+     *
+     * @param <I> the item type
+     * @param <C> the type of the reader specific config
+     * @param <T> the type used to identify external data types
+     * @param reader used to read the spec if it isn't cached
+     * @param item to read the spec from
+     * @param config for reading the spec
+     * @param configID identifying the settings the spec depends on, may be {@code null} in which case nothing is
+     *            cached
+     * @param exec the execution monitor
+     * @return the spec of <b>item</b>
+     * @throws IOException if reading the spec fails due to IO problems
+     */
+    <I, C extends ReaderSpecificConfig<C>, T> TypedReaderTableSpec<T> readSpec(
+        final GenericTableReader<I, C, T, ?> reader, final I item, final TableReadConfig<C> config,
+        final ConfigID configID, final ExecutionMonitor exec) throws IOException {
+        final Optional<Object> fingerprint =
+            m_maxColumns > 0 && configID != null ? m_fingerprinter.apply(item) : Optional.empty();
+        if (!fingerprint.isPresent()) {
+            return reader.readSpec(item, config, exec);
+        }
+        final Key key = new Key(reader.getClass().getName(), configID, fingerprint.get());
+        final TypedReaderTableSpec<T> cached = get(key);
+        if (cached != null) {
+            exec.setProgress(1.0);
+            return cached;
+        }
+        final TypedReaderTableSpec<T> spec = reader.readSpec(item, config, exec);
+        if (isComplete(exec)) {
+            put(key, spec);
+        }
+        return spec;
+    }
+
+    /**
+     * The spec guessing stops early and returns the spec of the rows read so far if it is canceled. If the monitor is
+     * a {@link PreviewExecutionMonitor}, the guessing also stops early and records the error instead of throwing it.
+     * Such partial specs must not be cached.
+     *
+     * @param exec the monitor the spec has been read with
+     * @return {@code true} if the spec has been guessed from all rows that a regular execution would consider
+     */
+    private static boolean isComplete(final ExecutionMonitor exec) {
+        if (exec instanceof PreviewExecutionMonitor) {
+            // besides failing, the preview may have been cut short because the settings changed in the meantime
+            return false;
+        }
+        try {
+            exec.checkCanceled();
+            return true;
+        } catch (CanceledExecutionException e) {// NOSONAR the spec is returned nonetheless
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked") // the key contains the reader which determines the type
+    private synchronized <T> TypedReaderTableSpec<T> get(final Key key) {
+        return (TypedReaderTableSpec<T>)m_specs.get(key);
+    }
+
+    private synchronized void put(final Key key, final TypedReaderTableSpec<?> spec) {
+        final TypedReaderTableSpec<?> previous = m_specs.put(key, spec);
+        if (previous != null) {
+            m_numColumns -= weight(previous);
+        }
+        m_numColumns += weight(spec);
+        final Iterator<Entry<Key, TypedReaderTableSpec<?>>> eldestFirst = m_specs.entrySet().iterator();
+        while (m_numColumns > m_maxColumns && eldestFirst.hasNext()) {
+            m_numColumns -= weight(eldestFirst.next().getValue());
+            eldestFirst.remove();
+        }
+    }
+
+    private static long weight(final TypedReaderTableSpec<?> spec) {
+        // even specs without columns occupy some memory
+        return spec.size() + 1L;
+    }
+
+    /**
+     * Returns the number of cached specs.
+     *
+     * @return the number of cached specs
+     */
+    synchronized int size() {
+        return m_specs.size();
+    }
+
+    /**
+     * Removes all entries.
+     */
+    synchronized void clear() {
+        m_specs.clear();
+        m_numColumns = 0;
+    }
+
+    private static Optional<Object> fingerprintFile(final Object item) {
+        if (!(item instanceof FSPath)) {
+            return Optional.empty();
+        }
+        final FSPath path = (FSPath)item;
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            final long lastModified = attributes.lastModifiedTime().toMillis();
+            if (!attributes.isRegularFile() || lastModified <= 0
+                || lastModified > System.currentTimeMillis() - UNSTABLE_INTERVAL_MS) {
+                return Optional.empty();
+            }
+            return Optional.of(new FileFingerprint(path.toFSLocation(), attributes.size(), lastModified));
+        } catch (IOException ex) {
+            // the reader will fail with a more meaningful message
+            LOGGER.debug("Can't read the attributes of " + path + ".", ex);
+            return Optional.empty();
+        }
+    }
+
+    private static final class FileFingerprint {
+
+        private final FSLocation m_location;
+
+        private final long m_size;
+
+        private final long m_lastModified;
+
+        FileFingerprint(final FSLocation location, final long size, final long lastModified) {
+            m_location = location;
+            m_size = size;
+            m_lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof FileFingerprint) {
+                final FileFingerprint other = (FileFingerprint)obj;
+                return m_size == other.m_size && m_lastModified == other.m_lastModified
+                    && m_location.equals(other.m_location);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(m_location, m_size, m_lastModified);
+        }
+    }
+
+    private static final class Key {
+
+        private final String m_reader;
+
+        private final ConfigID m_configID;
+
+        private final Object m_fingerprint;
+
+        Key(final String reader, final ConfigID configID, final Object fingerprint) {
+            m_reader = reader;
+            m_configID = configID;
+            m_fingerprint = fingerprint;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof Key) {
+                final Key other = (Key)obj;
+                return m_reader.equals(other.m_reader) && m_configID.equals(other.m_configID)
+                    && m_fingerprint.equals(other.m_fingerprint);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(m_reader, m_configID, m_fingerprint);
+        }
+    }
+
+}
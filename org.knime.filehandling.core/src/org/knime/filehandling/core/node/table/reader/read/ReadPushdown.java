@@ -0,0 +1,144 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 19, 2026 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.filehandling.core.node.table.reader.read;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.knime.filehandling.core.node.table.reader.GenericTableReader;
+
+/**
+ * Describes the parts of a table that are actually consumed by the table reader framework, so that a
+ * {@link GenericTableReader} can avoid materializing the rest.</br>
+ * The description is a hint, i.e. readers are free to ignore it and return complete rows. Readers that make use of it
+ * must still return rows whose size and column positions are the same as without pushdown, only the values of columns
+ * that are not {@link #isRequired(int) required} may be {@code null}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @noreference non-public API
+ * @noinstantiate non-public API
+ * @since 4.5
+ */
+public final class ReadPushdown {
+
+    private static final ReadPushdown NONE = new ReadPushdown(null);
+
+    /** the required column indices, {@code null} if all columns are required */
+    private final BitSet m_requiredColumns;
+
+    private ReadPushdown(final BitSet requiredColumns) {
+        m_requiredColumns = requiredColumns;
+    }
+
+    /**
+     * Returns the {@link ReadPushdown} that requires all columns i.e. that corresponds to not pushing anything down.
+     *
+     * @return the {@link ReadPushdown} that requires everything
+     */
+    public static ReadPushdown none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a {@link ReadPushdown} that only requires the columns with the provided indices. The indices are the
+     * indices within the rows returned by the {@link Read}.
+     *
+     * @param requiredColumns the indices of the required columns (non-negative, may contain duplicates)
+     * @return a {@link ReadPushdown} projecting on the provided columns
+     */
+    public static ReadPushdown projection(final int... requiredColumns) {
+        final BitSet required = new BitSet();
+        for (int idx : requiredColumns) {
+            if (idx < 0) {
+                throw new IllegalArgumentException("Column indices must be non-negative but was " + idx);
+            }
+            required.set(idx);
+        }
+        return new ReadPushdown(required);
+    }
+
+    /**
+     * Indicates whether only a subset of the columns is required.
+     *
+     * @return {@code true} if only the columns in {@link #getRequiredColumns()} are required
+     */
+    public boolean isProjected() {
+        return m_requiredColumns != null;
+    }
+
+    /**
+     * Indicates whether the values of the column with the provided index are required.
+     *
+     * @param idx the index of the column within the rows returned by the {@link Read}
+     * @return {@code true} if the values of the column are required
+     */
+    public boolean isRequired(final int idx) {
+        return m_requiredColumns == null || m_requiredColumns.get(idx);
+    }
+
+    /**
+     * Returns the indices of the required columns in ascending order.
+     *
+     * @return the indices of the required columns
+     * @throws IllegalStateException if all columns are required i.e. the pushdown is not {@link #isProjected()
+     *             projected}
+     */
+    public int[] getRequiredColumns() {
+        if (m_requiredColumns == null) {
+            throw new IllegalStateException("All columns are required.");
+        }
+        return m_requiredColumns.stream().toArray();
+    }
+
+    @Override
+    public String toString() {
+        return isProjected() ? ("Projection " + Arrays.toString(getRequiredColumns())) : "No pushdown";
+    }
+
+}
@@ -61,18 +61,35 @@
 
 /**
  * Class which holds an {@link InputStream} and a {@link CountingInputStream} to be used in reader nodes which can read
- * .gz files.
+ * .gz files.</br>
+ * If the system property {@value #PROPERTY_READ_AHEAD} is set to {@code true}, files are read and decompressed on a
+ * background thread into a bounded ring of buffers, which overlaps the I/O and decompression with the parsing.
  *
  * @author Lars Schweikardt, KNIME GmbH, Konstanz, Germany
  */
 public final class CompressionAwareCountingInputStream extends InputStream {
 
+    /**
+     * The system property that enables the asynchronous read-ahead for streams created from a {@link Path}.
+     *
+     * @since 4.5
+     */
+    public static final String PROPERTY_READ_AHEAD = "knime.filehandling.readahead";
+
     private static final NodeLogger LOGGER = NodeLogger.getLogger(CompressionAwareCountingInputStream.class);
 
+    /** The size of the read-ahead buffers. */
+    private static final int READ_AHEAD_BUFFER_SIZE = 1 << 20;
+
+    /** The number of read-ahead buffers, i.e. one being consumed while the others are filled. */
+    private static final int READ_AHEAD_BUFFERS = 4;
+
     private CountingInputStream m_countingStream;
 
     private InputStream m_inputStream;
 
+    private ReadAheadInputStream m_readAheadStream;
+
     /**
      * Constructor.
      *
@@ -80,7 +97,25 @@ public final class CompressionAwareCountingInputStream extends InputStream {
      * @throws IOException
      */
     public CompressionAwareCountingInputStream(final Path path) throws IOException {
+        this(path, Boolean.getBoolean(PROPERTY_READ_AHEAD));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param path {@link Path} of the file to be read
+     * @param readAhead {@code true} if the file should be read (and decompressed) asynchronously ahead of the consumer
+     * @throws IOException
+     * @since 4.5
+     */
+    public CompressionAwareCountingInputStream(final Path path, final boolean readAhead) throws IOException {
         createStreams(path);
+        if (readAhead) {
+            final CountingInputStream countingStream = m_countingStream;
+            m_readAheadStream = new ReadAheadInputStream(m_inputStream, countingStream::getCount,
+                READ_AHEAD_BUFFER_SIZE, READ_AHEAD_BUFFERS);
+            m_inputStream = m_readAheadStream;
+        }
     }
 
     /**
@@ -89,7 +124,8 @@ public CompressionAwareCountingInputStream(final Path path) throws IOException {
      * @param inputStream the {@link InputStream}
      */
     public CompressionAwareCountingInputStream(final InputStream inputStream) {
-        m_inputStream = new CountingInputStream(inputStream);
+        m_countingStream = new CountingInputStream(inputStream);
+        m_inputStream = m_countingStream;
     }
 
     /**
@@ -98,6 +134,10 @@ public CompressionAwareCountingInputStream(final InputStream inputStream) {
      * @return the already read bytes by the {@link CountingInputStream}
      */
     public long getCount() {
+        if (m_readAheadStream != null) {
+            // the counting stream is ahead of the consumer
+            return m_readAheadStream.getCount();
+        }
         return m_countingStream.getCount();
     }
 
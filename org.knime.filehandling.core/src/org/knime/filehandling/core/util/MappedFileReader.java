@@ -0,0 +1,448 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.apache.commons.lang3.SystemUtils;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.connections.meta.FSType;
+
+/**
+ * A {@link BufferedReader} for files of the local file system that maps the file in large windows and decodes the
+ * characters directly from the mapped bytes. Lines are found by scanning the bytes for line breaks, which is possible
+ * because the supported charsets (UTF-8, US-ASCII and ISO-8859-1) never use the bytes of '\n' and '\r' within other
+ * characters. Malformed input is replaced like {@link java.io.InputStreamReader} does, and a UTF-8 BOM is skipped.<br>
+ * Instances are created via {@link #open(FSPath, Charset)}, which returns an empty {@link Optional} for all inputs
+ * that have to be read via streams, e.g. compressed or non-local files.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @noreference non-public API
+ * @since 4.5
+ */
+public final class MappedFileReader extends BufferedReader {
+
+    /**
+     * The system property that enables ({@code true}) or disables ({@code false}) memory mapping local files. It is
+     * enabled by default except on Windows, where mapped files remain locked until the mapping is garbage collected.
+     */
+    public static final String PROPERTY_MEMORY_MAPPING = "knime.filehandling.mmap";
+
+    private static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private static final byte[] UTF8_BOM = {(byte)0xEF, (byte)0xBB, (byte)0xBF};
+
+    /** The maximal number of bytes of a single UTF-8 encoded character, a window must be able to hold it. */
+    private static final int MAX_BYTES_PER_CHAR = 4;
+
+    private enum Decoding {
+            UTF_8, US_ASCII, ISO_8859_1;
+    }
+
+    private final FileChannel m_channel;
+
+    private final long m_size;
+
+    private final int m_windowSize;
+
+    private final Charset m_charset;
+
+    private final Decoding m_decoding;
+
+    /** The absolute position of the first byte of the current window. */
+    private long m_windowStart;
+
+    private MappedByteBuffer m_window;
+
+    /** The low surrogate of a supplementary character that did not fit into the caller's buffer, -1 if none. */
+    private int m_pendingChar = -1;
+
+    private byte[] m_lineBytes = new byte[256];
+
+    private boolean m_closed;
+
+    MappedFileReader(final Path localPath, final Charset charset, final int windowSize) throws IOException {
+        super(Reader.nullReader(), 1);
+        if (windowSize < MAX_BYTES_PER_CHAR) {
+            throw new IllegalArgumentException("The window size must be at least " + MAX_BYTES_PER_CHAR + ".");
+        }
+        m_decoding = getDecoding(charset)
+            .orElseThrow(() -> new IllegalArgumentException("Unsupported charset: " + charset.name()));
+        m_charset = charset;
+        m_windowSize = windowSize;
+        m_channel = FileChannel.open(localPath, StandardOpenOption.READ);
+        try {
+            m_size = m_channel.size();
+            map(0);
+            if (m_decoding == Decoding.UTF_8 && startsWithBom()) {
+                m_window.position(UTF8_BOM.length);
+            }
+        } catch (IOException | RuntimeException ex) {
+            m_channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens a {@link MappedFileReader} for the given path if it belongs to the local file system, is not compressed,
+     * is encoded with a supported charset and memory mapping is enabled (see {@link #PROPERTY_MEMORY_MAPPING}).
+     *
+     * @param path the path of the file to read
+     * @param charset the charset of the file
+     * @return the reader or {@link Optional#empty()} if the file has to be read via an input stream
+     * @throws IOException if the file can't be opened
+     */
+    public static Optional<MappedFileReader> open(final FSPath path, final Charset charset) throws IOException {
+        if (!isMemoryMappingEnabled() || !getDecoding(charset).isPresent()
+            || !FSType.LOCAL_FS.equals(path.getFileSystem().getFSType())
+            || FileCompressionUtils.mightBeCompressed(path)) {
+            return Optional.empty();
+        }
+        // the local file system paths are backed by paths of the platform's default file system
+        final Path localPath = Paths.get(path.toAbsolutePath().toString());
+        return Optional.of(new MappedFileReader(localPath, charset, DEFAULT_WINDOW_SIZE));
+    }
+
+    /**
+     * Returns whether local files may be memory mapped (see {@link #PROPERTY_MEMORY_MAPPING}).
+     *
+     * @return {@code true} if memory mapping is enabled
+     */
+    public static boolean isMemoryMappingEnabled() {
+        final String property = System.getProperty(PROPERTY_MEMORY_MAPPING);
+        return property == null ? !SystemUtils.IS_OS_WINDOWS : Boolean.parseBoolean(property);
+    }
+
+    private static Optional<Decoding> getDecoding(final Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return Optional.of(Decoding.UTF_8);
+        } else if (StandardCharsets.US_ASCII.equals(charset)) {
+            return Optional.of(Decoding.US_ASCII);
+        } else if (StandardCharsets.ISO_8859_1.equals(charset)) {
+            return Optional.of(Decoding.ISO_8859_1);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private boolean startsWithBom() {
+        if (m_window.limit() < UTF8_BOM.length) {
+            return false;
+        }
+        for (int i = 0; i < UTF8_BOM.length; i++) {
+            if (m_window.get(i) != UTF8_BOM[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void map(final long start) throws IOException {
+        m_windowStart = start;
+        m_window = m_channel.map(MapMode.READ_ONLY, start, Math.min(m_windowSize, m_size - start));
+    }
+
+    private boolean isLastWindow() {
+        return m_windowStart + m_window.limit() >= m_size;
+    }
+
+    /**
+     * Makes sure that at least the given number of bytes are available in the current window unless the end of the
+     * file is reached.
+     *
+     * @return the number of available bytes, which is only smaller than the requested number at the end of the file
+     */
+    private int ensureAvailable(final int nrBytes) throws IOException {
+        if (m_closed) {
+            throw new IOException("Stream closed");
+        }
+        if (m_window.remaining() < nrBytes && !isLastWindow()) {
+            map(m_windowStart + m_window.position());
+        }
+        return m_window.remaining();
+    }
+
+    /**
+     * Returns the number of bytes consumed so far, which allows to compute the progress.
+     *
+     * @return the number of consumed bytes
+     */
+    public long getCount() {
+        return m_windowStart + m_window.position();
+    }
+
+    @Override
+    public int read() throws IOException {
+        final char[] buffer = new char[1];
+        return read(buffer, 0, 1) < 0 ? -1 : buffer[0];
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int n = 0;
+        if (m_pendingChar >= 0) {
+            cbuf[off] = (char)m_pendingChar;
+            m_pendingChar = -1;
+            n++;
+        }
+        while (n < len && ensureAvailable(1) > 0) {
+            final int decoded = decode(cbuf, off + n, len - n);
+            if (decoded == 0) {
+                // an incomplete sequence at the end of the window
+                ensureAvailable(MAX_BYTES_PER_CHAR);
+            }
+            n += decoded;
+        }
+        return n == 0 ? -1 : n;
+    }
+
+    /** Decodes characters from the current window, returns 0 if the window ends with an incomplete sequence. */
+    private int decode(final char[] cbuf, final int off, final int len) {
+        final MappedByteBuffer window = m_window;
+        final int limit = window.limit();
+        int pos = window.position();
+        int n = 0;
+        if (m_decoding == Decoding.ISO_8859_1) {
+            while (n < len && pos < limit) {
+                cbuf[off + n++] = (char)(window.get(pos++) & 0xff);
+            }
+        } else if (m_decoding == Decoding.US_ASCII) {
+            while (n < len && pos < limit) {
+                final byte b = window.get(pos++);
+                cbuf[off + n++] = b < 0 ? REPLACEMENT : (char)b;
+            }
+        } else {
+            while (n < len && pos < limit) {
+                final byte b = window.get(pos);
+                if (b >= 0) {
+                    cbuf[off + n++] = (char)b;
+                    pos++;
+                } else {
+                    final int consumed = decodeUtf8(window, pos, limit, cbuf, off + n);
+                    if (consumed == 0) {
+                        break;
+                    }
+                    pos += consumed;
+                    n++;
+                    if (m_pendingChar >= 0 && n < len) {
+                        cbuf[off + n++] = (char)m_pendingChar;
+                        m_pendingChar = -1;
+                    }
+                }
+            }
+        }
+        window.position(pos);
+        return n;
+    }
+
+    /**
+     * Decodes a single non-ASCII character and writes it (or its high surrogate, in which case the low surrogate
+     * becomes pending) to the buffer at the given offset.
+     *
+     * @return the number of consumed bytes or 0 if more bytes are needed
+     */
+    private int decodeUtf8(final MappedByteBuffer window, final int pos, final int limit, final char[] cbuf,
+        final int off) {
+        final int b0 = window.get(pos) & 0xff;
+        final int nrContinuations;
+        int codePoint;
+        int min = 0x80;
+        int max = 0xBF;
+        if (b0 >= 0xC2 && b0 <= 0xDF) {
+            nrContinuations = 1;
+            codePoint = b0 & 0x1F;
+        } else if (b0 >= 0xE0 && b0 <= 0xEF) {
+            nrContinuations = 2;
+            codePoint = b0 & 0x0F;
+            // no overlong encodings, surrogates are rejected once decoded
+            min = b0 == 0xE0 ? 0xA0 : 0x80;
+        } else if (b0 >= 0xF0 && b0 <= 0xF4) {
+            nrContinuations = 3;
+            codePoint = b0 & 0x07;
+            min = b0 == 0xF0 ? 0x90 : 0x80;
+            max = b0 == 0xF4 ? 0x8F : 0xBF;
+        } else {
+            cbuf[off] = REPLACEMENT;
+            return 1;
+        }
+        for (int i = 1; i <= nrContinuations; i++) {
+            if (pos + i >= limit) {
+                if (isLastWindow()) {
+                    // truncated at the end of the file
+                    cbuf[off] = REPLACEMENT;
+                    return limit - pos;
+                }
+                return 0;
+            }
+            final int b = window.get(pos + i) & 0xff;
+            if (b < min || b > max) {
+                // the maximal valid prefix is replaced
+                cbuf[off] = REPLACEMENT;
+                return i;
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+            min = 0x80;
+            max = 0xBF;
+        }
+        if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            cbuf[off] = Character.highSurrogate(codePoint);
+            m_pendingChar = Character.lowSurrogate(codePoint);
+        } else {
+            cbuf[off] = Character.isSurrogate((char)codePoint) ? REPLACEMENT : (char)codePoint;
+        }
+        return nrContinuations + 1;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        if (m_pendingChar >= 0) {
+            // only happens if read and readLine are mixed
+            final String pending = String.valueOf((char)m_pendingChar);
+            m_pendingChar = -1;
+            final String rest = readLine();
+            return rest == null ? pending : (pending + rest);
+        }
+        if (ensureAvailable(1) == 0) {
+            return null;
+        }
+        int length = 0;
+        while (true) {
+            final MappedByteBuffer window = m_window;
+            final int start = window.position();
+            final int limit = window.limit();
+            int pos = start;
+            byte b = 0;
+            while (pos < limit && (b = window.get(pos)) != '\n' && b != '\r') {
+                pos++;
+            }
+            length = appendLineBytes(window, start, pos, length);
+            if (pos < limit) {
+                // skip the line break
+                window.position(pos + 1);
+                if (b == '\r' && ensureAvailable(1) > 0 && m_window.get(m_window.position()) == '\n') {
+                    m_window.position(m_window.position() + 1);
+                }
+                break;
+            }
+            if (ensureAvailable(1) == 0) {
+                break;
+            }
+        }
+        return new String(m_lineBytes, 0, length, m_charset);
+    }
+
+    private int appendLineBytes(final MappedByteBuffer window, final int from, final int to, final int length) {
+        final int nrBytes = to - from;
+        if (length + nrBytes > m_lineBytes.length) {
+            m_lineBytes = Arrays.copyOf(m_lineBytes, Math.max(2 * m_lineBytes.length, length + nrBytes));
+        }
+        window.get(m_lineBytes, length, nrBytes);
+        return length + nrBytes;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        if (n < 0L) {
+            throw new IllegalArgumentException("skip value is negative");
+        }
+        final char[] buffer = new char[(int)Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            final int read = read(buffer, 0, (int)Math.min(n - skipped, buffer.length));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return m_pendingChar >= 0 || ensureAvailable(1) > 0;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(final int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!m_closed) {
+            m_closed = true;
+            // the mapping itself is released once the buffer is garbage collected
+            m_channel.close();
+        }
+    }
+}
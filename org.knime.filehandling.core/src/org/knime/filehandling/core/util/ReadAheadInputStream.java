@@ -0,0 +1,286 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.core.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.LongSupplier;
+
+import org.knime.core.util.ThreadUtils;
+
+/**
+ * An {@link InputStream} that reads (and possibly decompresses) its source on a background thread into a bounded ring
+ * of buffers, while the consumer reads the previously filled buffers. This overlaps I/O and decompression with the
+ * consumer's processing. Any failure of the source, including runtime exceptions and errors, is passed on to the
+ * consumer and thrown by all subsequent reads.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ReadAheadInputStream extends InputStream {
+
+    /** Marks the end of the source, has no data. */
+    private static final Chunk END = new Chunk(new byte[0]);
+
+    private final InputStream m_source;
+
+    private final LongSupplier m_sourceCount;
+
+    private final BlockingQueue<Chunk> m_filled;
+
+    private final BlockingQueue<Chunk> m_free;
+
+    private final Thread m_producer;
+
+    private volatile boolean m_closed;
+
+    private Chunk m_current;
+
+    private int m_position;
+
+    private long m_count;
+
+    /**
+     * Constructor.
+     *
+     * @param source the stream to read ahead, it is closed when this stream is closed
+     * @param sourceCount provides the number of raw bytes read so far, used to compute the progress via
+     *            {@link #getCount()}
+     * @param bufferSize the size of the buffers
+     * @param nrBuffers the number of buffers in the ring, at least 2
+     */
+    ReadAheadInputStream(final InputStream source, final LongSupplier sourceCount, final int bufferSize,
+        final int nrBuffers) {
+        if (nrBuffers < 2) {
+            throw new IllegalArgumentException("At least two buffers are needed.");
+        }
+        m_source = source;
+        m_sourceCount = sourceCount;
+        // one more slot than buffers in order to always fit the end marker or a failure
+        m_filled = new ArrayBlockingQueue<>(nrBuffers + 1);
+        m_free = new ArrayBlockingQueue<>(nrBuffers);
+        for (int i = 0; i < nrBuffers; i++) {
+            m_free.add(new Chunk(new byte[bufferSize]));
+        }
+        m_producer = ThreadUtils.threadWithContext(this::fill);
+        m_producer.setName("KNIME-Read-Ahead");
+        m_producer.setDaemon(true);
+        m_producer.start();
+    }
+
+    /** Runs on the producer thread. */
+    private void fill() {
+        try {
+            long count = m_sourceCount.getAsLong();
+            while (!m_closed) {
+                final Chunk chunk = m_free.take();
+                final int length = readFully(chunk.m_data);
+                if (length == 0) {
+                    m_filled.put(END);
+                    return;
+                }
+                chunk.m_length = length;
+                chunk.m_startCount = count;
+                count = m_sourceCount.getAsLong();
+                chunk.m_endCount = count;
+                m_filled.put(chunk);
+                if (length < chunk.m_data.length) {
+                    m_filled.put(END);
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) { // NOSONAR the stream is being closed
+            // nothing to do
+        } catch (Throwable ex) { // NOSONAR any failure must reach the consumer, which would block forever otherwise
+            if (!m_closed) {
+                final Chunk failure = new Chunk(new byte[0]);
+                failure.m_failure = ex;
+                // there is always a slot left for the failure
+                m_filled.offer(failure);
+            }
+        }
+    }
+
+    private int readFully(final byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            final int read = m_source.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the number of raw bytes of the source that correspond to the bytes consumed so far. For uncompressed
+     * sources this is exact, otherwise the count is interpolated within the buffer currently being consumed.
+     *
+     * @return the number of consumed raw bytes
+     */
+    long getCount() {
+        final Chunk chunk = m_current;
+        if (chunk == null || chunk == END || chunk.m_length == 0) {
+            return m_count;
+        }
+        return chunk.m_startCount + (chunk.m_endCount - chunk.m_startCount) * m_position / chunk.m_length;
+    }
+
+    /**
+     * Makes sure that there is data left in the current chunk.
+     *
+     * @return {@code false} if the end of the source has been reached
+     */
+    private boolean ensureData() throws IOException {
+        if (m_closed) {
+            throw new IOException("Stream closed.");
+        }
+        if (m_current == END) {
+            return false;
+        }
+        if (m_current != null && m_position < m_current.m_length) {
+            return true;
+        }
+        if (m_current != null) {
+            m_count = m_current.m_endCount;
+            m_free.add(m_current);
+        }
+        try {
+            m_current = m_filled.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            m_current = null;
+            final InterruptedIOException ioe = new InterruptedIOException("Interrupted while waiting for data.");
+            ioe.initCause(ex);
+            throw ioe;
+        }
+        m_position = 0;
+        if (m_current.m_failure != null) {
+            final Throwable failure = m_current.m_failure;
+            // subsequent reads fail as well
+            m_filled.add(m_current);
+            m_current = null;
+            throw rethrow(failure);
+        }
+        return m_current != END;
+    }
+
+    private static IOException rethrow(final Throwable failure) {
+        if (failure instanceof IOException) {
+            return (IOException)failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException)failure;
+        } else if (failure instanceof Error) {
+            throw (Error)failure;
+        }
+        return new IOException(failure);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        final int value = m_current.m_data[m_position] & 0xff;
+        m_position++;
+        return value;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        final int length = Math.min(len, m_current.m_length - m_position);
+        System.arraycopy(m_current.m_data, m_position, b, off, length);
+        m_position += length;
+        return length;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return m_current == null || m_current == END ? 0 : m_current.m_length - m_position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        m_closed = true;
+        m_producer.interrupt();
+        try {
+            m_producer.join();
+        } catch (InterruptedException ex) { // NOSONAR
+            Thread.currentThread().interrupt();
+        } finally {
+            m_source.close();
+        }
+    }
+
+    private static final class Chunk {
+
+        private final byte[] m_data;
+
+        private int m_length;
+
+        private long m_startCount;
+
+        private long m_endCount;
+
+        private Throwable m_failure;
+
+        Chunk(final byte[] data) {
+            m_data = data;
+        }
+    }
+}
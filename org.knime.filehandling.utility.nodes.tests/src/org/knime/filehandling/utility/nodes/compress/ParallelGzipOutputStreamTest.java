@@ -0,0 +1,191 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.utility.nodes.compress;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the output of the {@link ParallelGzipOutputStream} can be decompressed by a {@link GZIPInputStream}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class ParallelGzipOutputStreamTest {
+
+    private static final int PARALLELISM = 2;
+
+    private ExecutorService m_executor;
+
+    /**
+     * Creates the executor.
+     */
+    @Before
+    public void setup() {
+        m_executor = Executors.newFixedThreadPool(PARALLELISM);
+    }
+
+    /**
+     * Shuts the executor down.
+     */
+    @After
+    public void tearDown() {
+        m_executor.shutdownNow();
+    }
+
+    /**
+     * Tests an empty input.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testEmpty() throws IOException {
+        testRoundTrip(new byte[0]);
+    }
+
+    /**
+     * Tests an input that is smaller than a block.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testSingleBlock() throws IOException {
+        testRoundTrip(createData(12345));
+    }
+
+    /**
+     * Tests inputs that end exactly at a block boundary, i.e. the last block is empty.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testBlockBoundary() throws IOException {
+        testRoundTrip(createData(ParallelGzipOutputStream.BLOCK_SIZE));
+        testRoundTrip(createData(2 * ParallelGzipOutputStream.BLOCK_SIZE));
+        testRoundTrip(createData(ParallelGzipOutputStream.BLOCK_SIZE + 1));
+        testRoundTrip(createData(ParallelGzipOutputStream.BLOCK_SIZE - 1));
+    }
+
+    /**
+     * Tests an input spanning more blocks than are compressed concurrently.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testSeveralBlocks() throws IOException {
+        testRoundTrip(createData(5 * PARALLELISM * ParallelGzipOutputStream.BLOCK_SIZE + 4711));
+    }
+
+    /**
+     * Tests that flushing in between doesn't corrupt the output.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testFlush() throws IOException {
+        final byte[] data = createData(3 * ParallelGzipOutputStream.BLOCK_SIZE + 17);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, m_executor, PARALLELISM)) {
+            for (int offset = 0; offset < data.length; offset += 100000) {
+                out.write(data, offset, Math.min(100000, data.length - offset));
+                out.flush();
+            }
+        }
+        assertArrayEquals(data, decompress(compressed.toByteArray()));
+    }
+
+    private void testRoundTrip(final byte[] data) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, m_executor, PARALLELISM)) {
+            // mix single bytes and arrays of varying length to cross the block boundaries in different ways
+            int offset = 0;
+            int length = 1;
+            while (offset < data.length) {
+                if (length == 1) {
+                    out.write(data[offset]);
+                } else {
+                    out.write(data, offset, Math.min(length, data.length - offset));
+                }
+                offset += length;
+                length = length % 300007 * 7 + 1;
+            }
+        }
+        assertArrayEquals("Round trip of " + data.length + " bytes failed", data, decompress(compressed.toByteArray()));
+    }
+
+    private static byte[] decompress(final byte[] compressed) throws IOException {
+        try (final InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * @return compressible data that repeats itself across the block boundaries
+     */
+    private static byte[] createData(final int length) {
+        final Random random = new Random(length);
+        final byte[] pattern = new byte[50000];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = (byte)('a' + random.nextInt(16));
+        }
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = random.nextInt(10) == 0 ? (byte)random.nextInt() : pattern[i % pattern.length];
+        }
+        return data;
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.utility.nodes.compress;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Tests that the archives written by the {@link ParallelZipWriter} can be read by a {@link ZipFile}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class ParallelZipWriterTest {
+
+    private static final int PARALLELISM = 2;
+
+    /** Larger than the limit up to which entries are compressed in memory. */
+    private static final int LARGE_FILE_SIZE = 9 << 20;
+
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    private ExecutorService m_executor;
+
+    /**
+     * Creates the executor.
+     */
+    @Before
+    public void setup() {
+        m_executor = Executors.newFixedThreadPool(PARALLELISM);
+    }
+
+    /**
+     * Shuts the executor down.
+     */
+    @After
+    public void tearDown() {
+        m_executor.shutdownNow();
+    }
+
+    /**
+     * Tests an archive without entries.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testNoEntries() throws IOException {
+        final Path archive = writeArchive(Collections.emptyList());
+        try (final ZipFile zipFile = new ZipFile(archive.toFile())) {
+            assertEquals(0, zipFile.size());
+        }
+    }
+
+    /**
+     * Tests an empty file, a directory, a small and a large file, i.e. one that is compressed to a temporary file.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testEntries() throws IOException {
+        final List<TestEntry> entries = new ArrayList<>();
+        entries.add(new TestEntry("empty.txt", new byte[0], -1));
+        entries.add(new TestEntry("folder/", null, -1));
+        entries.add(new TestEntry("folder/small.txt", createData(1000), -1));
+        entries.add(new TestEntry("folder/large.bin", createData(LARGE_FILE_SIZE), -1));
+        testRoundTrip(entries);
+    }
+
+    /**
+     * Tests that entries whose method is {@link ZipEntry#STORED} are stored uncompressed.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testStoredEntries() throws IOException {
+        final List<TestEntry> entries = new ArrayList<>();
+        entries.add(new TestEntry("stored_empty.txt", new byte[0], ZipEntry.STORED));
+        entries.add(new TestEntry("stored.txt", createData(5000), ZipEntry.STORED));
+        entries.add(new TestEntry("deflated.txt", createData(5000), ZipEntry.DEFLATED));
+        entries.add(new TestEntry("stored_large.bin", createData(LARGE_FILE_SIZE), ZipEntry.STORED));
+        testRoundTrip(entries);
+    }
+
+    /**
+     * Tests that many entries of varying size, whose compression finishes in arbitrary order, are written in the
+     * order they have been added.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testEntryOrder() throws IOException {
+        final List<TestEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 20 * PARALLELISM; i++) {
+            // the large entries take longer, i.e. they are overtaken by the small ones
+            entries.add(new TestEntry("entry" + i, createData(i % 3 == 0 ? 2 << 20 : i), -1));
+        }
+        testRoundTrip(entries);
+    }
+
+    /**
+     * Tests that closing the writer without finishing it waits for the running compressions before it deletes the
+     * temporary files, i.e. that no temporary file is left behind.
+     *
+     * @throws IOException not thrown
+     */
+    @Test
+    public void testCloseDeletesTempFiles() throws IOException {
+        final File probe = FileUtil.createTempFile("zip-entry-probe", ".bin");
+        final File tempDir = probe.getParentFile();
+        FileUtil.deleteRecursively(probe);
+        final int tempFilesBefore = countTempFiles(tempDir);
+        final Path folder = m_tempFolder.newFolder().toPath();
+        final Path archive = m_tempFolder.getRoot().toPath().resolve(folder.getFileName() + ".zip");
+        try (final OutputStream out = Files.newOutputStream(archive);
+                final ZipArchiveOutputStream zipStream = new ZipArchiveOutputStream(out)) {
+            final ParallelZipWriter writer = new ParallelZipWriter(zipStream, m_executor, PARALLELISM);
+            for (int i = 0; i < PARALLELISM; i++) {
+                final Path file = folder.resolve("large" + i + ".bin");
+                Files.write(file, createData(LARGE_FILE_SIZE));
+                writer.add(new ZipArchiveEntry(file.getFileName().toString()), file);
+            }
+            writer.close();
+        }
+        assertEquals("Temporary files left after close", tempFilesBefore, countTempFiles(tempDir));
+    }
+
+    private static int countTempFiles(final File dir) {
+        final String[] names = dir.list((d, name) -> name.startsWith("zip-entry") && name.endsWith(".bin"));
+        return names == null ? 0 : names.length;
+    }
+
+    private void testRoundTrip(final List<TestEntry> entries) throws IOException {
+        final Path archive = writeArchive(entries);
+        try (final ZipFile zipFile = new ZipFile(archive.toFile())) {
+            final List<? extends ZipEntry> zipEntries = Collections.list(zipFile.entries());
+            assertEquals(entries.size(), zipEntries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                final TestEntry expected = entries.get(i);
+                final ZipEntry actual = zipEntries.get(i);
+                assertEquals("Wrong entry order", expected.m_name, actual.getName());
+                final int expectedMethod =
+                    expected.m_method == ZipEntry.STORED ? ZipEntry.STORED : ZipEntry.DEFLATED;
+                assertEquals("Wrong method of " + expected.m_name, expectedMethod, actual.getMethod());
+                if (expected.m_data == null) {
+                    assertTrue(actual.isDirectory());
+                } else {
+                    assertEquals(expected.m_data.length, actual.getSize());
+                    try (final InputStream in = zipFile.getInputStream(actual)) {
+                        assertArrayEquals("Wrong content of " + expected.m_name, expected.m_data, in.readAllBytes());
+                    }
+                }
+            }
+        }
+    }
+
+    private Path writeArchive(final List<TestEntry> entries) throws IOException {
+        final Path folder = m_tempFolder.newFolder().toPath();
+        final Path archive = m_tempFolder.getRoot().toPath().resolve(folder.getFileName() + ".zip");
+        try (final OutputStream out = Files.newOutputStream(archive);
+                final ZipArchiveOutputStream zipStream = new ZipArchiveOutputStream(out)) {
+            try (final ParallelZipWriter writer = new ParallelZipWriter(zipStream, m_executor, PARALLELISM)) {
+                for (final TestEntry entry : entries) {
+                    final Path file = folder.resolve(entry.m_name);
+                    if (entry.m_data == null) {
+                        Files.createDirectories(file);
+                    } else {
+                        Files.createDirectories(file.getParent());
+                        Files.write(file, entry.m_data);
+                    }
+                    final ZipArchiveEntry zipEntry = new ZipArchiveEntry(entry.m_name);
+                    if (entry.m_method >= 0) {
+                        zipEntry.setMethod(entry.m_method);
+                    }
+                    writer.add(zipEntry, file);
+                }
+                writer.finish();
+            }
+        }
+        return archive;
+    }
+
+    /**
+     * @return partially compressible data
+     */
+    private static byte[] createData(final int length) {
+        final Random random = new Random(length);
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = random.nextBoolean() ? (byte)random.nextInt() : (byte)('a' + i % 26);
+        }
+        return data;
+    }
+
+    /** An entry to write, whose data is <code>null</code> for directories. */
+    private static final class TestEntry {
+
+        private final String m_name;
+
+        private final byte[] m_data;
+
+        private final int m_method;
+
+        TestEntry(final String name, final byte[] data, final int method) {
+            m_name = name;
+            m_data = data;
+            m_method = method;
+        }
+    }
+}
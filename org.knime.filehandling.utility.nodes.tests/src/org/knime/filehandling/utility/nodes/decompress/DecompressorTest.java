@@ -0,0 +1,320 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.filehandling.utility.nodes.decompress;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.RowKey;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.context.ports.PortsConfiguration;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.filehandling.core.connections.DefaultFSConnectionFactory;
+import org.knime.filehandling.core.connections.FSConnection;
+import org.knime.filehandling.core.connections.FSPath;
+import org.knime.filehandling.core.data.location.FSLocationValue;
+import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.FileOverwritePolicy;
+import org.knime.filehandling.utility.nodes.pathtostring.PathToStringNodeFactory;
+import org.knime.filehandling.utility.nodes.utils.FileStatus;
+
+/**
+ * Tests the {@link Decompressor} on zip archives, whose entries are extracted concurrently.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class DecompressorTest {
+
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    private FSConnection m_connection;
+
+    private Path m_destination;
+
+    /**
+     * Creates the connection to the local file system.
+     *
+     * @throws IOException if the destination can't be created
+     */
+    @Before
+    public void setup() throws IOException {
+        m_connection = DefaultFSConnectionFactory.createLocalFSConnection();
+        m_destination = m_tempFolder.newFolder("destination").toPath();
+    }
+
+    /**
+     * Closes the connection.
+     *
+     * @throws Exception if the connection can't be closed
+     */
+    @After
+    public void tearDown() throws Exception {
+        m_connection.close();
+    }
+
+    /**
+     * Tests that the rows are output in the order of the entries, although the files are extracted concurrently, and
+     * that an entry that is contained twice is written in order.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testEntryOrder() throws Exception {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) {
+            // the large entries take longer, i.e. they are overtaken by the small ones
+            entries.put("folder" + (i % 3) + "/sub/file" + i, createData(i, i % 4 == 0 ? 1 << 20 : i));
+        }
+        final Path archive = writeArchive(entries, "folder1/sub/file1", createData(-1, 100));
+
+        final List<DataRow> rows = decompress(archive, FileOverwritePolicy.OVERWRITE);
+
+        // the rows as they are output if the entries are extracted one after the other
+        final List<String> expectedPaths = new ArrayList<>();
+        final List<Boolean> expectedDirectories = new ArrayList<>();
+        final List<FileStatus> expectedStatus = new ArrayList<>();
+        final Set<Path> seen = new HashSet<>();
+        final List<String> names = new ArrayList<>(entries.keySet());
+        names.add("folder1/sub/file1");
+        for (final String name : names) {
+            final Path file = toFSPath(m_destination).resolve(name);
+            for (final Path dir : new Path[]{file.getParent().getParent(), file.getParent()}) {
+                if (seen.add(dir)) {
+                    expectedPaths.add(dir.toString());
+                    expectedDirectories.add(true);
+                    expectedStatus.add(FileStatus.CREATED);
+                }
+            }
+            expectedPaths.add(file.toString());
+            expectedDirectories.add(false);
+            expectedStatus.add(seen.add(file) ? FileStatus.CREATED : FileStatus.OVERWRITTEN);
+        }
+        assertEquals(expectedPaths.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            final DataRow row = rows.get(i);
+            assertEquals(RowKey.createRowKey((long)i), row.getKey());
+            assertEquals(expectedPaths.get(i), ((FSLocationValue)row.getCell(0)).getFSLocation().getPath());
+            assertEquals(expectedDirectories.get(i), ((BooleanValue)row.getCell(1)).getBooleanValue());
+            assertEquals(expectedStatus.get(i).getText(), row.getCell(2).toString());
+        }
+
+        // the duplicate entry has been written last
+        entries.put("folder1/sub/file1", createData(-1, 100));
+        for (final Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            assertArrayEquals(entry.getKey(), entry.getValue(),
+                Files.readAllBytes(m_destination.resolve(entry.getKey())));
+        }
+    }
+
+    /**
+     * Tests that the files and folders of the entries after a failing one are not left behind.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testFailure() throws Exception {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            entries.put("file" + i, createData(i, i % 2 == 0 ? 1 << 20 : i));
+        }
+        for (int i = 10; i < 40; i++) {
+            entries.put("later/file" + i, createData(i, i % 2 == 0 ? 1 << 20 : i));
+        }
+        final Path archive = writeArchive(entries, null, null);
+        final byte[] existing = createData(-1, 10);
+        Files.write(m_destination.resolve("file5"), existing);
+
+        try {
+            decompress(archive, FileOverwritePolicy.FAIL);
+            fail("Overwriting an existing file must fail");
+        } catch (FileAlreadyExistsException e) {
+            // expected
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(entries.get("file" + i), Files.readAllBytes(m_destination.resolve("file" + i)));
+        }
+        assertArrayEquals("The existing file must not be changed", existing,
+            Files.readAllBytes(m_destination.resolve("file5")));
+        for (int i = 6; i < 10; i++) {
+            assertFalse("Entries after the failing one must not be extracted",
+                Files.exists(m_destination.resolve("file" + i)));
+        }
+        assertFalse("Folders after the failing entry must not be created",
+            Files.exists(m_destination.resolve("later")));
+    }
+
+    /**
+     * Tests that the files of the entries whose rows have not been output when the extraction is canceled are not left
+     * behind.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCancel() throws Exception {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) {
+            entries.put("folder" + (i % 3) + "/file" + i, createData(i, i % 2 == 0 ? 1 << 20 : i));
+        }
+        final Path archive = writeArchive(entries, null, null);
+        final DefaultNodeProgressMonitor monitor = new DefaultNodeProgressMonitor();
+        final List<DataRow> rows = new ArrayList<>();
+        try {
+            decompress(archive, FileOverwritePolicy.FAIL, monitor, row -> {
+                rows.add(row);
+                if (rows.size() == 10) {
+                    monitor.setExecuteCanceled();
+                }
+            });
+            fail("The extraction must be canceled");
+        } catch (CanceledExecutionException e) {
+            // expected
+        }
+
+        final Set<String> outputPaths = rows.stream()
+            .map(r -> ((FSLocationValue)r.getCell(0)).getFSLocation().getPath()).collect(Collectors.toSet());
+        assertTrue("The extraction must stop early", outputPaths.size() < entries.size());
+        try (final Stream<Path> files = Files.walk(m_destination)) {
+            files.filter(Files::isRegularFile).map(f -> toFSPath(f).toString()).forEach(f -> assertTrue(
+                "The file " + f + " has been extracted but not been output", outputPaths.contains(f)));
+        }
+    }
+
+    private List<DataRow> decompress(final Path archive, final FileOverwritePolicy policy) throws Exception {
+        final List<DataRow> rows = new ArrayList<>();
+        decompress(archive, policy, new DefaultNodeProgressMonitor(), rows::add);
+        return rows;
+    }
+
+    private void decompress(final Path archive, final FileOverwritePolicy policy,
+        final DefaultNodeProgressMonitor monitor, final Consumer<DataRow> rowConsumer) throws Exception {
+        final DecompressNodeConfig config = new DecompressNodeConfig(mock(PortsConfiguration.class));
+        config.getOutputDirChooserModel().setFileOverwritePolicy(policy);
+        final RowOutput rowOutput = new RowOutput() {
+
+            @Override
+            public void push(final DataRow row) {
+                rowConsumer.accept(row);
+            }
+
+            @Override
+            public void close() {
+                // nothing to close
+            }
+        };
+        final ExecutionContext exec = new ExecutionContext(monitor, new Node(new PathToStringNodeFactory()),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<>());
+        new Decompressor(config, rowOutput, exec).decompress(toFSPath(archive), toFSPath(m_destination));
+    }
+
+    private FSPath toFSPath(final Path path) {
+        return m_connection.getFileSystem().getPath(path.toAbsolutePath().toString());
+    }
+
+    /**
+     * Writes the entries, directories are implicit, and if a duplicate is given, it is appended as last entry.
+     */
+    private Path writeArchive(final Map<String, byte[]> entries, final String duplicateName,
+        final byte[] duplicateData) throws IOException {
+        final Path archive = m_tempFolder.getRoot().toPath().resolve("archive.zip");
+        // unlike the JDK's zip stream, this one allows for duplicate entries
+        try (final ZipArchiveOutputStream out = new ZipArchiveOutputStream(archive.toFile())) {
+            for (final Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                writeEntry(out, entry.getKey(), entry.getValue());
+            }
+            if (duplicateName != null) {
+                writeEntry(out, duplicateName, duplicateData);
+            }
+        }
+        return archive;
+    }
+
+    private static void writeEntry(final ZipArchiveOutputStream out, final String name, final byte[] data)
+        throws IOException {
+        out.putArchiveEntry(new ZipArchiveEntry(name));
+        out.write(data);
+        out.closeArchiveEntry();
+    }
+
+    private static byte[] createData(final long seed, final int length) {
+        final byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
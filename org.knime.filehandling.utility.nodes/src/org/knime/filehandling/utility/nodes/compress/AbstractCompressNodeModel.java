@@ -58,12 +58,18 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.archivers.ar.ArArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.knime.core.node.CanceledExecutionException;
@@ -76,6 +82,7 @@
 import org.knime.core.node.context.ports.PortsConfiguration;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.util.ThreadUtils;
 import org.knime.filehandling.core.connections.FSFiles;
 import org.knime.filehandling.core.connections.FSLocation;
 import org.knime.filehandling.core.connections.FSPath;
@@ -83,6 +90,7 @@
 import org.knime.filehandling.core.defaultnodesettings.filechooser.writer.WritePathAccessor;
 import org.knime.filehandling.core.defaultnodesettings.status.NodeModelStatusConsumer;
 import org.knime.filehandling.core.defaultnodesettings.status.StatusMessage.MessageType;
+import org.knime.filehandling.core.util.CheckedExceptionBiConsumer;
 import org.knime.filehandling.utility.nodes.compress.archiver.ArchiveEntryCreator;
 import org.knime.filehandling.utility.nodes.compress.archiver.ArchiveEntryFactory;
 import org.knime.filehandling.utility.nodes.compress.iterator.CompressEntry;
@@ -106,6 +114,11 @@
     public static final String NAME_COLLISION_ERROR_TEMPLATE =
         "Name collision: '%s' and '%s' map to the same archive entry. Adapting the settings might resolve the problem.";
 
+    /** The number of zip entries or gzip blocks that are compressed concurrently. */
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
     private final T m_config;
 
     private final NodeModelStatusConsumer m_statusConsumer;
@@ -211,18 +224,34 @@ private void compress(final ExecutionContext exec, final CompressIterator filesT
             throw new FileAlreadyExistsException(
                 String.format("The file '%s' already exists and must not be overwritten", outputPath));
         }
+        // without multiple cores everything is written sequentially as before
+        final ExecutorService executor = PARALLELISM > 1 ? createExecutor() : null;
         try (final OutputStream outputStream = FSFiles.newOutputStream(outputPath, overwritePolicy.getOpenOptions())) {
-            try (final OutputStream compressorStream = openCompressorStream(outputStream, compression)) {
-                compress(exec, outputPath.toFSLocation(), filesToCompress, compressorStream, compression);
+            try (final OutputStream compressorStream = openCompressorStream(outputStream, compression, executor)) {
+                compress(exec, outputPath.toFSLocation(), filesToCompress, compressorStream, compression, executor);
             } catch (CompressorException e) {
                 throw new InvalidSettingsException("Unsupported compression type", e);
             }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
         }
     }
 
+    private static ExecutorService createExecutor() {
+        final ThreadFactory threadFactory = r -> {
+            final Thread thread = new Thread(r, "KNIME-Compressor-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // the workers need the node context e.g. for workflow relative paths
+        return ThreadUtils.executorServiceWithContext(Executors.newFixedThreadPool(PARALLELISM, threadFactory));
+    }
+
     private void compress(final ExecutionContext exec, final FSLocation outputLocation,
-        final CompressIterator filesToCompress, final OutputStream compressorStream, final String compression)
-        throws IOException, CanceledExecutionException, InvalidSettingsException {
+        final CompressIterator filesToCompress, final OutputStream compressorStream, final String compression,
+        final ExecutorService executor) throws IOException, CanceledExecutionException, InvalidSettingsException {
         final String archiver = getArchiver(compression);
         try (ArchiveOutputStream archiveStream =
             new ArchiveStreamFactory().createArchiveOutputStream(archiver, compressorStream)) {
@@ -232,12 +261,16 @@ private void compress(final ExecutionContext exec, final FSLocation outputLocati
             }
 
             final ArchiveEntryCreator entryCreator = ArchiveEntryFactory.getArchiveEntryCreator(archiver);
-            final long numOfFiles = filesToCompress.size();
-
-            final Map<String, String> createdEntries = new HashMap<>();
-            while (filesToCompress.hasNext()) {
-                final ExecutionContext subExec = exec.createSubExecutionContext(1d / numOfFiles);
-                compress(subExec, outputLocation, filesToCompress.next(), archiveStream, entryCreator, createdEntries);
+            if (executor != null && archiveStream instanceof ZipArchiveOutputStream) {
+                try (final ParallelZipWriter zipWriter =
+                    new ParallelZipWriter((ZipArchiveOutputStream)archiveStream, executor, PARALLELISM)) {
+                    compress(exec, outputLocation, filesToCompress, entryCreator,
+                        (path, archiveEntry) -> zipWriter.add((ZipArchiveEntry)archiveEntry, path));
+                    zipWriter.finish();
+                }
+            } else {
+                compress(exec, outputLocation, filesToCompress, entryCreator,
+                    (path, archiveEntry) -> createArchiveEntry(archiveStream, path, archiveEntry));
             }
         } catch (ArchiveException e) {
             throw new IllegalArgumentException("Unsupported archive type", e);
@@ -245,6 +278,19 @@ private void compress(final ExecutionContext exec, final FSLocation outputLocati
 
     }
 
+    private void compress(final ExecutionContext exec, final FSLocation outputLocation,
+        final CompressIterator filesToCompress, final ArchiveEntryCreator entryCreator,
+        final CheckedExceptionBiConsumer<Path, ArchiveEntry, IOException> entryWriter)
+        throws IOException, CanceledExecutionException, InvalidSettingsException {
+        final long numOfFiles = filesToCompress.size();
+
+        final Map<String, String> createdEntries = new HashMap<>();
+        while (filesToCompress.hasNext()) {
+            final ExecutionContext subExec = exec.createSubExecutionContext(1d / numOfFiles);
+            compress(subExec, outputLocation, filesToCompress.next(), entryWriter, entryCreator, createdEntries);
+        }
+    }
+
     private static String getArchiver(final String compression) {
         final int archiverDelimiterIdx = compression.indexOf('.');
         final String archiver;
@@ -257,7 +303,8 @@ private static String getArchiver(final String compression) {
     }
 
     private void compress(final ExecutionContext exec, final FSLocation outputLocation,
-        final CompressEntry compressEntry, final ArchiveOutputStream archiveStream,
+        final CompressEntry compressEntry,
+        final CheckedExceptionBiConsumer<Path, ArchiveEntry, IOException> entryWriter,
         final ArchiveEntryCreator entryCreator, final Map<String, String> createdEntries)
         throws CanceledExecutionException, IOException, InvalidSettingsException {
         try {
@@ -268,7 +315,7 @@ private void compress(final ExecutionContext exec, final FSLocation outputLocati
                 exec.setProgress((fileCounter / numOfFiles), () -> ("Compressing file: " + pathToCompress.toString()));
                 exec.checkCanceled();
                 if (!pathToCompress.getPathToCompress().toFSLocation().equals(outputLocation)) {
-                    addEntry(archiveStream, entryCreator, createdEntries, pathToCompress);
+                    addEntry(entryWriter, entryCreator, createdEntries, pathToCompress);
                 } else {
                     setWarningMessage(String.format("Skipping the compression of '%s' as this is the archive itself",
                         pathToCompress.getPathToCompress().toString()));
@@ -280,14 +327,15 @@ private void compress(final ExecutionContext exec, final FSLocation outputLocati
         }
     }
 
-    private static void addEntry(final ArchiveOutputStream archiveStream, final ArchiveEntryCreator entryCreator,
-        final Map<String, String> createdEntries, final CompressPair pathToCompress) throws IOException {
+    private static void addEntry(final CheckedExceptionBiConsumer<Path, ArchiveEntry, IOException> entryWriter,
+        final ArchiveEntryCreator entryCreator, final Map<String, String> createdEntries,
+        final CompressPair pathToCompress) throws IOException {
         final FSPath path = pathToCompress.getPathToCompress();
         final String archiveEntryName = pathToCompress.getArchiveEntryName();
         if (!createdEntries.containsKey(archiveEntryName)) {
             entryCreator.validate(path, archiveEntryName);
             final ArchiveEntry archiveEntry = entryCreator.apply(path, archiveEntryName); //NOSONAR no expansion
-            createArchiveEntry(archiveStream, path, archiveEntry);
+            entryWriter.accept(path, archiveEntry);
         } else {
             throw new IllegalArgumentException(
                 String.format(NAME_COLLISION_ERROR_TEMPLATE, createdEntries.get(archiveEntryName), path.toString()));
@@ -308,13 +356,15 @@ private static void createArchiveEntry(final ArchiveOutputStream archiveStream,
     }
 
     @SuppressWarnings("resource") // closing the stream is the responsibility of the caller
-    private static OutputStream openCompressorStream(final OutputStream outputStream, final String compression)
-        throws CompressorException {
+    private static OutputStream openCompressorStream(final OutputStream outputStream, final String compression,
+        final ExecutorService executor) throws CompressorException, IOException {
         final OutputStream compressorStream;
 
         if (compression.endsWith(AbstractCompressNodeConfig.BZ2_EXTENSION)) {
             compressorStream =
                 new CompressorStreamFactory().createCompressorOutputStream(CompressorStreamFactory.BZIP2, outputStream);
+        } else if (compression.endsWith(AbstractCompressNodeConfig.GZ_EXTENSION) && executor != null) {
+            compressorStream = new ParallelGzipOutputStream(outputStream, executor, PARALLELISM);
         } else if (compression.endsWith(AbstractCompressNodeConfig.GZ_EXTENSION)) {
             compressorStream =
                 new CompressorStreamFactory().createCompressorOutputStream(CompressorStreamFactory.GZIP, outputStream);
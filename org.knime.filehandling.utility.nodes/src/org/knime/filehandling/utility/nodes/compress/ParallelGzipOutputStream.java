@@ -0,0 +1,248 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   19 Oct 2021 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.filehandling.utility.nodes.compress;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An {@link OutputStream} writing gzip compressed data whose blocks are deflated concurrently. Each block is primed
+ * with the last 32 KiB of its predecessor and ends on a byte boundary (sync flush), so that the blocks can simply be
+ * appended to each other. Unlike concatenating independent gzip members, this yields a single member that every gzip
+ * reader decompresses completely.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ParallelGzipOutputStream extends OutputStream {
+
+    /** The number of uncompressed bytes per block. */
+    static final int BLOCK_SIZE = 1 << 20;
+
+    private static final int DICTIONARY_SIZE = 1 << 15;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Magic number, deflate, no flags, no modification time, no extra flags, unknown OS. */
+    private static final byte[] HEADER = {0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte)0xff};
+
+    private final OutputStream m_out;
+
+    private final ExecutorService m_executor;
+
+    private final int m_maxPendingBlocks;
+
+    /** The compressed blocks in the order they have to be written. */
+    private final Deque<Future<byte[]>> m_pendingBlocks = new ArrayDeque<>();
+
+    private final CRC32 m_crc = new CRC32();
+
+    private byte[] m_block = new byte[BLOCK_SIZE];
+
+    private int m_blockLength;
+
+    private byte[] m_dictionary;
+
+    private long m_uncompressedSize;
+
+    private boolean m_closed;
+
+    /**
+     * Constructor.
+     *
+     * @param out the stream to write the compressed data to
+     * @param executor the executor used to deflate the blocks
+     * @param parallelism the number of blocks that are deflated concurrently
+     * @throws IOException if the header cannot be written
+     */
+    ParallelGzipOutputStream(final OutputStream out, final ExecutorService executor, final int parallelism)
+        throws IOException {
+        m_out = out;
+        m_executor = executor;
+        m_maxPendingBlocks = 2 * parallelism;
+        m_out.write(HEADER);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        m_block[m_blockLength++] = (byte)b;
+        if (m_blockLength == BLOCK_SIZE) {
+            submitBlock(false);
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        ensureOpen();
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            final int length = Math.min(remaining, BLOCK_SIZE - m_blockLength);
+            System.arraycopy(b, offset, m_block, m_blockLength, length);
+            m_blockLength += length;
+            offset += length;
+            remaining -= length;
+            if (m_blockLength == BLOCK_SIZE) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Writes all blocks compressed so far. The current block is not flushed to not degrade the compression ratio.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while (!m_pendingBlocks.isEmpty() && m_pendingBlocks.peekFirst().isDone()) {
+            writeFirstBlock();
+        }
+        m_out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        m_closed = true;
+        try {
+            submitBlock(true);
+            while (!m_pendingBlocks.isEmpty()) {
+                writeFirstBlock();
+            }
+            writeInt((int)m_crc.getValue());
+            writeInt((int)m_uncompressedSize);
+        } finally {
+            m_pendingBlocks.forEach(f -> f.cancel(true));
+            m_out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (m_closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void submitBlock(final boolean last) throws IOException {
+        final byte[] block = m_block;
+        final int length = m_blockLength;
+        final byte[] dictionary = m_dictionary;
+        m_crc.update(block, 0, length);
+        m_uncompressedSize += length;
+        m_pendingBlocks.addLast(m_executor.submit(() -> deflate(block, length, dictionary, last)));
+        if (!last) {
+            // only full blocks are submitted before the last one, i.e., they always exceed the dictionary size
+            m_dictionary = Arrays.copyOfRange(block, length - DICTIONARY_SIZE, length);
+            m_block = new byte[BLOCK_SIZE];
+            m_blockLength = 0;
+        }
+        while (m_pendingBlocks.size() >= m_maxPendingBlocks
+            || (!m_pendingBlocks.isEmpty() && m_pendingBlocks.peekFirst().isDone())) {
+            writeFirstBlock();
+        }
+    }
+
+    private void writeFirstBlock() throws IOException {
+        final Future<byte[]> block = m_pendingBlocks.removeFirst();
+        try {
+            m_out.write(block.get());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing", e);
+        } catch (final ExecutionException e) {
+            throw new IOException("Compressing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void writeInt(final int value) throws IOException {
+        m_out.write(value & 0xff);
+        m_out.write((value >>> 8) & 0xff);
+        m_out.write((value >>> 16) & 0xff);
+        m_out.write((value >>> 24) & 0xff);
+    }
+
+    private static byte[] deflate(final byte[] block, final int length, final byte[] dictionary, final boolean last) {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(block, 0, length);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                // a sync flush consumes the whole input unless the buffer has been filled completely
+                int written;
+                do {
+                    written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, written);
+                } while (written == buffer.length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
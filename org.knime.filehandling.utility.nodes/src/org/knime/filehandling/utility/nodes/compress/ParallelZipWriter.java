@@ -0,0 +1,317 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   19 Oct 2021 (KNIME AG, Zurich, Switzerland): created
+ */
+package org.knime.filehandling.utility.nodes.compress;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.jar.JarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.JarMarker;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Writes entries to a {@link ZipArchiveOutputStream} whose data is deflated concurrently. Each entry is compressed on
+ * its own, either in memory or, for large files, to a temporary file, and afterwards copied as a raw entry to the
+ * archive. Entries whose method is {@link ZipEntry#STORED} are copied uncompressed. Entries are written in the order
+ * they have been added.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ParallelZipWriter implements Closeable {
+
+    /** Files larger than this are compressed to a temporary file instead of memory. */
+    private static final long IN_MEMORY_LIMIT = 8L << 20;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ZipArchiveOutputStream m_zipStream;
+
+    private final ExecutorService m_executor;
+
+    private final int m_maxPendingEntries;
+
+    /** The compressed entries in the order they have to be written. */
+    private final Deque<Future<CompressedEntry>> m_pendingEntries = new ArrayDeque<>();
+
+    /** The temporary files not written yet, guarded by itself as are the two fields below. */
+    private final Set<File> m_tempFiles = new HashSet<>();
+
+    private boolean m_closed;
+
+    /** The number of compressions that have been started and not yet finished. */
+    private int m_runningCompressions;
+
+    private boolean m_addJarMarker;
+
+    /**
+     * Constructor.
+     *
+     * @param zipStream the stream to write the entries to
+     * @param executor the executor used to compress the entries
+     * @param parallelism the number of entries that are compressed concurrently
+     */
+    ParallelZipWriter(final ZipArchiveOutputStream zipStream, final ExecutorService executor,
+        final int parallelism) {
+        m_zipStream = zipStream;
+        m_executor = executor;
+        m_maxPendingEntries = 2 * parallelism;
+        // raw entries bypass the jar stream, which usually marks the first entry as part of an executable jar
+        m_addJarMarker = zipStream instanceof JarArchiveOutputStream;
+    }
+
+    /**
+     * Schedules the compression of the given entry and writes all entries whose compression has finished.
+     *
+     * @param entry the entry to add
+     * @param file the file providing the entry's data, ignored if the entry is a directory
+     * @throws IOException if an entry cannot be compressed or written
+     */
+    void add(final ZipArchiveEntry entry, final Path file) throws IOException {
+        m_pendingEntries.addLast(m_executor.submit(() -> runCompression(entry, file)));
+        while (m_pendingEntries.size() >= m_maxPendingEntries
+            || (!m_pendingEntries.isEmpty() && m_pendingEntries.peekFirst().isDone())) {
+            writeFirstEntry();
+        }
+    }
+
+    /**
+     * Waits for all pending entries and writes them.
+     *
+     * @throws IOException if an entry cannot be compressed or written
+     */
+    void finish() throws IOException {
+        while (!m_pendingEntries.isEmpty()) {
+            writeFirstEntry();
+        }
+    }
+
+    /**
+     * Cancels all pending entries, waits for the compressions that are already running and deletes the temporary
+     * files. This does not close the underlying stream.
+     */
+    @Override
+    public void close() {
+        synchronized (m_tempFiles) {
+            // compressions that have not been started yet are not started anymore
+            m_closed = true;
+        }
+        m_pendingEntries.forEach(f -> f.cancel(true));
+        m_pendingEntries.clear();
+        boolean interrupted = false;
+        synchronized (m_tempFiles) {
+            // a canceled future is done right away, hence wait for the running compressions that may create files
+            while (m_runningCompressions > 0) {
+                try {
+                    m_tempFiles.wait();
+                } catch (final InterruptedException e) { // NOSONAR the interrupt is restored below
+                    interrupted = true;
+                }
+            }
+            m_tempFiles.forEach(FileUtil::deleteRecursively);
+            m_tempFiles.clear();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeFirstEntry() throws IOException {
+        final CompressedEntry compressed = get(m_pendingEntries.removeFirst());
+        try (final InputStream data = compressed.openData()) {
+            final ZipArchiveEntry entry = compressed.m_entry;
+            if (m_addJarMarker) {
+                entry.addAsFirstExtraField(JarMarker.getInstance());
+                m_addJarMarker = false;
+            }
+            m_zipStream.addRawArchiveEntry(entry, data);
+        } finally {
+            compressed.deleteTempFile();
+        }
+    }
+
+    private static CompressedEntry get(final Future<CompressedEntry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IOException("Compressing failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private CompressedEntry runCompression(final ZipArchiveEntry entry, final Path file) throws IOException {
+        synchronized (m_tempFiles) {
+            if (m_closed) {
+                throw new IOException("The archive has already been closed");
+            }
+            m_runningCompressions++;
+        }
+        try {
+            return compress(entry, file);
+        } finally {
+            synchronized (m_tempFiles) {
+                m_runningCompressions--;
+                m_tempFiles.notifyAll();
+            }
+        }
+    }
+
+    private CompressedEntry compress(final ZipArchiveEntry entry, final Path file) throws IOException {
+        final boolean inMemory = entry.isDirectory() || Files.size(file) <= IN_MEMORY_LIMIT;
+        // entries that are explicitly stored are copied as they are, all others are deflated
+        final boolean stored = entry.getMethod() == ZipEntry.STORED;
+        final File tempFile = inMemory ? null : createTempFile();
+        final Deflater deflater = stored ? null : new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            final ByteArrayOutputStream memory = inMemory ? new ByteArrayOutputStream() : null;
+            @SuppressWarnings("resource") // closed with out, which is either the sink or wraps it
+            final OutputStream sink =
+                inMemory ? memory : new BufferedOutputStream(Files.newOutputStream(tempFile.toPath()), BUFFER_SIZE);
+            final CRC32 crc = new CRC32();
+            long size = 0;
+            try (final OutputStream out = stored ? sink : new DeflaterOutputStream(sink, deflater, BUFFER_SIZE)) {
+                if (!entry.isDirectory()) {
+                    try (final InputStream in = new CheckedInputStream(Files.newInputStream(file), crc)) {
+                        size = in.transferTo(out);
+                    }
+                }
+            }
+            entry.setMethod(stored ? ZipEntry.STORED : ZipEntry.DEFLATED);
+            entry.setCrc(crc.getValue());
+            entry.setSize(size);
+            entry.setCompressedSize(stored ? size : deflater.getBytesWritten());
+            return new CompressedEntry(entry, inMemory ? memory.toByteArray() : null, tempFile);
+        } catch (final IOException | RuntimeException e) {
+            if (tempFile != null) {
+                deleteTempFile(tempFile);
+            }
+            throw e;
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private File createTempFile() throws IOException {
+        synchronized (m_tempFiles) {
+            if (m_closed) {
+                throw new IOException("The archive has already been closed");
+            }
+            final File tempFile = FileUtil.createTempFile("zip-entry", ".bin");
+            m_tempFiles.add(tempFile);
+            return tempFile;
+        }
+    }
+
+    private void deleteTempFile(final File tempFile) {
+        synchronized (m_tempFiles) {
+            m_tempFiles.remove(tempFile);
+        }
+        FileUtil.deleteRecursively(tempFile);
+    }
+
+    /** An entry whose data has been compressed. */
+    private final class CompressedEntry {
+
+        private final ZipArchiveEntry m_entry;
+
+        private final byte[] m_data;
+
+        private final File m_tempFile;
+
+        CompressedEntry(final ZipArchiveEntry entry, final byte[] data, final File tempFile) {
+            m_entry = entry;
+            m_data = data;
+            m_tempFile = tempFile;
+        }
+
+        InputStream openData() throws IOException {
+            return m_data != null ? new ByteArrayInputStream(m_data)
+                : new BufferedInputStream(Files.newInputStream(m_tempFile.toPath()), BUFFER_SIZE);
+        }
+
+        void deleteTempFile() {
+            if (m_tempFile != null) {
+                ParallelZipWriter.this.deleteTempFile(m_tempFile);
+            }
+        }
+    }
+}
@@ -52,19 +52,37 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorInputStream;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
@@ -75,10 +93,12 @@
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.StringCell.StringCellFactory;
 import org.knime.core.data.util.CancellableReportingInputStream;
+import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.util.ThreadUtils;
 import org.knime.filehandling.core.connections.FSFiles;
 import org.knime.filehandling.core.connections.FSPath;
 import org.knime.filehandling.core.data.location.cell.SimpleFSLocationCellFactory;
@@ -100,6 +120,14 @@ final class Decompressor {
 
     private static final int STATUS_CELL_IDX = 2;
 
+    /** The number of zip entries that are extracted concurrently. */
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final String UNEXPECTED_END_ERROR =
+        "The end of the archive has been reached unexpectedly. The archive might be corrupted.";
+
     private boolean m_isCompressed = false;
 
     private boolean m_isArchived = false;
@@ -114,6 +142,12 @@ final class Decompressor {
 
     private final SimpleFSLocationCellFactory m_locationCellFactory;
 
+    /** The rows whose files are still being extracted, followed by the rows created in the meantime. */
+    private final Deque<PendingRow> m_pendingRows = new ArrayDeque<>();
+
+    /** Set once an entry could not be extracted, the extraction of later entries is skipped from then on. */
+    private volatile boolean m_extractionFailed;
+
     Decompressor(final DecompressNodeConfig config, final RowOutput rowOutput, final ExecutionContext exec) {
         m_config = config;
         m_rowOutput = rowOutput;
@@ -130,9 +164,21 @@ final class Decompressor {
      * @throws IOException
      * @throws InterruptedException
      * @throws InvalidSettingsException
+     * @throws CanceledExecutionException
      */
     void decompress(final FSPath sourcePath, final FSPath destinationPath)
-        throws IOException, InterruptedException, InvalidSettingsException {
+        throws IOException, InterruptedException, InvalidSettingsException, CanceledExecutionException {
+        if (PARALLELISM > 1) {
+            try (final ZipFile zipFile = openZipFile(sourcePath)) {
+                if (zipFile != null) {
+                    createParentDirIfRequired(destinationPath);
+                    decompressZipFile(zipFile, destinationPath);
+                    return;
+                }
+            } catch (EOFException e) {
+                throw new InvalidSettingsException(UNEXPECTED_END_ERROR, e);
+            }
+        }
         final long fileSize = Files.readAttributes(sourcePath, BasicFileAttributes.class).size();
         try (final InputStream sourceStream =
             new CancellableReportingInputStream(Files.newInputStream(sourcePath), m_exec, fileSize)) {
@@ -145,9 +191,39 @@ void decompress(final FSPath sourcePath, final FSPath destinationPath)
                 }
             }
         } catch (EOFException e) {
-            throw new InvalidSettingsException(
-                "The end of the archive has been reached unexpectedly. The archive might be corrupted.", e);
+            throw new InvalidSettingsException(UNEXPECTED_END_ERROR, e);
+        }
+    }
+
+    /**
+     * Opens the source as a {@link ZipFile} if it is a zip archive whose central directory can be read.
+     *
+     * @param sourcePath the source {@link FSPath} of the file
+     * @return the {@link ZipFile} or {@code null} if the source has to be read as a stream
+     */
+    @SuppressWarnings("resource") // the zip file closes the channel
+    private static ZipFile openZipFile(final FSPath sourcePath) {
+        SeekableByteChannel channel = null;
+        try {
+            channel = Files.newByteChannel(sourcePath);
+            final ByteBuffer signature = ByteBuffer.allocate(4);
+            while (signature.hasRemaining() && channel.read(signature) >= 0) {
+                // read until the signature is complete or the file ends
+            }
+            if (ZipArchiveInputStream.matches(signature.array(), signature.position())) {
+                return new ZipFile(channel);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.debug("Source cannot be read as a zip file, falling back to streaming.", e);
         }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.debug("Could not close the source.", e);
+            }
+        }
+        return null;
     }
 
     /**
@@ -277,6 +353,146 @@ private void decompressArchive(final ArchiveInputStream archiveInputStream, fina
         }
     }
 
+    /**
+     * Extracts a zip file. Directories are created and rows are pushed in the order of the entries in the archive,
+     * while the files are extracted concurrently. If an entry can't be extracted, the files and directories created
+     * for later entries are deleted again, i.e. the destination looks as if the entries had been extracted one after
+     * the other. Files of later entries that replaced existing ones can't be restored though.
+     *
+     * @param zipFile the {@link ZipFile}
+     * @param destinationPath the {@link FSPath} to the destination
+     * @throws IOException
+     * @throws InterruptedException
+     * @throws CanceledExecutionException
+     */
+    private void decompressZipFile(final ZipFile zipFile, final FSPath destinationPath)
+        throws IOException, InterruptedException, CanceledExecutionException {
+        final List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntriesInPhysicalOrder());
+        final ExecutorService executor = createExecutor();
+        final Set<String> processedDirs = new HashSet<>();
+        long rowId = 0;
+        m_extractionFailed = false;
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                final ZipArchiveEntry entry = entries.get(i);
+                m_exec.checkCanceled();
+                m_exec.setProgress(i / (double)entries.size());
+                final Path outputFilePath = destinationPath.resolve(entry.getName());
+                final boolean isDirectory = entry.isDirectory();
+                m_exec.setMessage("Decompressing " + outputFilePath);
+                rowId = createDirectories(destinationPath, rowId, processedDirs, outputFilePath, isDirectory);
+                if (!isDirectory) {
+                    // an archive can contain the same file twice, in which case the first one is written first
+                    if (m_pendingRows.stream().anyMatch(r -> r.m_path.equals(outputFilePath))) {
+                        pushPendingRows(0);
+                    }
+                    final Future<FileStatus> status = executor.submit(() -> {
+                        if (m_extractionFailed) {
+                            // an earlier entry failed, i.e. this one must not be written
+                            return null;
+                        }
+                        try (final InputStream entryStream = zipFile.getInputStream(entry)) {
+                            return m_writeFileFunction.apply(entryStream, outputFilePath);
+                        }
+                    });
+                    m_pendingRows.addLast(new PendingRow(rowId, outputFilePath, status, false));
+                    rowId++;
+                }
+                pushPendingRows(2 * PARALLELISM);
+            }
+            pushPendingRows(0);
+        } finally {
+            // the pending rows are only left if the extraction has been canceled or has failed
+            m_extractionFailed = true;
+            executor.shutdownNow();
+            awaitTermination(executor);
+            discardPendingRows();
+        }
+    }
+
+    /**
+     * Waits until the running extractions have stopped, such that the files they have created can be deleted.
+     */
+    private static void awaitTermination(final ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                LOGGER.debug("Waiting for the extraction of the remaining entries to stop.");
+            }
+        } catch (InterruptedException e) { // NOSONAR the interrupt is restored
+            // the files of entries that are still being extracted are left behind
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        final ThreadFactory threadFactory = r -> {
+            final Thread thread = new Thread(r, "KNIME-Decompressor-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // the workers need the node context e.g. for workflow relative paths
+        return ThreadUtils.executorServiceWithContext(Executors.newFixedThreadPool(PARALLELISM, threadFactory));
+    }
+
+    /**
+     * Pushes the pending rows whose files have been written, waiting for the first ones if more than the given number
+     * of rows are pending.
+     *
+     * @param maxPendingRows the number of rows that may remain pending
+     * @throws IOException if a file could not be written
+     * @throws InterruptedException
+     */
+    private void pushPendingRows(final int maxPendingRows) throws IOException, InterruptedException {
+        while (!m_pendingRows.isEmpty()
+            && (m_pendingRows.size() > maxPendingRows || m_pendingRows.peekFirst().m_status.isDone())) {
+            final PendingRow row = m_pendingRows.removeFirst();
+            final FileStatus status;
+            try {
+                status = row.m_status.get();
+            } catch (ExecutionException e) {
+                // the entries after the failed one are discarded once the extraction has stopped
+                m_extractionFailed = true;
+                final Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException)cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                }
+                throw new IOException("Extracting failed: " + cause.getMessage(), cause);
+            }
+            outputRow(row.m_rowId, row.m_path, status, row.m_isDirectory);
+        }
+    }
+
+    /**
+     * Deletes the files and directories created for the pending rows, which have not been output because the
+     * extraction has been canceled or an earlier entry has failed. Must be called after the executor has terminated,
+     * the extraction of rows that are not done has never been started.
+     */
+    private void discardPendingRows() {
+        final Iterator<PendingRow> rows = m_pendingRows.descendingIterator();
+        while (rows.hasNext()) {
+            final PendingRow row = rows.next();
+            if (!row.m_status.isDone()) {
+                continue;
+            }
+            try {
+                // directories are deleted after the files they contain
+                if (row.m_status.get() == FileStatus.CREATED) {
+                    Files.deleteIfExists(row.m_path);
+                }
+            } catch (ExecutionException e) {
+                LOGGER.debug("Extracting " + row.m_path + " failed as well.", e.getCause());
+            } catch (InterruptedException e) { // NOSONAR not thrown, the extraction is done
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                LOGGER.debug("Could not delete " + row.m_path + ".", e);
+            }
+        }
+        m_pendingRows.clear();
+    }
+
     /**
      * Decompresses a compressed file.
      *
@@ -327,6 +543,17 @@ private long createDirectories(final Set<String> processedDirs, final long rowId
     }
 
     private void pushRow(final long rowId, final Path destinationPath, final FileStatus status,
+        final boolean isDirectory) throws InterruptedException {
+        if (m_pendingRows.isEmpty()) {
+            outputRow(rowId, destinationPath, status, isDirectory);
+        } else {
+            // keep the order of the rows
+            m_pendingRows.addLast(
+                new PendingRow(rowId, destinationPath, CompletableFuture.completedFuture(status), isDirectory));
+        }
+    }
+
+    private void outputRow(final long rowId, final Path destinationPath, final FileStatus status,
         final boolean isDirectory) throws InterruptedException {
         final DataCell[] row = new DataCell[3];
         row[LOCATION_CELL_IDX] = m_locationCellFactory.createCell(destinationPath.toString());
@@ -383,4 +610,23 @@ private static FileStatus createIgnoreWriteFileFunction(final InputStream inputS
         }
         return status;
     }
+
+    /** A row whose file status might not be known yet. */
+    private static final class PendingRow {
+
+        private final long m_rowId;
+
+        private final Path m_path;
+
+        private final Future<FileStatus> m_status;
+
+        private final boolean m_isDirectory;
+
+        PendingRow(final long rowId, final Path path, final Future<FileStatus> status, final boolean isDirectory) {
+            m_rowId = rowId;
+            m_path = path;
+            m_status = status;
+            m_isDirectory = isDirectory;
+        }
+    }
 }
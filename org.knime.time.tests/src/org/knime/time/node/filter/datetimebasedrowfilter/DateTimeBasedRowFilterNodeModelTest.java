@@ -0,0 +1,205 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.time.node.filter.datetimebasedrowfilter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.time.localdatetime.LocalDateTimeCellFactory;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.time.util.SettingsModelDateTime;
+
+/**
+ * Tests that the sorted input mode of the {@link DateTimeBasedRowFilterNodeModel} returns the same rows as testing
+ * every row, including missing values at the table ends and inputs that are not sorted.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class DateTimeBasedRowFilterNodeModelTest {
+
+    private static final String COL = "time";
+
+    private static final DataTableSpec SPEC =
+        new DataTableSpec(new DataColumnSpecCreator(COL, LocalDateTimeCellFactory.TYPE).createSpec());
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2021, 1, 1, 0, 0);
+
+    /**
+     * Tests windows within, at the ends of and outside of a sorted table with duplicates and missing values at both
+     * ends.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testSortedInput() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        final Integer[] hours = new Integer[100];
+        for (int i = 3; i < 97; i++) {
+            // every value occurs twice
+            hours[i] = i / 2;
+        }
+        final BufferedDataTable table = createTable(exec, hours);
+        final int[][] windows = {{10, 20}, {-5, 3}, {1, 1}, {40, 60}, {47, 48}, {48, 100}, {60, 80}, {20, 10}};
+        for (final int[] window : windows) {
+            for (final boolean inclusive : new boolean[]{true, false}) {
+                assertSameAsFullScan(table, window[0], window[1], true, true, inclusive, exec);
+            }
+            // open start and open end
+            assertSameAsFullScan(table, window[0], window[1], false, true, true, exec);
+            assertSameAsFullScan(table, window[0], window[1], true, false, true, exec);
+        }
+    }
+
+    /**
+     * Tests that tables without values or with missing values only at one end are filtered correctly.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testMissingValuesAtTheEnds() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        assertSameAsFullScan(createTable(exec, null, null, 1, 2, 3), 2, 5, true, true, true, exec);
+        assertSameAsFullScan(createTable(exec, 1, 2, 3, null, null), 0, 2, true, true, true, exec);
+        assertSameAsFullScan(createTable(exec, 1, 2, 3, null, null), 0, 5, true, false, true, exec);
+        assertSameAsFullScan(createTable(exec, null, null), 0, 5, true, true, true, exec);
+        assertSameAsFullScan(createTable(exec), 0, 5, true, true, true, exec);
+    }
+
+    /**
+     * Tests that unsorted input and missing values in the middle of the table fall back to testing every row.
+     *
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testUnsortedInput() throws Exception {
+        final ExecutionContext exec = createExecutionContext();
+        // unsorted within the window
+        assertSameAsFullScan(createTable(exec, 1, 2, 5, 3, 4, 9), 2, 6, true, true, true, exec);
+        // unsorted before the window
+        assertSameAsFullScan(createTable(exec, 4, 1, 2, 5, 6, 9), 3, 6, true, true, true, exec);
+        // missing value in the middle
+        assertSameAsFullScan(createTable(exec, 1, 2, null, 3, 4, 9), 2, 6, true, true, true, exec);
+        assertSameAsFullScan(createTable(exec, null, 1, 2, null, 3, 4), 0, 6, true, false, true, exec);
+    }
+
+    private static void assertSameAsFullScan(final BufferedDataTable table, final int startHour, final int endHour,
+        final boolean hasStart, final boolean hasEnd, final boolean inclusive, final ExecutionContext exec)
+        throws Exception {
+        final String msg = "[" + startHour + ", " + endHour + "], start: " + hasStart + ", end: " + hasEnd
+            + ", inclusive: " + inclusive;
+        final List<String> expected =
+            keys(execute(table, startHour, endHour, hasStart, hasEnd, inclusive, false, exec));
+        final List<String> actual = keys(execute(table, startHour, endHour, hasStart, hasEnd, inclusive, true, exec));
+        assertEquals(msg, expected, actual);
+    }
+
+    private static BufferedDataTable execute(final BufferedDataTable table, final int startHour, final int endHour,
+        final boolean hasStart, final boolean hasEnd, final boolean inclusive, final boolean sorted,
+        final ExecutionContext exec) throws Exception {
+        final DateTimeBasedRowFilterNodeModel model = new DateTimeBasedRowFilterNodeModel();
+        final NodeSettings settings = new NodeSettings("filter");
+        model.saveSettingsTo(settings);
+        settings.addString("col_select", COL);
+        settings.addString("end_selection", EndMode.DateTime.name());
+        settings.addBoolean("start_boolean", hasStart);
+        settings.addBoolean("end_boolean", hasEnd);
+        settings.addBoolean("start_inclusive", inclusive);
+        settings.addBoolean("end_inclusive", inclusive);
+        settings.addBoolean("input_sorted", sorted);
+        new SettingsModelDateTime("start_date_time", BASE.plusHours(startHour).atZone(ZoneId.of("UTC")))
+            .saveSettingsTo(settings);
+        new SettingsModelDateTime("end_date_time", BASE.plusHours(endHour).atZone(ZoneId.of("UTC")))
+            .saveSettingsTo(settings);
+        model.validateSettings(settings);
+        model.loadValidatedSettingsFrom(settings);
+        model.configure(new DataTableSpec[]{SPEC});
+        return model.execute(new BufferedDataTable[]{table}, exec)[0];
+    }
+
+    private static ExecutionContext createExecutionContext() {
+        return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(new DateTimeBasedRowFilterNodeFactory()),
+            SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<Integer, ContainerTable>());
+    }
+
+    /** Creates a table with the given hours after {@link #BASE}, <code>null</code> for a missing value. */
+    private static BufferedDataTable createTable(final ExecutionContext exec, final Integer... hours) {
+        final BufferedDataContainer cont = exec.createDataContainer(SPEC);
+        for (int r = 0; r < hours.length; r++) {
+            cont.addRowToTable(new DefaultRow("Row" + r, hours[r] == null ? DataType.getMissingCell()
+                : LocalDateTimeCellFactory.create(BASE.plusHours(hours[r]))));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static List<String> keys(final BufferedDataTable table) {
+        final List<String> keys = new ArrayList<>();
+        try (final CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                keys.add(it.next().getKey().getString());
+            }
+        }
+        return keys;
+    }
+}
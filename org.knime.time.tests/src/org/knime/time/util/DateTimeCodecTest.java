@@ -0,0 +1,155 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.time.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.chrono.Chronology;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+/**
+ * Tests that the {@link DateTimeCodec} parses and formats exactly like the {@link DateTimeFormatter}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("javadoc")
+public class DateTimeCodecTest {
+
+    private static final String[] FAST_PATTERNS = {"yyyy-MM-dd'T'HH:mm:ss", "dd.MM.yyyy", "yyyy-MM-dd", "yyyy/dd/MM",
+        "HH:mm:ss", "yyyy-MM-dd HH:mm:ss.SSS", "dd.MM.yyyy;HH:mm:ss.S", "yyyyMMddHHmm", "''yyyy''-MM-dd"};
+
+    @Test
+    public void testFastPathDetection() {
+        for (final String pattern : FAST_PATTERNS) {
+            assertTrue(pattern, DateTimeCodec.of(pattern, Locale.US).hasFastPath());
+        }
+        for (final String pattern : new String[]{"yyyy-MM-dd'T'HH:mm[:ss[.SSS]]", "yyyy-MM-dd'T'HH:mm:ssVV", "d.M.yyyy",
+            "yy-MM-dd", "yyyy-MM", "HH", "HH:ss", "EEE, dd.MM.yyyy", "'it''s' HH:mm"}) {
+            assertFalse(pattern, DateTimeCodec.of(pattern, Locale.US).hasFastPath());
+        }
+        // the digits of the fast path are only correct for the ISO calendar
+        assertFalse(DateTimeCodec.of("yyyy-MM-dd", Locale.forLanguageTag("th-TH-u-ca-buddhist")).hasFastPath());
+    }
+
+    @Test
+    public void testFormat() {
+        final Random random = new Random(42);
+        for (final String pattern : FAST_PATTERNS) {
+            final DateTimeCodec codec = DateTimeCodec.of(pattern, Locale.GERMANY);
+            final DateTimeFormatter formatter = createFormatter(pattern, Locale.GERMANY);
+            for (int i = 0; i < 1000; i++) {
+                final LocalDateTime ldt = randomDateTime(random);
+                for (final TemporalAccessor value : new TemporalAccessor[]{ldt, ldt.toLocalDate(), ldt.toLocalTime(),
+                    ldt.atZone(ZoneId.of("Europe/Berlin"))}) {
+                    assertEquals(pattern + " " + value, result(() -> formatter.format(value)),
+                        result(() -> codec.format(value)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParse() {
+        final Random random = new Random(42);
+        for (final String pattern : FAST_PATTERNS) {
+            final DateTimeCodec codec = DateTimeCodec.of(pattern, Locale.GERMANY);
+            final DateTimeFormatter formatter = createFormatter(pattern, Locale.GERMANY);
+            for (int i = 0; i < 1000; i++) {
+                final char[] text = formatter.format(randomDateTime(random)).toCharArray();
+                if (random.nextBoolean()) {
+                    // create invalid values, e.g. months or days that are out of range
+                    text[random.nextInt(text.length)] = (char)('0' + random.nextInt(10));
+                }
+                final String input = new String(text);
+                assertEquals(pattern + " " + input, result(() -> LocalDate.parse(input, formatter)),
+                    result(() -> codec.parseLocalDate(input)));
+                assertEquals(pattern + " " + input, result(() -> LocalTime.parse(input, formatter)),
+                    result(() -> codec.parseLocalTime(input)));
+                assertEquals(pattern + " " + input, result(() -> LocalDateTime.parse(input, formatter)),
+                    result(() -> codec.parseLocalDateTime(input)));
+            }
+        }
+    }
+
+    @Test
+    public void testParseEdgeCases() {
+        final DateTimeCodec codec = DateTimeCodec.of("dd.MM.yyyy", Locale.US);
+        assertEquals(LocalDate.of(2020, 2, 29), codec.parseLocalDate("29.02.2020"));
+        // resolved by the formatter to the last day of the month
+        assertEquals(LocalDate.of(2021, 2, 28), codec.parseLocalDate("30.02.2021"));
+        assertEquals(LocalDate.of(2021, 12, 31), codec.parseLocalDate("31.12.2021"));
+    }
+
+    private static DateTimeFormatter createFormatter(final String pattern, final Locale locale) {
+        return DateTimeFormatter.ofPattern(pattern, locale).withChronology(Chronology.ofLocale(locale));
+    }
+
+    private static LocalDateTime randomDateTime(final Random random) {
+        return LocalDateTime.of(1 + random.nextInt(9999), 1 + random.nextInt(12), 1 + random.nextInt(31 - 3),
+            random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1_000_000_000));
+    }
+
+    /** @return the string representation of the result or the class of the exception */
+    private static String result(final Supplier<Object> supplier) {
+        try {
+            return String.valueOf(supplier.get());
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+}
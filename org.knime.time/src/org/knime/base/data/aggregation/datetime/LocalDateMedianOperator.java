@@ -58,6 +58,7 @@
 import org.knime.base.data.aggregation.general.AbstractMedianOperator;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataType;
+import org.knime.core.data.time.localdate.LocalDateCell;
 import org.knime.core.data.time.localdate.LocalDateCellFactory;
 import org.knime.core.data.time.localdate.LocalDateValue;
 
@@ -70,6 +71,25 @@ public final class LocalDateMedianOperator extends AbstractMedianOperator {
 
     private static final DataType TYPE = LocalDateCellFactory.TYPE;
 
+    /** Encodes the dates as epoch days. */
+    private static final PrimitiveEncoding ENCODING = new PrimitiveEncoding() {
+
+        @Override
+        public boolean canEncode(final DataCell cell) {
+            return cell instanceof LocalDateCell;
+        }
+
+        @Override
+        public long encode(final DataCell cell) {
+            return ((LocalDateCell)cell).getLocalDate().toEpochDay();
+        }
+
+        @Override
+        public DataCell decode(final long value) {
+            return LocalDateCellFactory.create(LocalDate.ofEpochDay(value));
+        }
+    };
+
     private static EvenListMedianMethod createCustomMeanMedianMethod() {
         return new EvenListMedianMethod() {
 
@@ -120,6 +140,7 @@ public AggregationOperator createInstance(final GlobalSettings globalSettings,
         final LocalDateMedianOperator operator = new LocalDateMedianOperator(getMedianMethodDescriptions(),
             getOperatorData(), globalSettings, opColSettings);
         operator.setMedianMethod(getMedianMethod());
+        operator.setApproximationThreshold(getApproximationThreshold());
         return operator;
     }
 
@@ -130,4 +151,12 @@ public AggregationOperator createInstance(final GlobalSettings globalSettings,
     protected DataType getDataType(final DataType origType) {
         return TYPE;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected PrimitiveEncoding createPrimitiveEncoding(final DataType origType) {
+        return ENCODING;
+    }
 }
@@ -59,6 +59,7 @@
 import org.knime.base.data.aggregation.general.AbstractMedianOperator;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataType;
+import org.knime.core.data.time.localdatetime.LocalDateTimeCell;
 import org.knime.core.data.time.localdatetime.LocalDateTimeCellFactory;
 import org.knime.core.data.time.localdatetime.LocalDateTimeValue;
 
@@ -71,6 +72,36 @@ public final class LocalDateTimeMedianOperator extends AbstractMedianOperator {
 
     private static DataType TYPE = LocalDateTimeCellFactory.TYPE;
 
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Encodes the date&times as nanoseconds since the epoch, which is possible for the years 1678 to 2261. Other
+     * values are stored as cells.
+     */
+    private static final PrimitiveEncoding ENCODING = new PrimitiveEncoding() {
+
+        @Override
+        public boolean canEncode(final DataCell cell) {
+            if (!(cell instanceof LocalDateTimeCell)) {
+                return false;
+            }
+            final int year = ((LocalDateTimeCell)cell).getLocalDateTime().getYear();
+            return year >= 1678 && year <= 2261;
+        }
+
+        @Override
+        public long encode(final DataCell cell) {
+            final LocalDateTime dateTime = ((LocalDateTimeCell)cell).getLocalDateTime();
+            return dateTime.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + dateTime.getNano();
+        }
+
+        @Override
+        public DataCell decode(final long value) {
+            return LocalDateTimeCellFactory.create(LocalDateTime.ofEpochSecond(
+                Math.floorDiv(value, NANOS_PER_SECOND), (int)Math.floorMod(value, NANOS_PER_SECOND), ZoneOffset.UTC));
+        }
+    };
+
     private static EvenListMedianMethod createCustomMeanMedianMetod() {
         return new EvenListMedianMethod() {
 
@@ -127,6 +158,7 @@ public AggregationOperator createInstance(final GlobalSettings globalSettings,
         final LocalDateTimeMedianOperator operator = new LocalDateTimeMedianOperator(getMedianMethodDescriptions(),
             getOperatorData(), globalSettings, opColSettings);
         operator.setMedianMethod(getMedianMethod());
+        operator.setApproximationThreshold(getApproximationThreshold());
         return operator;
     }
 
@@ -137,4 +169,12 @@ public AggregationOperator createInstance(final GlobalSettings globalSettings,
     protected DataType getDataType(final DataType origType) {
         return TYPE;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected PrimitiveEncoding createPrimitiveEncoding(final DataType origType) {
+        return ENCODING;
+    }
 }
@@ -58,6 +58,7 @@
 import org.knime.base.data.aggregation.general.AbstractMedianOperator;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataType;
+import org.knime.core.data.time.localtime.LocalTimeCell;
 import org.knime.core.data.time.localtime.LocalTimeCellFactory;
 import org.knime.core.data.time.localtime.LocalTimeValue;
 
@@ -70,6 +71,25 @@ public final class LocalTimeMedianOperator extends AbstractMedianOperator {
 
     private static final DataType TYPE = LocalTimeCellFactory.TYPE;
 
+    /** Encodes the times as nanoseconds of the day. */
+    private static final PrimitiveEncoding ENCODING = new PrimitiveEncoding() {
+
+        @Override
+        public boolean canEncode(final DataCell cell) {
+            return cell instanceof LocalTimeCell;
+        }
+
+        @Override
+        public long encode(final DataCell cell) {
+            return ((LocalTimeCell)cell).getLocalTime().toNanoOfDay();
+        }
+
+        @Override
+        public DataCell decode(final long value) {
+            return LocalTimeCellFactory.create(LocalTime.ofNanoOfDay(value));
+        }
+    };
+
     private static EvenListMedianMethod createCustomMeanMedianMethod() {
         return new EvenListMedianMethod() {
 
@@ -120,6 +140,7 @@ public AggregationOperator createInstance(final GlobalSettings globalSettings,
         final LocalTimeMedianOperator operator = new LocalTimeMedianOperator(getMedianMethodDescriptions(),
             getOperatorData(), globalSettings, opColSettings);
         operator.setMedianMethod(getMedianMethod());
+        operator.setApproximationThreshold(getApproximationThreshold());
         return operator;
     }
 
@@ -130,4 +151,12 @@ public AggregationOperator createInstance(final GlobalSettings globalSettings,
     protected DataType getDataType(final DataType origType) {
         return TYPE;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected PrimitiveEncoding createPrimitiveEncoding(final DataType origType) {
+        return ENCODING;
+    }
 }
@@ -50,7 +50,6 @@
 
 import java.io.File;
 import java.io.IOException;
-import java.time.chrono.Chronology;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.UnsupportedTemporalTypeException;
 import java.util.Arrays;
@@ -111,6 +110,7 @@
 import org.knime.core.node.streamable.StreamableOperator;
 import org.knime.core.node.util.StringHistory;
 import org.knime.core.util.UniqueNameGenerator;
+import org.knime.time.util.DateTimeCodec;
 
 /**
  * The node model of the node which converts the new date&time types to strings.
@@ -298,24 +298,27 @@ public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final
                     .mapToInt(s -> inSpec.findColumnIndex(s)).toArray();
                 final boolean isReplace = m_isReplaceOrAppend.getStringValue().equals(OPTION_REPLACE);
 
+                // the cell factories are created once as they compile the date&time pattern
+                final TimeToStringCellFactory[] cellFacs = new TimeToStringCellFactory[includeIndeces.length];
+                for (int i = 0; i < includeIndeces.length; i++) {
+                    if (isReplace) {
+                        final DataColumnSpecCreator dataColumnSpecCreator =
+                            new DataColumnSpecCreator(includeList[i], StringCell.TYPE);
+                        cellFacs[i] =
+                            new TimeToStringCellFactory(dataColumnSpecCreator.createSpec(), includeIndeces[i]);
+                    } else {
+                        final DataColumnSpec dataColSpec = new UniqueNameGenerator(inSpec)
+                            .newColumn(includeList[i] + m_suffix.getStringValue(), StringCell.TYPE);
+                        cellFacs[i] = new TimeToStringCellFactory(dataColSpec, includeIndeces[i]);
+                    }
+                }
+
                 DataRow row;
                 while ((row = in.poll()) != null) {
                     exec.checkCanceled();
                     DataCell[] datacells = new DataCell[includeIndeces.length];
                     for (int i = 0; i < includeIndeces.length; i++) {
-                        if (isReplace) {
-                            final DataColumnSpecCreator dataColumnSpecCreator =
-                                new DataColumnSpecCreator(includeList[i], StringCell.TYPE);
-                            final TimeToStringCellFactory cellFac =
-                                new TimeToStringCellFactory(dataColumnSpecCreator.createSpec(), includeIndeces[i]);
-                            datacells[i] = cellFac.getCell(row);
-                        } else {
-                            final DataColumnSpec dataColSpec = new UniqueNameGenerator(inSpec)
-                                .newColumn(includeList[i] + m_suffix.getStringValue(), StringCell.TYPE);
-                            final TimeToStringCellFactory cellFac =
-                                new TimeToStringCellFactory(dataColSpec, includeIndeces[i]);
-                            datacells[i] = cellFac.getCell(row);
-                        }
+                        datacells[i] = cellFacs[i].getCell(row);
                     }
                     if (isReplace) {
                         out.push(new ReplacedColumnsDataRow(row, datacells, includeIndeces));
@@ -440,6 +443,8 @@ final class TimeToStringCellFactory extends SingleCellFactory {
 
         private final int m_colIndex;
 
+        private final DateTimeCodec m_codec;
+
         /**
          * @param inSpec spec of the column after computation
          * @param colIndex index of the column to work on
@@ -447,6 +452,8 @@ final class TimeToStringCellFactory extends SingleCellFactory {
         public TimeToStringCellFactory(final DataColumnSpec inSpec, final int colIndex) {
             super(inSpec);
             m_colIndex = colIndex;
+            // compile the pattern once instead of for every cell
+            m_codec = DateTimeCodec.of(m_format.getStringValue(), Locale.forLanguageTag(m_locale.getStringValue()));
         }
 
         /**
@@ -459,21 +466,18 @@ public DataCell getCell(final DataRow row) {
                 return cell;
             }
             try {
-                final Locale locale = Locale.forLanguageTag(m_locale.getStringValue());
-                final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(m_format.getStringValue(), locale)
-                    .withChronology(Chronology.ofLocale(locale));
                 final DataType type = cell.getType();
                 if (type.equals(LocalDateCellFactory.TYPE)) {
-                    final String result = ((LocalDateCell)cell).getLocalDate().format(formatter);
+                    final String result = m_codec.format(((LocalDateCell)cell).getLocalDate());
                     return StringCellFactory.create(result);
                 } else if (type.equals(LocalTimeCellFactory.TYPE)) {
-                    final String result = ((LocalTimeCell)cell).getLocalTime().format(formatter);
+                    final String result = m_codec.format(((LocalTimeCell)cell).getLocalTime());
                     return StringCellFactory.create(result);
                 } else if (type.equals(LocalDateTimeCellFactory.TYPE)) {
-                    final String result = ((LocalDateTimeCell)cell).getLocalDateTime().format(formatter);
+                    final String result = m_codec.format(((LocalDateTimeCell)cell).getLocalDateTime());
                     return StringCellFactory.create(result);
                 } else if (type.equals(ZonedDateTimeCellFactory.TYPE)) {
-                    final String result = ((ZonedDateTimeCell)cell).getZonedDateTime().format(formatter);
+                    final String result = m_codec.format(((ZonedDateTimeCell)cell).getZonedDateTime());
                     return StringCellFactory.create(result);
                 }
             } catch (UnsupportedTemporalTypeException e) {
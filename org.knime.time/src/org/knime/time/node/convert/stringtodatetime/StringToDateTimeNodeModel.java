@@ -52,7 +52,6 @@
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
-import java.time.chrono.Chronology;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Arrays;
@@ -89,6 +88,7 @@
 import org.knime.core.node.util.StringHistory;
 import org.knime.core.node.util.filter.InputFilter;
 import org.knime.core.util.UniqueNameGenerator;
+import org.knime.time.util.DateTimeCodec;
 import org.knime.time.util.DateTimeType;
 
 /**
@@ -358,6 +358,10 @@ protected void reset() {
     final class StringToTimeCellFactory extends SingleCellFactory {
         private final int m_colIndex;
 
+        private final DateTimeCodec m_codec;
+
+        private final DateTimeType m_type;
+
         /**
          * @param inSpec spec of the column after computation
          * @param colIndex index of the column to work on
@@ -365,6 +369,9 @@ final class StringToTimeCellFactory extends SingleCellFactory {
         public StringToTimeCellFactory(final DataColumnSpec inSpec, final int colIndex) {
             super(inSpec);
             m_colIndex = colIndex;
+            // compile the pattern once instead of for every cell
+            m_codec = DateTimeCodec.of(m_format.getStringValue(), Locale.forLanguageTag(m_locale.getStringValue()));
+            m_type = DateTimeType.valueOf(m_selectedType);
         }
 
         /**
@@ -378,25 +385,22 @@ public DataCell getCell(final DataRow row) {
             }
             try {
                 final String input = ((StringValue)cell).getStringValue();
-                final Locale locale = Locale.forLanguageTag(m_locale.getStringValue());
-                final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(m_format.getStringValue(), locale)
-                    .withChronology(Chronology.ofLocale(locale));
 
-                switch (DateTimeType.valueOf(m_selectedType)) {
+                switch (m_type) {
                     case LOCAL_DATE: {
-                        final LocalDate ld = LocalDate.parse(input, formatter);
+                        final LocalDate ld = m_codec.parseLocalDate(input);
                         return LocalDateCellFactory.create(ld);
                     }
                     case LOCAL_TIME: {
-                        final LocalTime lt = LocalTime.parse(input, formatter);
+                        final LocalTime lt = m_codec.parseLocalTime(input);
                         return LocalTimeCellFactory.create(lt);
                     }
                     case LOCAL_DATE_TIME: {
-                        final LocalDateTime ldt = LocalDateTime.parse(input, formatter);
+                        final LocalDateTime ldt = m_codec.parseLocalDateTime(input);
                         return LocalDateTimeCellFactory.create(ldt);
                     }
                     case ZONED_DATE_TIME: {
-                        final ZonedDateTime zdt = ZonedDateTime.parse(input, formatter);
+                        final ZonedDateTime zdt = m_codec.parseZonedDateTime(input);
                         return ZonedDateTimeCellFactory.create(zdt);
                     }
                     default:
@@ -125,6 +125,8 @@ final class DateTimeBasedRowFilterNodeDialog extends NodeDialogPane {
 
     private final DialogComponentBoolean m_dialogCompEndAlwaysNow;
 
+    private final DialogComponentBoolean m_dialogCompInputSorted;
+
     private final JLabel m_typeWarningLabel;
 
     /** Setting up all DialogComponents. */
@@ -178,6 +180,9 @@ public DateTimeBasedRowFilterNodeDialog() {
         final SettingsModelBoolean endAlwaysNowModel = DateTimeBasedRowFilterNodeModel.createEndAlwaysNowModel();
         m_dialogCompEndAlwaysNow = new DialogComponentBoolean(endAlwaysNowModel, "Use execution date&time");
 
+        m_dialogCompInputSorted = new DialogComponentBoolean(DateTimeBasedRowFilterNodeModel.createInputSortedModel(),
+            "Input is sorted by this column (ascending)");
+
         /*
          * create panel with gbc
          */
@@ -202,6 +207,8 @@ public DateTimeBasedRowFilterNodeDialog() {
         gbcColSelect.anchor = GridBagConstraints.WEST;
         gbcColSelect.weightx = 1;
         panelColSelect.add(m_dialogCompColSelection.getComponentPanel(), gbcColSelect);
+        gbcColSelect.gridy++;
+        panelColSelect.add(m_dialogCompInputSorted.getComponentPanel(), gbcColSelect);
         panel.add(panelColSelect, gbc);
 
         /*
@@ -588,6 +595,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_dialogCompPeriodOrDurationValue.saveSettingsTo(settings);
         m_dialogCompNumericalValue.saveSettingsTo(settings);
         m_dialogCompNumericalGranularity.saveSettingsTo(settings);
+        m_dialogCompInputSorted.saveSettingsTo(settings);
     }
 
     /**
@@ -609,6 +617,7 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final DataTableSp
         m_dialogCompNumericalValue.loadSettingsFrom(settings, specs);
         m_dialogCompNumericalGranularity.loadSettingsFrom(settings, specs);
         m_dialogCompColSelection.loadSettingsFrom(settings, specs);
+        m_dialogCompInputSorted.loadSettingsFrom(settings, specs);
         if (((SettingsModelString)m_dialogCompEndSelection.getModel()).getStringValue() == null) {
             ((SettingsModelString)m_dialogCompEndSelection.getModel())
                 .setStringValue(EndMode.DateTime.name());
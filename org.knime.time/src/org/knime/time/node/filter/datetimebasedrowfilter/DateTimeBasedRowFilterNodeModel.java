@@ -62,6 +62,7 @@
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
+import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.data.time.localdate.LocalDateValue;
 import org.knime.core.data.time.localdatetime.LocalDateTimeValue;
 import org.knime.core.data.time.localtime.LocalTimeValue;
@@ -129,6 +130,8 @@ final class DateTimeBasedRowFilterNodeModel extends NodeModel {
 
     private final SettingsModelBoolean m_endAlwaysNow = createEndAlwaysNowModel();
 
+    private final SettingsModelBoolean m_inputSorted = createInputSortedModel();
+
     /** @return the column select model, used in both dialog and model. */
     static SettingsModelString createColSelectModel() {
         return new SettingsModelString("col_select", null);
@@ -194,6 +197,14 @@ static SettingsModelBoolean createEndAlwaysNowModel() {
         return new SettingsModelBoolean("end_always_now", false);
     }
 
+    /**
+     * @return the boolean model stating whether the input is sorted by the selected column, used in both dialog and
+     *         model.
+     */
+    static SettingsModelBoolean createInputSortedModel() {
+        return new SettingsModelBoolean("input_sorted", false);
+    }
+
     /**
      */
     protected DateTimeBasedRowFilterNodeModel() {
@@ -218,35 +229,175 @@ protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws Invali
     protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final ExecutionContext exec)
         throws Exception {
         final BufferedDataTable dataTable = inData[0];
-        final BufferedDataContainer container = exec.createDataContainer(dataTable.getDataTableSpec());
 
         // read input
         final int colIdx = dataTable.getDataTableSpec().findColumnIndex(m_colSelect.getStringValue());
         final ZonedDateTime executionStartTime = m_startAlwaysNow.getBooleanValue() ? ZonedDateTime.now() : null;
         final ZonedDateTime executionEndTime = m_endAlwaysNow.getBooleanValue() ? ZonedDateTime.now() : null;
 
+        if (m_inputSorted.getBooleanValue()) {
+            final BufferedDataTable sortedResult =
+                filterSortedInput(dataTable, colIdx, executionStartTime, executionEndTime, exec);
+            if (sortedResult != null) {
+                return new BufferedDataTable[]{sortedResult};
+            }
+            setWarningMessage("The input table is not sorted by column '" + m_colSelect.getStringValue()
+                + "'. All rows have been tested.");
+        }
+
         // filter rows
+        final BufferedDataContainer container = exec.createDataContainer(dataTable.getDataTableSpec());
         for (final DataRow row : dataTable) {
             exec.checkCanceled();
-            final DataCell cell = row.getCell(colIdx);
-            if (!cell.isMissing()) {
-                if (cell instanceof LocalDateValue
-                    && filterRowLocalDate(((LocalDateValue)cell).getLocalDate(), executionStartTime, executionEndTime)) {
-                    container.addRowToTable(row);
-                } else if (cell instanceof LocalTimeValue
-                    && filterRowLocalTime(((LocalTimeValue)cell).getLocalTime(), executionStartTime, executionEndTime)) {
-                    container.addRowToTable(row);
-                } else if (cell instanceof LocalDateTimeValue && filterRowLocalDateTime(
-                    ((LocalDateTimeValue)cell).getLocalDateTime(), executionStartTime, executionEndTime)) {
-                    container.addRowToTable(row);
-                } else if (cell instanceof ZonedDateTimeValue && filterRowZonedDateTime(
-                    ((ZonedDateTimeValue)cell).getZonedDateTime(), executionStartTime, executionEndTime)) {
+            if (filterCell(row.getCell(colIdx), executionStartTime, executionEndTime)) {
+                container.addRowToTable(row);
+            }
+        }
+        container.close();
+        return new BufferedDataTable[]{container.getTable()};
+    }
+
+    /**
+     * Helper method used in both execution modes streaming and non-streaming.
+     *
+     * @param cell the cell of the selected column
+     * @param executionStartTime execution zoned date time if execution time shall be used, null otherwise
+     * @param executionEndTime execution zoned date time if execution time shall be used, null otherwise
+     * @return true if row shall be in the output, otherwise false
+     */
+    private boolean filterCell(final DataCell cell, final ZonedDateTime executionStartTime,
+        final ZonedDateTime executionEndTime) throws ArithmeticException, DateTimeException {
+        if (cell.isMissing()) {
+            return false;
+        }
+        if (cell instanceof LocalDateValue) {
+            return filterRowLocalDate(((LocalDateValue)cell).getLocalDate(), executionStartTime, executionEndTime);
+        } else if (cell instanceof LocalTimeValue) {
+            return filterRowLocalTime(((LocalTimeValue)cell).getLocalTime(), executionStartTime, executionEndTime);
+        } else if (cell instanceof LocalDateTimeValue) {
+            return filterRowLocalDateTime(((LocalDateTimeValue)cell).getLocalDateTime(), executionStartTime,
+                executionEndTime);
+        } else if (cell instanceof ZonedDateTimeValue) {
+            return filterRowZonedDateTime(((ZonedDateTimeValue)cell).getZonedDateTime(), executionStartTime,
+                executionEndTime);
+        }
+        return false;
+    }
+
+    /**
+     * Filters a table that is sorted in ascending order by the selected column. The table is read with a single
+     * forward iterator: rows before the time window are skipped by comparing their value with the window start only
+     * and reading stops at the first row after the window end. Missing values are allowed at the beginning and the end
+     * of the table.
+     *
+     * @return the filtered table or <code>null</code> if the table turned out to be not sorted
+     */
+    private BufferedDataTable filterSortedInput(final BufferedDataTable dataTable, final int colIdx,
+        final ZonedDateTime executionStartTime, final ZonedDateTime executionEndTime, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        final Comparable<?>[] bounds = getSearchBounds(dataTable.getDataTableSpec().getColumnSpec(colIdx).getType(),
+            executionStartTime, executionEndTime);
+        if (bounds == null) {
+            return null;
+        }
+        exec.setMessage("Searching matching rows...");
+        final BufferedDataContainer container = exec.createDataContainer(dataTable.getDataTableSpec());
+        final double count = Math.max(1, dataTable.size());
+        long i = 0;
+        Comparable<?> previous = null;
+        // set once a missing value follows a non-missing one, only missing values may follow
+        boolean trailingMissing = false;
+        try (CloseableRowIterator iterator = dataTable.iterator()) {
+            while (iterator.hasNext()) {
+                exec.checkCanceled();
+                final DataRow row = iterator.next();
+                final Comparable<?> key = getSortKey(row.getCell(colIdx));
+                exec.setProgress(++i / count);
+                if (key == null) {
+                    trailingMissing = previous != null;
+                    continue;
+                }
+                if (trailingMissing || (previous != null && compare(previous, key) > 0)) {
+                    container.close();
+                    exec.clearTable(container.getTable());
+                    return null;
+                }
+                previous = key;
+                if (bounds[1] != null && compare(key, bounds[1]) > 0) {
+                    // all following values lie after the window
+                    break;
+                }
+                if ((bounds[0] == null || compare(key, bounds[0]) >= 0)
+                    && filterCell(row.getCell(colIdx), executionStartTime, executionEndTime)) {
                     container.addRowToTable(row);
                 }
             }
         }
         container.close();
-        return new BufferedDataTable[]{container.getTable()};
+        return container.getTable();
+    }
+
+    /**
+     * @return the smallest and largest value that might lie within the time window, <code>null</code> for unbounded
+     *         ends, or <code>null</code> if the column type is not supported
+     */
+    private Comparable<?>[] getSearchBounds(final DataType type, final ZonedDateTime executionStartTime,
+        final ZonedDateTime executionEndTime) throws ArithmeticException, DateTimeException {
+        final Temporal start;
+        final Temporal end;
+        if (type.isCompatible(LocalDateValue.class)) {
+            start = executionStartTime == null ? m_startDateTime.getLocalDate() : executionStartTime.toLocalDate();
+            end = executionEndTime == null ? m_endDateTime.getLocalDate() : executionEndTime.toLocalDate();
+        } else if (type.isCompatible(LocalTimeValue.class)) {
+            start = executionStartTime == null ? m_startDateTime.getLocalTime() : executionStartTime.toLocalTime();
+            end = executionEndTime == null ? m_endDateTime.getLocalTime() : executionEndTime.toLocalTime();
+        } else if (type.isCompatible(LocalDateTimeValue.class)) {
+            start = executionStartTime == null ? m_startDateTime.getLocalDateTime()
+                : executionStartTime.toLocalDateTime();
+            end = executionEndTime == null ? m_endDateTime.getLocalDateTime() : executionEndTime.toLocalDateTime();
+        } else if (type.isCompatible(ZonedDateTimeValue.class)) {
+            start = executionStartTime == null ? m_startDateTime.getZonedDateTime() : executionStartTime;
+            end = executionEndTime == null ? m_endDateTime.getZonedDateTime() : executionEndTime;
+        } else {
+            return null;
+        }
+        if (!m_startBool.getBooleanValue()) {
+            return new Comparable<?>[]{null, getSortKey(end)};
+        }
+        if (!m_endBool.getBooleanValue()) {
+            return new Comparable<?>[]{getSortKey(start), null};
+        }
+        final Comparable<?> startKey = getSortKey(start);
+        final Comparable<?> endKey = getSortKey(calculateEndDateTime(start, end));
+        // the window reaches back in time for negative durations
+        return compare(startKey, endKey) <= 0 ? new Comparable<?>[]{startKey, endKey}
+            : new Comparable<?>[]{endKey, startKey};
+    }
+
+    /** @return a comparable representation of the cell or <code>null</code> if it is missing or not temporal */
+    private static Comparable<?> getSortKey(final DataCell cell) {
+        if (cell.isMissing()) {
+            return null;
+        } else if (cell instanceof LocalDateValue) {
+            return ((LocalDateValue)cell).getLocalDate();
+        } else if (cell instanceof LocalTimeValue) {
+            return ((LocalTimeValue)cell).getLocalTime();
+        } else if (cell instanceof LocalDateTimeValue) {
+            return ((LocalDateTimeValue)cell).getLocalDateTime();
+        } else if (cell instanceof ZonedDateTimeValue) {
+            return ((ZonedDateTimeValue)cell).getZonedDateTime().toInstant();
+        }
+        return null;
+    }
+
+    /** Zoned date&times are compared by their instant, which is also done by isBefore and isAfter. */
+    private static Comparable<?> getSortKey(final Temporal temporal) {
+        return temporal instanceof ZonedDateTime ? ((ZonedDateTime)temporal).toInstant() : (Comparable<?>)temporal;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(final Comparable first, final Comparable second) {
+        return first.compareTo(second);
     }
 
     /**
@@ -543,25 +694,11 @@ public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final
                 final ZonedDateTime executionEndTime = m_endAlwaysNow.getBooleanValue() ? ZonedDateTime.now() : null;
 
                 // filter rows
-                final DataType colDataType = in.getDataTableSpec().getColumnSpec(colIdx).getType();
                 DataRow row;
                 while ((row = in.poll()) != null) {
                     exec.checkCanceled();
-                    final DataCell cell = row.getCell(colIdx);
-                    if (!cell.isMissing()) {
-                        if (cell instanceof LocalDateValue
-                            && filterRowLocalDate(((LocalDateValue)cell).getLocalDate(), executionStartTime, executionEndTime)) {
-                            out.push(row);
-                        } else if (cell instanceof LocalTimeValue
-                            && filterRowLocalTime(((LocalTimeValue)cell).getLocalTime(), executionStartTime, executionEndTime)) {
-                            out.push(row);
-                        } else if (cell instanceof LocalDateTimeValue && filterRowLocalDateTime(
-                            ((LocalDateTimeValue)cell).getLocalDateTime(), executionStartTime, executionEndTime)) {
-                            out.push(row);
-                        } else if (cell instanceof ZonedDateTimeValue && filterRowZonedDateTime(
-                            ((ZonedDateTimeValue)cell).getZonedDateTime(), executionStartTime, executionEndTime)) {
-                            out.push(row);
-                        }
+                    if (filterCell(row.getCell(colIdx), executionStartTime, executionEndTime)) {
+                        out.push(row);
                     }
                 }
                 in.close();
@@ -606,6 +743,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_periodValueModel.saveSettingsTo(settings);
         m_numericalValueModel.saveSettingsTo(settings);
         m_granularityModel.saveSettingsTo(settings);
+        m_inputSorted.saveSettingsTo(settings);
     }
 
     /**
@@ -626,6 +764,9 @@ protected void validateSettings(final NodeSettingsRO settings) throws InvalidSet
         m_periodValueModel.validateSettings(settings);
         m_numericalValueModel.validateSettings(settings);
         m_granularityModel.validateSettings(settings);
+        if (settings.containsKey(m_inputSorted.getKey())) {
+            m_inputSorted.validateSettings(settings);
+        }
     }
 
     /**
@@ -646,6 +787,12 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
         m_periodValueModel.loadSettingsFrom(settings);
         m_numericalValueModel.loadSettingsFrom(settings);
         m_granularityModel.loadSettingsFrom(settings);
+        // added in 4.5
+        if (settings.containsKey(m_inputSorted.getKey())) {
+            m_inputSorted.loadSettingsFrom(settings);
+        } else {
+            m_inputSorted.setBooleanValue(false);
+        }
     }
 
     /**
@@ -0,0 +1,440 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ */
+package org.knime.time.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.chrono.Chronology;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Parses and formats date&amp;time values with a pattern and locale that are compiled once and then reused for all
+ * values. Patterns that only consist of fixed-width numeric fields ({@code yyyy}, {@code MM}, {@code dd}, {@code HH},
+ * {@code mm}, {@code ss} and fractions of seconds such as {@code SSS}) and literals, e.g.
+ * {@code yyyy-MM-dd'T'HH:mm:ss} or {@code dd.MM.yyyy}, are handled by a fast path that reads and writes the digits
+ * directly. All other patterns and all values the fast path cannot handle (e.g. invalid input) are passed to the
+ * {@link DateTimeFormatter}, so the results and exceptions are the same as the ones of
+ * {@code DateTimeFormatter.ofPattern(pattern, locale).withChronology(Chronology.ofLocale(locale))}.
+ *
+ * <p>
+ * Instances are immutable and can be used concurrently.
+ * </p>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 4.5
+ */
+public final class DateTimeCodec {
+
+    private static final int YEAR = 0;
+
+    private static final int MONTH = 1;
+
+    private static final int DAY = 2;
+
+    private static final int HOUR = 3;
+
+    private static final int MINUTE = 4;
+
+    private static final int SECOND = 5;
+
+    private static final int FRACTION = 6;
+
+    private static final int NR_FIELDS = 7;
+
+    private static final int[] POWERS_OF_TEN =
+        {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000};
+
+    private final DateTimeFormatter m_formatter;
+
+    /** The fast path, <code>null</code> if the pattern is not supported by it. */
+    private final FixedWidthPattern m_fixedWidth;
+
+    private DateTimeCodec(final DateTimeFormatter formatter, final FixedWidthPattern fixedWidth) {
+        m_formatter = formatter;
+        m_fixedWidth = fixedWidth;
+    }
+
+    /**
+     * Compiles the given pattern.
+     *
+     * @param pattern the pattern as accepted by {@link DateTimeFormatter#ofPattern(String, Locale)}
+     * @param locale the locale, its chronology is used for parsing and formatting
+     * @return the codec
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static DateTimeCodec of(final String pattern, final Locale locale) {
+        final Chronology chronology = Chronology.ofLocale(locale);
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, locale).withChronology(chronology);
+        // the digits of the fast path are only correct for the ISO calendar
+        final FixedWidthPattern fixedWidth =
+            IsoChronology.INSTANCE.equals(chronology) ? FixedWidthPattern.compile(pattern) : null;
+        return new DateTimeCodec(formatter, fixedWidth);
+    }
+
+    /**
+     * @return the formatter used for all values not handled by the fast path
+     */
+    public DateTimeFormatter getFormatter() {
+        return m_formatter;
+    }
+
+    /**
+     * @return <code>true</code> if the pattern is handled by the fast path
+     */
+    public boolean hasFastPath() {
+        return m_fixedWidth != null;
+    }
+
+    /**
+     * @param text the text to parse
+     * @return the parsed date
+     * @throws DateTimeParseException if the text cannot be parsed
+     */
+    public LocalDate parseLocalDate(final CharSequence text) {
+        if (m_fixedWidth != null && m_fixedWidth.m_hasDate) {
+            final int[] fields = m_fixedWidth.parse(text);
+            if (fields != null) {
+                return LocalDate.of(fields[YEAR], fields[MONTH], fields[DAY]);
+            }
+        }
+        return LocalDate.parse(text, m_formatter);
+    }
+
+    /**
+     * @param text the text to parse
+     * @return the parsed time
+     * @throws DateTimeParseException if the text cannot be parsed
+     */
+    public LocalTime parseLocalTime(final CharSequence text) {
+        if (m_fixedWidth != null && m_fixedWidth.m_hasTime) {
+            final int[] fields = m_fixedWidth.parse(text);
+            if (fields != null) {
+                return toTime(fields);
+            }
+        }
+        return LocalTime.parse(text, m_formatter);
+    }
+
+    /**
+     * @param text the text to parse
+     * @return the parsed date&amp;time
+     * @throws DateTimeParseException if the text cannot be parsed
+     */
+    public LocalDateTime parseLocalDateTime(final CharSequence text) {
+        if (m_fixedWidth != null && m_fixedWidth.m_hasDate && m_fixedWidth.m_hasTime) {
+            final int[] fields = m_fixedWidth.parse(text);
+            if (fields != null) {
+                return LocalDateTime.of(LocalDate.of(fields[YEAR], fields[MONTH], fields[DAY]), toTime(fields));
+            }
+        }
+        return LocalDateTime.parse(text, m_formatter);
+    }
+
+    /**
+     * Parses a zoned date&amp;time. The fast path does not support time zones, hence this always uses the
+     * formatter.
+     *
+     * @param text the text to parse
+     * @return the parsed zoned date&amp;time
+     * @throws DateTimeParseException if the text cannot be parsed
+     */
+    public ZonedDateTime parseZonedDateTime(final CharSequence text) {
+        return ZonedDateTime.parse(text, m_formatter);
+    }
+
+    /**
+     * Formats the given value.
+     *
+     * @param temporal the value to format
+     * @return the formatted value
+     * @throws java.time.DateTimeException if the value cannot be formatted, e.g. because it lacks a field the
+     *             pattern requires
+     */
+    public String format(final TemporalAccessor temporal) {
+        if (m_fixedWidth != null) {
+            final String formatted = m_fixedWidth.format(temporal);
+            if (formatted != null) {
+                return formatted;
+            }
+        }
+        return m_formatter.format(temporal);
+    }
+
+    private static LocalTime toTime(final int[] fields) {
+        return LocalTime.of(fields[HOUR], fields[MINUTE], fields[SECOND], fields[FRACTION]);
+    }
+
+    /**
+     * A pattern that only consists of fixed-width numeric fields and literals. Each field is contained at most once,
+     * the date fields are either all present or all absent and the time fields form a prefix of hour, minute, second
+     * and fraction that contains at least hour and minute.
+     */
+    private static final class FixedWidthPattern {
+
+        /** The formatted text with the digits of the fields set to zero. */
+        private final char[] m_template;
+
+        /** <code>true</code> for the positions of the template that belong to a field. */
+        private final boolean[] m_isDigit;
+
+        private final int[] m_start;
+
+        private final int[] m_width;
+
+        private final boolean m_hasDate;
+
+        private final boolean m_hasTime;
+
+        private FixedWidthPattern(final char[] template, final boolean[] isDigit, final int[] start,
+            final int[] width) {
+            m_template = template;
+            m_isDigit = isDigit;
+            m_start = start;
+            m_width = width;
+            m_hasDate = start[YEAR] >= 0;
+            m_hasTime = start[HOUR] >= 0;
+        }
+
+        /**
+         * @return the compiled pattern or <code>null</code> if the pattern is not supported
+         */
+        static FixedWidthPattern compile(final String pattern) {
+            final StringBuilder template = new StringBuilder(pattern.length());
+            final int[] start = new int[NR_FIELDS];
+            final int[] width = new int[NR_FIELDS];
+            Arrays.fill(start, -1);
+            int i = 0;
+            while (i < pattern.length()) {
+                final char c = pattern.charAt(i);
+                if (c == '\'') {
+                    // quoted literal, two single quotes represent one single quote
+                    final int end = pattern.indexOf('\'', i + 1);
+                    if (end < 0) {
+                        return null;
+                    }
+                    if (end == i + 1) {
+                        template.append('\'');
+                    } else if (end + 1 < pattern.length() && pattern.charAt(end + 1) == '\'') {
+                        // escaped single quote inside of a quoted literal
+                        return null;
+                    } else {
+                        template.append(pattern, i + 1, end);
+                    }
+                    i = end + 1;
+                } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                    int count = 1;
+                    while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+                        count++;
+                    }
+                    final int field = toField(c, count);
+                    if (field < 0 || start[field] >= 0) {
+                        return null;
+                    }
+                    start[field] = template.length();
+                    width[field] = count;
+                    for (int j = 0; j < count; j++) {
+                        template.append('0');
+                    }
+                    i += count;
+                } else if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+                    // optional sections and reserved characters
+                    return null;
+                } else {
+                    template.append(c);
+                    i++;
+                }
+            }
+            final boolean hasDate = start[YEAR] >= 0;
+            if (hasDate != (start[MONTH] >= 0) || hasDate != (start[DAY] >= 0)) {
+                return null;
+            }
+            final boolean hasTime = start[HOUR] >= 0;
+            if (hasTime != (start[MINUTE] >= 0) || (start[SECOND] >= 0 && !hasTime)
+                || (start[FRACTION] >= 0 && start[SECOND] < 0)) {
+                return null;
+            }
+            if (!hasDate && !hasTime) {
+                return null;
+            }
+            final boolean[] isDigit = new boolean[template.length()];
+            for (int f = 0; f < NR_FIELDS; f++) {
+                if (start[f] >= 0) {
+                    Arrays.fill(isDigit, start[f], start[f] + width[f], true);
+                }
+            }
+            return new FixedWidthPattern(template.toString().toCharArray(), isDigit, start, width);
+        }
+
+        private static int toField(final char letter, final int count) {
+            switch (letter) {
+                case 'y':
+                    return count == 4 ? YEAR : -1;
+                case 'M':
+                    return count == 2 ? MONTH : -1;
+                case 'd':
+                    return count == 2 ? DAY : -1;
+                case 'H':
+                    return count == 2 ? HOUR : -1;
+                case 'm':
+                    return count == 2 ? MINUTE : -1;
+                case 's':
+                    return count == 2 ? SECOND : -1;
+                case 'S':
+                    return count <= 9 ? FRACTION : -1;
+                default:
+                    return -1;
+            }
+        }
+
+        /**
+         * @return the values of the fields (with the fraction in nanoseconds) or <code>null</code> if the text does
+         *         not match the pattern or contains an invalid value
+         */
+        int[] parse(final CharSequence text) {
+            final char[] template = m_template;
+            if (text.length() != template.length) {
+                return null;
+            }
+            for (int i = 0; i < template.length; i++) {
+                final char c = text.charAt(i);
+                if (m_isDigit[i] ? (c < '0' || c > '9') : c != template[i]) {
+                    return null;
+                }
+            }
+            final int[] fields = new int[NR_FIELDS];
+            for (int f = 0; f < NR_FIELDS; f++) {
+                if (m_start[f] >= 0) {
+                    fields[f] = readNumber(text, m_start[f], m_width[f]);
+                }
+            }
+            if (m_start[FRACTION] >= 0) {
+                fields[FRACTION] *= POWERS_OF_TEN[9 - m_width[FRACTION]];
+            }
+            if (m_hasDate && (fields[YEAR] < 1 || fields[MONTH] < 1 || fields[MONTH] > 12 || fields[DAY] < 1
+                || (fields[DAY] > 28 && fields[DAY] > lengthOfMonth(fields[YEAR], fields[MONTH])))) {
+                // the formatter resolves some of these (e.g. the 30th of February), leave it to the formatter
+                return null;
+            }
+            if (m_hasTime && (fields[HOUR] > 23 || fields[MINUTE] > 59 || fields[SECOND] > 59)) {
+                return null;
+            }
+            return fields;
+        }
+
+        /**
+         * @return the formatted value or <code>null</code> if the value is not supported by the fast path
+         */
+        String format(final TemporalAccessor temporal) {
+            final LocalDate date;
+            final LocalTime time;
+            if (temporal instanceof LocalDateTime) {
+                date = ((LocalDateTime)temporal).toLocalDate();
+                time = ((LocalDateTime)temporal).toLocalTime();
+            } else if (temporal instanceof LocalDate) {
+                date = (LocalDate)temporal;
+                time = null;
+            } else if (temporal instanceof LocalTime) {
+                date = null;
+                time = (LocalTime)temporal;
+            } else if (temporal instanceof ZonedDateTime) {
+                date = ((ZonedDateTime)temporal).toLocalDate();
+                time = ((ZonedDateTime)temporal).toLocalTime();
+            } else {
+                return null;
+            }
+            if ((m_hasDate && (date == null || date.getYear() < 1 || date.getYear() > 9999))
+                || (m_hasTime && time == null)) {
+                return null;
+            }
+            final char[] buffer = m_template.clone();
+            if (m_hasDate) {
+                writeNumber(buffer, YEAR, date.getYear());
+                writeNumber(buffer, MONTH, date.getMonthValue());
+                writeNumber(buffer, DAY, date.getDayOfMonth());
+            }
+            if (m_hasTime) {
+                writeNumber(buffer, HOUR, time.getHour());
+                writeNumber(buffer, MINUTE, time.getMinute());
+                writeNumber(buffer, SECOND, time.getSecond());
+                if (m_start[FRACTION] >= 0) {
+                    writeNumber(buffer, FRACTION, time.getNano() / POWERS_OF_TEN[9 - m_width[FRACTION]]);
+                }
+            }
+            return new String(buffer);
+        }
+
+        private void writeNumber(final char[] buffer, final int field, final int value) {
+            if (m_start[field] < 0) {
+                return;
+            }
+            int v = value;
+            for (int i = m_start[field] + m_width[field] - 1; i >= m_start[field]; i--) {
+                buffer[i] = (char)('0' + (v % 10));
+                v /= 10;
+            }
+        }
+
+        private static int readNumber(final CharSequence text, final int start, final int width) {
+            int value = 0;
+            for (int i = start; i < start + width; i++) {
+                value = value * 10 + (text.charAt(i) - '0');
+            }
+            return value;
+        }
+
+        private static int lengthOfMonth(final int year, final int month) {
+            return month == 2 ? (IsoChronology.INSTANCE.isLeapYear(year) ? 29 : 28)
+                : (month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31);
+        }
+    }
+}